@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.utils;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.SimpleString;
+
+/**
+ * A bounded pool of the {@link SimpleString}s decoded from the wire, so the addresses and property names every
+ * message repeats are decoded into the same instance, with its hash code already computed, instead of a new
+ * byte[] and SimpleString per message.
+ * <p>
+ * The bytes are hashed and compared in place in the buffer, a hit doesn't allocate anything. The pool is a direct
+ * mapped table: a string whose slot is taken by another one replaces it, so it never grows and never locks. The
+ * table isn't synchronized either, a thread missing a concurrent update only allocates the string again, and
+ * SimpleString being immutable makes publishing it through a plain array safe.
+ */
+public final class SimpleStringInterner
+{
+   public static final int DEFAULT_CAPACITY = 4096;
+
+   public static final int DEFAULT_MAX_LENGTH = 256;
+
+   private static final SimpleStringInterner instance = new SimpleStringInterner(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+
+   private final SimpleString[] entries;
+
+   private final int mask;
+
+   private final int maxLength;
+
+   public static SimpleStringInterner getInstance()
+   {
+      return instance;
+   }
+
+   /**
+    * @param capacity  the number of slots, rounded up to a power of two
+    * @param maxLength strings with more bytes than this are never pooled
+    */
+   public SimpleStringInterner(final int capacity, final int maxLength)
+   {
+      int size = 1;
+      while (size < capacity)
+      {
+         size <<= 1;
+      }
+
+      entries = new SimpleString[size];
+      mask = size - 1;
+      this.maxLength = maxLength;
+   }
+
+   /**
+    * Same as {@link ActiveMQBuffer#readSimpleString()}, returning the pooled instance when there is one.
+    */
+   public SimpleString readSimpleString(final ActiveMQBuffer buffer)
+   {
+      int len = buffer.readInt();
+
+      if (len > maxLength)
+      {
+         return read(buffer, len);
+      }
+
+      int index = buffer.readerIndex();
+
+      int hash = 0;
+      for (int i = 0; i < len; i++)
+      {
+         // same as SimpleString.hashCode()
+         hash = (hash << 5) - hash + buffer.getByte(index + i);
+      }
+
+      int slot = (hash ^ (hash >>> 16)) & mask;
+
+      SimpleString pooled = entries[slot];
+
+      if (pooled != null && pooled.hashCode() == hash && matches(pooled, buffer, index, len))
+      {
+         buffer.skipBytes(len);
+
+         return pooled;
+      }
+
+      SimpleString string = read(buffer, len);
+
+      // computed once here, cached in the instance for every map it's looked up in
+      string.hashCode();
+
+      entries[slot] = string;
+
+      return string;
+   }
+
+   /**
+    * Same as {@link ActiveMQBuffer#readNullableSimpleString()}, returning the pooled instance when there is one.
+    */
+   public SimpleString readNullableSimpleString(final ActiveMQBuffer buffer)
+   {
+      if (buffer.readByte() == DataConstants.NULL)
+      {
+         return null;
+      }
+
+      return readSimpleString(buffer);
+   }
+
+   public void clear()
+   {
+      for (int i = 0; i < entries.length; i++)
+      {
+         entries[i] = null;
+      }
+   }
+
+   private static SimpleString read(final ActiveMQBuffer buffer, final int len)
+   {
+      byte[] data = new byte[len];
+      buffer.readBytes(data);
+      return new SimpleString(data);
+   }
+
+   private static boolean matches(final SimpleString pooled, final ActiveMQBuffer buffer, final int index, final int len)
+   {
+      byte[] data = pooled.getData();
+
+      if (data.length != len)
+      {
+         return false;
+      }
+
+      for (int i = 0; i < len; i++)
+      {
+         if (data[i] != buffer.getByte(index + i))
+         {
+            return false;
+         }
+      }
+
+      return true;
+   }
+}
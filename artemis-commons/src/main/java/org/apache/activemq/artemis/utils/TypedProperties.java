@@ -468,12 +468,12 @@ public final class TypedProperties
          properties = new HashMap<SimpleString, PropertyValue>(numHeaders);
          size = 0;
 
+         SimpleStringInterner interner = SimpleStringInterner.getInstance();
+
          for (int i = 0; i < numHeaders; i++)
          {
-            int len = buffer.readInt();
-            byte[] data = new byte[len];
-            buffer.readBytes(data);
-            SimpleString key = new SimpleString(data);
+            // the same few property names come with every message
+            SimpleString key = interner.readSimpleString(buffer);
 
             byte type = buffer.readByte();
 
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.utils;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SimpleStringInternerTest extends Assert
+{
+   @Test
+   public void testSameStringIsPooled() throws Exception
+   {
+      SimpleStringInterner interner = new SimpleStringInterner(16, 256);
+
+      SimpleString address = new SimpleString("jms.queue.orders");
+
+      ActiveMQBuffer buffer = ActiveMQBuffers.dynamicBuffer(128);
+      buffer.writeSimpleString(address);
+      buffer.writeSimpleString(address);
+      buffer.writeInt(42);
+
+      SimpleString first = interner.readSimpleString(buffer);
+      SimpleString second = interner.readSimpleString(buffer);
+
+      assertEquals(address, first);
+      assertEquals(address.hashCode(), first.hashCode());
+      assertSame(first, second);
+      assertEquals(42, buffer.readInt());
+   }
+
+   @Test
+   public void testCollidingStringsAreNotConfused() throws Exception
+   {
+      // a single slot, every string collides
+      SimpleStringInterner interner = new SimpleStringInterner(1, 256);
+
+      ActiveMQBuffer buffer = ActiveMQBuffers.dynamicBuffer(128);
+      buffer.writeSimpleString(new SimpleString("_AMQ_DUPL_ID"));
+      buffer.writeSimpleString(new SimpleString("JMSXGroupID"));
+      buffer.writeSimpleString(new SimpleString("_AMQ_DUPL_ID"));
+
+      assertEquals(new SimpleString("_AMQ_DUPL_ID"), interner.readSimpleString(buffer));
+      assertEquals(new SimpleString("JMSXGroupID"), interner.readSimpleString(buffer));
+      assertEquals(new SimpleString("_AMQ_DUPL_ID"), interner.readSimpleString(buffer));
+   }
+
+   @Test
+   public void testLongStringsAreNotPooled() throws Exception
+   {
+      SimpleStringInterner interner = new SimpleStringInterner(16, 4);
+
+      ActiveMQBuffer buffer = ActiveMQBuffers.dynamicBuffer(128);
+      buffer.writeSimpleString(new SimpleString("longer"));
+      buffer.writeSimpleString(new SimpleString("longer"));
+
+      SimpleString first = interner.readSimpleString(buffer);
+      SimpleString second = interner.readSimpleString(buffer);
+
+      assertEquals(first, second);
+      assertNotSame(first, second);
+   }
+
+   @Test
+   public void testNullableString() throws Exception
+   {
+      SimpleStringInterner interner = new SimpleStringInterner(16, 256);
+
+      ActiveMQBuffer buffer = ActiveMQBuffers.dynamicBuffer(128);
+      buffer.writeNullableSimpleString(null);
+      buffer.writeNullableSimpleString(new SimpleString("address"));
+      buffer.writeNullableSimpleString(new SimpleString(""));
+
+      assertNull(interner.readNullableSimpleString(buffer));
+      assertEquals(new SimpleString("address"), interner.readNullableSimpleString(buffer));
+      assertEquals(new SimpleString(""), interner.readNullableSimpleString(buffer));
+      assertEquals(0, buffer.readableBytes());
+   }
+
+   @Test
+   public void testTypedPropertiesKeysArePooled() throws Exception
+   {
+      TypedProperties props = new TypedProperties();
+      props.putSimpleStringProperty(new SimpleString("JMSXGroupID"), new SimpleString("group"));
+
+      ActiveMQBuffer buffer = ActiveMQBuffers.dynamicBuffer(128);
+      props.encode(buffer);
+      props.encode(buffer);
+
+      TypedProperties first = new TypedProperties();
+      first.decode(buffer);
+      TypedProperties second = new TypedProperties();
+      second.decode(buffer);
+
+      SimpleString firstKey = first.getPropertyNames().iterator().next();
+      SimpleString secondKey = second.getPropertyNames().iterator().next();
+
+      assertSame(firstKey, secondKey);
+      assertEquals(new SimpleString("group"), second.getSimpleStringProperty(new SimpleString("JMSXGroupID")));
+   }
+}
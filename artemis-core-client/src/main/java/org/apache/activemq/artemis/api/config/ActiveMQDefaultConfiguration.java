@@ -279,6 +279,12 @@ public final class ActiveMQDefaultConfiguration
    // frequency to sample JVM memory in ms (or -1 to disable memory sampling)
    private static long DEFAULT_MEMORY_MEASURE_INTERVAL = -1;
 
+   // the maximum memory (in bytes) used by messages of all the addresses together (or -1 for no global limit)
+   private static long DEFAULT_GLOBAL_MAX_SIZE = -1;
+
+   // the maximum size (in bytes) a received compressed batch of messages may inflate to
+   private static int DEFAULT_MAX_INFLATED_BATCH_SIZE = 10 * 1024 * 1024;
+
    // the directory to store large messages
    private static String DEFAULT_LARGE_MESSAGES_DIR = "data/largemessages";
 
@@ -312,6 +318,12 @@ public final class ActiveMQDefaultConfiguration
    // Upon reconnection this configures the number of time the same node on the topology will be retried before reseting the server locator and using the initial connectors
    private static int DEFAULT_BRIDGE_CONNECT_SAME_NODE = 10;
 
+   // The number of sessions, each on its own connection, a bridge forwards messages over
+   private static int DEFAULT_BRIDGE_STREAMS = 1;
+
+   // Whether a bridge sends messages in compressed batches
+   private static boolean DEFAULT_BRIDGE_COMPRESS_BATCHES = false;
+
    // The period (in milliseconds) used to check if the cluster connection has failed to receive pings from another server
    private static long DEFAULT_CLUSTER_FAILURE_CHECK_PERIOD = 30000;
 
@@ -790,6 +802,22 @@ public final class ActiveMQDefaultConfiguration
       return DEFAULT_MEMORY_MEASURE_INTERVAL;
    }
 
+   /**
+    * the maximum memory (in bytes) used by messages of all the addresses together (or -1 for no global limit)
+    */
+   public static long getDefaultGlobalMaxSize()
+   {
+      return DEFAULT_GLOBAL_MAX_SIZE;
+   }
+
+   /**
+    * the maximum size (in bytes) a received compressed batch of messages may inflate to
+    */
+   public static int getDefaultMaxInflatedBatchSize()
+   {
+      return DEFAULT_MAX_INFLATED_BATCH_SIZE;
+   }
+
    /**
     * the directory to store large messages
     */
@@ -878,6 +906,22 @@ public final class ActiveMQDefaultConfiguration
       return DEFAULT_BRIDGE_CONNECT_SAME_NODE;
    }
 
+   /**
+    * The number of sessions, each on its own connection, a bridge forwards messages over
+    */
+   public static int getDefaultBridgeStreams()
+   {
+      return DEFAULT_BRIDGE_STREAMS;
+   }
+
+   /**
+    * Whether a bridge sends messages in compressed batches
+    */
+   public static boolean isDefaultBridgeCompressBatches()
+   {
+      return DEFAULT_BRIDGE_COMPRESS_BATCHES;
+   }
+
    /**
     * The period (in milliseconds) used to check if the cluster connection has failed to receive pings from another server
     */
@@ -54,10 +54,16 @@ public final class ActiveMQClient
 
    public static final int DEFAULT_CONSUMER_WINDOW_SIZE = 1024 * 1024;
 
+   public static final boolean DEFAULT_AUTO_TUNE_CONSUMER_WINDOW_SIZE = false;
+
    public static final int DEFAULT_CONSUMER_MAX_RATE = -1;
 
    public static final int DEFAULT_CONFIRMATION_WINDOW_SIZE = -1;
 
+   public static final int DEFAULT_MAX_OUTSTANDING_ASYNC_SENDS = 4096;
+
+   public static final int DEFAULT_CONNECTIONS_PER_FACTORY = 1;
+
    public static final int DEFAULT_PRODUCER_WINDOW_SIZE = 64 * 1024;
 
    public static final int DEFAULT_PRODUCER_MAX_RATE = -1;
@@ -76,6 +82,10 @@ public final class ActiveMQClient
 
    public static final int DEFAULT_ACK_BATCH_SIZE = 1024 * 1024;
 
+   public static final int DEFAULT_CONNECTION_POOL_SIZE = 0;
+
+   public static final long DEFAULT_CONNECTION_POOL_IDLE_TIMEOUT = 60000;
+
    public static final boolean DEFAULT_PRE_ACKNOWLEDGE = false;
 
    public static final long DEFAULT_DISCOVERY_INITIAL_WAIT_TIMEOUT = 10000;
@@ -80,6 +80,18 @@ public interface ClientConsumer extends AutoCloseable
     */
    ClientMessage receiveImmediate() throws ActiveMQException;
 
+   /**
+    * Receives a message from a queue without blocking.
+    * <p>
+    * The returned future is completed with the next message delivered to this consumer, futures are
+    * completed in the order they were requested. Pending futures fail when the consumer is closed.
+    * <p>
+    * Like {@code receive()}, this can not be used while a MessageHandler is set.
+    * @return a future completed with the next message
+    * @throws ActiveMQException if the consumer is closed or has a MessageHandler
+    */
+   ClientFuture<ClientMessage> receiveAsync() throws ActiveMQException;
+
    /**
     * Returns the MessageHandler associated to this consumer.
     * <p>
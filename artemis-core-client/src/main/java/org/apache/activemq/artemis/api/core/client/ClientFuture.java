@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.api.core.client;
+
+import java.util.concurrent.Future;
+
+/**
+ * The result of an asynchronous operation of the core client, such as
+ * {@link ClientProducer#sendAsync(org.apache.activemq.artemis.api.core.Message)},
+ * {@link ClientSession#commitAsync()}, {@link ClientMessage#acknowledgeAsync()} or
+ * {@link ClientConsumer#receiveAsync()}.
+ * <p>
+ * The calling thread is never blocked by these operations: the future is completed by an executor
+ * of the session, never by the thread reading from the connection, and that executor also calls
+ * the listeners. The futures of a session are completed in order, so listeners should not block.
+ * Calling {@link #get()} blocks like the equivalent synchronous call would.
+ * <p>
+ * The futures can not be cancelled, {@link #cancel(boolean)} always returns {@code false}.
+ */
+public interface ClientFuture<T> extends Future<T>
+{
+   /**
+    * Adds a listener to be called once this future is completed.
+    * <p>
+    * If the future is already completed the listener is called immediately by the calling thread.
+    *
+    * @param listener the listener to call
+    * @return this future
+    */
+   ClientFuture<T> addListener(ClientFutureListener<? super T> listener);
+}
@@ -65,6 +65,16 @@ public interface ClientMessage extends Message
     */
    ClientMessage individualAcknowledge() throws ActiveMQException;
 
+   /**
+    * Acknowledges reception of this message without blocking.
+    * <p>
+    * Any acknowledgement still batched by the consumer is sent along with this one.
+    * @return a future completed once the server processed the acknowledgement
+    * @throws ActiveMQException if an error occurred while sending the acknowledgement.
+    * @see #acknowledge()
+    */
+   ClientFuture<Void> acknowledgeAsync() throws ActiveMQException;
+
    /**
     * This can be optionally used to verify if the entire message has been received.
     * It won't have any effect on regular messages but it may be helpful on large messages.
@@ -16,6 +16,8 @@
  */
 package org.apache.activemq.artemis.api.core.client;
 
+import java.util.Collection;
+
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
@@ -114,6 +116,45 @@ public interface ClientProducer extends AutoCloseable
     */
    void send(String address, Message message) throws ActiveMQException;
 
+   /**
+    * Sends several messages to this ClientProducer's address, batching them into as few packets
+    * as possible.
+    * <p>
+    * When the session auto-commits sends, the server routes each batch in a single transaction and
+    * answers it once. A duplicate in the batch is dropped alone, as if it had been sent on its own,
+    * the rest of the batch is still sent. Large messages are sent on their own, in order with the
+    * rest of the collection.
+    * <p>
+    * This will block until the server confirmed the batch if {@link ServerLocator#setBlockOnDurableSend(boolean)}
+    * or {@link ServerLocator#setBlockOnNonDurableSend(boolean)} are set to true for any message of the batch.
+    * @param messages the messages to send
+    * @throws ActiveMQException if an exception occurs while sending the messages
+    */
+   void send(Collection<? extends Message> messages) throws ActiveMQException;
+
+   /**
+    * Sends a message without blocking, whatever the blocking settings of the session.
+    * <p>
+    * The future is completed once the server confirmed the message, so one thread can keep many
+    * durable sends in flight. Confirmations require {@link ServerLocator#setConfirmationWindowSize(int)}
+    * to be set, otherwise the future is completed as soon as the message was sent.
+    * @param message the message to send
+    * @return a future completed with the message once it was confirmed by the server
+    * @throws ActiveMQException if an exception occurs while sending the message
+    */
+   ClientFuture<Message> sendAsync(Message message) throws ActiveMQException;
+
+   /**
+    * Sends a message to the specified address instead of the ClientProducer's address, without
+    * blocking.
+    * @param address the address where the message will be sent
+    * @param message the message to send
+    * @return a future completed with the message once it was confirmed by the server
+    * @throws ActiveMQException if an exception occurs while sending the message
+    * @see #sendAsync(Message)
+    */
+   ClientFuture<Message> sendAsync(SimpleString address, Message message) throws ActiveMQException;
+
    /**
     * Closes the ClientProducer. If already closed nothing is done.
     *
@@ -501,6 +501,21 @@ public interface ClientSession extends XAResource, AutoCloseable
     */
    ClientConsumer createConsumer(String queueName, String filter, int windowSize, int maxRate, boolean browseOnly) throws ActiveMQException;
 
+   /**
+    * Creates a ClientConsumer without waiting for the server to create it.
+    * <p>
+    * Requests are pipelined with everything else sent by this session, so creating many consumers
+    * costs about one round trip instead of one round trip each.
+    *
+    * @param queueName  name of the queue to consume messages from
+    * @param filter     only messages which match this filter will be consumed
+    * @param browseOnly whether the ClientConsumer will only browse the queue or consume messages.
+    * @return a future completed with the ClientConsumer once the server created it, or failed if it
+    * could not, e.g. because the queue does not exist
+    * @throws ActiveMQException if an exception occurs while sending the request
+    */
+   ClientFuture<ClientConsumer> createConsumerAsync(SimpleString queueName, SimpleString filter, boolean browseOnly) throws ActiveMQException;
+
    // Producer Operations -------------------------------------------
 
    /**
@@ -614,6 +629,17 @@ public interface ClientSession extends XAResource, AutoCloseable
     */
    void commit() throws ActiveMQException;
 
+   /**
+    * Commits the current transaction without blocking.
+    * <p>
+    * The future fails if the server could not commit, or if the session failed over before the
+    * commit was answered, in which case the transaction should be considered rolled back.
+    *
+    * @return a future completed once the server committed the transaction
+    * @throws ActiveMQException if an exception occurs while sending the commit
+    */
+   ClientFuture<Void> commitAsync() throws ActiveMQException;
+
    /**
     * Rolls back the current transaction.
     *
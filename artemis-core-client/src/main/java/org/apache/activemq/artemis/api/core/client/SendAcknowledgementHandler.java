@@ -30,8 +30,11 @@ import org.apache.activemq.artemis.api.core.Message;
  * The rate of notification can be controlled through
  * {@link ServerLocator#setConfirmationWindowSize(int)}.
  * <p>
- * Notice that this notification will only take place if {@code ConfirmationWindowSize} is set to a
- * positive value at {@link ServerLocator#setConfirmationWindowSize(int)}.
+ * Notice that the handler set on the session will only be notified if {@code ConfirmationWindowSize} is set
+ * to a positive value at {@link ServerLocator#setConfirmationWindowSize(int)}. A handler passed to
+ * {@link ClientProducer#send(Message, SendAcknowledgementHandler)} is always notified: without a
+ * confirmation window the message asks the server for its own response, and the number of messages
+ * waiting for it on a session is bounded by {@link ServerLocator#setMaxOutstandingAsyncSends(int)}.
  */
 public interface SendAcknowledgementHandler
 {
@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.api.core.client;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.Message;
+
+/**
+ * A SendCompletionHandler is also notified when a message sent asynchronously could not be handled by the server.
+ * <p>
+ * This is only possible when the confirmation window is disabled, each message sent with a handler then gets its own
+ * response from the server. With a confirmation window, only {@link #sendAcknowledged(Message)} is ever called.
+ */
+public interface SendCompletionHandler extends SendAcknowledgementHandler
+{
+   /**
+    * Notifies the client that a message sent asynchronously failed on the server, or that its response
+    * will never arrive because the connection failed.
+    *
+    * @param message message sent asynchronously
+    * @param cause   the failure
+    */
+   void sendFailed(Message message, ActiveMQException cause);
+}
@@ -248,6 +248,27 @@ public interface ServerLocator extends AutoCloseable
     */
    ServerLocator setConsumerWindowSize(int consumerWindowSize);
 
+   /**
+    * Returns whether the consumers created through this factory adjust their window size to how fast they consume.
+    * <p>
+    * Default value is {@link ActiveMQClient#DEFAULT_AUTO_TUNE_CONSUMER_WINDOW_SIZE}.
+    *
+    * @return {@code true} if the consumer window size is tuned automatically, {@code false} else
+    */
+   boolean isAutoTuneConsumerWindowSize();
+
+   /**
+    * Sets whether the consumers created through this factory adjust their window size to how fast they consume.
+    * <p>
+    * The consumer window size is then the initial window, it grows while a consumer runs out of buffered messages
+    * and shrinks while a consumer keeps more buffered than it can process. Consumers with a window size of -1, 0 or 1
+    * are never tuned.
+    *
+    * @param autoTuneConsumerWindowSize {@code true} to tune the consumer window size automatically
+    * @return this ServerLocator
+    */
+   ServerLocator setAutoTuneConsumerWindowSize(boolean autoTuneConsumerWindowSize);
+
    /**
     * Returns the maximum rate of message consumption for consumers created through this factory.
     * <p>
@@ -290,6 +311,50 @@ public interface ServerLocator extends AutoCloseable
     */
    ServerLocator setConfirmationWindowSize(int confirmationWindowSize);
 
+   /**
+    * Returns the maximum number of messages sent with a {@link SendAcknowledgementHandler} that a session
+    * lets wait for their response when the confirmation window is disabled.
+    * <p>
+    * Default value is {@link ActiveMQClient#DEFAULT_MAX_OUTSTANDING_ASYNC_SENDS}.
+    *
+    * @return the maximum number of outstanding asynchronous sends per session
+    */
+   int getMaxOutstandingAsyncSends();
+
+   /**
+    * Sets the maximum number of messages sent with a {@link SendAcknowledgementHandler} that a session
+    * lets wait for their response when the confirmation window is disabled. Further sends block until
+    * responses arrive.
+    * <p>
+    * Value must be -1 (for no limit) or greater than 0.
+    *
+    * @param maxOutstandingAsyncSends maximum number of outstanding asynchronous sends per session
+    * @return this ServerLocator
+    */
+   ServerLocator setMaxOutstandingAsyncSends(int maxOutstandingAsyncSends);
+
+   /**
+    * Returns the number of physical connections a session factory created by {@link #createSessionFactory()}
+    * opens to its server.
+    * <p>
+    * Default value is {@link ActiveMQClient#DEFAULT_CONNECTIONS_PER_FACTORY}.
+    *
+    * @return the number of connections per session factory
+    */
+   int getConnectionsPerFactory();
+
+   /**
+    * Sets the number of physical connections a session factory created by {@link #createSessionFactory()}
+    * opens to its server. Sessions are spread over the connections, each session staying on one connection
+    * and failing over with it.
+    * <p>
+    * Value must be greater than 0.
+    *
+    * @param connectionsPerFactory the number of connections per session factory
+    * @return this ServerLocator
+    */
+   ServerLocator setConnectionsPerFactory(int connectionsPerFactory);
+
    /**
     * Returns the window size for flow control of the producers created through this factory.
     * <p>
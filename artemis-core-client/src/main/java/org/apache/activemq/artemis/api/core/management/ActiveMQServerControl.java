@@ -192,6 +192,16 @@ public interface ActiveMQServerControl
     */
    void setMessageCounterSamplePeriod(long newPeriod) throws Exception;
 
+   /**
+    * Returns the maximum memory (in bytes) used by messages of all the addresses together, or -1 if there's no global limit.
+    */
+   long getGlobalMaxSize();
+
+   /**
+    * Returns the memory (in bytes) currently used by messages of all the addresses together.
+    */
+   long getAddressMemoryUsage();
+
    /**
     * Returns {@code true} if this server is a backup, {@code false} if it is a live server.
     * <br>
@@ -501,6 +511,12 @@ public interface ActiveMQServerControl
 
    String listProducersInfoAsJSON() throws Exception;
 
+   /**
+    * Lists the memory used by each address and its share of the memory used by all the addresses, biggest first.
+    */
+   @Operation(desc = "List the memory used by each address and its share of the global memory usage, using JSON serialization", impact = MBeanOperationInfo.INFO)
+   String listAddressMemoryUsageAsJSON() throws Exception;
+
    /**
     * Lists all the sessions IDs for the specified connection ID.
     */
@@ -72,6 +72,11 @@ public interface AddressControl
     */
    long getNumberOfBytesPerPage() throws Exception;
 
+   /**
+    * Returns the accumulated time (in milliseconds) producers spent waiting to page messages for this address.
+    */
+   long getProducerStallTime() throws Exception;
+
    /**
     * Returns the names of all bindings (both queues and diverts) bound to this address
     */
@@ -81,4 +81,49 @@ public interface BridgeControl extends ActiveMQComponentControl
     * Returns whether this bridge is using high availability
     */
    boolean isHA();
+
+   /**
+    * Returns the number of sessions, each on its own connection, this bridge forwards messages over.
+    */
+   int getStreams();
+
+   /**
+    * Returns the number of messages forwarded by this bridge, over all its sessions, since it was created.
+    */
+   long getMessagesForwarded();
+
+   /**
+    * Returns the number of forwarded messages acknowledged by the target, over all the sessions of this bridge,
+    * since it was created.
+    */
+   long getMessagesAcknowledged();
+
+   /**
+    * Returns the number of messages per second forwarded and acknowledged by the target, over all the sessions of
+    * this bridge, since the last call.
+    */
+   float getForwardRate();
+
+   /**
+    * Returns whether this bridge sends messages in batches whose content is compressed.
+    */
+   boolean isCompressBatches();
+
+   /**
+    * Returns the number of bytes the regular (non large) messages forwarded by this bridge were sent as, over all
+    * its sessions, since it was created.
+    */
+   long getBytesForwarded();
+
+   /**
+    * Returns the size of the regular messages forwarded by this bridge divided by the number of bytes they were sent
+    * as, or 0 if no message was forwarded yet.
+    */
+   float getCompressionRatio();
+
+   /**
+    * Returns the number of bytes per second the regular messages forwarded by this bridge were sent as, over all its
+    * sessions, since the last call.
+    */
+   float getForwardByteRate();
 }
@@ -62,6 +62,10 @@ public final class ManagementHelper
 
    public static final SimpleString HDR_CONSUMER_COUNT = new SimpleString("_AMQ_ConsumerCount");
 
+   public static final SimpleString HDR_MESSAGE_COUNT = new SimpleString("_AMQ_MessageCount");
+
+   public static final SimpleString HDR_ACKNOWLEDGE_RATE = new SimpleString("_AMQ_AcknowledgeRate");
+
    public static final SimpleString HDR_USER = new SimpleString("_AMQ_User");
 
    public static final SimpleString HDR_CHECK_TYPE = new SimpleString("_AMQ_CheckType");
@@ -87,6 +87,22 @@ public interface QueueControl
     */
    long getMessagesAcknowledged();
 
+   /**
+    * Returns the number of messages moved from this queue to other nodes of the cluster since it was created.
+    */
+   long getMessagesRedistributed();
+
+   /**
+    * Returns the number of messages per second moved from this queue to other nodes of the cluster since the last
+    * call.
+    */
+   float getRedistributionRate();
+
+   /**
+    * Returns the number of messages waiting to be moved from this queue to other nodes of the cluster.
+    */
+   long getRedistributionBacklog();
+
    /**
     * Returns the first message on the queue as JSON
     */
@@ -229,4 +229,7 @@ public interface ActiveMQClientMessageBundle
 
    @Message(id = 119060, value = "Large Message Transmission interrupted on consumer shutdown.")
    ActiveMQLargeMessageInterruptedException largeMessageInterrupted();
+
+   @Message(id = 119061, value = "Timed out after waiting {0} ms for outstanding asynchronous sends to complete", format = Message.Format.MESSAGE_FORMAT)
+   ActiveMQConnectionTimedOutException timedOutWaitingForAsyncSends(long timeout);
 }
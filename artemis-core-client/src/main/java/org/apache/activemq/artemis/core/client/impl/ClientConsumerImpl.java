@@ -19,16 +19,19 @@ package org.apache.activemq.artemis.core.client.impl;
 import java.io.File;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
-import java.util.Iterator;
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
 import org.apache.activemq.artemis.api.core.client.ClientMessage;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
@@ -39,9 +42,8 @@ import org.apache.activemq.artemis.core.client.ActiveMQClientMessageBundle;
 import org.apache.activemq.artemis.spi.core.remoting.ConsumerContext;
 import org.apache.activemq.artemis.spi.core.remoting.SessionContext;
 import org.apache.activemq.artemis.utils.FutureLatch;
-import org.apache.activemq.artemis.utils.PriorityLinkedList;
-import org.apache.activemq.artemis.utils.PriorityLinkedListImpl;
 import org.apache.activemq.artemis.utils.ReusableLatch;
+import org.apache.activemq.artemis.utils.SpscPriorityBuffer;
 import org.apache.activemq.artemis.utils.TokenBucketLimiter;
 
 public final class ClientConsumerImpl implements ClientConsumerInternal
@@ -55,6 +57,9 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
 
    private static final int NUM_PRIORITIES = 10;
 
+   // Largest span of message IDs sent in a single individual ack range (8 KiB of bits)
+   private static final int MAX_INDIVIDUAL_ACK_RANGE = 64 * 1024;
+
    public static final SimpleString FORCED_DELIVERY_MESSAGE = new SimpleString("_hornetq.forced.delivery.seq");
 
    // Attributes
@@ -86,12 +91,20 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
 
    private final int clientWindowSize;
 
+   // null unless the window is tuned, the window is then the credits the server may use and half of it is sent back
+   // at once, like twice the clientWindowSize otherwise
+   private final ConsumerWindowController windowController;
+
    private final int ackBatchSize;
 
-   private final PriorityLinkedList<ClientMessageInternal> buffer = new PriorityLinkedListImpl<ClientMessageInternal>(ClientConsumerImpl.NUM_PRIORITIES);
+   // Filled by handleMessage (serialized on this) and drained by receive() or the handler without any lock
+   private final SpscPriorityBuffer<ClientMessageInternal> buffer = new SpscPriorityBuffer<ClientMessageInternal>(ClientConsumerImpl.NUM_PRIORITIES);
 
    private final Runner runner = new Runner();
 
+   // receiveAsync() calls waiting for a message, completed in order by the runner
+   private final java.util.Queue<ClientFutureImpl<ClientMessage>> pendingReceives = new ConcurrentLinkedQueue<ClientFutureImpl<ClientMessage>>();
+
    private LargeMessageControllerImpl currentLargeMessageController;
 
    // When receiving LargeMessages, the user may choose to not read the body, on this case we need to discard the body
@@ -112,6 +125,8 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
 
    private volatile int creditsToSend;
 
+   private volatile int messagesToCredit;
+
    private volatile boolean failedOver;
 
    private volatile Exception lastException;
@@ -120,7 +135,14 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
 
    private volatile ClientMessageInternal lastAckedMessage;
 
-   private boolean stopped = false;
+   // Individual acks not sent yet, bit n standing for the message firstPendingAckID + n
+   private final BitSet pendingIndividualAcks = new BitSet();
+
+   private long firstPendingAckID;
+
+   private int pendingIndividualAckBytes;
+
+   private volatile boolean stopped = false;
 
    private long forceDeliveryCount;
 
@@ -139,6 +161,7 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
                              final SimpleString filterString,
                              final boolean browseOnly,
                              final int clientWindowSize,
+                             final boolean autoTuneWindowSize,
                              final int ackBatchSize,
                              final TokenBucketLimiter rateLimiter,
                              final Executor executor,
@@ -165,6 +188,9 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
 
       this.clientWindowSize = clientWindowSize;
 
+      // the server was given twice the client window size on creation
+      this.windowController = autoTuneWindowSize && clientWindowSize > 1 ? new ConsumerWindowController(clientWindowSize * 2) : null;
+
       this.ackBatchSize = ackBatchSize;
 
       this.queueInfo = queueInfo;
@@ -225,50 +251,46 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
          {
             ClientMessageInternal m = null;
 
-            synchronized (this)
+            // receiverThread is set before polling, so a message added after the poll will always unpark us
+            while ((stopped || (m = buffer.poll()) == null) && !closed && toWait > 0)
             {
-               while ((stopped || (m = buffer.poll()) == null) && !closed && toWait > 0)
+               if (start == -1)
                {
-                  if (start == -1)
-                  {
-                     start = System.currentTimeMillis();
-                  }
-
-                  if (m == null && forcingDelivery)
-                  {
-                     if (stopped)
-                     {
-                        break;
-                     }
-
-                     // we only force delivery once per call to receive
-                     if (!deliveryForced)
-                     {
-                        callForceDelivery = true;
-                        break;
-                     }
-                  }
+                  start = System.currentTimeMillis();
+               }
 
-                  try
-                  {
-                     wait(toWait);
-                  }
-                  catch (InterruptedException e)
+               if (m == null && forcingDelivery)
+               {
+                  if (stopped)
                   {
-                     throw new ActiveMQInterruptedException(e);
+                     break;
                   }
 
-                  if (m != null || closed)
+                  // we only force delivery once per call to receive
+                  if (!deliveryForced)
                   {
+                     callForceDelivery = true;
                      break;
                   }
+               }
 
-                  long now = System.currentTimeMillis();
+               LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(toWait));
 
-                  toWait -= now - start;
+               if (Thread.interrupted())
+               {
+                  throw new ActiveMQInterruptedException(new InterruptedException());
+               }
 
-                  start = now;
+               if (closed)
+               {
+                  break;
                }
+
+               long now = System.currentTimeMillis();
+
+               toWait -= now - start;
+
+               start = now;
             }
 
             if (failedOver)
@@ -409,6 +431,38 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       return receive(0, true);
    }
 
+   public ClientFuture<ClientMessage> receiveAsync() throws ActiveMQException
+   {
+      checkClosed();
+
+      if (handler != null)
+      {
+         throw ActiveMQClientMessageBundle.BUNDLE.messageHandlerSet();
+      }
+
+      if (clientWindowSize == 0)
+      {
+         startSlowConsumer();
+      }
+
+      ClientFutureImpl<ClientMessage> future = new ClientFutureImpl<ClientMessage>();
+
+      pendingReceives.add(future);
+
+      if (closing || closed)
+      {
+         // we may have missed the cleanup
+         failPendingReceives();
+      }
+      else if (!stopped)
+      {
+         // the runner will complete it with a buffered message, or wait for the next one to arrive
+         queueExecutor();
+      }
+
+      return future;
+   }
+
    public MessageHandler getMessageHandler() throws ActiveMQException
    {
       checkClosed();
@@ -422,7 +476,7 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
    {
       checkClosed();
 
-      if (receiverThread != null)
+      if (receiverThread != null || !pendingReceives.isEmpty())
       {
          throw ActiveMQClientMessageBundle.BUNDLE.inReceive();
       }
@@ -529,8 +583,23 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
 
       lastAckedMessage = null;
 
+      synchronized (pendingIndividualAcks)
+      {
+         pendingIndividualAcks.clear();
+
+         pendingIndividualAckBytes = 0;
+      }
+
       creditsToSend = 0;
 
+      messagesToCredit = 0;
+
+      if (windowController != null)
+      {
+         // the consumer is recreated on the server with the client window size
+         windowController.reset(clientWindowSize);
+      }
+
       failedOver = true;
 
       ackIndividually = false;
@@ -541,6 +610,13 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       stopped = false;
 
       requeueExecutors();
+
+      Thread receiver = receiverThread;
+      if (receiver != null)
+      {
+         // a receive() may be parked while messages were kept in the buffer
+         LockSupport.unpark(receiver);
+      }
    }
 
    public Exception getLastException()
@@ -619,7 +695,16 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       }
       else
       {
-         notify();
+         if (!stopped && !pendingReceives.isEmpty())
+         {
+            queueExecutor();
+         }
+
+         Thread receiver = receiverThread;
+         if (receiver != null)
+         {
+            LockSupport.unpark(receiver);
+         }
       }
    }
 
@@ -729,14 +814,12 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       {
          // Need to send credits for the messages in the buffer
 
-         Iterator<ClientMessageInternal> iter = buffer.iterator();
+         ClientMessageInternal message;
 
-         while (iter.hasNext())
+         while ((message = buffer.poll()) != null)
          {
             try
             {
-               ClientMessageInternal message = iter.next();
-
                if (message.isLargeMessage())
                {
                   ClientLargeMessageInternal largeMessage = (ClientLargeMessageInternal) message;
@@ -785,6 +868,16 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       return clientWindowSize;
    }
 
+   public int getEffectiveWindowSize()
+   {
+      if (windowController != null)
+      {
+         return windowController.getWindowSize();
+      }
+
+      return clientWindowSize > 1 ? clientWindowSize * 2 : clientWindowSize;
+   }
+
    public int getBufferSize()
    {
       return buffer.size();
@@ -813,6 +906,25 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       }
    }
 
+   public ClientFuture<Void> acknowledgeAsync(final ClientMessage message) throws ActiveMQException
+   {
+      if (ackIndividually)
+      {
+         flushAcks();
+
+         return session.acknowledgeAsync(this, message, true);
+      }
+
+      flushIndividualAcks();
+
+      // acknowledging up to this message also covers the ones still batched
+      ackBytes = 0;
+
+      lastAckedMessage = null;
+
+      return session.acknowledgeAsync(this, message, false);
+   }
+
    public void individualAcknowledge(ClientMessage message) throws ActiveMQException
    {
       if (lastAckedMessage != null)
@@ -820,11 +932,21 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
          flushAcks();
       }
 
-      session.individualAcknowledge(this, message);
+      // a blocking acknowledge has to reach the server before it returns, so it's never batched
+      if (ackBatchSize > 0 && !session.isBlockOnAcknowledge() && sessionContext.supportsIndividualACKRanges())
+      {
+         addIndividualAck(message);
+      }
+      else
+      {
+         session.individualAcknowledge(this, message);
+      }
    }
 
    public void flushAcks() throws ActiveMQException
    {
+      flushIndividualAcks();
+
       if (lastAckedMessage != null)
       {
          doAck(lastAckedMessage);
@@ -843,7 +965,7 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       {
          creditsToSend += messageBytes;
 
-         if (creditsToSend >= clientWindowSize)
+         if (creditsToSend >= (windowController == null ? clientWindowSize : windowController.getWindowSize() / 2))
          {
             if (clientWindowSize == 0 && discountSlowConsumer)
             {
@@ -870,9 +992,10 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
                   ActiveMQClientLogger.LOGGER.debug("Sending " + messageBytes + " from flow-control");
                }
 
-               final int credits = creditsToSend;
+               final int credits = windowController == null ? creditsToSend : tuneWindow(creditsToSend);
 
-               creditsToSend = 0;
+               // a shrinking window may take back more than was consumed, the rest is kept from the next credits
+               creditsToSend = Math.min(credits, 0);
 
                if (credits > 0)
                {
@@ -895,6 +1018,27 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
    // Private
    // ---------------------------------------------------------------------------------------
 
+   /**
+    * @return the credits to send back for the consumed bytes, adjusted by how much the window changed
+    */
+   private int tuneWindow(final int consumedBytes)
+   {
+      int previous = windowController.getWindowSize();
+
+      int consumedMessages = messagesToCredit;
+
+      messagesToCredit = 0;
+
+      int window = windowController.update(consumedBytes, consumedMessages, buffer.size(), System.nanoTime());
+
+      if (isTrace && window != previous)
+      {
+         ActiveMQClientLogger.LOGGER.trace("Consumer window tuned from " + previous + " to " + window);
+      }
+
+      return consumedBytes + window - previous;
+   }
+
    /**
     * Sending a initial credit for slow consumers
     */
@@ -948,7 +1092,10 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
 
    private void requeueExecutors()
    {
-      for (int i = 0; i < buffer.size(); i++)
+      // the buffer may be drained concurrently by runners already queued, so take the size only once
+      int size = buffer.size();
+
+      for (int i = 0; i < size; i++)
       {
          queueExecutor();
       }
@@ -1038,7 +1185,11 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       // otherwise while this is executing and give NPE when calling onMessage
       MessageHandler theHandler = handler;
 
-      if (theHandler != null)
+      if (theHandler == null)
+      {
+         completeReceive();
+      }
+      else
       {
          if (rateLimiter != null)
          {
@@ -1047,10 +1198,7 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
 
          failedOver = false;
 
-         synchronized (this)
-         {
-            message = buffer.poll();
-         }
+         message = buffer.poll();
 
          if (message != null)
          {
@@ -1133,12 +1281,79 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       }
    }
 
+   private void completeReceive() throws ActiveMQException
+   {
+      while (!pendingReceives.isEmpty())
+      {
+         ClientMessageInternal message = buffer.poll();
+
+         if (message == null)
+         {
+            // the next message to arrive will queue another runner
+            return;
+         }
+
+         if (message.containsProperty(ClientConsumerImpl.FORCED_DELIVERY_MESSAGE))
+         {
+            //Ignore, this could be a relic from a previous receiveImmediate();
+            continue;
+         }
+
+         boolean expired = message.isExpired();
+
+         flowControlBeforeConsumption(message);
+
+         if (expired)
+         {
+            message.discardBody();
+
+            session.expire(this, message);
+
+            if (clientWindowSize == 0)
+            {
+               startSlowConsumer();
+            }
+
+            continue;
+         }
+
+         ClientFutureImpl<ClientMessage> future = pendingReceives.poll();
+
+         if (future != null)
+         {
+            future.complete(message);
+         }
+
+         return;
+      }
+   }
+
+   private void failPendingReceives()
+   {
+      ClientFutureImpl<ClientMessage> future;
+
+      while ((future = pendingReceives.poll()) != null)
+      {
+         future.fail(ActiveMQClientMessageBundle.BUNDLE.consumerClosed());
+      }
+   }
+
    /**
     * @param message
     * @throws ActiveMQException
     */
    private void flowControlBeforeConsumption(final ClientMessageInternal message) throws ActiveMQException
    {
+      if (windowController != null)
+      {
+         messagesToCredit++;
+
+         if (buffer.size() == 0)
+         {
+            windowController.consumerStarved();
+         }
+      }
+
       // Chunk messages will execute the flow control while receiving the chunks
       if (message.getFlowControlSize() != 0)
       {
@@ -1170,10 +1385,11 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
 
          synchronized (this)
          {
-            if (receiverThread != null)
+            Thread receiver = receiverThread;
+            if (receiver != null)
             {
                // Wake up any receive() thread that might be waiting
-               notify();
+               LockSupport.unpark(receiver);
             }
 
             handler = null;
@@ -1181,6 +1397,8 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
             receiverThread = null;
          }
 
+         failPendingReceives();
+
          flushAcks();
 
          clearBuffer();
@@ -1203,8 +1421,62 @@ public final class ClientConsumerImpl implements ClientConsumerInternal
       buffer.clear();
    }
 
+   /**
+    * Individual acks are batched into a range the same way acknowledge batches up to ackBatchSize bytes,
+    * a message outside of the current range sends the range first.
+    */
+   private void addIndividualAck(final ClientMessage message) throws ActiveMQException
+   {
+      long messageID = message.getMessageID();
+
+      synchronized (pendingIndividualAcks)
+      {
+         if (!pendingIndividualAcks.isEmpty() &&
+            (messageID < firstPendingAckID || messageID - firstPendingAckID >= MAX_INDIVIDUAL_ACK_RANGE))
+         {
+            flushIndividualAcks();
+         }
+
+         if (pendingIndividualAcks.isEmpty())
+         {
+            firstPendingAckID = messageID;
+         }
+
+         pendingIndividualAcks.set((int) (messageID - firstPendingAckID));
+
+         pendingIndividualAckBytes += message.getEncodeSize();
+
+         if (pendingIndividualAckBytes >= ackBatchSize)
+         {
+            flushIndividualAcks();
+         }
+      }
+   }
+
+   private void flushIndividualAcks() throws ActiveMQException
+   {
+      synchronized (pendingIndividualAcks)
+      {
+         if (pendingIndividualAcks.isEmpty())
+         {
+            return;
+         }
+
+         BitSet messageIDs = (BitSet) pendingIndividualAcks.clone();
+
+         pendingIndividualAcks.clear();
+
+         pendingIndividualAckBytes = 0;
+
+         session.individualAcknowledge(this, firstPendingAckID, messageIDs);
+      }
+   }
+
    private void doAck(final ClientMessageInternal message) throws ActiveMQException
    {
+      // a cumulative ack also covers the messages still waiting in the individual range
+      flushIndividualAcks();
+
       ackBytes = 0;
 
       lastAckedMessage = null;
@@ -19,6 +19,7 @@ package org.apache.activemq.artemis.core.client.impl;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
 import org.apache.activemq.artemis.api.core.client.ClientMessage;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.utils.FutureLatch;
@@ -53,12 +54,20 @@ public interface ClientConsumerInternal extends ClientConsumer
 
    int getClientWindowSize();
 
+   /**
+    * The credits the server may currently use to deliver messages to this consumer, which changes over time when the
+    * window size is tuned automatically.
+    */
+   int getEffectiveWindowSize();
+
    int getBufferSize();
 
    void cleanUp() throws ActiveMQException;
 
    void acknowledge(ClientMessage message) throws ActiveMQException;
 
+   ClientFuture<Void> acknowledgeAsync(ClientMessage message) throws ActiveMQException;
+
    void individualAcknowledge(ClientMessage message) throws ActiveMQException;
 
    void flushAcks() throws ActiveMQException;
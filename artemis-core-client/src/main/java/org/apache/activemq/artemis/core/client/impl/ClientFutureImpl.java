@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.client.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
+import org.apache.activemq.artemis.api.core.client.ClientFutureListener;
+import org.apache.activemq.artemis.core.client.ActiveMQClientLogger;
+
+public class ClientFutureImpl<T> implements ClientFuture<T>
+{
+   private final CountDownLatch latch = new CountDownLatch(1);
+
+   private List<ClientFutureListener<? super T>> listeners;
+
+   private boolean done;
+
+   private T result;
+
+   private Throwable failure;
+
+   public static <T> ClientFutureImpl<T> completed(final T result)
+   {
+      ClientFutureImpl<T> future = new ClientFutureImpl<T>();
+      future.complete(result);
+      return future;
+   }
+
+   /**
+    * @return false if the future was already completed
+    */
+   public boolean complete(final T result)
+   {
+      List<ClientFutureListener<? super T>> toCall;
+
+      synchronized (this)
+      {
+         if (done)
+         {
+            return false;
+         }
+         done = true;
+         this.result = result;
+         toCall = listeners;
+         listeners = null;
+      }
+
+      latch.countDown();
+
+      if (toCall != null)
+      {
+         for (ClientFutureListener<? super T> listener : toCall)
+         {
+            notifySuccess(listener, result);
+         }
+      }
+
+      return true;
+   }
+
+   /**
+    * @return false if the future was already completed
+    */
+   public boolean fail(final Throwable cause)
+   {
+      List<ClientFutureListener<? super T>> toCall;
+
+      synchronized (this)
+      {
+         if (done)
+         {
+            return false;
+         }
+         done = true;
+         failure = cause;
+         toCall = listeners;
+         listeners = null;
+      }
+
+      latch.countDown();
+
+      if (toCall != null)
+      {
+         for (ClientFutureListener<? super T> listener : toCall)
+         {
+            notifyFailure(listener, cause);
+         }
+      }
+
+      return true;
+   }
+
+   public ClientFuture<T> addListener(final ClientFutureListener<? super T> listener)
+   {
+      synchronized (this)
+      {
+         if (!done)
+         {
+            if (listeners == null)
+            {
+               listeners = new ArrayList<ClientFutureListener<? super T>>(1);
+            }
+            listeners.add(listener);
+            return this;
+         }
+      }
+
+      if (failure != null)
+      {
+         notifyFailure(listener, failure);
+      }
+      else
+      {
+         notifySuccess(listener, result);
+      }
+
+      return this;
+   }
+
+   public boolean cancel(final boolean mayInterruptIfRunning)
+   {
+      return false;
+   }
+
+   public boolean isCancelled()
+   {
+      return false;
+   }
+
+   public synchronized boolean isDone()
+   {
+      return done;
+   }
+
+   public T get() throws InterruptedException, ExecutionException
+   {
+      latch.await();
+      return getResult();
+   }
+
+   public T get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException
+   {
+      if (!latch.await(timeout, unit))
+      {
+         throw new TimeoutException();
+      }
+      return getResult();
+   }
+
+   private synchronized T getResult() throws ExecutionException
+   {
+      if (failure != null)
+      {
+         throw new ExecutionException(failure);
+      }
+      return result;
+   }
+
+   private void notifySuccess(final ClientFutureListener<? super T> listener, final T value)
+   {
+      try
+      {
+         listener.onSuccess(value);
+      }
+      catch (Throwable e)
+      {
+         ActiveMQClientLogger.LOGGER.warn(e.getMessage(), e);
+      }
+   }
+
+   private void notifyFailure(final ClientFutureListener<? super T> listener, final Throwable cause)
+   {
+      try
+      {
+         listener.onFailure(cause);
+      }
+      catch (Throwable e)
+      {
+         ActiveMQClientLogger.LOGGER.warn(e.getMessage(), e);
+      }
+   }
+
+   @Override
+   public String toString()
+   {
+      return "ClientFutureImpl[done=" + isDone() + "]";
+   }
+}
@@ -27,6 +27,7 @@ import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQPropertyConversionException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
 import org.apache.activemq.artemis.core.client.ActiveMQClientMessageBundle;
 import org.apache.activemq.artemis.core.message.BodyEncoder;
 import org.apache.activemq.artemis.core.message.impl.MessageImpl;
@@ -107,6 +108,17 @@ public class ClientMessageImpl extends MessageImpl implements ClientMessageInter
       return this;
    }
 
+   @Override
+   public ClientFuture<Void> acknowledgeAsync() throws ActiveMQException
+   {
+      if (consumer != null)
+      {
+         return consumer.acknowledgeAsync(this);
+      }
+
+      return ClientFutureImpl.completed(null);
+   }
+
    @Override
    public ClientMessageImpl individualAcknowledge() throws ActiveMQException
    {
@@ -19,6 +19,8 @@ package org.apache.activemq.artemis.core.client.impl;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.spi.core.remoting.SessionContext;
@@ -27,7 +29,8 @@ public class ClientProducerCreditManagerImpl implements ClientProducerCreditMana
 {
    public static final int MAX_UNREFERENCED_CREDITS_CACHE_SIZE = 1000;
 
-   private final Map<SimpleString, ClientProducerCredits> producerCredits = new LinkedHashMap<SimpleString, ClientProducerCredits>();
+   // read without locking when credits arrive, changes are made holding the lock on this
+   private final ConcurrentMap<SimpleString, ClientProducerCredits> producerCredits = new ConcurrentHashMap<SimpleString, ClientProducerCredits>();
 
    private final Map<SimpleString, ClientProducerCredits> unReferencedCredits = new LinkedHashMap<SimpleString, ClientProducerCredits>();
 
@@ -101,7 +104,7 @@ public class ClientProducerCreditManagerImpl implements ClientProducerCreditMana
       }
    }
 
-   public synchronized void receiveCredits(final SimpleString address, final int credits)
+   public void receiveCredits(final SimpleString address, final int credits)
    {
       ClientProducerCredits cr = producerCredits.get(address);
 
@@ -111,7 +114,7 @@ public class ClientProducerCreditManagerImpl implements ClientProducerCreditMana
       }
    }
 
-   public synchronized void receiveFailCredits(final SimpleString address, int credits)
+   public void receiveFailCredits(final SimpleString address, int credits)
    {
       ClientProducerCredits cr = producerCredits.get(address);
 
@@ -143,7 +146,7 @@ public class ClientProducerCreditManagerImpl implements ClientProducerCreditMana
       unReferencedCredits.clear();
    }
 
-   public synchronized int creditsMapSize()
+   public int creditsMapSize()
    {
       return producerCredits.size();
    }
@@ -22,30 +22,58 @@ import org.apache.activemq.artemis.core.client.ActiveMQClientLogger;
 import org.apache.activemq.artemis.core.client.ActiveMQClientMessageBundle;
 import org.apache.activemq.artemis.spi.core.remoting.SessionContext;
 
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Producer credits for one address, shared by all the producers of a session sending to it.
+ * <p>
+ * Credits are taken and returned with atomic operations, a producer only synchronizes when it has to wait for
+ * credits from the server. New credits are requested ahead of need: once the credits used since the last request
+ * reach a batch size, which shrinks as the send rate grows so that the credits left cover a round trip to the server.
+ */
 public class ClientProducerCreditsImpl implements ClientProducerCredits
 {
-   private final Semaphore semaphore;
+   private static final long WAIT_LOG_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+   // weight of a new sample on the send rate and round trip averages
+   private static final double SAMPLE_WEIGHT = 0.25;
+
+   // credits available to the producers
+   private final AtomicInteger balance = new AtomicInteger(0);
+
+   // credits requested from the server that didn't arrive yet
+   private final AtomicInteger arriving = new AtomicInteger(0);
+
+   // credits requested from the server that were not used yet, requested again after failover
+   private final AtomicInteger pendingCredits = new AtomicInteger(0);
+
+   private final AtomicInteger refCount = new AtomicInteger(0);
+
+   // number of producers waiting on waitLock for credits
+   private final AtomicInteger waiting = new AtomicInteger(0);
+
+   private final Object waitLock = new Object();
 
    private final int windowSize;
 
    private volatile boolean closed;
 
-   private boolean blocked;
+   private volatile boolean blocked;
 
    private final SimpleString address;
 
    private final ClientSessionInternal session;
 
-   private int pendingCredits;
+   private volatile boolean serverRespondedWithFail;
 
-   private int arriving;
+   private volatile long lastRequestTime;
 
-   private int refCount;
+   // in bytes per second
+   private volatile double sendRate;
 
-   private boolean serverRespondedWithFail;
+   // in nanoseconds
+   private volatile double roundTrip;
 
    private SessionContext sessionContext;
 
@@ -57,17 +85,12 @@ public class ClientProducerCreditsImpl implements ClientProducerCredits
 
       this.address = address;
 
-      this.windowSize = windowSize / 2;
-
-      // Doesn't need to be fair since session is single threaded
-
-      semaphore = new Semaphore(0, false);
+      this.windowSize = windowSize;
    }
 
    public void init(SessionContext sessionContext)
    {
-      // We initial request twice as many credits as we request in subsequent requests
-      // This allows the producer to keep sending as more arrive, minimising pauses
+      // We initially request the whole window, subsequent requests refill what has been used
       checkCredits(windowSize);
 
       this.sessionContext = sessionContext;
@@ -77,57 +100,28 @@ public class ClientProducerCreditsImpl implements ClientProducerCredits
 
    public void acquireCredits(final int credits) throws InterruptedException, ActiveMQException
    {
-      checkCredits(credits);
+      boolean acquired = tryAcquire(credits);
 
+      checkCredits(credits);
 
-      boolean tryAcquire;
-
-      synchronized (this)
-      {
-         tryAcquire = semaphore.tryAcquire(credits);
-      }
-
-      if (!tryAcquire)
+      if (!acquired && !closed)
       {
-         if (!closed)
-         {
-            this.blocked = true;
-            try
-            {
-               while (!semaphore.tryAcquire(credits, 10, TimeUnit.SECONDS))
-               {
-                  // I'm using string concatenation here in case address is null
-                  // better getting a "null" string than a NPE
-                  ActiveMQClientLogger.LOGGER.outOfCreditOnFlowControl("" + address);
-               }
-            }
-            finally
-            {
-               this.blocked = false;
-            }
-         }
+         waitForCredits(credits);
       }
 
-
-      synchronized (this)
-      {
-         pendingCredits -= credits;
-      }
+      pendingCredits.addAndGet(-credits);
 
       // check to see if the blocking mode is FAIL on the server
-      synchronized (this)
+      if (serverRespondedWithFail)
       {
-         if (serverRespondedWithFail)
-         {
-            serverRespondedWithFail = false;
+         serverRespondedWithFail = false;
 
-            // remove existing credits to force the client to ask the server for more on the next send
-            semaphore.drainPermits();
-            pendingCredits = 0;
-            arriving = 0;
+         // remove existing credits to force the client to ask the server for more on the next send
+         balance.set(0);
+         pendingCredits.set(0);
+         arriving.set(0);
 
-            throw ActiveMQClientMessageBundle.BUNDLE.addressIsFull(address.toString(), credits);
-         }
+         throw ActiveMQClientMessageBundle.BUNDLE.addressIsFull(address.toString(), credits);
       }
    }
 
@@ -138,17 +132,24 @@ public class ClientProducerCreditsImpl implements ClientProducerCredits
 
    public int getBalance()
    {
-      return semaphore.availablePermits();
+      return balance.get();
    }
 
    public void receiveCredits(final int credits)
    {
-      synchronized (this)
+      // the balance goes up before arriving goes down, so checkCredits never sees fewer credits than there are
+      release(credits);
+
+      long requestTime = lastRequestTime;
+
+      if (arriving.addAndGet(-credits) <= 0 && requestTime != 0)
       {
-         arriving -= credits;
-      }
+         // nothing else in flight, so this is the answer to the last request
+         double sample = System.nanoTime() - requestTime;
 
-      semaphore.release(credits);
+         // concurrent updates may lose a sample, which is fine for an estimate
+         roundTrip = roundTrip == 0 ? sample : roundTrip + SAMPLE_WEIGHT * (sample - roundTrip);
+      }
    }
 
    public void receiveFailCredits(final int credits)
@@ -158,20 +159,19 @@ public class ClientProducerCreditsImpl implements ClientProducerCredits
       receiveCredits(credits);
    }
 
-   public synchronized void reset()
+   public void reset()
    {
       // Any pendingCredits credits from before failover won't arrive, so we re-initialise
 
-      semaphore.drainPermits();
+      balance.set(0);
 
-      int beforeFailure = pendingCredits;
+      int beforeFailure = pendingCredits.getAndSet(0);
 
-      pendingCredits = 0;
-      arriving = 0;
+      arriving.set(0);
 
       // If we are waiting for more credits than what's configured, then we need to use what we tried before
       // otherwise the client may starve as the credit will never arrive
-      checkCredits(Math.max(windowSize * 2, beforeFailure));
+      checkCredits(Math.max(windowSize, beforeFailure));
    }
 
    public void close()
@@ -179,49 +179,157 @@ public class ClientProducerCreditsImpl implements ClientProducerCredits
       // Closing a producer that is blocking should make it return
       closed = true;
 
-      semaphore.release(Integer.MAX_VALUE / 2);
+      synchronized (waitLock)
+      {
+         waitLock.notifyAll();
+      }
    }
 
-   public synchronized void incrementRefCount()
+   public void incrementRefCount()
    {
-      refCount++;
+      refCount.incrementAndGet();
    }
 
-   public synchronized int decrementRefCount()
+   public int decrementRefCount()
    {
-      return --refCount;
+      return refCount.decrementAndGet();
    }
 
-   public synchronized void releaseOutstanding()
+   public void releaseOutstanding()
    {
-      semaphore.drainPermits();
+      balance.set(0);
    }
 
-   private void checkCredits(final int credits)
+   private boolean tryAcquire(final int credits)
+   {
+      while (true)
+      {
+         int current = balance.get();
+
+         if (current < credits)
+         {
+            return false;
+         }
+
+         if (balance.compareAndSet(current, current - credits))
+         {
+            return true;
+         }
+      }
+   }
+
+   private void release(final int credits)
    {
-      int needed = Math.max(credits, windowSize);
+      balance.addAndGet(credits);
 
-      int toRequest = -1;
+      if (waiting.get() > 0)
+      {
+         synchronized (waitLock)
+         {
+            waitLock.notifyAll();
+         }
+      }
+   }
 
-      synchronized (this)
+   private void waitForCredits(final int credits) throws InterruptedException
+   {
+      blocked = true;
+      try
       {
-         if (semaphore.availablePermits() + arriving < needed)
+         synchronized (waitLock)
          {
-            toRequest = needed - arriving;
+            waiting.incrementAndGet();
+            try
+            {
+               long deadline = System.nanoTime() + WAIT_LOG_INTERVAL;
 
-            pendingCredits += toRequest;
-            arriving += toRequest;
+               while (!closed && !tryAcquire(credits))
+               {
+                  long timeout = deadline - System.nanoTime();
+
+                  if (timeout <= 0)
+                  {
+                     // I'm using string concatenation here in case address is null
+                     // better getting a "null" string than a NPE
+                     ActiveMQClientLogger.LOGGER.outOfCreditOnFlowControl("" + address);
+
+                     deadline = System.nanoTime() + WAIT_LOG_INTERVAL;
+                  }
+                  else
+                  {
+                     TimeUnit.NANOSECONDS.timedWait(waitLock, timeout);
+                  }
+               }
+            }
+            finally
+            {
+               waiting.decrementAndGet();
+            }
          }
       }
+      finally
+      {
+         blocked = false;
+      }
+   }
+
+   private void checkCredits(final int credits)
+   {
+      int window = Math.max(credits, windowSize);
 
-      if (toRequest != -1)
+      while (true)
       {
-         requestCredits(toRequest);
+         int currentArriving = arriving.get();
+
+         int available = balance.get() + currentArriving;
+
+         int toRequest = window - available;
+
+         if (toRequest <= 0 || (toRequest < requestBatch() && available >= credits))
+         {
+            return;
+         }
+
+         if (arriving.compareAndSet(currentArriving, currentArriving + toRequest))
+         {
+            pendingCredits.addAndGet(toRequest);
+
+            long now = System.nanoTime();
+
+            long previousRequest = lastRequestTime;
+
+            lastRequestTime = now;
+
+            if (previousRequest != 0 && now > previousRequest)
+            {
+               // what is requested is what was used since the last request
+               double sample = toRequest * (double) TimeUnit.SECONDS.toNanos(1) / (now - previousRequest);
+
+               sendRate = sendRate == 0 ? sample : sendRate + SAMPLE_WEIGHT * (sample - sendRate);
+            }
+
+            requestCredits(toRequest);
+
+            return;
+         }
       }
    }
 
+   /**
+    * The credits used while a request is in flight are kept in reserve, what is left of the window is requested at
+    * once, between an eighth and half of the window.
+    */
+   private int requestBatch()
+   {
+      double usedPerRoundTrip = sendRate * roundTrip / TimeUnit.SECONDS.toNanos(1);
+
+      double batch = windowSize - 2 * usedPerRoundTrip;
+
+      return (int) Math.max(Math.max(1, windowSize / 8), Math.min(windowSize / 2, batch));
+   }
+
    private void requestCredits(final int credits)
    {
       session.sendProducerCreditsMessage(credits, address);
    }
-}
\ No newline at end of file
+}
@@ -18,6 +18,10 @@ package org.apache.activemq.artemis.core.client.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
@@ -26,7 +30,10 @@ import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
 import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
+import org.apache.activemq.artemis.api.core.client.SendCompletionHandler;
+import org.apache.activemq.artemis.core.client.ActiveMQClientLogger;
 import org.apache.activemq.artemis.core.client.ActiveMQClientMessageBundle;
 import org.apache.activemq.artemis.core.message.BodyEncoder;
 import org.apache.activemq.artemis.core.message.impl.MessageInternal;
@@ -146,12 +153,31 @@ public class ClientProducerImpl implements ClientProducerInternal
       {
          doSend(address1, message, handler, true);
       }
-      else
+      else if (handler == null)
       {
          doSend(address1, message, null, true);
-         if (handler != null)
+      }
+      else
+      {
+         // the message asks for its own response, which completes the handler
+         session.acquireAsyncSendPermit();
+
+         OutstandingSendHandler outstanding = new OutstandingSendHandler(handler);
+
+         boolean sent = false;
+
+         try
          {
-            session.scheduleConfirmation(handler, message);
+            doSend(address1, message, outstanding, true);
+
+            sent = true;
+         }
+         finally
+         {
+            if (!sent)
+            {
+               outstanding.release();
+            }
          }
       }
    }
@@ -162,6 +188,112 @@ public class ClientProducerImpl implements ClientProducerInternal
       send(null, message, handler);
    }
 
+   @Override
+   public void send(final Collection<? extends Message> messages) throws ActiveMQException
+   {
+      checkClosed();
+
+      if (sessionContext.supportsBatchedSend())
+      {
+         doSendBatch(messages);
+      }
+      else
+      {
+         for (Message message : messages)
+         {
+            doSend(null, message, null, false);
+         }
+      }
+   }
+
+   @Override
+   public int sendCompressed(final Collection<? extends Message> messages) throws ActiveMQException
+   {
+      checkClosed();
+
+      session.startCall();
+
+      try
+      {
+         List<MessageInternal> batch = new ArrayList<MessageInternal>(messages.size());
+         boolean batchBlocking = false;
+
+         for (Message msg : messages)
+         {
+            MessageInternal msgI = (MessageInternal) msg;
+
+            ClientProducerCredits theCredits = prepareSend(address == null ? msgI.getAddress() : null, msgI, false);
+
+            session.workDone();
+
+            try
+            {
+               theCredits.acquireCredits(sessionContext.getCreditsOnSendingFull(msgI));
+            }
+            catch (InterruptedException e)
+            {
+               throw new ActiveMQInterruptedException(e);
+            }
+
+            batch.add(msgI);
+            batchBlocking |= msgI.isDurable() ? blockOnDurableSend : blockOnNonDurableSend;
+         }
+
+         if (batch.isEmpty())
+         {
+            return 0;
+         }
+
+         if (sessionContext.supportsCompressedSend())
+         {
+            // the packet keeps the list until it is confirmed
+            return sessionContext.sendCompressedMessages(batch, batchBlocking);
+         }
+
+         int size = 0;
+
+         for (MessageInternal msgI : batch)
+         {
+            size += msgI.getEncodeSize();
+            sessionContext.sendFullMessage(msgI, msgI.isDurable() ? blockOnDurableSend : blockOnNonDurableSend, null, address);
+         }
+
+         return size;
+      }
+      finally
+      {
+         session.endCall();
+      }
+   }
+
+   @Override
+   public ClientFuture<Message> sendAsync(final Message message) throws ActiveMQException
+   {
+      return sendAsync(null, message);
+   }
+
+   @Override
+   public ClientFuture<Message> sendAsync(final SimpleString address1, final Message message) throws ActiveMQException
+   {
+      final ClientFutureImpl<Message> future = new ClientFutureImpl<Message>();
+
+      // the confirmation of the send packet completes the future
+      send(address1, message, new SendCompletionHandler()
+      {
+         public void sendAcknowledged(final Message message1)
+         {
+            future.complete(message1);
+         }
+
+         public void sendFailed(final Message message1, final ActiveMQException cause)
+         {
+            future.fail(cause);
+         }
+      });
+
+      return future;
+   }
+
    public synchronized void close() throws ActiveMQException
    {
       if (closed)
@@ -230,81 +362,174 @@ public class ClientProducerImpl implements ClientProducerInternal
       {
          MessageInternal msgI = (MessageInternal) msg;
 
-         ClientProducerCredits theCredits;
+         boolean isLarge = isLarge(msgI);
+
+         ClientProducerCredits theCredits = prepareSend(address1, msgI, isLarge);
+
+         final boolean sendBlockingConfig = msgI.isDurable() ? blockOnDurableSend : blockOnNonDurableSend;
+         final boolean forceAsyncOverride = handler != null;
+         final boolean sendBlocking = sendBlockingConfig && !forceAsyncOverride;
+
+         session.workDone();
 
-         boolean isLarge;
-         // a note about the second check on the writerIndexSize,
-         // If it's a server's message, it means this is being done through the bridge or some special consumer on the
-         // server's on which case we can't' convert the message into large at the servers
-         if (sessionContext.supportsLargeMessage() && (msgI.getBodyInputStream() != null || msgI.isLargeMessage() ||
-            msgI.getBodyBuffer().writerIndex() > minLargeMessageSize && !msgI.isServerMessage()))
+         if (isLarge)
          {
-            isLarge = true;
+            largeMessageSend(sendBlocking, msgI, theCredits, handler);
          }
          else
          {
-            isLarge = false;
+            sendRegularMessage(msgI, sendBlocking, theCredits, handler);
          }
+      }
+      finally
+      {
+         session.endCall();
+      }
+   }
+
+   private void doSendBatch(final Collection<? extends Message> messages) throws ActiveMQException
+   {
+      session.startCall();
 
-         if (address1 != null)
+      try
+      {
+         List<MessageInternal> batch = new ArrayList<MessageInternal>();
+         int batchSize = 0;
+         boolean batchBlocking = false;
+
+         for (Message msg : messages)
          {
-            if (!isLarge)
-            {
-               session.setAddress(msg, address1);
-            }
-            else
+            MessageInternal msgI = (MessageInternal) msg;
+
+            boolean isLarge = isLarge(msgI);
+
+            ClientProducerCredits theCredits = prepareSend(address == null ? msgI.getAddress() : null, msgI, isLarge);
+
+            final boolean sendBlocking = msgI.isDurable() ? blockOnDurableSend : blockOnNonDurableSend;
+
+            session.workDone();
+
+            if (isLarge)
             {
-               msg.setAddress(address1);
+               // large messages are streamed on their own, after whatever was batched before them
+               sendBatch(batch, batchBlocking);
+               batch.clear();
+               batchSize = 0;
+               batchBlocking = false;
+
+               largeMessageSend(sendBlocking, msgI, theCredits, null);
+               continue;
             }
 
-            // Anonymous
-            theCredits = session.getCredits(address1, true);
-         }
-         else
-         {
-            if (!isLarge)
+            int creditSize = sessionContext.getCreditsOnSendingFull(msgI);
+
+            try
             {
-               session.setAddress(msg, this.address);
+               theCredits.acquireCredits(creditSize);
             }
-            else
+            catch (InterruptedException e)
             {
-               msg.setAddress(this.address);
+               throw new ActiveMQInterruptedException(e);
             }
 
-            theCredits = producerCredits;
+            batch.add(msgI);
+            batchSize += creditSize;
+            batchBlocking |= sendBlocking;
+
+            // keep each packet around the size of the largest regular message
+            if (batchSize >= minLargeMessageSize)
+            {
+               sendBatch(batch, batchBlocking);
+               batch.clear();
+               batchSize = 0;
+               batchBlocking = false;
+            }
          }
 
-         if (rateLimiter != null)
-         {
-            // Rate flow control
+         sendBatch(batch, batchBlocking);
+      }
+      finally
+      {
+         session.endCall();
+      }
+   }
 
-            rateLimiter.limit();
-         }
+   private void sendBatch(final List<MessageInternal> batch, final boolean sendBlocking) throws ActiveMQException
+   {
+      if (batch.isEmpty())
+      {
+         return;
+      }
 
-         if (groupID != null)
-         {
-            msgI.putStringProperty(Message.HDR_GROUP_ID, groupID);
-         }
+      if (batch.size() == 1)
+      {
+         sessionContext.sendFullMessage(batch.get(0), sendBlocking, null, address);
+      }
+      else
+      {
+         // the packet keeps the list until it is confirmed
+         sessionContext.sendFullMessages(new ArrayList<MessageInternal>(batch), sendBlocking);
+      }
+   }
 
-         final boolean sendBlockingConfig = msgI.isDurable() ? blockOnDurableSend : blockOnNonDurableSend;
-         final boolean forceAsyncOverride = handler != null;
-         final boolean sendBlocking = sendBlockingConfig && !forceAsyncOverride;
+   private boolean isLarge(final MessageInternal msgI)
+   {
+      // a note about the second check on the writerIndexSize,
+      // If it's a server's message, it means this is being done through the bridge or some special consumer on the
+      // server's on which case we can't' convert the message into large at the servers
+      return sessionContext.supportsLargeMessage() && (msgI.getBodyInputStream() != null || msgI.isLargeMessage() ||
+         msgI.getBodyBuffer().writerIndex() > minLargeMessageSize && !msgI.isServerMessage());
+   }
 
-         session.workDone();
+   /**
+    * Sets the address and the group of the message, applies the rate limit and returns the credits
+    * to use for it.
+    */
+   private ClientProducerCredits prepareSend(final SimpleString address1, final MessageInternal msgI, final boolean isLarge) throws ActiveMQException
+   {
+      ClientProducerCredits theCredits;
 
-         if (isLarge)
+      if (address1 != null)
+      {
+         if (!isLarge)
          {
-            largeMessageSend(sendBlocking, msgI, theCredits, handler);
+            session.setAddress(msgI, address1);
          }
          else
          {
-            sendRegularMessage(msgI, sendBlocking, theCredits, handler);
+            msgI.setAddress(address1);
          }
+
+         // Anonymous
+         theCredits = session.getCredits(address1, true);
       }
-      finally
+      else
       {
-         session.endCall();
+         if (!isLarge)
+         {
+            session.setAddress(msgI, this.address);
+         }
+         else
+         {
+            msgI.setAddress(this.address);
+         }
+
+         theCredits = producerCredits;
+      }
+
+      if (rateLimiter != null)
+      {
+         // Rate flow control
+
+         rateLimiter.limit();
       }
+
+      if (groupID != null)
+      {
+         msgI.putStringProperty(Message.HDR_GROUP_ID, groupID);
+      }
+
+      return theCredits;
    }
 
    private void sendRegularMessage(final MessageInternal msgI, final boolean sendBlocking, final ClientProducerCredits theCredits, final SendAcknowledgementHandler handler) throws ActiveMQException
@@ -604,4 +829,49 @@ public class ClientProducerImpl implements ClientProducerInternal
          throw ActiveMQClientMessageBundle.BUNDLE.errorClosingLargeMessage(e);
       }
    }
+
+   /**
+    * Gives the permit of a message waiting for its response back once, whether the send completes, fails or
+    * was never sent.
+    */
+   private final class OutstandingSendHandler implements SendCompletionHandler
+   {
+      private final SendAcknowledgementHandler handler;
+
+      private final AtomicBoolean released = new AtomicBoolean(false);
+
+      OutstandingSendHandler(final SendAcknowledgementHandler handler)
+      {
+         this.handler = handler;
+      }
+
+      void release()
+      {
+         if (released.compareAndSet(false, true))
+         {
+            session.releaseAsyncSendPermit();
+         }
+      }
+
+      public void sendAcknowledged(final Message message)
+      {
+         release();
+
+         handler.sendAcknowledged(message);
+      }
+
+      public void sendFailed(final Message message, final ActiveMQException cause)
+      {
+         release();
+
+         if (handler instanceof SendCompletionHandler)
+         {
+            ((SendCompletionHandler) handler).sendFailed(message, cause);
+         }
+         else
+         {
+            ActiveMQClientLogger.LOGGER.warn("Asynchronous send failed: " + cause.getMessage(), cause);
+         }
+      }
+   }
 }
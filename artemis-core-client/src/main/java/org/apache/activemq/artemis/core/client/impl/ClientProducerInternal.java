@@ -16,6 +16,10 @@
  */
 package org.apache.activemq.artemis.core.client.impl;
 
+import java.util.Collection;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.client.ClientProducer;
 
 /**
@@ -27,4 +31,14 @@ public interface ClientProducerInternal extends ClientProducer
    void cleanUp();
 
    ClientProducerCredits getProducerCredits();
+
+   /**
+    * Sends regular (non large) messages in a single packet whose content is compressed.
+    * Messages without an address are sent to the producer's address.
+    * <p>
+    * The messages are sent one by one to servers that don't accept compressed packets.
+    *
+    * @return the number of bytes the messages were sent as
+    */
+   int sendCompressed(Collection<? extends Message> messages) throws ActiveMQException;
 }
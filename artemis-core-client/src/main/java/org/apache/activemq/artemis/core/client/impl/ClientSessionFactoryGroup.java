@@ -0,0 +1,352 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.client.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.FailoverEventListener;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.api.core.client.SessionFailureListener;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.utils.ConfirmationWindowWarning;
+
+/**
+ * A session factory spreading its sessions over several physical connections to the same server, so a client
+ * with many sessions isn't bound by a single TCP stream and IO thread.
+ * <p>
+ * Every member is a complete {@link ClientSessionFactoryImpl}: a session lives on the connection of the member
+ * that created it, and fails over or reattaches with that member, using that connection's resend cache. The first
+ * member is the one the locator selected and stands for the group wherever a single connection is expected.
+ *
+ * @see ServerLocator#setConnectionsPerFactory(int)
+ */
+public class ClientSessionFactoryGroup implements ClientSessionFactoryInternal
+{
+   private final ClientSessionFactoryInternal[] members;
+
+   private final AtomicInteger next = new AtomicInteger();
+
+   public ClientSessionFactoryGroup(final List<ClientSessionFactoryInternal> members)
+   {
+      this.members = members.toArray(new ClientSessionFactoryInternal[members.size()]);
+   }
+
+   public ClientSessionFactoryInternal[] getMembers()
+   {
+      return members;
+   }
+
+   /**
+    * The member with the fewest sessions, starting from a rotating position so ties are spread round robin.
+    */
+   private ClientSessionFactoryInternal select()
+   {
+      int start = (next.getAndIncrement() & Integer.MAX_VALUE) % members.length;
+
+      ClientSessionFactoryInternal selected = null;
+
+      int fewest = Integer.MAX_VALUE;
+
+      for (int i = 0; i < members.length; i++)
+      {
+         ClientSessionFactoryInternal member = members[(start + i) % members.length];
+
+         if (member.isClosed())
+         {
+            continue;
+         }
+
+         int sessions = member.numSessions();
+
+         if (sessions < fewest)
+         {
+            fewest = sessions;
+            selected = member;
+         }
+      }
+
+      // all closed, let the first member report it
+      return selected == null ? members[0] : selected;
+   }
+
+   /**
+    * The first member still connected, so a failed member doesn't stand for the group while others are alive.
+    */
+   private ClientSessionFactoryInternal live()
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         RemotingConnection connection = member.getConnection();
+
+         if (!member.isClosed() && connection != null && !connection.isDestroyed())
+         {
+            return member;
+         }
+      }
+
+      return members[0];
+   }
+
+   public ClientSession createXASession() throws ActiveMQException
+   {
+      return select().createXASession();
+   }
+
+   public ClientSession createTransactedSession() throws ActiveMQException
+   {
+      return select().createTransactedSession();
+   }
+
+   public ClientSession createSession() throws ActiveMQException
+   {
+      return select().createSession();
+   }
+
+   public ClientSession createSession(final boolean autoCommitSends, final boolean autoCommitAcks) throws ActiveMQException
+   {
+      return select().createSession(autoCommitSends, autoCommitAcks);
+   }
+
+   public ClientSession createSession(final boolean autoCommitSends,
+                                      final boolean autoCommitAcks,
+                                      final int ackBatchSize) throws ActiveMQException
+   {
+      return select().createSession(autoCommitSends, autoCommitAcks, ackBatchSize);
+   }
+
+   public ClientSession createSession(final boolean xa,
+                                      final boolean autoCommitSends,
+                                      final boolean autoCommitAcks) throws ActiveMQException
+   {
+      return select().createSession(xa, autoCommitSends, autoCommitAcks);
+   }
+
+   public ClientSession createSession(final boolean xa,
+                                      final boolean autoCommitSends,
+                                      final boolean autoCommitAcks,
+                                      final boolean preAcknowledge) throws ActiveMQException
+   {
+      return select().createSession(xa, autoCommitSends, autoCommitAcks, preAcknowledge);
+   }
+
+   public ClientSession createSession(final String username,
+                                      final String password,
+                                      final boolean xa,
+                                      final boolean autoCommitSends,
+                                      final boolean autoCommitAcks,
+                                      final boolean preAcknowledge,
+                                      final int ackBatchSize) throws ActiveMQException
+   {
+      return select().createSession(username, password, xa, autoCommitSends, autoCommitAcks, preAcknowledge, ackBatchSize);
+   }
+
+   public void close()
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         member.close();
+      }
+   }
+
+   public boolean isClosed()
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         if (!member.isClosed())
+         {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   public ClientSessionFactory addFailoverListener(final FailoverEventListener listener)
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         member.addFailoverListener(listener);
+      }
+
+      return this;
+   }
+
+   public boolean removeFailoverListener(final FailoverEventListener listener)
+   {
+      boolean removed = false;
+
+      for (ClientSessionFactoryInternal member : members)
+      {
+         removed |= member.removeFailoverListener(listener);
+      }
+
+      return removed;
+   }
+
+   public void cleanup()
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         member.cleanup();
+      }
+   }
+
+   public ServerLocator getServerLocator()
+   {
+      return members[0].getServerLocator();
+   }
+
+   public RemotingConnection getConnection()
+   {
+      return live().getConnection();
+   }
+
+   public TransportConfiguration getConnectorConfiguration()
+   {
+      return members[0].getConnectorConfiguration();
+   }
+
+   public void causeExit()
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         member.causeExit();
+      }
+   }
+
+   public void addFailureListener(final SessionFailureListener listener)
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         member.addFailureListener(listener);
+      }
+   }
+
+   public boolean removeFailureListener(final SessionFailureListener listener)
+   {
+      boolean removed = false;
+
+      for (ClientSessionFactoryInternal member : members)
+      {
+         removed |= member.removeFailureListener(listener);
+      }
+
+      return removed;
+   }
+
+   public void disableFinalizeCheck()
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         member.disableFinalizeCheck();
+      }
+   }
+
+   public String getLiveNodeId()
+   {
+      return live().getLiveNodeId();
+   }
+
+   public int numConnections()
+   {
+      int connections = 0;
+
+      for (ClientSessionFactoryInternal member : members)
+      {
+         connections += member.numConnections();
+      }
+
+      return connections;
+   }
+
+   public int numSessions()
+   {
+      int sessions = 0;
+
+      for (ClientSessionFactoryInternal member : members)
+      {
+         sessions += member.numSessions();
+      }
+
+      return sessions;
+   }
+
+   public void removeSession(final ClientSessionInternal session, final boolean failingOver)
+   {
+      // sessions only know the member that created them, this is only reached through the group itself
+      for (ClientSessionFactoryInternal member : members)
+      {
+         member.removeSession(session, failingOver);
+      }
+   }
+
+   public void connect(final int reconnectAttempts, final boolean failoverOnInitialConnection) throws ActiveMQException
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         member.connect(reconnectAttempts, failoverOnInitialConnection);
+      }
+   }
+
+   public void setBackupConnector(final TransportConfiguration live, final TransportConfiguration backUp)
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         member.setBackupConnector(live, backUp);
+      }
+   }
+
+   public Object getConnector()
+   {
+      return members[0].getConnector();
+   }
+
+   public Object getBackupConnector()
+   {
+      return members[0].getBackupConnector();
+   }
+
+   public void setReconnectAttempts(final int reconnectAttempts)
+   {
+      for (ClientSessionFactoryInternal member : members)
+      {
+         member.setReconnectAttempts(reconnectAttempts);
+      }
+   }
+
+   public ConfirmationWindowWarning getConfirmationWindowWarning()
+   {
+      return members[0].getConfirmationWindowWarning();
+   }
+
+   public Lock lockFailover()
+   {
+      return members[0].lockFailover();
+   }
+
+   @Override
+   public String toString()
+   {
+      return "ClientSessionFactoryGroup [members=" + members.length + ", connector=" + getConnectorConfiguration() + "]";
+   }
+}
@@ -749,6 +749,9 @@ public class ClientSessionFactoryImpl implements ClientSessionFactoryInternal, C
                                                     autoCommitAcks,
                                                     preAcknowledge);
 
+      // not the executor of the consumers, a message handler may wait on a future it completes
+      context.setResponseExecutor(orderedExecutorFactory.getExecutor());
+
       ClientSessionInternal session = new ClientSessionImpl(this,
                                                             name,
                                                             username,
@@ -761,8 +764,10 @@ public class ClientSessionFactoryImpl implements ClientSessionFactoryInternal, C
                                                             serverLocator.isAutoGroup(),
                                                             ackBatchSize,
                                                             serverLocator.getConsumerWindowSize(),
+                                                            serverLocator.isAutoTuneConsumerWindowSize(),
                                                             serverLocator.getConsumerMaxRate(),
                                                             serverLocator.getConfirmationWindowSize(),
+                                                            serverLocator.getMaxOutstandingAsyncSends(),
                                                             serverLocator.getProducerWindowSize(),
                                                             serverLocator.getProducerMaxRate(),
                                                             serverLocator.isBlockOnNonDurableSend(),
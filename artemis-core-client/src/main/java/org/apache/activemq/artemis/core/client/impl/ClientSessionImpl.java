@@ -19,21 +19,27 @@ package org.apache.activemq.artemis.core.client.impl;
 import javax.transaction.xa.XAException;
 import javax.transaction.xa.XAResource;
 import javax.transaction.xa.Xid;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
+import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
+import org.apache.activemq.artemis.api.core.client.ClientFutureListener;
 import org.apache.activemq.artemis.api.core.client.ClientMessage;
 import org.apache.activemq.artemis.api.core.client.ClientProducer;
 import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
@@ -93,10 +99,16 @@ public final class ClientSessionImpl implements ClientSessionInternal, FailureLi
 
    private final int consumerWindowSize;
 
+   private final boolean autoTuneConsumerWindowSize;
+
    private final int consumerMaxRate;
 
    private final int confirmationWindowSize;
 
+   // bounds the messages sent with a handler waiting for their response when there is no confirmation window,
+   // null if unbounded
+   private final Semaphore asyncSendPermits;
+
    private final int producerMaxRate;
 
    private final boolean blockOnNonDurableSend;
@@ -154,8 +166,10 @@ public final class ClientSessionImpl implements ClientSessionInternal, FailureLi
                      final boolean autoGroup,
                      final int ackBatchSize,
                      final int consumerWindowSize,
+                     final boolean autoTuneConsumerWindowSize,
                      final int consumerMaxRate,
                      final int confirmationWindowSize,
+                     final int maxOutstandingAsyncSends,
                      final int producerWindowSize,
                      final int producerMaxRate,
                      final boolean blockOnNonDurableSend,
@@ -197,10 +211,14 @@ public final class ClientSessionImpl implements ClientSessionInternal, FailureLi
 
       this.consumerWindowSize = consumerWindowSize;
 
+      this.autoTuneConsumerWindowSize = autoTuneConsumerWindowSize;
+
       this.consumerMaxRate = consumerMaxRate;
 
       this.confirmationWindowSize = confirmationWindowSize;
 
+      this.asyncSendPermits = maxOutstandingAsyncSends > 0 ? new Semaphore(maxOutstandingAsyncSends) : null;
+
       this.producerMaxRate = producerMaxRate;
 
       this.blockOnNonDurableSend = blockOnNonDurableSend;
@@ -439,6 +457,47 @@ public final class ClientSessionImpl implements ClientSessionInternal, FailureLi
       return createConsumer(SimpleString.toSimpleString(queueName), SimpleString.toSimpleString(filterString), windowSize, maxRate, browseOnly);
    }
 
+   public ClientFuture<ClientConsumer> createConsumerAsync(final SimpleString queueName,
+                                                           final SimpleString filterString,
+                                                           final boolean browseOnly) throws ActiveMQException
+   {
+      checkClosed();
+
+      final int windowSize = consumerWindowSize;
+
+      final ClientFutureImpl<ClientConsumer> future = new ClientFutureImpl<ClientConsumer>();
+
+      ClientFutureImpl<ClientConsumerInternal> created = new ClientFutureImpl<ClientConsumerInternal>();
+
+      // completed on the response executor, in order with the other responses of this session
+      created.addListener(new ClientFutureListener<ClientConsumerInternal>()
+      {
+         public void onSuccess(final ClientConsumerInternal consumer)
+         {
+            addConsumer(consumer);
+
+            // same as internalCreateConsumer, credits start the consumption
+            if (windowSize != 0)
+            {
+               sessionContext.sendConsumerCredits(consumer, windowSize);
+            }
+
+            future.complete(consumer);
+         }
+
+         public void onFailure(final Throwable cause)
+         {
+            future.fail(cause);
+         }
+      });
+
+      sessionContext.createConsumerAsync(queueName, filterString, windowSize, autoTuneConsumerWindowSize,
+                                         consumerMaxRate, ackBatchSize, browseOnly, executor, flowControlExecutor,
+                                         created);
+
+      return future;
+   }
+
    public ClientProducer createProducer() throws ActiveMQException
    {
       return createProducer((SimpleString) null);
@@ -536,6 +595,37 @@ public final class ClientSessionImpl implements ClientSessionInternal, FailureLi
       workDone = false;
    }
 
+   public ClientFuture<Void> commitAsync() throws ActiveMQException
+   {
+      checkClosed();
+
+      if (ActiveMQClientLogger.LOGGER.isTraceEnabled())
+      {
+         ActiveMQClientLogger.LOGGER.trace("Sending async commit");
+      }
+
+      // same checks as commit(), a failover during the commit itself fails the future instead
+      if (rollbackOnly)
+      {
+         rollbackOnFailover(true);
+      }
+
+      flushAcks();
+
+      if (rollbackOnly)
+      {
+         rollbackOnFailover(true);
+      }
+
+      ClientFutureImpl<Void> future = new ClientFutureImpl<Void>();
+
+      sessionContext.simpleCommitAsync(future);
+
+      workDone = false;
+
+      return future;
+   }
+
    public boolean isRollbackOnly()
    {
       return rollbackOnly;
@@ -792,6 +882,52 @@ public final class ClientSessionImpl implements ClientSessionInternal, FailureLi
       }
    }
 
+   public void individualAcknowledge(final ClientConsumer consumer, final long firstMessageID, final BitSet messageIDs) throws ActiveMQException
+   {
+      // if we're pre-acknowledging then we don't need to do anything
+      if (preAcknowledge)
+      {
+         return;
+      }
+
+      checkClosed();
+
+      startCall();
+      try
+      {
+         sessionContext.sendIndividualACKRange(blockOnAcknowledge, consumer, firstMessageID, messageIDs);
+      }
+      finally
+      {
+         endCall();
+      }
+   }
+
+   public ClientFuture<Void> acknowledgeAsync(final ClientConsumer consumer, final Message message, final boolean individual) throws ActiveMQException
+   {
+      // if we're pre-acknowledging then we don't need to do anything
+      if (preAcknowledge)
+      {
+         return ClientFutureImpl.completed(null);
+      }
+
+      checkClosed();
+
+      startCall();
+      try
+      {
+         ClientFutureImpl<Void> future = new ClientFutureImpl<Void>();
+
+         sessionContext.sendACKAsync(individual, consumer, message, future);
+
+         return future;
+      }
+      finally
+      {
+         endCall();
+      }
+   }
+
    public void expire(final ClientConsumer consumer, final Message message) throws ActiveMQException
    {
       checkClosed();
@@ -1677,8 +1813,9 @@ public final class ClientSessionImpl implements ClientSessionInternal, FailureLi
    {
       checkClosed();
 
-      ClientConsumerInternal consumer = sessionContext.createConsumer(queueName, filterString, windowSize, maxRate,
-                                                                      ackBatchSize, browseOnly, executor, flowControlExecutor);
+      ClientConsumerInternal consumer = sessionContext.createConsumer(queueName, filterString, windowSize,
+                                                                      autoTuneConsumerWindowSize, maxRate, ackBatchSize,
+                                                                      browseOnly, executor, flowControlExecutor);
 
       addConsumer(consumer);
 
@@ -1928,15 +2065,34 @@ public final class ClientSessionImpl implements ClientSessionInternal, FailureLi
    }
 
    @Override
-   public void scheduleConfirmation(final SendAcknowledgementHandler handler, final Message message)
+   public void acquireAsyncSendPermit() throws ActiveMQException
    {
-      executor.execute(new Runnable()
+      if (asyncSendPermits == null)
+      {
+         return;
+      }
+
+      long timeout = sessionFactory.getServerLocator().getCallTimeout();
+
+      try
       {
-         @Override
-         public void run()
+         if (!asyncSendPermits.tryAcquire(timeout, TimeUnit.MILLISECONDS))
          {
-            handler.sendAcknowledged(message);
+            throw ActiveMQClientMessageBundle.BUNDLE.timedOutWaitingForAsyncSends(timeout);
          }
-      });
+      }
+      catch (InterruptedException e)
+      {
+         throw new ActiveMQInterruptedException(e);
+      }
+   }
+
+   @Override
+   public void releaseAsyncSendPermit()
+   {
+      if (asyncSendPermits != null)
+      {
+         asyncSendPermits.release();
+      }
    }
 }
@@ -16,10 +16,13 @@
  */
 package org.apache.activemq.artemis.core.client.impl;
 
+import java.util.BitSet;
+
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
 import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
@@ -33,6 +36,13 @@ public interface ClientSessionInternal extends ClientSession
 
    void individualAcknowledge(final ClientConsumer consumer, final Message message) throws ActiveMQException;
 
+   /**
+    * Individually acknowledges several messages at once, bit {@code n} standing for the message {@code firstMessageID + n}.
+    */
+   void individualAcknowledge(ClientConsumer consumer, long firstMessageID, BitSet messageIDs) throws ActiveMQException;
+
+   ClientFuture<Void> acknowledgeAsync(ClientConsumer consumer, Message message, boolean individual) throws ActiveMQException;
+
    boolean isCacheLargeMessageClient();
 
    int getMinLargeMessageSize();
@@ -110,9 +120,12 @@ public interface ClientSessionInternal extends ClientSession
    boolean isConfirmationWindowEnabled();
 
    /**
-    * @param handler
+    * Without a confirmation window, waits until there is room for another message sent with a
+    * {@link SendAcknowledgementHandler} to wait for its response.
     */
-   void scheduleConfirmation(SendAcknowledgementHandler handler, Message message);
+   void acquireAsyncSendPermit() throws ActiveMQException;
+
+   void releaseAsyncSendPermit();
 
    boolean isClosing();
 
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.client.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunes the window of a consumer, the credits the server may use to deliver messages to it.
+ * <p>
+ * The window is updated every time the consumer sends credits back. It grows additively while the consumer runs out
+ * of buffered messages, up to what the consumer processes in {@link #TARGET_BUFFERED_TIME}. It is halved when more
+ * than that is still sitting in the buffer, so a slow consumer doesn't hoard messages other consumers could take.
+ * The window stays between an eighth and eight times the configured window size.
+ */
+public class ConsumerWindowController
+{
+   // how long the buffered messages should last at the measured consumption rate
+   public static final long TARGET_BUFFERED_TIME = TimeUnit.SECONDS.toNanos(1);
+
+   // weight of a new sample on the rate and message size averages
+   private static final double SAMPLE_WEIGHT = 0.25;
+
+   private final int minWindowSize;
+
+   private final int maxWindowSize;
+
+   private final int increment;
+
+   private volatile int windowSize;
+
+   private volatile boolean starved;
+
+   private long lastUpdate;
+
+   // in bytes per second
+   private double consumeRate;
+
+   private double messageSize;
+
+   public ConsumerWindowController(final int windowSize)
+   {
+      this.windowSize = windowSize;
+
+      minWindowSize = Math.max(1, windowSize / 8);
+
+      maxWindowSize = (int) Math.min(Integer.MAX_VALUE / 2, windowSize * 8L);
+
+      increment = Math.max(1, windowSize / 4);
+   }
+
+   public int getWindowSize()
+   {
+      return windowSize;
+   }
+
+   /**
+    * Called without any lock when the consumer took the last message in its buffer.
+    */
+   public void consumerStarved()
+   {
+      starved = true;
+   }
+
+   /**
+    * @param consumedBytes    bytes consumed since the last update
+    * @param consumedMessages messages consumed since the last update
+    * @param bufferedMessages messages still waiting in the consumer buffer
+    * @param now              the current {@link System#nanoTime()}
+    * @return the new window size
+    */
+   public synchronized int update(final int consumedBytes,
+                                  final int consumedMessages,
+                                  final int bufferedMessages,
+                                  final long now)
+   {
+      if (lastUpdate != 0 && now > lastUpdate)
+      {
+         double rate = consumedBytes * (double) TimeUnit.SECONDS.toNanos(1) / (now - lastUpdate);
+
+         consumeRate = consumeRate == 0 ? rate : consumeRate + SAMPLE_WEIGHT * (rate - consumeRate);
+      }
+
+      lastUpdate = now;
+
+      if (consumedMessages > 0)
+      {
+         double size = (double) consumedBytes / consumedMessages;
+
+         messageSize = messageSize == 0 ? size : messageSize + SAMPLE_WEIGHT * (size - messageSize);
+      }
+
+      int current = windowSize;
+
+      if (consumeRate == 0)
+      {
+         // the first update only starts measuring the rate
+         starved = false;
+
+         return current;
+      }
+
+      int next = current;
+
+      double needed = consumeRate * TARGET_BUFFERED_TIME / TimeUnit.SECONDS.toNanos(1);
+
+      if (starved)
+      {
+         // don't grow beyond what the consumer can process, but a low rate alone doesn't shrink the window
+         next = (int) Math.min(current + (long) increment, Math.max(current, (long) needed));
+      }
+      else if (bufferedMessages * messageSize > needed && current > needed)
+      {
+         next = current / 2;
+      }
+
+      starved = false;
+
+      windowSize = Math.max(minWindowSize, Math.min(maxWindowSize, next));
+
+      return windowSize;
+   }
+
+   /**
+    * After failover the consumer is recreated on the server with the given window.
+    */
+   public synchronized void reset(final int windowSize)
+   {
+      this.windowSize = windowSize;
+
+      starved = false;
+
+      lastUpdate = 0;
+   }
+}
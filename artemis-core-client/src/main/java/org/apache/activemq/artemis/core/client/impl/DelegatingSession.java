@@ -19,12 +19,14 @@ package org.apache.activemq.artemis.core.client.impl;
 import javax.transaction.xa.XAException;
 import javax.transaction.xa.XAResource;
 import javax.transaction.xa.Xid;
+import java.util.BitSet;
 import java.util.Set;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
 import org.apache.activemq.artemis.api.core.client.ClientMessage;
 import org.apache.activemq.artemis.api.core.client.ClientProducer;
 import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
@@ -112,6 +114,16 @@ public class DelegatingSession implements ClientSessionInternal
       session.individualAcknowledge(consumer, message);
    }
 
+   public void individualAcknowledge(final ClientConsumer consumer, final long firstMessageID, final BitSet messageIDs) throws ActiveMQException
+   {
+      session.individualAcknowledge(consumer, firstMessageID, messageIDs);
+   }
+
+   public ClientFuture<Void> acknowledgeAsync(final ClientConsumer consumer, final Message message, final boolean individual) throws ActiveMQException
+   {
+      return session.acknowledgeAsync(consumer, message, individual);
+   }
+
    public void addConsumer(final ClientConsumerInternal consumer)
    {
       session.addConsumer(consumer);
@@ -159,6 +171,18 @@ public class DelegatingSession implements ClientSessionInternal
       session.commit();
    }
 
+   public ClientFuture<Void> commitAsync() throws ActiveMQException
+   {
+      return session.commitAsync();
+   }
+
+   public ClientFuture<ClientConsumer> createConsumerAsync(final SimpleString queueName,
+                                                           final SimpleString filterString,
+                                                           final boolean browseOnly) throws ActiveMQException
+   {
+      return session.createConsumerAsync(queueName, filterString, browseOnly);
+   }
+
    public void commit(final Xid xid, final boolean onePhase) throws XAException
    {
       session.commit(xid, onePhase);
@@ -643,9 +667,15 @@ public class DelegatingSession implements ClientSessionInternal
    }
 
    @Override
-   public void scheduleConfirmation(SendAcknowledgementHandler handler, Message msg)
+   public void acquireAsyncSendPermit() throws ActiveMQException
+   {
+      session.acquireAsyncSendPermit();
+   }
+
+   @Override
+   public void releaseAsyncSendPermit()
    {
-      session.scheduleConfirmation(handler, msg);
+      session.releaseAsyncSendPermit();
    }
 
    @Override
@@ -139,10 +139,16 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
 
    private int consumerWindowSize;
 
+   private boolean autoTuneConsumerWindowSize;
+
    private int consumerMaxRate;
 
    private int confirmationWindowSize;
 
+   private int maxOutstandingAsyncSends;
+
+   private int connectionsPerFactory;
+
    private int producerWindowSize;
 
    private int producerMaxRate;
@@ -424,10 +430,16 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
 
       consumerWindowSize = ActiveMQClient.DEFAULT_CONSUMER_WINDOW_SIZE;
 
+      autoTuneConsumerWindowSize = ActiveMQClient.DEFAULT_AUTO_TUNE_CONSUMER_WINDOW_SIZE;
+
       consumerMaxRate = ActiveMQClient.DEFAULT_CONSUMER_MAX_RATE;
 
       confirmationWindowSize = ActiveMQClient.DEFAULT_CONFIRMATION_WINDOW_SIZE;
 
+      maxOutstandingAsyncSends = ActiveMQClient.DEFAULT_MAX_OUTSTANDING_ASYNC_SENDS;
+
+      connectionsPerFactory = ActiveMQClient.DEFAULT_CONNECTIONS_PER_FACTORY;
+
       producerWindowSize = ActiveMQClient.DEFAULT_PRODUCER_WINDOW_SIZE;
 
       producerMaxRate = ActiveMQClient.DEFAULT_PRODUCER_MAX_RATE;
@@ -555,8 +567,11 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
       callFailoverTimeout = locator.callFailoverTimeout;
       minLargeMessageSize = locator.minLargeMessageSize;
       consumerWindowSize = locator.consumerWindowSize;
+      autoTuneConsumerWindowSize = locator.autoTuneConsumerWindowSize;
       consumerMaxRate = locator.consumerMaxRate;
       confirmationWindowSize = locator.confirmationWindowSize;
+      maxOutstandingAsyncSends = locator.maxOutstandingAsyncSends;
+      connectionsPerFactory = locator.connectionsPerFactory;
       producerWindowSize = locator.producerWindowSize;
       producerMaxRate = locator.producerMaxRate;
       blockOnAcknowledge = locator.blockOnAcknowledge;
@@ -964,11 +979,72 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
 
          addFactory(factory);
 
+         if (connectionsPerFactory > 1 && !clusterConnection)
+         {
+            return createFactoryGroup(factory);
+         }
+
          return factory;
       }
 
    }
 
+   /**
+    * Opens the remaining connections of a session factory to the server the first one was balanced to.
+    */
+   private ClientSessionFactoryInternal createFactoryGroup(final ClientSessionFactoryInternal first) throws ActiveMQException
+   {
+      List<ClientSessionFactoryInternal> members = new ArrayList<ClientSessionFactoryInternal>(connectionsPerFactory);
+
+      members.add(first);
+
+      try
+      {
+         for (int i = 1; i < connectionsPerFactory; i++)
+         {
+            ClientSessionFactoryInternal member = new ClientSessionFactoryImpl(this,
+                                                                               first.getConnectorConfiguration(),
+                                                                               callTimeout,
+                                                                               callFailoverTimeout,
+                                                                               clientFailureCheckPeriod,
+                                                                               connectionTTL,
+                                                                               retryInterval,
+                                                                               retryIntervalMultiplier,
+                                                                               maxRetryInterval,
+                                                                               reconnectAttempts,
+                                                                               threadPool,
+                                                                               scheduledThreadPool,
+                                                                               incomingInterceptors,
+                                                                               outgoingInterceptors);
+
+            members.add(member);
+
+            try
+            {
+               addToConnecting(member);
+               member.connect(initialConnectAttempts, failoverOnInitialConnection);
+            }
+            finally
+            {
+               removeFromConnecting(member);
+            }
+
+            addFactory(member);
+         }
+      }
+      catch (ActiveMQException e)
+      {
+         for (ClientSessionFactoryInternal member : members)
+         {
+            member.close();
+         }
+
+         throw e;
+      }
+
+      return new ClientSessionFactoryGroup(members);
+   }
+
    public boolean isHA()
    {
       return ha;
@@ -1057,6 +1133,18 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
       return this;
    }
 
+   public boolean isAutoTuneConsumerWindowSize()
+   {
+      return autoTuneConsumerWindowSize;
+   }
+
+   public ServerLocatorImpl setAutoTuneConsumerWindowSize(final boolean autoTuneConsumerWindowSize)
+   {
+      checkWrite();
+      this.autoTuneConsumerWindowSize = autoTuneConsumerWindowSize;
+      return this;
+   }
+
    public int getConsumerMaxRate()
    {
       return consumerMaxRate;
@@ -1081,6 +1169,30 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
       return this;
    }
 
+   public int getMaxOutstandingAsyncSends()
+   {
+      return maxOutstandingAsyncSends;
+   }
+
+   public ServerLocatorImpl setMaxOutstandingAsyncSends(final int maxOutstandingAsyncSends)
+   {
+      checkWrite();
+      this.maxOutstandingAsyncSends = maxOutstandingAsyncSends;
+      return this;
+   }
+
+   public int getConnectionsPerFactory()
+   {
+      return connectionsPerFactory;
+   }
+
+   public ServerLocatorImpl setConnectionsPerFactory(final int connectionsPerFactory)
+   {
+      checkWrite();
+      this.connectionsPerFactory = connectionsPerFactory;
+      return this;
+   }
+
    public int getProducerWindowSize()
    {
       return producerWindowSize;
@@ -51,6 +51,13 @@ public interface MessageInternal extends Message
 
    void decodeHeadersAndProperties(ActiveMQBuffer buffer);
 
+   int getEncodeSize();
+
+   /** Writes the whole message (body, headers and properties) in the format used by the journal and paging */
+   void encode(ActiveMQBuffer buffer);
+
+   void decode(ActiveMQBuffer buffer);
+
    BodyEncoder getBodyEncoder() throws ActiveMQException;
 
    InputStream getBodyInputStream();
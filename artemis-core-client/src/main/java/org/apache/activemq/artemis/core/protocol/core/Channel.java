@@ -75,6 +75,30 @@ public interface Channel
     */
    Packet sendBlocking(Packet packet, byte expectedPacket) throws ActiveMQException;
 
+   /**
+    * Sends a packet that requires a response on this channel without blocking. The response is
+    * handed to the handler when it arrives.
+    * <p>
+    * Responses are matched by their correlation ID on correlating channels, by order otherwise, so
+    * this is serialized with {@link #sendBlocking(Packet, byte)}.
+    * @param packet the packet to send
+    * @param handler the handler to call with the response
+    * @throws ActiveMQException if the packet could not be sent
+    */
+   void sendAsync(Packet packet, ResponseHandler handler) throws ActiveMQException;
+
+   /**
+    * Makes every packet on this channel carry its correlation ID, so responses are matched to the
+    * request they answer. Both ends of the channel must agree on it before any packet is sent.
+    * @param correlating whether packets carry their correlation ID
+    */
+   void setCorrelating(boolean correlating);
+
+   /**
+    * @return true if the packets on this channel carry their correlation ID
+    */
+   boolean isCorrelating();
+
    /**
     * Sets the {@link org.apache.activemq.artemis.core.protocol.core.ChannelHandler} that this channel should
     * forward received packets to.
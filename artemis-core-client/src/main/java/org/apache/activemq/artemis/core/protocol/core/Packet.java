@@ -39,6 +39,21 @@ public interface Packet
     */
    long getChannelID();
 
+   /**
+    * Sets the id matching a response to the request it answers, on channels correlating their
+    * packets.
+    *
+    * @param correlationID the id of the request, or -1 if there is none
+    */
+   void setCorrelationID(long correlationID);
+
+   /**
+    * Returns the id matching a response to the request it answers.
+    *
+    * @return the id of the request, or -1 if there is none
+    */
+   long getCorrelationID();
+
    /**
     * returns true if this packet is being sent in response to a previously received packet
     *
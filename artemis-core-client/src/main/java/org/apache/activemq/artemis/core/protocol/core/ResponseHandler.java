@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+
+/**
+ * A ResponseHandler is called by the channel with the response to a packet sent through
+ * {@link Channel#sendAsync(Packet, ResponseHandler)}.
+ */
+public interface ResponseHandler
+{
+   /**
+    * called by channel when the response has been received.
+    *
+    * @param response the response packet
+    */
+   void responseReceived(Packet response);
+
+   /**
+    * called by channel when the server answered with an exception, or when the response will never
+    * arrive (e.g. the channel was closed or unblocked on failover).
+    *
+    * @param cause the failure
+    */
+   void responseFailed(ActiveMQException cause);
+}
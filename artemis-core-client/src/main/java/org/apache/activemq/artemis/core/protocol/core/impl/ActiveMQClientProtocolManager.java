@@ -354,6 +354,9 @@ public class ActiveMQClientProtocolManager implements ClientProtocolManager
 
             sessionChannel = connection.getChannel(sessionChannelID, confirmationWindowSize);
 
+            // a server accepting this version correlates the packets of the session too
+            sessionChannel.setCorrelating(clientVersion.getIncrementingVersion() >= ChannelImpl.CORRELATED_SESSION_VERSION);
+
 
          }
          catch (Throwable t)
@@ -21,6 +21,7 @@ import javax.transaction.xa.XAResource;
 import javax.transaction.xa.Xid;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,11 +35,13 @@ import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientConsumer;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
+import org.apache.activemq.artemis.api.core.client.SendCompletionHandler;
 import org.apache.activemq.artemis.core.client.ActiveMQClientLogger;
 import org.apache.activemq.artemis.core.client.ActiveMQClientMessageBundle;
 import org.apache.activemq.artemis.core.client.impl.AddressQueryImpl;
 import org.apache.activemq.artemis.core.client.impl.ClientConsumerImpl;
 import org.apache.activemq.artemis.core.client.impl.ClientConsumerInternal;
+import org.apache.activemq.artemis.core.client.impl.ClientFutureImpl;
 import org.apache.activemq.artemis.core.client.impl.ClientLargeMessageInternal;
 import org.apache.activemq.artemis.core.client.impl.ClientMessageInternal;
 import org.apache.activemq.artemis.core.client.impl.ClientProducerCreditsImpl;
@@ -49,6 +52,7 @@ import org.apache.activemq.artemis.core.protocol.core.ChannelHandler;
 import org.apache.activemq.artemis.core.protocol.core.CommandConfirmationHandler;
 import org.apache.activemq.artemis.core.protocol.core.CoreRemotingConnection;
 import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.ResponseHandler;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.CreateQueueMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.CreateSessionMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.CreateSharedQueueMessage;
@@ -69,6 +73,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionDel
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionExpireMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionForceConsumerDelivery;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionIndividualAcknowledgeMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionIndividualAcknowledgeRangeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionProducerCreditsFailMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionProducerCreditsMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionQueueQueryMessage;
@@ -77,6 +82,8 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionRec
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveLargeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionRequestProducerCreditsMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendBatchMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendCompressedBatchMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendContinuationMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendLargeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendMessage;
@@ -109,6 +116,13 @@ import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SES
 
 public class ActiveMQSessionContext extends SessionContext
 {
+   /** the first server version accepting {@link SessionSendBatchMessage} */
+   private static final int BATCHED_SEND_VERSION = 127;
+
+   private static final int INDIVIDUAL_ACK_RANGE_VERSION = 127;
+
+   private static final int COMPRESSED_SEND_VERSION = 127;
+
    private final Channel sessionChannel;
    private final int serverVersion;
    private int confirmationWindow;
@@ -144,6 +158,13 @@ public class ActiveMQSessionContext extends SessionContext
             SessionSendMessage ssm = (SessionSendMessage) packet;
             callSendAck(ssm.getHandler(), ssm.getMessage());
          }
+         else if (packet.getType() == PacketImpl.SESS_SEND_BATCH || packet.getType() == PacketImpl.SESS_SEND_COMPRESSED_BATCH)
+         {
+            for (Message message : ((SessionSendBatchMessage) packet).getMessages())
+            {
+               callSendAck(null, message);
+            }
+         }
          else if (packet.getType() == PacketImpl.SESS_SEND_CONTINUATION)
          {
             SessionSendContinuationMessage scm = (SessionSendContinuationMessage) packet;
@@ -234,7 +255,7 @@ public class ActiveMQSessionContext extends SessionContext
    }
 
    public ClientConsumerInternal createConsumer(SimpleString queueName, SimpleString filterString,
-                                                int windowSize, int maxRate, int ackBatchSize, boolean browseOnly,
+                                                int windowSize, boolean autoTuneWindowSize, int maxRate, int ackBatchSize, boolean browseOnly,
                                                 Executor executor, Executor flowControlExecutor) throws ActiveMQException
    {
       long consumerID = idGenerator.generateID();
@@ -249,6 +270,49 @@ public class ActiveMQSessionContext extends SessionContext
 
       SessionQueueQueryResponseMessage_V2 queueInfo = (SessionQueueQueryResponseMessage_V2) sessionChannel.sendBlocking(request, PacketImpl.SESS_QUEUEQUERY_RESP_V2);
 
+      return newConsumer(consumerContext, queueName, filterString, windowSize, autoTuneWindowSize, maxRate, ackBatchSize,
+                         browseOnly, executor, flowControlExecutor, queueInfo);
+   }
+
+   public void createConsumerAsync(final SimpleString queueName, final SimpleString filterString,
+                                   final int windowSize, final boolean autoTuneWindowSize, final int maxRate,
+                                   final int ackBatchSize, final boolean browseOnly,
+                                   final Executor executor, final Executor flowControlExecutor,
+                                   final ClientFutureImpl<ClientConsumerInternal> future) throws ActiveMQException
+   {
+      long consumerID = idGenerator.generateID();
+
+      final ActiveMQConsumerContext consumerContext = new ActiveMQConsumerContext(consumerID);
+
+      SessionCreateConsumerMessage request = new SessionCreateConsumerMessage(consumerID,
+                                                                              queueName,
+                                                                              filterString,
+                                                                              browseOnly,
+                                                                              true);
+
+      sessionChannel.sendAsync(request, dispatched(new ResponseHandler()
+      {
+         public void responseReceived(final Packet response)
+         {
+            future.complete(newConsumer(consumerContext, queueName, filterString, windowSize, autoTuneWindowSize,
+                                        maxRate, ackBatchSize, browseOnly, executor, flowControlExecutor,
+                                        (SessionQueueQueryResponseMessage_V2) response));
+         }
+
+         public void responseFailed(final ActiveMQException cause)
+         {
+            future.fail(cause);
+         }
+      }));
+   }
+
+   private ClientConsumerInternal newConsumer(final ActiveMQConsumerContext consumerContext,
+                                              final SimpleString queueName, final SimpleString filterString,
+                                              final int windowSize, final boolean autoTuneWindowSize, final int maxRate,
+                                              final int ackBatchSize, final boolean browseOnly,
+                                              final Executor executor, final Executor flowControlExecutor,
+                                              final SessionQueueQueryResponseMessage_V2 queueInfo)
+   {
       // The actual windows size that gets used is determined by the user since
       // could be overridden on the queue settings
       // The value we send is just a hint
@@ -259,6 +323,7 @@ public class ActiveMQSessionContext extends SessionContext
                                     filterString,
                                     browseOnly,
                                     calcWindowSize(windowSize),
+                                    autoTuneWindowSize,
                                     ackBatchSize,
                                     maxRate > 0 ? new TokenBucketLimiterImpl(maxRate,
                                                                              false)
@@ -307,6 +372,11 @@ public class ActiveMQSessionContext extends SessionContext
       sessionChannel.sendBlocking(new PacketImpl(PacketImpl.SESS_COMMIT), PacketImpl.NULL_RESPONSE);
    }
 
+   public void simpleCommitAsync(final ClientFutureImpl<Void> future) throws ActiveMQException
+   {
+      sessionChannel.sendAsync(new PacketImpl(PacketImpl.SESS_COMMIT), dispatched(new FutureResponseHandler(future)));
+   }
+
    public void simpleRollback(boolean lastMessageAsDelivered) throws ActiveMQException
    {
       sessionChannel.sendBlocking(new RollbackMessage(lastMessageAsDelivered), PacketImpl.NULL_RESPONSE);
@@ -324,7 +394,24 @@ public class ActiveMQSessionContext extends SessionContext
 
    public void addSessionMetadata(String key, String data) throws ActiveMQException
    {
-      sessionChannel.sendBlocking(new SessionAddMetaDataMessageV2(key, data), PacketImpl.NULL_RESPONSE);
+      // nothing waits on plain metadata, the next blocking call is answered after it anyway
+      sessionChannel.sendAsync(new SessionAddMetaDataMessageV2(key, data), new ResponseHandler()
+      {
+         public void responseReceived(final Packet response)
+         {
+         }
+
+         public void responseFailed(final ActiveMQException cause)
+         {
+            // unblocked on failover or close, the session sends all its metadata again after failover
+            if (cause.getType() == ActiveMQExceptionType.UNBLOCKED)
+            {
+               return;
+            }
+
+            ActiveMQClientLogger.LOGGER.warn("Failed to add session metadata: " + cause.getMessage(), cause);
+         }
+      });
    }
 
 
@@ -401,6 +488,14 @@ public class ActiveMQSessionContext extends SessionContext
 
    public void sendFullMessage(MessageInternal msgI, boolean sendBlocking, SendAcknowledgementHandler handler, SimpleString defaultAddress) throws ActiveMQException
    {
+      if (handler != null && confirmationWindow < 0)
+      {
+         // without confirmations the message asks for its own response, which is pipelined with the next sends
+         sessionChannel.sendAsync(new SessionSendMessage(msgI, true, null), dispatched(new SendResponseHandler(handler, msgI)));
+
+         return;
+      }
+
       SessionSendMessage packet = new SessionSendMessage(msgI, sendBlocking, handler);
 
       if (sendBlocking)
@@ -413,6 +508,50 @@ public class ActiveMQSessionContext extends SessionContext
       }
    }
 
+   @Override
+   public boolean supportsBatchedSend()
+   {
+      return serverVersion >= BATCHED_SEND_VERSION;
+   }
+
+   @Override
+   public void sendFullMessages(List<MessageInternal> messages, boolean sendBlocking) throws ActiveMQException
+   {
+      SessionSendBatchMessage packet = new SessionSendBatchMessage(messages, sendBlocking);
+
+      if (sendBlocking)
+      {
+         sessionChannel.sendBlocking(packet, PacketImpl.NULL_RESPONSE);
+      }
+      else
+      {
+         sessionChannel.sendBatched(packet);
+      }
+   }
+
+   @Override
+   public boolean supportsCompressedSend()
+   {
+      return serverVersion >= COMPRESSED_SEND_VERSION;
+   }
+
+   @Override
+   public int sendCompressedMessages(List<MessageInternal> messages, boolean sendBlocking) throws ActiveMQException
+   {
+      SessionSendCompressedBatchMessage packet = new SessionSendCompressedBatchMessage(messages, sendBlocking);
+
+      if (sendBlocking)
+      {
+         sessionChannel.sendBlocking(packet, PacketImpl.NULL_RESPONSE);
+      }
+      else
+      {
+         sessionChannel.sendBatched(packet);
+      }
+
+      return packet.getCompressedLength();
+   }
+
    @Override
    public int sendInitialChunkOnLargeMessage(MessageInternal msgI) throws ActiveMQException
    {
@@ -426,12 +565,18 @@ public class ActiveMQSessionContext extends SessionContext
    @Override
    public int sendLargeMessageChunk(MessageInternal msgI, long messageBodySize, boolean sendBlocking, boolean lastChunk, byte[] chunk, SendAcknowledgementHandler messageHandler) throws ActiveMQException
    {
-      final boolean requiresResponse = lastChunk && sendBlocking;
+      // without confirmations the last chunk asks for its own response, like a full message sent with a handler
+      final boolean pipelined = lastChunk && messageHandler != null && confirmationWindow < 0;
+      final boolean requiresResponse = lastChunk && (sendBlocking || pipelined);
       final SessionSendContinuationMessage chunkPacket =
          new SessionSendContinuationMessage(msgI, chunk, !lastChunk,
-                                            requiresResponse, messageBodySize, messageHandler);
+                                            requiresResponse, messageBodySize, pipelined ? null : messageHandler);
 
-      if (requiresResponse)
+      if (pipelined)
+      {
+         sessionChannel.sendAsync(chunkPacket, dispatched(new SendResponseHandler(messageHandler, msgI)));
+      }
+      else if (requiresResponse)
       {
          // When sending it blocking, only the last chunk will be blocking.
          sessionChannel.sendBlocking(chunkPacket, PacketImpl.NULL_RESPONSE);
@@ -466,6 +611,42 @@ public class ActiveMQSessionContext extends SessionContext
       }
    }
 
+   public void sendACKAsync(boolean individual, final ClientConsumer consumer, final Message message, final ClientFutureImpl<Void> future) throws ActiveMQException
+   {
+      PacketImpl messagePacket;
+      if (individual)
+      {
+         messagePacket = new SessionIndividualAcknowledgeMessage(getConsumerID(consumer), message.getMessageID(), true);
+      }
+      else
+      {
+         messagePacket = new SessionAcknowledgeMessage(getConsumerID(consumer), message.getMessageID(), true);
+      }
+
+      sessionChannel.sendAsync(messagePacket, dispatched(new FutureResponseHandler(future)));
+   }
+
+   @Override
+   public boolean supportsIndividualACKRanges()
+   {
+      return serverVersion >= INDIVIDUAL_ACK_RANGE_VERSION;
+   }
+
+   @Override
+   public void sendIndividualACKRange(boolean block, final ClientConsumer consumer, final long firstMessageID, final BitSet messageIDs) throws ActiveMQException
+   {
+      SessionIndividualAcknowledgeRangeMessage messagePacket = new SessionIndividualAcknowledgeRangeMessage(getConsumerID(consumer), firstMessageID, messageIDs, block);
+
+      if (block)
+      {
+         sessionChannel.sendBlocking(messagePacket, PacketImpl.NULL_RESPONSE);
+      }
+      else
+      {
+         sessionChannel.sendBatched(messagePacket);
+      }
+   }
+
    public void expireMessage(final ClientConsumer consumer, Message message) throws ActiveMQException
    {
       SessionExpireMessage messagePacket = new SessionExpireMessage(getConsumerID(consumer), message.getMessageID());
@@ -643,6 +824,9 @@ public class ActiveMQSessionContext extends SessionContext
          {
             getCreateChannel().sendBlocking(createRequest, PacketImpl.CREATESESSION_RESP);
             retry = false;
+
+            // the new server session correlates by the version sent, whatever the previous one did
+            sessionChannel.setCorrelating(VersionLoader.getVersion().getIncrementingVersion() >= ChannelImpl.CORRELATED_SESSION_VERSION);
          }
          catch (ActiveMQException e)
          {
@@ -931,8 +1115,100 @@ public class ActiveMQSessionContext extends SessionContext
 
       ActiveMQBuffer buffer = packet.encode(this.getCoreConnection());
 
+      if (parameterChannel.isCorrelating())
+      {
+         ChannelImpl.writeCorrelationID(buffer, packet.getCorrelationID());
+      }
+
       conn.write(buffer, false, false);
    }
 
+   /**
+    * Hands the callbacks of an asynchronous call over to the response executor, the remoting thread
+    * must not run user code.
+    */
+   private ResponseHandler dispatched(final ResponseHandler handler)
+   {
+      final Executor executor = responseExecutor;
+
+      if (executor == null)
+      {
+         return handler;
+      }
 
+      return new ResponseHandler()
+      {
+         public void responseReceived(final Packet response)
+         {
+            executor.execute(new Runnable()
+            {
+               public void run()
+               {
+                  handler.responseReceived(response);
+               }
+            });
+         }
+
+         public void responseFailed(final ActiveMQException cause)
+         {
+            executor.execute(new Runnable()
+            {
+               public void run()
+               {
+                  handler.responseFailed(cause);
+               }
+            });
+         }
+      };
+   }
+
+   private static final class SendResponseHandler implements ResponseHandler
+   {
+      private final SendAcknowledgementHandler handler;
+
+      private final Message message;
+
+      SendResponseHandler(final SendAcknowledgementHandler handler, final Message message)
+      {
+         this.handler = handler;
+         this.message = message;
+      }
+
+      public void responseReceived(final Packet response)
+      {
+         handler.sendAcknowledged(message);
+      }
+
+      public void responseFailed(final ActiveMQException cause)
+      {
+         if (handler instanceof SendCompletionHandler)
+         {
+            ((SendCompletionHandler) handler).sendFailed(message, cause);
+         }
+         else
+         {
+            ActiveMQClientLogger.LOGGER.warn("Asynchronous send failed: " + cause.getMessage(), cause);
+         }
+      }
+   }
+
+   private static final class FutureResponseHandler implements ResponseHandler
+   {
+      private final ClientFutureImpl<Void> future;
+
+      FutureResponseHandler(final ClientFutureImpl<Void> future)
+      {
+         this.future = future;
+      }
+
+      public void responseReceived(final Packet response)
+      {
+         future.complete(null);
+      }
+
+      public void responseFailed(final ActiveMQException cause)
+      {
+         future.fail(cause);
+      }
+   }
 }
@@ -17,7 +17,10 @@
 package org.apache.activemq.artemis.core.protocol.core.impl;
 
 import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -36,9 +39,11 @@ import org.apache.activemq.artemis.core.protocol.core.ChannelHandler;
 import org.apache.activemq.artemis.core.protocol.core.CommandConfirmationHandler;
 import org.apache.activemq.artemis.core.protocol.core.CoreRemotingConnection;
 import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.ResponseHandler;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ActiveMQExceptionMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.PacketsConfirmedMessage;
 import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.utils.DataConstants;
 
 public final class ChannelImpl implements Channel
 {
@@ -84,12 +89,28 @@ public final class ChannelImpl implements Channel
 
    private static final boolean isTrace = ActiveMQClientLogger.LOGGER.isTraceEnabled();
 
+   /** the first client version whose session channels correlate their packets */
+   public static final int CORRELATED_SESSION_VERSION = 128;
+
    private volatile long id;
 
    private ChannelHandler handler;
 
    private Packet response;
 
+   // handlers of packets sent through sendAsync and sendBlocking by correlation ID, in the order their responses are
+   // expected. Guarded by itself
+   private final Map<Long, ResponseHandler> responseHandlers = new LinkedHashMap<Long, ResponseHandler>();
+
+   // the correlation ID of the last packet sent through sendAsync or sendBlocking, guarded by sendBlockingLock
+   private long lastCorrelationID = -1;
+
+   // whether every packet carries its correlation ID, so a response can be matched even if an earlier one never comes
+   private volatile boolean correlating;
+
+   // the handler of the blocking call waiting for its response, guarded by lock
+   private BlockingResponseHandler blockingResponseHandler;
+
    private final java.util.Queue<Packet> resendCache;
 
    private volatile int firstStoredCommandID;
@@ -204,6 +225,100 @@ public final class ChannelImpl implements Channel
       {
          lock.unlock();
       }
+
+      failResponseHandlers(cause);
+   }
+
+   private void failResponseHandlers(final Throwable cause)
+   {
+      ResponseHandler responseHandler;
+
+      while ((responseHandler = pollResponseHandler()) != null)
+      {
+         responseHandler.responseFailed(ActiveMQClientMessageBundle.BUNDLE.unblockingACall(cause));
+      }
+   }
+
+   private ResponseHandler pollResponseHandler()
+   {
+      synchronized (responseHandlers)
+      {
+         Iterator<ResponseHandler> iterator = responseHandlers.values().iterator();
+
+         if (!iterator.hasNext())
+         {
+            return null;
+         }
+
+         ResponseHandler responseHandler = iterator.next();
+
+         iterator.remove();
+
+         return responseHandler;
+      }
+   }
+
+   private void addResponseHandler(final long correlationID, final ResponseHandler responseHandler)
+   {
+      synchronized (responseHandlers)
+      {
+         responseHandlers.put(correlationID, responseHandler);
+      }
+   }
+
+   private ResponseHandler removeResponseHandler(final long correlationID)
+   {
+      synchronized (responseHandlers)
+      {
+         return responseHandlers.remove(correlationID);
+      }
+   }
+
+   public void setCorrelating(final boolean correlating)
+   {
+      this.correlating = correlating;
+   }
+
+   public boolean isCorrelating()
+   {
+      return correlating;
+   }
+
+   /**
+    * Appends the correlation ID to an encoded packet, after its body so the packet itself never reads it.
+    */
+   public static void writeCorrelationID(final ActiveMQBuffer buffer, final long correlationID)
+   {
+      buffer.writeLong(correlationID);
+
+      // The length doesn't include the actual length byte
+      buffer.setInt(0, buffer.writerIndex() - DataConstants.SIZE_INT);
+   }
+
+   /**
+    * Takes the correlation ID off a received packet, leaving the buffer as the packet was encoded.
+    */
+   public static long readCorrelationID(final ActiveMQBuffer buffer)
+   {
+      final int end = buffer.writerIndex() - DataConstants.SIZE_LONG;
+
+      final long correlationID = buffer.getLong(end);
+
+      buffer.writerIndex(end);
+
+      return correlationID;
+   }
+
+   private ActiveMQBuffer encode(final Packet packet)
+   {
+      final ActiveMQBuffer buffer = packet.encode(connection);
+
+      if (correlating)
+      {
+         writeCorrelationID(buffer, packet.getCorrelationID());
+      }
+
+      return buffer;
    }
 
    public boolean sendAndFlush(final Packet packet)
@@ -243,7 +358,7 @@ public final class ChannelImpl implements Channel
             ActiveMQClientLogger.LOGGER.trace("Sending packet nonblocking " + packet + " on channeID=" + id);
          }
 
-         ActiveMQBuffer buffer = packet.encode(connection);
+         ActiveMQBuffer buffer = encode(packet);
 
          lock.lock();
 
@@ -323,39 +438,23 @@ public final class ChannelImpl implements Channel
       {
          packet.setChannelID(id);
 
-         final ActiveMQBuffer buffer = packet.encode(connection);
+         packet.setCorrelationID(++lastCorrelationID);
+
+         final ActiveMQBuffer buffer = encode(packet);
 
          lock.lock();
 
          try
          {
-            if (failingOver)
-            {
-               try
-               {
-                  if (connection.getBlockingCallFailoverTimeout() < 0)
-                  {
-                     while (failingOver)
-                     {
-                        failoverCondition.await();
-                     }
-                  }
-                  else
-                  {
-                     if (!failoverCondition.await(connection.getBlockingCallFailoverTimeout(), TimeUnit.MILLISECONDS))
-                     {
-                        ActiveMQClientLogger.LOGGER.debug("timed-out waiting for failover condition");
-                     }
-                  }
-               }
-               catch (InterruptedException e)
-               {
-                  throw new ActiveMQInterruptedException(e);
-               }
-            }
+            waitForFailover();
 
             response = null;
 
+            // queued as any other handler, so a late response to this call is never taken for another one
+            blockingResponseHandler = new BlockingResponseHandler();
+
+            addResponseHandler(packet.getCorrelationID(), blockingResponseHandler);
+
             if (resendCache != null && packet.isRequiresConfirmations())
             {
                resendCache.add(packet);
@@ -414,6 +513,15 @@ public final class ChannelImpl implements Channel
          }
          finally
          {
+            if (correlating)
+            {
+               // a late response finds no handler and is dropped
+               removeResponseHandler(packet.getCorrelationID());
+            }
+            // otherwise, if the call timed out, its handler stays queued to drop the response when it comes
+
+            blockingResponseHandler = null;
+
             lock.unlock();
          }
 
@@ -421,6 +529,80 @@ public final class ChannelImpl implements Channel
       }
    }
 
+   public void sendAsync(final Packet packet, final ResponseHandler responseHandler) throws ActiveMQException
+   {
+      String interceptionResult = invokeInterceptors(packet, interceptors, connection);
+
+      if (interceptionResult != null)
+      {
+         throw ActiveMQClientMessageBundle.BUNDLE.interceptorRejectedPacket(interceptionResult);
+      }
+
+      if (closed)
+      {
+         throw ActiveMQClientMessageBundle.BUNDLE.connectionDestroyed();
+      }
+
+      // The response may be matched by order, so the handler has to be queued in the same order the packets are written
+      synchronized (sendBlockingLock)
+      {
+         packet.setChannelID(id);
+
+         packet.setCorrelationID(++lastCorrelationID);
+
+         final ActiveMQBuffer buffer = encode(packet);
+
+         lock.lock();
+
+         try
+         {
+            waitForFailover();
+
+            addResponseHandler(packet.getCorrelationID(), responseHandler);
+
+            if (resendCache != null && packet.isRequiresConfirmations())
+            {
+               resendCache.add(packet);
+            }
+
+            connection.getTransportConnection().write(buffer, false, false);
+         }
+         finally
+         {
+            lock.unlock();
+         }
+      }
+   }
+
+   // must be called holding the lock
+   private void waitForFailover() throws ActiveMQInterruptedException
+   {
+      if (failingOver)
+      {
+         try
+         {
+            if (connection.getBlockingCallFailoverTimeout() < 0)
+            {
+               while (failingOver)
+               {
+                  failoverCondition.await();
+               }
+            }
+            else
+            {
+               if (!failoverCondition.await(connection.getBlockingCallFailoverTimeout(), TimeUnit.MILLISECONDS))
+               {
+                  ActiveMQClientLogger.LOGGER.debug("timed-out waiting for failover condition");
+               }
+            }
+         }
+         catch (InterruptedException e)
+         {
+            throw new ActiveMQInterruptedException(e);
+         }
+      }
+   }
+
    /**
     * @param packet the packet to intercept
     * @return the name of the interceptor that returned <code>false</code> or <code>null</code> if no interceptors
@@ -499,6 +681,8 @@ public final class ChannelImpl implements Channel
          unlock();
       }
       closed = true;
+
+      failResponseHandlers(null);
    }
 
    public void transferConnection(final CoreRemotingConnection newConnection)
@@ -519,6 +703,13 @@ public final class ChannelImpl implements Channel
 
          transferring = true;
       }
+
+      // with a resend cache the requests are replayed, or their responses resent, once the session reattaches.
+      // Otherwise the responses expected on the old connection will never arrive
+      if (resendCache == null)
+      {
+         failResponseHandlers(null);
+      }
    }
 
    public void replayCommands(final int otherLastConfirmedCommandID)
@@ -609,6 +800,9 @@ public final class ChannelImpl implements Channel
 
          resendCache.clear();
       }
+
+      // the requests won't be replayed, nothing will answer them
+      failResponseHandlers(null);
    }
 
    public void handlePacket(final Packet packet)
@@ -635,6 +829,38 @@ public final class ChannelImpl implements Channel
          {
             confirm(packet);
 
+            final long correlationID = packet.getCorrelationID();
+
+            ResponseHandler responseHandler = correlationID == -1 ? pollResponseHandler() : removeResponseHandler(correlationID);
+
+            if (responseHandler == null && correlationID != -1)
+            {
+               if (isTrace)
+               {
+                  ActiveMQClientLogger.LOGGER.trace("Dropping response " + packet + " to a call that timed out");
+               }
+
+               return;
+            }
+
+            if (responseHandler != null)
+            {
+               if (packet.getType() == PacketImpl.EXCEPTION && !(responseHandler instanceof BlockingResponseHandler))
+               {
+                  ActiveMQException e = ((ActiveMQExceptionMessage) packet).getException();
+
+                  e.fillInStackTrace();
+
+                  responseHandler.responseFailed(e);
+               }
+               else
+               {
+                  responseHandler.responseReceived(packet);
+               }
+
+               return;
+            }
+
             lock.lock();
 
             try
@@ -656,7 +882,7 @@ public final class ChannelImpl implements Channel
 
    private void doWrite(final Packet packet)
    {
-      final ActiveMQBuffer buffer = packet.encode(connection);
+      final ActiveMQBuffer buffer = encode(packet);
 
       connection.getTransportConnection().write(buffer, false, false);
    }
@@ -705,4 +931,37 @@ public final class ChannelImpl implements Channel
    {
       return "Channel[id=" + CHANNEL_ID.idToString(id) + ", handler=" + handler + "]";
    }
+
+   /**
+    * Hands the response over to the blocking call that queued it, if the call is still waiting for it.
+    */
+   private final class BlockingResponseHandler implements ResponseHandler
+   {
+      public void responseReceived(final Packet packet)
+      {
+         lock.lock();
+
+         try
+         {
+            if (blockingResponseHandler == this)
+            {
+               response = packet;
+               sendCondition.signal();
+            }
+            else if (isTrace)
+            {
+               ActiveMQClientLogger.LOGGER.trace("Dropping response " + packet + " to a blocking call that timed out");
+            }
+         }
+         finally
+         {
+            lock.unlock();
+         }
+      }
+
+      public void responseFailed(final ActiveMQException cause)
+      {
+         // the blocking call is unblocked through returnBlocking
+      }
+   }
 }
@@ -34,6 +34,9 @@ public class PacketImpl implements Packet
 
    protected long channelID;
 
+   // not part of the packet body, the channel carries it when it correlates its packets
+   private long correlationID = -1;
+
    private final byte type;
 
    protected int size = -1;
@@ -246,6 +249,12 @@ public class PacketImpl implements Packet
 
    public static final byte SESS_BINDINGQUERY_RESP_V2 = -8;
 
+   public static final byte SESS_SEND_BATCH = -9;
+
+   public static final byte SESS_INDIVIDUAL_ACKNOWLEDGE_RANGE = -10;
+
+   public static final byte SESS_SEND_COMPRESSED_BATCH = -11;
+
    // Static --------------------------------------------------------
 
    public PacketImpl(final byte type)
@@ -270,6 +279,16 @@ public class PacketImpl implements Packet
       this.channelID = channelID;
    }
 
+   public long getCorrelationID()
+   {
+      return correlationID;
+   }
+
+   public void setCorrelationID(final long correlationID)
+   {
+      this.correlationID = correlationID;
+   }
+
    public ActiveMQBuffer encode(final RemotingConnection connection)
    {
       ActiveMQBuffer buffer = connection.createTransportBuffer(PacketImpl.INITIAL_PACKET_SIZE);
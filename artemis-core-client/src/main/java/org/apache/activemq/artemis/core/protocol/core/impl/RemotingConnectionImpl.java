@@ -37,6 +37,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.Disconnect
 import org.apache.activemq.artemis.core.security.ActiveMQPrincipal;
 import org.apache.activemq.artemis.spi.core.protocol.AbstractRemotingConnection;
 import org.apache.activemq.artemis.spi.core.remoting.Connection;
+import org.apache.activemq.artemis.utils.DataConstants;
 import org.apache.activemq.artemis.utils.SimpleIDGenerator;
 
 public class RemotingConnectionImpl extends AbstractRemotingConnection implements CoreRemotingConnection
@@ -368,7 +369,7 @@ public class RemotingConnectionImpl extends AbstractRemotingConnection implement
    {
       try
       {
-         final Packet packet = packetDecoder.decode(buffer);
+         final Packet packet = decode(buffer);
 
          if (isTrace)
          {
@@ -386,6 +387,25 @@ public class RemotingConnectionImpl extends AbstractRemotingConnection implement
       }
    }
 
+   private Packet decode(final ActiveMQBuffer buffer)
+   {
+      // the channel ID follows the packet type, as written by PacketImpl.encode
+      final Channel channel = channels.get(buffer.getLong(buffer.readerIndex() + DataConstants.SIZE_BYTE));
+
+      if (channel == null || !channel.isCorrelating())
+      {
+         return packetDecoder.decode(buffer);
+      }
+
+      final long correlationID = ChannelImpl.readCorrelationID(buffer);
+
+      final Packet packet = packetDecoder.decode(buffer);
+
+      packet.setCorrelationID(correlationID);
+
+      return packet;
+   }
+
    private void doBufferReceived(final Packet packet)
    {
       if (ChannelImpl.invokeInterceptors(packet, incomingInterceptors, this) != null)
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
+
+import java.util.BitSet;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+
+/**
+ * Individually acknowledges several messages of a consumer: bit {@code n} of the set acknowledges
+ * the message with ID {@code firstMessageID + n}.
+ */
+public class SessionIndividualAcknowledgeRangeMessage extends PacketImpl
+{
+   // Constants -----------------------------------------------------
+
+   // Attributes ----------------------------------------------------
+
+   private long consumerID;
+
+   private long firstMessageID;
+
+   private BitSet messageIDs;
+
+   private boolean requiresResponse;
+
+   // Static --------------------------------------------------------
+
+   // Constructors --------------------------------------------------
+
+   public SessionIndividualAcknowledgeRangeMessage(final long consumerID, final long firstMessageID, final BitSet messageIDs, final boolean requiresResponse)
+   {
+      super(SESS_INDIVIDUAL_ACKNOWLEDGE_RANGE);
+
+      this.consumerID = consumerID;
+
+      this.firstMessageID = firstMessageID;
+
+      this.messageIDs = messageIDs;
+
+      this.requiresResponse = requiresResponse;
+   }
+
+   public SessionIndividualAcknowledgeRangeMessage()
+   {
+      super(SESS_INDIVIDUAL_ACKNOWLEDGE_RANGE);
+   }
+
+   // Public --------------------------------------------------------
+
+   public long getConsumerID()
+   {
+      return consumerID;
+   }
+
+   public long getFirstMessageID()
+   {
+      return firstMessageID;
+   }
+
+   public BitSet getMessageIDs()
+   {
+      return messageIDs;
+   }
+
+   public boolean isRequiresResponse()
+   {
+      return requiresResponse;
+   }
+
+   @Override
+   public void encodeRest(final ActiveMQBuffer buffer)
+   {
+      buffer.writeLong(consumerID);
+
+      buffer.writeLong(firstMessageID);
+
+      long[] words = messageIDs.toLongArray();
+
+      buffer.writeInt(words.length);
+
+      for (long word : words)
+      {
+         buffer.writeLong(word);
+      }
+
+      buffer.writeBoolean(requiresResponse);
+   }
+
+   @Override
+   public void decodeRest(final ActiveMQBuffer buffer)
+   {
+      consumerID = buffer.readLong();
+
+      firstMessageID = buffer.readLong();
+
+      long[] words = new long[buffer.readInt()];
+
+      for (int i = 0; i < words.length; i++)
+      {
+         words[i] = buffer.readLong();
+      }
+
+      messageIDs = BitSet.valueOf(words);
+
+      requiresResponse = buffer.readBoolean();
+   }
+
+   @Override
+   public String toString()
+   {
+      return getParentString() + ", consumerID=" + consumerID + ", firstMessageID=" + firstMessageID +
+         ", count=" + (messageIDs == null ? 0 : messageIDs.cardinality()) + "]";
+   }
+
+   @Override
+   public int hashCode()
+   {
+      final int prime = 31;
+      int result = super.hashCode();
+      result = prime * result + (int)(consumerID ^ (consumerID >>> 32));
+      result = prime * result + (int)(firstMessageID ^ (firstMessageID >>> 32));
+      result = prime * result + (messageIDs == null ? 0 : messageIDs.hashCode());
+      result = prime * result + (requiresResponse ? 1231 : 1237);
+      return result;
+   }
+
+   @Override
+   public boolean equals(Object obj)
+   {
+      if (this == obj)
+         return true;
+      if (!super.equals(obj))
+         return false;
+      if (!(obj instanceof SessionIndividualAcknowledgeRangeMessage))
+         return false;
+      SessionIndividualAcknowledgeRangeMessage other = (SessionIndividualAcknowledgeRangeMessage)obj;
+      if (consumerID != other.consumerID)
+         return false;
+      if (firstMessageID != other.firstMessageID)
+         return false;
+      if (messageIDs == null)
+      {
+         if (other.messageIDs != null)
+            return false;
+      }
+      else if (!messageIDs.equals(other.messageIDs))
+         return false;
+      if (requiresResponse != other.requiresResponse)
+         return false;
+      return true;
+   }
+}
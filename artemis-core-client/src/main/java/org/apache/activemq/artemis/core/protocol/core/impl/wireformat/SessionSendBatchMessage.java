@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.core.message.impl.MessageInternal;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.utils.DataConstants;
+
+/**
+ * Carries several regular (non large) messages in one packet.
+ * <p>
+ * Each message is written in its persistent encoding, the same one used by the journal and paging.
+ */
+public class SessionSendBatchMessage extends PacketImpl
+{
+   protected List<MessageInternal> messages;
+
+   protected boolean requiresResponse;
+
+   public SessionSendBatchMessage(final List<MessageInternal> messages, final boolean requiresResponse)
+   {
+      super(SESS_SEND_BATCH);
+      this.messages = messages;
+      this.requiresResponse = requiresResponse;
+   }
+
+   public SessionSendBatchMessage()
+   {
+      super(SESS_SEND_BATCH);
+   }
+
+   protected SessionSendBatchMessage(final byte type, final List<MessageInternal> messages, final boolean requiresResponse)
+   {
+      super(type);
+      this.messages = messages;
+      this.requiresResponse = requiresResponse;
+   }
+
+   protected SessionSendBatchMessage(final byte type)
+   {
+      super(type);
+   }
+
+   // Public --------------------------------------------------------
+
+   public List<MessageInternal> getMessages()
+   {
+      return messages;
+   }
+
+   public boolean isRequiresResponse()
+   {
+      return requiresResponse;
+   }
+
+   @Override
+   public ActiveMQBuffer encode(final RemotingConnection connection)
+   {
+      int encodeSize = PACKET_HEADERS_SIZE + DataConstants.SIZE_BOOLEAN + DataConstants.SIZE_INT;
+      for (MessageInternal message : messages)
+      {
+         encodeSize += message.getEncodeSize();
+      }
+
+      ActiveMQBuffer buffer = connection.createTransportBuffer(encodeSize);
+
+      buffer.writeInt(0); // The length gets filled in at the end
+      buffer.writeByte(getType());
+      buffer.writeLong(channelID);
+
+      encodeRest(buffer);
+
+      size = buffer.writerIndex();
+
+      buffer.setInt(0, size - DataConstants.SIZE_INT);
+
+      return buffer;
+   }
+
+   @Override
+   public void encodeRest(final ActiveMQBuffer buffer)
+   {
+      buffer.writeBoolean(requiresResponse);
+      buffer.writeInt(messages.size());
+      for (MessageInternal message : messages)
+      {
+         message.encode(buffer);
+      }
+   }
+
+   @Override
+   public void decodeRest(final ActiveMQBuffer buffer)
+   {
+      requiresResponse = buffer.readBoolean();
+      int count = buffer.readInt();
+
+      // every message takes at least the int closing its body
+      if (count < 0 || count > buffer.readableBytes() / DataConstants.SIZE_INT)
+      {
+         throw new IllegalStateException("Invalid batch of " + count + " messages in " + buffer.readableBytes() + " bytes");
+      }
+
+      messages = new ArrayList<MessageInternal>(count);
+      for (int i = 0; i < count; i++)
+      {
+         MessageInternal message = createMessage();
+         message.decode(buffer);
+         messages.add(message);
+      }
+   }
+
+   /**
+    * Creates the message instances the batch is decoded into.
+    */
+   protected MessageInternal createMessage()
+   {
+      throw new IllegalStateException("batched sends are only decoded on the server");
+   }
+
+   @Override
+   public String toString()
+   {
+      return getParentString() + ", messages=" + (messages == null ? 0 : messages.size()) +
+         ", requiresResponse=" + requiresResponse + "]";
+   }
+
+   @Override
+   public int hashCode()
+   {
+      final int prime = 31;
+      int result = super.hashCode();
+      result = prime * result + (requiresResponse ? 1231 : 1237);
+      result = prime * result + (messages == null ? 0 : messages.hashCode());
+      return result;
+   }
+
+   @Override
+   public boolean equals(Object obj)
+   {
+      if (this == obj)
+         return true;
+      if (!super.equals(obj))
+         return false;
+      if (!(obj instanceof SessionSendBatchMessage))
+         return false;
+      SessionSendBatchMessage other = (SessionSendBatchMessage) obj;
+      if (requiresResponse != other.requiresResponse)
+         return false;
+      if (messages == null)
+      {
+         if (other.messages != null)
+            return false;
+      }
+      else if (!messages.equals(other.messages))
+         return false;
+      return true;
+   }
+}
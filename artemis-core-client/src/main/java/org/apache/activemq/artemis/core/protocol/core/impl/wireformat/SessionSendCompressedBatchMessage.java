@@ -0,0 +1,291 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
+import org.apache.activemq.artemis.core.message.impl.MessageImpl;
+import org.apache.activemq.artemis.core.message.impl.MessageInternal;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.utils.DataConstants;
+
+/**
+ * A {@link SessionSendBatchMessage} whose messages are deflated together.
+ * <p>
+ * The messages are compressed once, when the packet is created, so a packet resent from the
+ * confirmation window is not compressed again. Each packet is a complete deflate stream that
+ * can be inflated on its own.
+ * <p>
+ * Every message is preceded by the length of its persistent encoding, which lets the receiver
+ * inflate it straight into the buffer of the message it decodes.
+ */
+public class SessionSendCompressedBatchMessage extends SessionSendBatchMessage
+{
+   private static final int CHUNK_SIZE = 8192;
+
+   private byte[] compressed;
+
+   private int compressedLength;
+
+   private int uncompressedLength;
+
+   private final int maxUncompressedLength;
+
+   public SessionSendCompressedBatchMessage(final List<MessageInternal> messages, final boolean requiresResponse)
+   {
+      super(SESS_SEND_COMPRESSED_BATCH, messages, requiresResponse);
+      this.maxUncompressedLength = Integer.MAX_VALUE;
+      compress();
+   }
+
+   /**
+    * @param maxUncompressedLength the biggest size the decoded messages may inflate to
+    */
+   public SessionSendCompressedBatchMessage(final int maxUncompressedLength)
+   {
+      super(SESS_SEND_COMPRESSED_BATCH);
+      this.maxUncompressedLength = maxUncompressedLength;
+   }
+
+   // Public --------------------------------------------------------
+
+   /**
+    * @return the size of the messages before compression
+    */
+   public int getUncompressedLength()
+   {
+      return uncompressedLength;
+   }
+
+   /**
+    * @return the size of the messages after compression
+    */
+   public int getCompressedLength()
+   {
+      return compressedLength;
+   }
+
+   @Override
+   public ActiveMQBuffer encode(final RemotingConnection connection)
+   {
+      int encodeSize = PACKET_HEADERS_SIZE + DataConstants.SIZE_BOOLEAN + 3 * DataConstants.SIZE_INT + compressedLength;
+
+      ActiveMQBuffer buffer = connection.createTransportBuffer(encodeSize);
+
+      buffer.writeInt(0); // The length gets filled in at the end
+      buffer.writeByte(getType());
+      buffer.writeLong(channelID);
+
+      encodeRest(buffer);
+
+      size = buffer.writerIndex();
+
+      buffer.setInt(0, size - DataConstants.SIZE_INT);
+
+      return buffer;
+   }
+
+   @Override
+   public void encodeRest(final ActiveMQBuffer buffer)
+   {
+      buffer.writeBoolean(requiresResponse);
+      buffer.writeInt(messages.size());
+      buffer.writeInt(uncompressedLength);
+      buffer.writeInt(compressedLength);
+      buffer.writeBytes(compressed, 0, compressedLength);
+   }
+
+   @Override
+   public void decodeRest(final ActiveMQBuffer buffer)
+   {
+      requiresResponse = buffer.readBoolean();
+      int count = buffer.readInt();
+      uncompressedLength = buffer.readInt();
+      compressedLength = buffer.readInt();
+
+      if (uncompressedLength < 0 || uncompressedLength > maxUncompressedLength)
+      {
+         throw new IllegalStateException("Compressed batch inflating to " + uncompressedLength +
+                                            " bytes, the maximum is " + maxUncompressedLength);
+      }
+
+      // every message takes at least its length
+      if (count < 0 || count > uncompressedLength / DataConstants.SIZE_INT)
+      {
+         throw new IllegalStateException("Invalid compressed batch of " + count + " messages in " +
+                                            uncompressedLength + " bytes");
+      }
+
+      if (compressedLength < 0 || compressedLength > buffer.readableBytes())
+      {
+         throw new IllegalStateException("Invalid compressed batch of " + compressedLength + " bytes");
+      }
+
+      compressed = new byte[compressedLength];
+      buffer.readBytes(compressed);
+
+      messages = new ArrayList<MessageInternal>(count);
+
+      Inflater inflater = new Inflater();
+      try
+      {
+         inflater.setInput(compressed, 0, compressedLength);
+
+         byte[] lengthBytes = new byte[DataConstants.SIZE_INT];
+
+         int remaining = uncompressedLength;
+
+         for (int i = 0; i < count; i++)
+         {
+            if (remaining < DataConstants.SIZE_INT)
+            {
+               throw new DataFormatException("Compressed batch is longer than announced");
+            }
+
+            inflate(inflater, lengthBytes, 0, lengthBytes.length);
+
+            remaining -= DataConstants.SIZE_INT;
+
+            int length = (lengthBytes[0] & 0xFF) << 24 | (lengthBytes[1] & 0xFF) << 16 |
+               (lengthBytes[2] & 0xFF) << 8 | lengthBytes[3] & 0xFF;
+
+            // nothing is allocated for more than the batch announced
+            if (length < 0 || length > remaining)
+            {
+               throw new DataFormatException("Invalid message length " + length + " with " + remaining +
+                                                " bytes left in the batch");
+            }
+
+            remaining -= length;
+
+            // the message is inflated where MessageImpl keeps its encoding, and the message takes over the buffer
+            ActiveMQBuffer messageBuffer = ActiveMQBuffers.dynamicBuffer(MessageImpl.BUFFER_HEADER_SPACE + length);
+            ByteBuf byteBuf = messageBuffer.byteBuf();
+            inflate(inflater, byteBuf.array(), byteBuf.arrayOffset() + MessageImpl.BUFFER_HEADER_SPACE, length);
+            messageBuffer.setIndex(0, MessageImpl.BUFFER_HEADER_SPACE + length);
+
+            MessageInternal message = createMessage();
+            message.decodeFromBuffer(messageBuffer);
+            messages.add(message);
+         }
+
+         if (remaining != 0 || inflater.getTotalOut() != uncompressedLength)
+         {
+            throw new DataFormatException("Compressed batch inflated to " + inflater.getTotalOut() +
+                                             " bytes instead of " + uncompressedLength);
+         }
+      }
+      catch (DataFormatException e)
+      {
+         throw new IllegalStateException("Invalid compressed batch", e);
+      }
+      finally
+      {
+         inflater.end();
+      }
+
+      // the messages own their data now
+      compressed = null;
+   }
+
+   @Override
+   public String toString()
+   {
+      return getParentString() + ", messages=" + (messages == null ? 0 : messages.size()) +
+         ", requiresResponse=" + requiresResponse +
+         ", uncompressedLength=" + uncompressedLength +
+         ", compressedLength=" + compressedLength + "]";
+   }
+
+   // Private -------------------------------------------------------
+
+   private void compress()
+   {
+      ActiveMQBuffer encoded = ActiveMQBuffers.dynamicBuffer(CHUNK_SIZE);
+
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try
+      {
+         compressed = new byte[CHUNK_SIZE];
+
+         // one message at a time, so the uncompressed batch is never held as a whole
+         for (MessageInternal message : messages)
+         {
+            encoded.clear();
+            encoded.writeInt(0);
+            message.encode(encoded);
+            encoded.setInt(0, encoded.writerIndex() - DataConstants.SIZE_INT);
+
+            uncompressedLength += encoded.writerIndex();
+
+            ByteBuf byteBuf = encoded.byteBuf();
+            deflater.setInput(byteBuf.array(), byteBuf.arrayOffset(), encoded.writerIndex());
+
+            while (!deflater.needsInput())
+            {
+               deflate(deflater);
+            }
+         }
+
+         deflater.finish();
+
+         while (!deflater.finished())
+         {
+            deflate(deflater);
+         }
+      }
+      finally
+      {
+         deflater.end();
+      }
+   }
+
+   private void deflate(final Deflater deflater)
+   {
+      if (compressedLength == compressed.length)
+      {
+         compressed = Arrays.copyOf(compressed, compressed.length * 2);
+      }
+
+      compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+   }
+
+   private static void inflate(final Inflater inflater, final byte[] bytes, final int offset, final int length) throws DataFormatException
+   {
+      int read = 0;
+
+      while (read < length)
+      {
+         int inflated = inflater.inflate(bytes, offset + read, length - read);
+
+         if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary() || inflater.finished()))
+         {
+            throw new DataFormatException("Compressed batch is truncated");
+         }
+
+         read += inflated;
+      }
+   }
+}
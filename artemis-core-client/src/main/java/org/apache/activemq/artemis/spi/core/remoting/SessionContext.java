@@ -18,7 +18,9 @@ package org.apache.activemq.artemis.spi.core.remoting;
 
 import javax.transaction.xa.XAException;
 import javax.transaction.xa.Xid;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
@@ -28,6 +30,7 @@ import org.apache.activemq.artemis.api.core.client.ClientConsumer;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
 import org.apache.activemq.artemis.core.client.impl.ClientConsumerInternal;
+import org.apache.activemq.artemis.core.client.impl.ClientFutureImpl;
 import org.apache.activemq.artemis.core.client.impl.ClientLargeMessageInternal;
 import org.apache.activemq.artemis.core.client.impl.ClientMessageInternal;
 import org.apache.activemq.artemis.core.client.impl.ClientProducerCreditsImpl;
@@ -45,6 +48,9 @@ public abstract class SessionContext
 
    protected volatile RemotingConnection remotingConnection;
 
+   // runs the callbacks of asynchronous calls, null to run them on the remoting thread
+   protected Executor responseExecutor;
+
    protected final IDGenerator idGenerator = new SimpleIDGenerator(0);
 
 
@@ -64,6 +70,16 @@ public abstract class SessionContext
       this.session = session;
    }
 
+   /**
+    * Sets the executor completing the futures and calling the handlers of asynchronous calls, so
+    * user code never runs on the remoting thread. It has to be ordered, or responses could be
+    * handled out of order.
+    */
+   public void setResponseExecutor(Executor responseExecutor)
+   {
+      this.responseExecutor = responseExecutor;
+   }
+
    /**
     * it will eather reattach or reconnect, preferably reattaching it.
     *
@@ -137,6 +153,29 @@ public abstract class SessionContext
 
    public abstract void sendFullMessage(MessageInternal msgI, boolean sendBlocking, SendAcknowledgementHandler handler, SimpleString defaultAddress) throws ActiveMQException;
 
+   /**
+    * @return true if the server accepts several regular messages in a single send
+    */
+   public abstract boolean supportsBatchedSend();
+
+   /**
+    * Sends regular (non large) messages to the server in a single packet.
+    * The confirmation of the batch is reported to the session's {@link SendAcknowledgementHandler} for each message.
+    */
+   public abstract void sendFullMessages(List<MessageInternal> messages, boolean sendBlocking) throws ActiveMQException;
+
+   /**
+    * @return true if the server accepts batches of messages whose content is compressed
+    */
+   public abstract boolean supportsCompressedSend();
+
+   /**
+    * Same as {@link #sendFullMessages(List, boolean)} but the messages are deflated in the packet.
+    *
+    * @return the number of bytes the messages were compressed to
+    */
+   public abstract int sendCompressedMessages(List<MessageInternal> messages, boolean sendBlocking) throws ActiveMQException;
+
    /**
     * it should return the number of credits (or bytes) used to send this packet
     *
@@ -169,6 +208,10 @@ public abstract class SessionContext
 
    public abstract void simpleCommit() throws ActiveMQException;
 
+   /**
+    * Same as {@link #simpleCommit()} without blocking, the future is completed once the server answers.
+    */
+   public abstract void simpleCommitAsync(ClientFutureImpl<Void> future) throws ActiveMQException;
 
    /**
     * If we are doing a simple rollback on the RA, we need to ack the last message sent to the consumer,
@@ -187,6 +230,21 @@ public abstract class SessionContext
 
    public abstract void sendACK(boolean individual, boolean block, final ClientConsumer consumer, final Message message) throws ActiveMQException;
 
+   /**
+    * Sends the ACK without blocking, the future is completed once the server answers.
+    */
+   public abstract void sendACKAsync(boolean individual, final ClientConsumer consumer, final Message message, ClientFutureImpl<Void> future) throws ActiveMQException;
+
+   /**
+    * @return true if the server accepts individual acknowledgements of several messages in a single packet
+    */
+   public abstract boolean supportsIndividualACKRanges();
+
+   /**
+    * Individually acknowledges the messages {@code firstMessageID + n} for every bit {@code n} set.
+    */
+   public abstract void sendIndividualACKRange(boolean block, ClientConsumer consumer, long firstMessageID, BitSet messageIDs) throws ActiveMQException;
+
    public abstract void expireMessage(final ClientConsumer consumer, Message message) throws ActiveMQException;
 
    public abstract void sessionClose() throws ActiveMQException;
@@ -213,9 +271,19 @@ public abstract class SessionContext
 
    public abstract boolean configureTransactionTimeout(int seconds) throws ActiveMQException;
 
-   public abstract ClientConsumerInternal createConsumer(SimpleString queueName, SimpleString filterString, int windowSize, int maxRate, int ackBatchSize, boolean browseOnly,
+   public abstract ClientConsumerInternal createConsumer(SimpleString queueName, SimpleString filterString, int windowSize, boolean autoTuneWindowSize,
+                                                         int maxRate, int ackBatchSize, boolean browseOnly,
                                                          Executor executor, Executor flowControlExecutor) throws ActiveMQException;
 
+   /**
+    * Like {@link #createConsumer}, but completes the future with the consumer once the server answers instead of
+    * waiting for it.
+    */
+   public abstract void createConsumerAsync(SimpleString queueName, SimpleString filterString, int windowSize, boolean autoTuneWindowSize,
+                                            int maxRate, int ackBatchSize, boolean browseOnly,
+                                            Executor executor, Executor flowControlExecutor,
+                                            ClientFutureImpl<ClientConsumerInternal> future) throws ActiveMQException;
+
    /**
     * Performs a round trip to the server requesting what is the current tx timeout on the session
     *
@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.utils;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An unbounded single-producer/single-consumer buffer with priorities.
+ * <p>
+ * Each priority level is a chain of array segments: the producer only publishes its index and the consumer only
+ * publishes its own, so neither side takes a lock. A level is created the first time the producer sees its priority,
+ * and while a single priority is in use {@link #poll()} goes straight to that level without scanning the others.
+ * <p>
+ * {@link #addTail(Object, int)} must only be called by one thread at a time (callers may serialize it externally).
+ * {@link #poll()} and {@link #clear()} are normally called by a single consumer too, but they are guarded against each
+ * other so that a clear coming from another thread (e.g. on failover) cannot corrupt the buffer.
+ */
+public final class SpscPriorityBuffer<T>
+{
+   private static final AtomicIntegerFieldUpdater<SpscPriorityBuffer> CONSUMING =
+      AtomicIntegerFieldUpdater.newUpdater(SpscPriorityBuffer.class, "consuming");
+
+   private final AtomicReferenceArray<Level<T>> levels;
+
+   // the only level in use, while no other priority has been seen
+   private volatile Level<T> singleLevel;
+
+   private volatile boolean multiplePriorities;
+
+   private volatile int consuming;
+
+   public SpscPriorityBuffer(final int priorities)
+   {
+      levels = new AtomicReferenceArray<Level<T>>(priorities);
+   }
+
+   public void addTail(final T t, final int priority)
+   {
+      Level<T> level = levels.get(priority);
+
+      if (level == null)
+      {
+         level = new Level<T>();
+         levels.set(priority, level);
+
+         if (singleLevel == null)
+         {
+            singleLevel = level;
+         }
+         else
+         {
+            multiplePriorities = true;
+         }
+      }
+
+      level.offer(t);
+   }
+
+   public T poll()
+   {
+      lockConsumer();
+      try
+      {
+         return doPoll();
+      }
+      finally
+      {
+         unlockConsumer();
+      }
+   }
+
+   public void clear()
+   {
+      lockConsumer();
+      try
+      {
+         while (doPoll() != null)
+         {
+            // just drain it
+         }
+      }
+      finally
+      {
+         unlockConsumer();
+      }
+   }
+
+   public int size()
+   {
+      long size = 0;
+
+      for (int i = 0; i < levels.length(); i++)
+      {
+         Level<T> level = levels.get(i);
+         if (level != null)
+         {
+            size += level.size();
+         }
+      }
+
+      return (int) Math.min(size, Integer.MAX_VALUE);
+   }
+
+   public boolean isEmpty()
+   {
+      return size() == 0;
+   }
+
+   private T doPoll()
+   {
+      if (!multiplePriorities)
+      {
+         Level<T> level = singleLevel;
+         return level == null ? null : level.poll();
+      }
+
+      for (int i = levels.length() - 1; i >= 0; i--)
+      {
+         Level<T> level = levels.get(i);
+         if (level != null)
+         {
+            T t = level.poll();
+            if (t != null)
+            {
+               return t;
+            }
+         }
+      }
+
+      return null;
+   }
+
+   private void lockConsumer()
+   {
+      // uncontended unless a clear is racing with the regular consumer
+      while (!CONSUMING.compareAndSet(this, 0, 1))
+      {
+         Thread.yield();
+      }
+   }
+
+   private void unlockConsumer()
+   {
+      CONSUMING.lazySet(this, 0);
+   }
+
+   /**
+    * Unbounded SPSC queue made of fixed size array segments, the last slot of each segment links to the next one.
+    */
+   private static final class Level<T>
+   {
+      private static final int SEGMENT_SIZE = 1024;
+
+      private static final AtomicLongFieldUpdater<Level> PRODUCER_INDEX =
+         AtomicLongFieldUpdater.newUpdater(Level.class, "producerIndex");
+
+      private static final AtomicLongFieldUpdater<Level> CONSUMER_INDEX =
+         AtomicLongFieldUpdater.newUpdater(Level.class, "consumerIndex");
+
+      private volatile long producerIndex;
+
+      private volatile long consumerIndex;
+
+      // producer side only
+      private Object[] producerSegment;
+
+      private int producerOffset;
+
+      // consumer side only
+      private Object[] consumerSegment;
+
+      private int consumerOffset;
+
+      Level()
+      {
+         producerSegment = new Object[SEGMENT_SIZE + 1];
+         consumerSegment = producerSegment;
+      }
+
+      void offer(final T t)
+      {
+         if (producerOffset == SEGMENT_SIZE)
+         {
+            Object[] next = new Object[SEGMENT_SIZE + 1];
+            producerSegment[SEGMENT_SIZE] = next;
+            producerSegment = next;
+            producerOffset = 0;
+         }
+
+         producerSegment[producerOffset++] = t;
+
+         // publishes the element (and the link to a new segment) to the consumer
+         PRODUCER_INDEX.lazySet(this, producerIndex + 1);
+      }
+
+      @SuppressWarnings("unchecked")
+      T poll()
+      {
+         long index = consumerIndex;
+
+         if (index == producerIndex)
+         {
+            return null;
+         }
+
+         if (consumerOffset == SEGMENT_SIZE)
+         {
+            consumerSegment = (Object[]) consumerSegment[SEGMENT_SIZE];
+            consumerOffset = 0;
+         }
+
+         T t = (T) consumerSegment[consumerOffset];
+         consumerSegment[consumerOffset++] = null;
+
+         CONSUMER_INDEX.lazySet(this, index + 1);
+
+         return t;
+      }
+
+      long size()
+      {
+         return producerIndex - consumerIndex;
+      }
+   }
+}
@@ -45,6 +45,7 @@ import org.apache.activemq.artemis.api.core.client.FailoverEventListener;
 import org.apache.activemq.artemis.api.core.client.FailoverEventType;
 import org.apache.activemq.artemis.api.core.client.SessionFailureListener;
 import org.apache.activemq.artemis.api.jms.ActiveMQJMSConstants;
+import org.apache.activemq.artemis.core.client.impl.ClientSessionFactoryInternal;
 import org.apache.activemq.artemis.core.client.impl.ClientSessionInternal;
 import org.apache.activemq.artemis.core.version.Version;
 import org.apache.activemq.artemis.reader.MessageUtil;
@@ -125,6 +126,12 @@ public class ActiveMQConnection extends ActiveMQConnectionForContextImpl impleme
 
    private ActiveMQConnectionFactory factoryReference;
 
+   // where the core connection goes back on close, null if it isn't pooled
+   private ActiveMQConnectionPool connectionPool;
+
+   // a client ID set on the connection is unique on the server, such a connection can't be reused
+   private boolean uniqueClientID;
+
    // Constructors ---------------------------------------------------------------------------------
 
    public ActiveMQConnection(final String username, final String password, final int connectionType,
@@ -241,6 +248,9 @@ public class ActiveMQConnection extends ActiveMQConnectionForContextImpl impleme
       }
 
       this.clientID = clientID;
+
+      uniqueClientID = true;
+
       try
       {
          this.addSessionMetaData(initialSession);
@@ -339,7 +349,14 @@ public class ActiveMQConnection extends ActiveMQConnectionForContextImpl impleme
          return;
       }
 
-      sessionFactory.close();
+      boolean pooled = connectionPool != null;
+
+      boolean released = false;
+
+      if (!pooled)
+      {
+         sessionFactory.close();
+      }
 
       try
       {
@@ -374,7 +391,15 @@ public class ActiveMQConnection extends ActiveMQConnectionForContextImpl impleme
          {
             if (initialSession != null)
             {
-               initialSession.close();
+               if (pooled)
+               {
+                  released = releaseToPool();
+               }
+
+               if (!released)
+               {
+                  initialSession.close();
+               }
             }
          }
 
@@ -384,6 +409,13 @@ public class ActiveMQConnection extends ActiveMQConnectionForContextImpl impleme
       {
          throw JMSExceptionHelper.convertFromActiveMQException(e);
       }
+      finally
+      {
+         if (pooled && !released)
+         {
+            sessionFactory.close();
+         }
+      }
    }
 
    public ConnectionConsumer
@@ -714,15 +746,38 @@ public class ActiveMQConnection extends ActiveMQConnectionForContextImpl impleme
    }
 
    public void authorize() throws JMSException
+   {
+      authorize(null);
+   }
+
+   /**
+    * @param pooledSession the initial session of a pooled connection, already authorized with the same credentials,
+    *                      or null to create a new one
+    */
+   void authorize(final ClientSession pooledSession) throws JMSException
    {
       try
       {
-         initialSession = sessionFactory.createSession(username, password, false, false, false, false, 0);
+         if (pooledSession == null)
+         {
+            initialSession = sessionFactory.createSession(username, password, false, false, false, false, 0);
 
-         addSessionMetaData(initialSession);
+            addSessionMetaData(initialSession);
+         }
+         else
+         {
+            initialSession = pooledSession;
+         }
 
          initialSession.addFailureListener(listener);
          initialSession.addFailoverListener(failoverListener);
+
+         // the sessions of a factory with several connections may be on any of them,
+         // the initial session only registered the listener on its own
+         if (sessionFactory instanceof ClientSessionFactoryInternal)
+         {
+            ((ClientSessionFactoryInternal) sessionFactory).addFailureListener(listener);
+         }
       }
       catch (ActiveMQException me)
       {
@@ -744,6 +799,30 @@ public class ActiveMQConnection extends ActiveMQConnectionForContextImpl impleme
       this.factoryReference = factory;
    }
 
+   void setConnectionPool(final ActiveMQConnectionPool connectionPool)
+   {
+      this.connectionPool = connectionPool;
+   }
+
+   private boolean releaseToPool()
+   {
+      if (uniqueClientID)
+      {
+         return false;
+      }
+
+      // the next connection registers its own listeners
+      initialSession.removeFailureListener(listener);
+      initialSession.removeFailoverListener(failoverListener);
+
+      if (sessionFactory instanceof ClientSessionFactoryInternal)
+      {
+         ((ClientSessionFactoryInternal) sessionFactory).removeFailureListener(listener);
+      }
+
+      return connectionPool.release(username, password, sessionFactory, initialSession);
+   }
+
    public boolean isStarted()
    {
       return started;
@@ -65,6 +65,12 @@ public class ActiveMQConnectionFactory implements Externalizable, Referenceable,
 
    private int transactionBatchSize = ActiveMQClient.DEFAULT_ACK_BATCH_SIZE;
 
+   private int connectionPoolSize = ActiveMQClient.DEFAULT_CONNECTION_POOL_SIZE;
+
+   private long connectionPoolIdleTimeout = ActiveMQClient.DEFAULT_CONNECTION_POOL_IDLE_TIMEOUT;
+
+   private ActiveMQConnectionPool connectionPool;
+
    private  boolean readOnly;
 
    public void writeExternal(ObjectOutput out) throws IOException
@@ -382,6 +388,34 @@ public class ActiveMQConnectionFactory implements Externalizable, Referenceable,
       this.transactionBatchSize = transactionBatchSize;
    }
 
+   public synchronized int getConnectionPoolSize()
+   {
+      return connectionPoolSize;
+   }
+
+   /**
+    * The number of closed connections kept open to be reused by the next createConnection(), 0 disables pooling.
+    */
+   public synchronized void setConnectionPoolSize(final int connectionPoolSize)
+   {
+      checkWrite();
+      this.connectionPoolSize = connectionPoolSize;
+   }
+
+   public synchronized long getConnectionPoolIdleTimeout()
+   {
+      return connectionPoolIdleTimeout;
+   }
+
+   /**
+    * How long, in milliseconds, a pooled connection stays open without being reused.
+    */
+   public synchronized void setConnectionPoolIdleTimeout(final long connectionPoolIdleTimeout)
+   {
+      checkWrite();
+      this.connectionPoolIdleTimeout = connectionPoolIdleTimeout;
+   }
+
    public synchronized long getClientFailureCheckPeriod()
    {
       return serverLocator.getClientFailureCheckPeriod();
@@ -437,6 +471,17 @@ public class ActiveMQConnectionFactory implements Externalizable, Referenceable,
       serverLocator.setConsumerWindowSize(consumerWindowSize);
    }
 
+   public synchronized boolean isAutoTuneConsumerWindowSize()
+   {
+      return serverLocator.isAutoTuneConsumerWindowSize();
+   }
+
+   public synchronized void setAutoTuneConsumerWindowSize(final boolean autoTuneConsumerWindowSize)
+   {
+      checkWrite();
+      serverLocator.setAutoTuneConsumerWindowSize(autoTuneConsumerWindowSize);
+   }
+
    public synchronized int getConsumerMaxRate()
    {
       return serverLocator.getConsumerMaxRate();
@@ -459,6 +504,28 @@ public class ActiveMQConnectionFactory implements Externalizable, Referenceable,
       serverLocator.setConfirmationWindowSize(confirmationWindowSize);
    }
 
+   public synchronized int getMaxOutstandingAsyncSends()
+   {
+      return serverLocator.getMaxOutstandingAsyncSends();
+   }
+
+   public synchronized void setMaxOutstandingAsyncSends(final int maxOutstandingAsyncSends)
+   {
+      checkWrite();
+      serverLocator.setMaxOutstandingAsyncSends(maxOutstandingAsyncSends);
+   }
+
+   public synchronized int getConnectionsPerFactory()
+   {
+      return serverLocator.getConnectionsPerFactory();
+   }
+
+   public synchronized void setConnectionsPerFactory(final int connectionsPerFactory)
+   {
+      checkWrite();
+      serverLocator.setConnectionsPerFactory(connectionsPerFactory);
+   }
+
    public synchronized int getProducerMaxRate()
    {
       return serverLocator.getProducerMaxRate();
@@ -693,6 +760,14 @@ public class ActiveMQConnectionFactory implements Externalizable, Referenceable,
 
    public void close()
    {
+      ActiveMQConnectionPool pool0;
+      synchronized (this)
+      {
+         pool0 = connectionPool;
+         connectionPool = null;
+      }
+      if (pool0 != null)
+         pool0.close();
       ServerLocator locator0 = serverLocator;
       if (locator0 != null)
          locator0.close();
@@ -719,11 +794,23 @@ public class ActiveMQConnectionFactory implements Externalizable, Referenceable,
    {
       readOnly = true;
 
+      if (connectionPool == null && connectionPoolSize > 0)
+      {
+         connectionPool = new ActiveMQConnectionPool(serverLocator, connectionPoolSize, connectionPoolIdleTimeout);
+      }
+
+      ActiveMQConnectionPool.PooledConnection pooled = null;
+
+      if (connectionPool != null)
+      {
+         pooled = connectionPool.acquire(username, password);
+      }
+
       ClientSessionFactory factory;
 
       try
       {
-         factory = serverLocator.createSessionFactory();
+         factory = pooled != null ? pooled.getSessionFactory() : serverLocator.createSessionFactory();
       }
       catch (Exception e)
       {
@@ -814,9 +901,11 @@ public class ActiveMQConnectionFactory implements Externalizable, Referenceable,
       }
       connection.setReference(this);
 
+      connection.setConnectionPool(connectionPool);
+
       try
       {
-         connection.authorize();
+         connection.authorize(pooled != null ? pooled.getInitialSession() : null);
       }
       catch (JMSException e)
       {
@@ -866,6 +955,10 @@ public class ActiveMQConnectionFactory implements Externalizable, Referenceable,
    {
       try
       {
+         if (connectionPool != null)
+         {
+            connectionPool.close();
+         }
          serverLocator.close();
       }
       catch (Exception e)
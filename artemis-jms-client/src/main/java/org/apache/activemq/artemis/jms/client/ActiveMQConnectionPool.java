@@ -0,0 +1,364 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.jms.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.client.impl.ClientSessionFactoryGroup;
+import org.apache.activemq.artemis.core.client.impl.ClientSessionFactoryInternal;
+import org.apache.activemq.artemis.core.client.impl.Topology;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.utils.ActiveMQThreadFactory;
+
+/**
+ * Keeps the core connections of closed {@link ActiveMQConnection}s open, so the next connection created with the
+ * same credentials reuses the TCP connection, the handshake and the initial session instead of paying for them again.
+ * <p>
+ * Idle connections are closed once they have been idle longer than the idle timeout. A connection that failed,
+ * or whose live server left the topology, is closed instead of being handed out again.
+ */
+public class ActiveMQConnectionPool
+{
+   private final ServerLocator serverLocator;
+
+   private final int maxIdleConnections;
+
+   private final long idleTimeout;
+
+   private final Map<Credentials, Deque<PooledConnection>> idleConnections = new HashMap<Credentials, Deque<PooledConnection>>();
+
+   private final ScheduledExecutorService evictor;
+
+   private int idleCount;
+
+   private boolean closed;
+
+   public ActiveMQConnectionPool(final ServerLocator serverLocator, final int maxIdleConnections, final long idleTimeout)
+   {
+      this.serverLocator = serverLocator;
+
+      this.maxIdleConnections = maxIdleConnections;
+
+      this.idleTimeout = idleTimeout;
+
+      if (idleTimeout > 0)
+      {
+         evictor = Executors.newSingleThreadScheduledExecutor(new ActiveMQThreadFactory("ActiveMQ-connection-pool",
+                                                                                         true,
+                                                                                         ActiveMQConnectionPool.class.getClassLoader()));
+
+         evictor.scheduleWithFixedDelay(new Runnable()
+         {
+            public void run()
+            {
+               evictIdleConnections();
+            }
+         }, idleTimeout, idleTimeout, TimeUnit.MILLISECONDS);
+      }
+      else
+      {
+         evictor = null;
+      }
+   }
+
+   /**
+    * @return an idle connection opened with the same credentials, or null if a new one has to be created
+    */
+   public PooledConnection acquire(final String username, final String password)
+   {
+      List<PooledConnection> unusable = new ArrayList<PooledConnection>();
+
+      PooledConnection connection = null;
+
+      synchronized (this)
+      {
+         Deque<PooledConnection> idle = idleConnections.get(new Credentials(username, password));
+
+         while (idle != null && connection == null && !idle.isEmpty())
+         {
+            // the most recently used connection is the least likely to have been dropped
+            PooledConnection candidate = idle.pollLast();
+
+            idleCount--;
+
+            if (isUsable(candidate))
+            {
+               connection = candidate;
+            }
+            else
+            {
+               unusable.add(candidate);
+            }
+         }
+      }
+
+      for (PooledConnection candidate : unusable)
+      {
+         candidate.close();
+      }
+
+      return connection;
+   }
+
+   /**
+    * Takes back the connection of a closed {@link ActiveMQConnection}.
+    *
+    * @return false if the pool is full or the connection can't be used anymore, the caller must close it then
+    */
+   public synchronized boolean release(final String username,
+                                       final String password,
+                                       final ClientSessionFactory sessionFactory,
+                                       final ClientSession initialSession)
+   {
+      PooledConnection connection = new PooledConnection(sessionFactory, initialSession);
+
+      if (closed || idleCount >= maxIdleConnections || !isUsable(connection))
+      {
+         return false;
+      }
+
+      Credentials credentials = new Credentials(username, password);
+
+      Deque<PooledConnection> idle = idleConnections.get(credentials);
+
+      if (idle == null)
+      {
+         idle = new ArrayDeque<PooledConnection>();
+
+         idleConnections.put(credentials, idle);
+      }
+
+      idle.addLast(connection);
+
+      idleCount++;
+
+      return true;
+   }
+
+   public synchronized int getIdleConnectionCount()
+   {
+      return idleCount;
+   }
+
+   public void close()
+   {
+      List<PooledConnection> toClose = new ArrayList<PooledConnection>();
+
+      synchronized (this)
+      {
+         if (closed)
+         {
+            return;
+         }
+
+         closed = true;
+
+         for (Deque<PooledConnection> idle : idleConnections.values())
+         {
+            toClose.addAll(idle);
+         }
+
+         idleConnections.clear();
+
+         idleCount = 0;
+      }
+
+      if (evictor != null)
+      {
+         evictor.shutdown();
+      }
+
+      for (PooledConnection connection : toClose)
+      {
+         connection.close();
+      }
+   }
+
+   void evictIdleConnections()
+   {
+      List<PooledConnection> toClose = new ArrayList<PooledConnection>();
+
+      long now = System.currentTimeMillis();
+
+      synchronized (this)
+      {
+         Iterator<Deque<PooledConnection>> iterator = idleConnections.values().iterator();
+
+         while (iterator.hasNext())
+         {
+            Deque<PooledConnection> idle = iterator.next();
+
+            // the oldest connections are at the head
+            while (!idle.isEmpty() && (now - idle.peekFirst().idleSince >= idleTimeout || !isUsable(idle.peekFirst())))
+            {
+               toClose.add(idle.pollFirst());
+
+               idleCount--;
+            }
+
+            if (idle.isEmpty())
+            {
+               iterator.remove();
+            }
+         }
+      }
+
+      for (PooledConnection connection : toClose)
+      {
+         connection.close();
+      }
+   }
+
+   private boolean isUsable(final PooledConnection connection)
+   {
+      if (connection.sessionFactory.isClosed() || connection.initialSession.isClosed())
+      {
+         return false;
+      }
+
+      // every connection of a factory with several connections has to be alive, as sessions go to any of them
+      if (connection.sessionFactory instanceof ClientSessionFactoryGroup)
+      {
+         for (ClientSessionFactoryInternal member : ((ClientSessionFactoryGroup) connection.sessionFactory).getMembers())
+         {
+            if (member.isClosed() || !isUsable(member))
+            {
+               return false;
+            }
+         }
+
+         return true;
+      }
+
+      return isUsable(connection.sessionFactory);
+   }
+
+   private boolean isUsable(final ClientSessionFactory sessionFactory)
+   {
+      RemotingConnection remotingConnection = sessionFactory.getConnection();
+
+      if (remotingConnection == null || remotingConnection.isDestroyed())
+      {
+         return false;
+      }
+
+      // a server that left the cluster is no longer where new connections would be balanced to
+      if (sessionFactory instanceof ClientSessionFactoryInternal)
+      {
+         String nodeID = ((ClientSessionFactoryInternal) sessionFactory).getLiveNodeId();
+
+         Topology topology = serverLocator.getTopology();
+
+         if (nodeID != null && topology != null && !topology.getMembers().isEmpty() && topology.getMember(nodeID) == null)
+         {
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   public static final class PooledConnection
+   {
+      private final ClientSessionFactory sessionFactory;
+
+      private final ClientSession initialSession;
+
+      private final long idleSince = System.currentTimeMillis();
+
+      PooledConnection(final ClientSessionFactory sessionFactory, final ClientSession initialSession)
+      {
+         this.sessionFactory = sessionFactory;
+         this.initialSession = initialSession;
+      }
+
+      public ClientSessionFactory getSessionFactory()
+      {
+         return sessionFactory;
+      }
+
+      public ClientSession getInitialSession()
+      {
+         return initialSession;
+      }
+
+      void close()
+      {
+         try
+         {
+            initialSession.close();
+         }
+         catch (ActiveMQException ignore)
+         {
+            // the session factory cleans it up anyway
+         }
+
+         sessionFactory.close();
+      }
+   }
+
+   private static final class Credentials
+   {
+      private final String username;
+
+      private final String password;
+
+      Credentials(final String username, final String password)
+      {
+         this.username = username;
+         this.password = password;
+      }
+
+      @Override
+      public boolean equals(final Object other)
+      {
+         if (this == other)
+         {
+            return true;
+         }
+
+         if (!(other instanceof Credentials))
+         {
+            return false;
+         }
+
+         Credentials that = (Credentials) other;
+
+         return (username == null ? that.username == null : username.equals(that.username)) &&
+            (password == null ? that.password == null : password.equals(that.password));
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return 31 * (username == null ? 0 : username.hashCode()) + (password == null ? 0 : password.hashCode());
+      }
+   }
+}
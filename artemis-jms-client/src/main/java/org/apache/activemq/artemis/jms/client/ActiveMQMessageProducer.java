@@ -39,7 +39,7 @@ import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientMessage;
 import org.apache.activemq.artemis.api.core.client.ClientProducer;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
-import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
+import org.apache.activemq.artemis.api.core.client.SendCompletionHandler;
 import org.apache.activemq.artemis.utils.UUID;
 import org.apache.activemq.artemis.utils.UUIDGenerator;
 /**
@@ -541,7 +541,7 @@ public class ActiveMQMessageProducer implements MessageProducer, QueueSender, To
       }
    }
 
-   private static final class CompletionListenerWrapper implements SendAcknowledgementHandler
+   private static final class CompletionListenerWrapper implements SendCompletionHandler
    {
       private final CompletionListener completionListener;
       private final Message jmsMessage;
@@ -595,6 +595,20 @@ public class ActiveMQMessageProducer implements MessageProducer, QueueSender, To
          }
       }
 
+      @Override
+      public void sendFailed(org.apache.activemq.artemis.api.core.Message clientMessage, ActiveMQException cause)
+      {
+         try
+         {
+            producer.connection.getThreadAwareContext().setCurrentThread(true);
+            completionListener.onException(jmsMessage, JMSExceptionHelper.convertFromActiveMQException(cause));
+         }
+         finally
+         {
+            producer.connection.getThreadAwareContext().clearCurrentThread(true);
+         }
+      }
+
       @Override
       public String toString()
       {
@@ -50,6 +50,7 @@ import javax.jms.TransactionInProgressException;
 import javax.transaction.xa.XAResource;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.ActiveMQNonExistentQueueException;
 import org.apache.activemq.artemis.api.core.ActiveMQQueueExistsException;
 import org.apache.activemq.artemis.selector.filter.FilterException;
 import org.apache.activemq.artemis.selector.impl.SelectorParser;
@@ -727,23 +728,31 @@ public class ActiveMQSession implements QueueSession, TopicSession
 
          if (dest.isQueue())
          {
-            AddressQuery response = session.addressQuery(dest.getSimpleAddress());
-
-            if (!response.isExists())
+            // the queue usually exists, so don't pay a round trip for the address query up front
+            try
             {
-               if (response.isAutoCreateJmsQueues())
-               {
-                  session.createQueue(dest.getSimpleAddress(), dest.getSimpleAddress(), true);
-               }
-               else
+               consumer = session.createConsumer(dest.getSimpleAddress(), coreFilterString, false);
+            }
+            catch (ActiveMQNonExistentQueueException e)
+            {
+               AddressQuery response = session.addressQuery(dest.getSimpleAddress());
+
+               if (!response.isExists())
                {
-                  throw new InvalidDestinationException("Destination " + dest.getName() + " does not exist");
+                  if (response.isAutoCreateJmsQueues())
+                  {
+                     session.createQueue(dest.getSimpleAddress(), dest.getSimpleAddress(), true);
+                  }
+                  else
+                  {
+                     throw new InvalidDestinationException("Destination " + dest.getName() + " does not exist");
+                  }
                }
+
+               consumer = session.createConsumer(dest.getSimpleAddress(), coreFilterString, false);
             }
 
             connection.addKnownDestination(dest.getSimpleAddress());
-
-            consumer = session.createConsumer(dest.getSimpleAddress(), coreFilterString, false);
          }
          else
          {
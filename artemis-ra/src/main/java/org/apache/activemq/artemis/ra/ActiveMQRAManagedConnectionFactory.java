@@ -492,6 +492,16 @@ public final class ActiveMQRAManagedConnectionFactory implements ManagedConnecti
       mcfProperties.setDupsOKBatchSize(dupsOKBatchSize);
    }
 
+   public Integer getConnectionPoolSize()
+   {
+      return mcfProperties.getConnectionPoolSize();
+   }
+
+   public void setConnectionPoolSize(final Integer connectionPoolSize)
+   {
+      mcfProperties.setConnectionPoolSize(connectionPoolSize);
+   }
+
    public Integer getTransactionBatchSize()
    {
       return mcfProperties.getTransactionBatchSize();
@@ -532,6 +542,16 @@ public final class ActiveMQRAManagedConnectionFactory implements ManagedConnecti
       mcfProperties.setCallTimeout(callTimeout);
    }
 
+   public Long getConnectionPoolIdleTimeout()
+   {
+      return mcfProperties.getConnectionPoolIdleTimeout();
+   }
+
+   public void setConnectionPoolIdleTimeout(final Long connectionPoolIdleTimeout)
+   {
+      mcfProperties.setConnectionPoolIdleTimeout(connectionPoolIdleTimeout);
+   }
+
    public Integer getConsumerWindowSize()
    {
       return mcfProperties.getConsumerWindowSize();
@@ -542,6 +562,16 @@ public final class ActiveMQRAManagedConnectionFactory implements ManagedConnecti
       mcfProperties.setConsumerWindowSize(consumerWindowSize);
    }
 
+   public Boolean isAutoTuneConsumerWindowSize()
+   {
+      return mcfProperties.isAutoTuneConsumerWindowSize();
+   }
+
+   public void setAutoTuneConsumerWindowSize(final Boolean autoTuneConsumerWindowSize)
+   {
+      mcfProperties.setAutoTuneConsumerWindowSize(autoTuneConsumerWindowSize);
+   }
+
    public Integer getConsumerMaxRate()
    {
       return mcfProperties.getConsumerMaxRate();
@@ -562,6 +592,26 @@ public final class ActiveMQRAManagedConnectionFactory implements ManagedConnecti
       mcfProperties.setConfirmationWindowSize(confirmationWindowSize);
    }
 
+   public Integer getMaxOutstandingAsyncSends()
+   {
+      return mcfProperties.getMaxOutstandingAsyncSends();
+   }
+
+   public void setMaxOutstandingAsyncSends(final Integer maxOutstandingAsyncSends)
+   {
+      mcfProperties.setMaxOutstandingAsyncSends(maxOutstandingAsyncSends);
+   }
+
+   public Integer getConnectionsPerFactory()
+   {
+      return mcfProperties.getConnectionsPerFactory();
+   }
+
+   public void setConnectionsPerFactory(final Integer connectionsPerFactory)
+   {
+      mcfProperties.setConnectionsPerFactory(connectionsPerFactory);
+   }
+
    public Integer getProducerMaxRate()
    {
       return mcfProperties.getProducerMaxRate();
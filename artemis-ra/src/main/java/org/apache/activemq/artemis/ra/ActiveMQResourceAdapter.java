@@ -755,6 +755,36 @@ public class ActiveMQResourceAdapter implements ResourceAdapter, Serializable
       raProperties.setCallTimeout(callTimeout);
    }
 
+   /**
+    * Get connection pool idle timeout
+    *
+    * @return The value
+    */
+   public Long getConnectionPoolIdleTimeout()
+   {
+      if (ActiveMQResourceAdapter.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("getConnectionPoolIdleTimeout()");
+      }
+
+      return raProperties.getConnectionPoolIdleTimeout();
+   }
+
+   /**
+    * Set connection pool idle timeout
+    *
+    * @param connectionPoolIdleTimeout The value
+    */
+   public void setConnectionPoolIdleTimeout(final Long connectionPoolIdleTimeout)
+   {
+      if (ActiveMQResourceAdapter.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("setConnectionPoolIdleTimeout(" + connectionPoolIdleTimeout + ")");
+      }
+
+      raProperties.setConnectionPoolIdleTimeout(connectionPoolIdleTimeout);
+   }
+
    /**
     * Get call failover timeout
     *
@@ -815,6 +845,36 @@ public class ActiveMQResourceAdapter implements ResourceAdapter, Serializable
       raProperties.setDupsOKBatchSize(dupsOKBatchSize);
    }
 
+   /**
+    * Get connection pool size
+    *
+    * @return The value
+    */
+   public Integer getConnectionPoolSize()
+   {
+      if (ActiveMQResourceAdapter.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("getConnectionPoolSize()");
+      }
+
+      return raProperties.getConnectionPoolSize();
+   }
+
+   /**
+    * Set connection pool size
+    *
+    * @param connectionPoolSize The value
+    */
+   public void setConnectionPoolSize(final Integer connectionPoolSize)
+   {
+      if (ActiveMQResourceAdapter.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("setConnectionPoolSize(" + connectionPoolSize + ")");
+      }
+
+      raProperties.setConnectionPoolSize(connectionPoolSize);
+   }
+
    /**
     * Get transaction batch size
     *
@@ -875,6 +935,36 @@ public class ActiveMQResourceAdapter implements ResourceAdapter, Serializable
       raProperties.setConsumerWindowSize(consumerWindowSize);
    }
 
+   /**
+    * Get auto tune consumer window size
+    *
+    * @return The value
+    */
+   public Boolean getAutoTuneConsumerWindowSize()
+   {
+      if (ActiveMQResourceAdapter.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("getAutoTuneConsumerWindowSize()");
+      }
+
+      return raProperties.isAutoTuneConsumerWindowSize();
+   }
+
+   /**
+    * Set auto tune consumer window size
+    *
+    * @param autoTuneConsumerWindowSize The value
+    */
+   public void setAutoTuneConsumerWindowSize(final Boolean autoTuneConsumerWindowSize)
+   {
+      if (ActiveMQResourceAdapter.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("setAutoTuneConsumerWindowSize(" + autoTuneConsumerWindowSize + ")");
+      }
+
+      raProperties.setAutoTuneConsumerWindowSize(autoTuneConsumerWindowSize);
+   }
+
    /**
     * Get consumer max rate
     *
@@ -935,6 +1025,66 @@ public class ActiveMQResourceAdapter implements ResourceAdapter, Serializable
       raProperties.setConfirmationWindowSize(confirmationWindowSize);
    }
 
+   /**
+    * Get max outstanding async sends
+    *
+    * @return The value
+    */
+   public Integer getMaxOutstandingAsyncSends()
+   {
+      if (ActiveMQResourceAdapter.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("getMaxOutstandingAsyncSends()");
+      }
+
+      return raProperties.getMaxOutstandingAsyncSends();
+   }
+
+   /**
+    * Set max outstanding async sends
+    *
+    * @param maxOutstandingAsyncSends The value
+    */
+   public void setMaxOutstandingAsyncSends(final Integer maxOutstandingAsyncSends)
+   {
+      if (ActiveMQResourceAdapter.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("setMaxOutstandingAsyncSends(" + maxOutstandingAsyncSends + ")");
+      }
+
+      raProperties.setMaxOutstandingAsyncSends(maxOutstandingAsyncSends);
+   }
+
+   /**
+    * Get connections per factory
+    *
+    * @return The value
+    */
+   public Integer getConnectionsPerFactory()
+   {
+      if (ActiveMQResourceAdapter.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("getConnectionsPerFactory()");
+      }
+
+      return raProperties.getConnectionsPerFactory();
+   }
+
+   /**
+    * Set connections per factory
+    *
+    * @param connectionsPerFactory The value
+    */
+   public void setConnectionsPerFactory(final Integer connectionsPerFactory)
+   {
+      if (ActiveMQResourceAdapter.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("setConnectionsPerFactory(" + connectionsPerFactory + ")");
+      }
+
+      raProperties.setConnectionsPerFactory(connectionsPerFactory);
+   }
+
    /**
     * Get producer max rate
     *
@@ -2211,12 +2361,24 @@ public class ActiveMQResourceAdapter implements ResourceAdapter, Serializable
       {
          cf.setConsumerWindowSize(val2);
       }
+      val = overrideProperties.isAutoTuneConsumerWindowSize() != null ? overrideProperties.isAutoTuneConsumerWindowSize()
+         : raProperties.isAutoTuneConsumerWindowSize();
+      if (val != null)
+      {
+         cf.setAutoTuneConsumerWindowSize(val);
+      }
       val2 = overrideProperties.getDupsOKBatchSize() != null ? overrideProperties.getDupsOKBatchSize()
          : raProperties.getDupsOKBatchSize();
       if (val2 != null)
       {
          cf.setDupsOKBatchSize(val2);
       }
+      val2 = overrideProperties.getConnectionPoolSize() != null ? overrideProperties.getConnectionPoolSize()
+         : raProperties.getConnectionPoolSize();
+      if (val2 != null)
+      {
+         cf.setConnectionPoolSize(val2);
+      }
 
       val2 = overrideProperties.getMinLargeMessageSize() != null ? overrideProperties.getMinLargeMessageSize()
          : raProperties.getMinLargeMessageSize();
@@ -2242,6 +2404,18 @@ public class ActiveMQResourceAdapter implements ResourceAdapter, Serializable
       {
          cf.setConfirmationWindowSize(val2);
       }
+      val2 = overrideProperties.getMaxOutstandingAsyncSends() != null ? overrideProperties.getMaxOutstandingAsyncSends()
+         : raProperties.getMaxOutstandingAsyncSends();
+      if (val2 != null)
+      {
+         cf.setMaxOutstandingAsyncSends(val2);
+      }
+      val2 = overrideProperties.getConnectionsPerFactory() != null ? overrideProperties.getConnectionsPerFactory()
+         : raProperties.getConnectionsPerFactory();
+      if (val2 != null)
+      {
+         cf.setConnectionsPerFactory(val2);
+      }
       val2 = overrideProperties.getReconnectAttempts() != null ? overrideProperties.getReconnectAttempts()
          : raProperties.getReconnectAttempts();
       if (val2 != null)
@@ -2296,6 +2470,12 @@ public class ActiveMQResourceAdapter implements ResourceAdapter, Serializable
       {
          cf.setCallTimeout(val3);
       }
+      val3 = overrideProperties.getConnectionPoolIdleTimeout() != null ? overrideProperties.getConnectionPoolIdleTimeout()
+         : raProperties.getConnectionPoolIdleTimeout();
+      if (val3 != null)
+      {
+         cf.setConnectionPoolIdleTimeout(val3);
+      }
       val3 = overrideProperties.getCallFailoverTimeout() != null ? overrideProperties.getCallFailoverTimeout()
          : raProperties.getCallFailoverTimeout();
       if (val3 != null)
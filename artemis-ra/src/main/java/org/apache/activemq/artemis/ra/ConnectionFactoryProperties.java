@@ -60,6 +60,8 @@ public class ConnectionFactoryProperties
 
    private Integer dupsOKBatchSize;
 
+   private Integer connectionPoolSize;
+
    private Integer transactionBatchSize;
 
    private Long clientFailureCheckPeriod;
@@ -70,18 +72,26 @@ public class ConnectionFactoryProperties
 
    private Long callTimeout;
 
+   private Long connectionPoolIdleTimeout;
+
    private Long callFailoverTimeout;
 
    private Boolean compressLargeMessage;
 
    private Integer consumerWindowSize;
 
+   private Boolean autoTuneConsumerWindowSize;
+
    private Integer producerWindowSize;
 
    private Integer consumerMaxRate;
 
    private Integer confirmationWindowSize;
 
+   private Integer maxOutstandingAsyncSends;
+
+   private Integer connectionsPerFactory;
+
    private Boolean failoverOnInitialConnection;
 
    private Integer producerMaxRate;
@@ -328,6 +338,25 @@ public class ConnectionFactoryProperties
       this.dupsOKBatchSize = dupsOKBatchSize;
    }
 
+   public Integer getConnectionPoolSize()
+   {
+      if (ConnectionFactoryProperties.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("getConnectionPoolSize()");
+      }
+      return connectionPoolSize;
+   }
+
+   public void setConnectionPoolSize(final Integer connectionPoolSize)
+   {
+      if (ConnectionFactoryProperties.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("setConnectionPoolSize(" + connectionPoolSize + ")");
+      }
+      hasBeenUpdated = true;
+      this.connectionPoolSize = connectionPoolSize;
+   }
+
    public Integer getTransactionBatchSize()
    {
       if (ConnectionFactoryProperties.trace)
@@ -404,6 +433,25 @@ public class ConnectionFactoryProperties
       this.callTimeout = callTimeout;
    }
 
+   public Long getConnectionPoolIdleTimeout()
+   {
+      if (ConnectionFactoryProperties.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("getConnectionPoolIdleTimeout()");
+      }
+      return connectionPoolIdleTimeout;
+   }
+
+   public void setConnectionPoolIdleTimeout(final Long connectionPoolIdleTimeout)
+   {
+      if (ConnectionFactoryProperties.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("setConnectionPoolIdleTimeout(" + connectionPoolIdleTimeout + ")");
+      }
+      hasBeenUpdated = true;
+      this.connectionPoolIdleTimeout = connectionPoolIdleTimeout;
+   }
+
    public Long getCallFailoverTimeout()
    {
       if (ConnectionFactoryProperties.trace)
@@ -442,6 +490,25 @@ public class ConnectionFactoryProperties
       this.consumerWindowSize = consumerWindowSize;
    }
 
+   public Boolean isAutoTuneConsumerWindowSize()
+   {
+      if (ConnectionFactoryProperties.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("isAutoTuneConsumerWindowSize()");
+      }
+      return autoTuneConsumerWindowSize;
+   }
+
+   public void setAutoTuneConsumerWindowSize(final Boolean autoTuneConsumerWindowSize)
+   {
+      if (ConnectionFactoryProperties.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("setAutoTuneConsumerWindowSize(" + autoTuneConsumerWindowSize + ")");
+      }
+      hasBeenUpdated = true;
+      this.autoTuneConsumerWindowSize = autoTuneConsumerWindowSize;
+   }
+
    public Integer getConsumerMaxRate()
    {
       if (ConnectionFactoryProperties.trace)
@@ -480,6 +547,44 @@ public class ConnectionFactoryProperties
       this.confirmationWindowSize = confirmationWindowSize;
    }
 
+   public Integer getMaxOutstandingAsyncSends()
+   {
+      if (ConnectionFactoryProperties.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("getMaxOutstandingAsyncSends()");
+      }
+      return maxOutstandingAsyncSends;
+   }
+
+   public void setMaxOutstandingAsyncSends(final Integer maxOutstandingAsyncSends)
+   {
+      if (ConnectionFactoryProperties.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("setMaxOutstandingAsyncSends(" + maxOutstandingAsyncSends + ")");
+      }
+      hasBeenUpdated = true;
+      this.maxOutstandingAsyncSends = maxOutstandingAsyncSends;
+   }
+
+   public Integer getConnectionsPerFactory()
+   {
+      if (ConnectionFactoryProperties.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("getConnectionsPerFactory()");
+      }
+      return connectionsPerFactory;
+   }
+
+   public void setConnectionsPerFactory(final Integer connectionsPerFactory)
+   {
+      if (ConnectionFactoryProperties.trace)
+      {
+         ActiveMQRALogger.LOGGER.trace("setConnectionsPerFactory(" + connectionsPerFactory + ")");
+      }
+      hasBeenUpdated = true;
+      this.connectionsPerFactory = connectionsPerFactory;
+   }
+
    public Boolean isFailoverOnInitialConnection()
    {
       return failoverOnInitialConnection;
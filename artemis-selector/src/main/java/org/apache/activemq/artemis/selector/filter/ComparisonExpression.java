@@ -79,7 +79,7 @@ public abstract class ComparisonExpression extends BinaryExpression implements B
       REGEXP_CONTROL_CHARS.add(Character.valueOf('!'));
    }
 
-   static class LikeExpression extends UnaryExpression implements BooleanExpression
+   public static class LikeExpression extends UnaryExpression implements BooleanExpression
    {
 
       Pattern likePattern;
@@ -139,6 +139,14 @@ public abstract class ComparisonExpression extends BinaryExpression implements B
          return "LIKE";
       }
 
+      /**
+       * @return the compiled regular expression this LIKE matches against
+       */
+      public Pattern getLikePattern()
+      {
+         return likePattern;
+      }
+
       /**
        * @see org.apache.activemq.filter.Expression#evaluate(Filterable)
        */
@@ -81,70 +81,98 @@ public abstract class UnaryExpression implements Expression
       {
          t = new HashSet<Object>(elements);
       }
-      final Collection<Object> inList = t;
 
-      return new BooleanUnaryExpression(right)
+      return new InExpression(right, t, not);
+   }
+
+   /**
+    * A {@code [NOT] IN} expression, exposing its list so it can be evaluated without a {@link Filterable}.
+    */
+   public static class InExpression extends BooleanUnaryExpression
+   {
+      private final Collection<Object> inList;
+
+      private final boolean not;
+
+      public InExpression(PropertyExpression right, Collection<Object> inList, boolean not)
       {
-         public Object evaluate(Filterable message) throws FilterException
-         {
+         super(right);
+         this.inList = inList;
+         this.not = not;
+      }
 
-            Object rvalue = right.evaluate(message);
-            if (rvalue == null)
-            {
-               return null;
-            }
-            if (rvalue.getClass() != String.class)
-            {
-               return null;
-            }
+      /**
+       * @return the values the property is compared with, null if the list is empty
+       */
+      public Collection<Object> getInList()
+      {
+         return inList;
+      }
 
-            if ((inList != null && inList.contains(rvalue)) ^ not)
-            {
-               return Boolean.TRUE;
-            }
-            else
-            {
-               return Boolean.FALSE;
-            }
+      public boolean isNot()
+      {
+         return not;
+      }
 
-         }
+      public Object evaluate(Filterable message) throws FilterException
+      {
 
-         public String toString()
+         Object rvalue = right.evaluate(message);
+         if (rvalue == null)
          {
-            StringBuffer answer = new StringBuffer();
-            answer.append(right);
-            answer.append(" ");
-            answer.append(getExpressionSymbol());
-            answer.append(" ( ");
-
-            int count = 0;
-            for (Iterator<Object> i = inList.iterator(); i.hasNext(); )
-            {
-               Object o = (Object) i.next();
-               if (count != 0)
-               {
-                  answer.append(", ");
-               }
-               answer.append(o);
-               count++;
-            }
+            return null;
+         }
+         if (rvalue.getClass() != String.class)
+         {
+            return null;
+         }
 
-            answer.append(" )");
-            return answer.toString();
+         if ((inList != null && inList.contains(rvalue)) ^ not)
+         {
+            return Boolean.TRUE;
+         }
+         else
+         {
+            return Boolean.FALSE;
          }
 
-         public String getExpressionSymbol()
+      }
+
+      public String toString()
+      {
+         StringBuffer answer = new StringBuffer();
+         answer.append(right);
+         answer.append(" ");
+         answer.append(getExpressionSymbol());
+         answer.append(" ( ");
+
+         int count = 0;
+         for (Iterator<Object> i = inList.iterator(); i.hasNext(); )
          {
-            if (not)
-            {
-               return "NOT IN";
-            }
-            else
+            Object o = (Object) i.next();
+            if (count != 0)
             {
-               return "IN";
+               answer.append(", ");
             }
+            answer.append(o);
+            count++;
          }
-      };
+
+         answer.append(" )");
+         return answer.toString();
+      }
+
+      public String getExpressionSymbol()
+      {
+         if (not)
+         {
+            return "NOT IN";
+         }
+         else
+         {
+            return "IN";
+         }
+      }
    }
 
    abstract static class BooleanUnaryExpression extends UnaryExpression implements BooleanExpression
@@ -56,6 +56,10 @@ public final class BridgeConfiguration implements Serializable
 
    private int confirmationWindowSize = ActiveMQClient.DEFAULT_CONFIRMATION_WINDOW_SIZE;
 
+   private int streams = ActiveMQDefaultConfiguration.getDefaultBridgeStreams();
+
+   private boolean compressBatches = ActiveMQDefaultConfiguration.isDefaultBridgeCompressBatches();
+
    private long clientFailureCheckPeriod = ActiveMQClient.DEFAULT_CLIENT_FAILURE_CHECK_PERIOD;
 
    private String user = ActiveMQDefaultConfiguration.getDefaultClusterUser();
@@ -302,6 +306,34 @@ public final class BridgeConfiguration implements Serializable
       return this;
    }
 
+   public int getStreams()
+   {
+      return streams;
+   }
+
+   /**
+    * @param streams the number of sessions, each on its own connection, the bridge forwards messages over
+    */
+   public BridgeConfiguration setStreams(final int streams)
+   {
+      this.streams = streams;
+      return this;
+   }
+
+   public boolean isCompressBatches()
+   {
+      return compressBatches;
+   }
+
+   /**
+    * @param compressBatches whether the bridge sends messages in batches whose content is compressed
+    */
+   public BridgeConfiguration setCompressBatches(final boolean compressBatches)
+   {
+      this.compressBatches = compressBatches;
+      return this;
+   }
+
    public long getClientFailureCheckPeriod()
    {
       return clientFailureCheckPeriod;
@@ -405,6 +437,8 @@ public final class BridgeConfiguration implements Serializable
       temp = Double.doubleToLongBits(retryIntervalMultiplier);
       result = prime * result + (int)(temp ^ (temp >>> 32));
       result = prime * result + ((staticConnectors == null) ? 0 : staticConnectors.hashCode());
+      result = prime * result + streams;
+      result = prime * result + (compressBatches ? 1231 : 1237);
       result = prime * result + ((transformerClassName == null) ? 0 : transformerClassName.hashCode());
       result = prime * result + (useDuplicateDetection ? 1231 : 1237);
       result = prime * result + ((user == null) ? 0 : user.hashCode());
@@ -492,6 +526,10 @@ public final class BridgeConfiguration implements Serializable
       }
       else if (!staticConnectors.equals(other.staticConnectors))
          return false;
+      if (streams != other.streams)
+         return false;
+      if (compressBatches != other.compressBatches)
+         return false;
       if (transformerClassName == null)
       {
          if (other.transformerClassName != null)
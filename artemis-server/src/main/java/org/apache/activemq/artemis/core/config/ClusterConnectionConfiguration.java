@@ -22,6 +22,7 @@ import java.util.List;
 
 import org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration;
 import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 
 public final class ClusterConnectionConfiguration implements Serializable
 {
@@ -55,6 +56,12 @@ public final class ClusterConnectionConfiguration implements Serializable
 
    private boolean forwardWhenNoConsumers = ActiveMQDefaultConfiguration.isDefaultClusterForwardWhenNoConsumers();
 
+   private LoadBalancingPolicy loadBalancingPolicy = LoadBalancingPolicy.ROUND_ROBIN;
+
+   private int bridgeStreams = ActiveMQDefaultConfiguration.getDefaultBridgeStreams();
+
+   private boolean bridgeCompressBatches = ActiveMQDefaultConfiguration.isDefaultBridgeCompressBatches();
+
    private List<String> staticConnectors = Collections.emptyList();
 
    private String discoveryGroupName = null;
@@ -353,6 +360,50 @@ public final class ClusterConnectionConfiguration implements Serializable
       return this;
    }
 
+   public LoadBalancingPolicy getLoadBalancingPolicy()
+   {
+      return loadBalancingPolicy;
+   }
+
+   /**
+    * @param loadBalancingPolicy the loadBalancingPolicy to set
+    */
+   public ClusterConnectionConfiguration setLoadBalancingPolicy(LoadBalancingPolicy loadBalancingPolicy)
+   {
+      this.loadBalancingPolicy = loadBalancingPolicy;
+      return this;
+   }
+
+   public int getBridgeStreams()
+   {
+      return bridgeStreams;
+   }
+
+   /**
+    * @param bridgeStreams the number of sessions, each on its own connection, the bridges of this cluster
+    *                      connection forward messages over
+    */
+   public ClusterConnectionConfiguration setBridgeStreams(int bridgeStreams)
+   {
+      this.bridgeStreams = bridgeStreams;
+      return this;
+   }
+
+   public boolean isBridgeCompressBatches()
+   {
+      return bridgeCompressBatches;
+   }
+
+   /**
+    * @param bridgeCompressBatches whether the bridges of this cluster connection send messages in batches whose
+    *                              content is compressed
+    */
+   public ClusterConnectionConfiguration setBridgeCompressBatches(boolean bridgeCompressBatches)
+   {
+      this.bridgeCompressBatches = bridgeCompressBatches;
+      return this;
+   }
+
    /*
    * returns the cluster update interval
    * */
@@ -393,9 +444,12 @@ public final class ClusterConnectionConfiguration implements Serializable
       result = prime * result + confirmationWindowSize;
       result = prime * result + (int)(connectionTTL ^ (connectionTTL >>> 32));
       result = prime * result + ((connectorName == null) ? 0 : connectorName.hashCode());
+      result = prime * result + bridgeStreams;
+      result = prime * result + (bridgeCompressBatches ? 1231 : 1237);
       result = prime * result + ((discoveryGroupName == null) ? 0 : discoveryGroupName.hashCode());
       result = prime * result + (duplicateDetection ? 1231 : 1237);
       result = prime * result + (forwardWhenNoConsumers ? 1231 : 1237);
+      result = prime * result + ((loadBalancingPolicy == null) ? 0 : loadBalancingPolicy.hashCode());
       result = prime * result + maxHops;
       result = prime * result + (int)(maxRetryInterval ^ (maxRetryInterval >>> 32));
       result = prime * result + minLargeMessageSize;
@@ -461,6 +515,12 @@ public final class ClusterConnectionConfiguration implements Serializable
          return false;
       if (forwardWhenNoConsumers != other.forwardWhenNoConsumers)
          return false;
+      if (loadBalancingPolicy != other.loadBalancingPolicy)
+         return false;
+      if (bridgeStreams != other.bridgeStreams)
+         return false;
+      if (bridgeCompressBatches != other.bridgeCompressBatches)
+         return false;
       if (maxHops != other.maxHops)
          return false;
       if (maxRetryInterval != other.maxRetryInterval)
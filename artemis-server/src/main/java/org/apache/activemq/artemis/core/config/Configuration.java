@@ -638,6 +638,23 @@ public interface Configuration
 
    Configuration setMemoryMeasureInterval(long memoryMeasureInterval);
 
+   /**
+    * Returns the maximum memory (in bytes) used by messages of all the addresses together. <br>
+    * Once it is reached the biggest addresses will start paging (or blocking, failing, dropping
+    * according to their address-full-policy) first. -1 means no global limit.
+    */
+   long getGlobalMaxSize();
+
+   Configuration setGlobalMaxSize(long globalMaxSize);
+
+   /**
+    * Returns the maximum size (in bytes) a compressed batch of messages received from a bridge may
+    * inflate to. Connections sending bigger batches are failed.
+    */
+   int getMaxInflatedBatchSize();
+
+   Configuration setMaxInflatedBatchSize(int maxInflatedBatchSize);
+
    boolean isRunSyncSpeedTest();
 
    Configuration setRunSyncSpeedTest(boolean run);
@@ -196,6 +196,10 @@ public class ConfigurationImpl implements Configuration, Serializable
 
    private long memoryMeasureInterval = ActiveMQDefaultConfiguration.getDefaultMemoryMeasureInterval();
 
+   private long globalMaxSize = ActiveMQDefaultConfiguration.getDefaultGlobalMaxSize();
+
+   private int maxInflatedBatchSize = ActiveMQDefaultConfiguration.getDefaultMaxInflatedBatchSize();
+
    protected GroupingHandlerConfiguration groupingHandlerConfiguration;
 
    private Map<String, AddressSettings> addressesSettings = new HashMap<String, AddressSettings>();
@@ -937,6 +941,28 @@ public class ConfigurationImpl implements Configuration, Serializable
       return this;
    }
 
+   public long getGlobalMaxSize()
+   {
+      return globalMaxSize;
+   }
+
+   public ConfigurationImpl setGlobalMaxSize(final long globalMaxSize)
+   {
+      this.globalMaxSize = globalMaxSize;
+      return this;
+   }
+
+   public int getMaxInflatedBatchSize()
+   {
+      return maxInflatedBatchSize;
+   }
+
+   public ConfigurationImpl setMaxInflatedBatchSize(final int maxInflatedBatchSize)
+   {
+      this.maxInflatedBatchSize = maxInflatedBatchSize;
+      return this;
+   }
+
    public int getJournalMaxIO_AIO()
    {
       return journalMaxIO_AIO;
@@ -1192,6 +1218,8 @@ public class ConfigurationImpl implements Configuration, Serializable
       result = prime * result + (maskPassword ? 1231 : 1237);
       result = prime * result + maxConcurrentPageIO;
       result = prime * result + (int)(memoryMeasureInterval ^ (memoryMeasureInterval >>> 32));
+      result = prime * result + (int)(globalMaxSize ^ (globalMaxSize >>> 32));
+      result = prime * result + maxInflatedBatchSize;
       result = prime * result + memoryWarningThreshold;
       result = prime * result + (messageCounterEnabled ? 1231 : 1237);
       result = prime * result + messageCounterMaxDayHistory;
@@ -1418,6 +1446,10 @@ public class ConfigurationImpl implements Configuration, Serializable
          return false;
       if (memoryMeasureInterval != other.memoryMeasureInterval)
          return false;
+      if (globalMaxSize != other.globalMaxSize)
+         return false;
+      if (maxInflatedBatchSize != other.maxInflatedBatchSize)
+         return false;
       if (memoryWarningThreshold != other.memoryWarningThreshold)
          return false;
       if (messageCounterEnabled != other.messageCounterEnabled)
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class SecurityConfiguration
 {   /**
@@ -38,6 +39,11 @@ public class SecurityConfiguration
     */
    protected final Map<String, List<String>> roles = new HashMap<String, List<String>>();
 
+   /**
+    * incremented on every change of the users or their roles, so cached authorizations know when they're stale
+    */
+   private final AtomicLong version = new AtomicLong();
+
    public SecurityConfiguration()
    {
    }
@@ -72,12 +78,14 @@ public class SecurityConfiguration
          throw ActiveMQMessageBundle.BUNDLE.nullPassword();
       }
       users.put(user, new User(user, password));
+      version.incrementAndGet();
    }
 
    public void removeUser(final String user)
    {
       users.remove(user);
       roles.remove(user);
+      version.incrementAndGet();
    }
 
    public void addRole(final String user, final String role)
@@ -87,6 +95,7 @@ public class SecurityConfiguration
          roles.put(user, new ArrayList<String>());
       }
       roles.get(user).add(role);
+      version.incrementAndGet();
    }
 
    public void removeRole(final String user, final String role)
@@ -96,6 +105,7 @@ public class SecurityConfiguration
          return;
       }
       roles.get(user).remove(role);
+      version.incrementAndGet();
    }
 
    /*
@@ -104,6 +114,7 @@ public class SecurityConfiguration
    public void setDefaultUser(final String username)
    {
       defaultUser = username;
+      version.incrementAndGet();
    }
 
    public String getDefaultUser()
@@ -120,4 +131,9 @@ public class SecurityConfiguration
    {
       return roles.get(username);
    }
+
+   public long getVersion()
+   {
+      return version.get();
+   }
 }
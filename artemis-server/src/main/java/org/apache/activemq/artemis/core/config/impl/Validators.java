@@ -18,6 +18,7 @@ package org.apache.activemq.artemis.core.config.impl;
 
 import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
 import org.apache.activemq.artemis.core.server.JournalType;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 import org.apache.activemq.artemis.core.settings.impl.AddressFullMessagePolicy;
 import org.apache.activemq.artemis.core.settings.impl.SlowConsumerPolicy;
 
@@ -182,4 +183,17 @@ public final class Validators
          }
       }
    };
+
+   public static final Validator LOAD_BALANCING_POLICY = new Validator()
+   {
+      public void validate(final String name, final Object value)
+      {
+         String val = (String) value;
+         if (val == null || !val.equals(LoadBalancingPolicy.ROUND_ROBIN.toString()) &&
+            !val.equals(LoadBalancingPolicy.LEAST_LOADED.toString()))
+         {
+            throw ActiveMQMessageBundle.BUNDLE.invalidLoadBalancingPolicy(val);
+         }
+      }
+   };
 }
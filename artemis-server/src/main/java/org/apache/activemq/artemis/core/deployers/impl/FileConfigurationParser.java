@@ -56,6 +56,7 @@ import org.apache.activemq.artemis.core.journal.impl.JournalConstants;
 import org.apache.activemq.artemis.core.security.Role;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.server.JournalType;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 import org.apache.activemq.artemis.core.server.group.impl.GroupingHandlerConfiguration;
 import org.apache.activemq.artemis.core.settings.impl.AddressFullMessagePolicy;
 import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
@@ -135,6 +136,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
 
    private static final String REDISTRIBUTION_DELAY_NODE_NAME = "redistribution-delay";
 
+   private static final String REDISTRIBUTION_RATE_NODE_NAME = "redistribution-rate";
+
    private static final String SEND_TO_DLA_ON_NO_ROUTE = "send-to-dla-on-no-route";
 
    private static final String SLOW_CONSUMER_THRESHOLD_NODE_NAME = "slow-consumer-threshold";
@@ -147,6 +150,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
 
    private static final String AUTO_DELETE_JMS_QUEUES = "auto-delete-jms-queues";
 
+   private static final String COMPRESS_PAGE_FILES_NODE_NAME = "compress-page-files";
+
    // Attributes ----------------------------------------------------
 
    private boolean validateAIO = false;
@@ -609,6 +614,16 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
                                               config.getMemoryMeasureInterval(),
                                               Validators.MINUS_ONE_OR_GT_ZERO)); // in
 
+      config.setGlobalMaxSize(getLong(e,
+                                      "global-max-size",
+                                      config.getGlobalMaxSize(),
+                                      Validators.MINUS_ONE_OR_GT_ZERO)); // in bytes
+
+      config.setMaxInflatedBatchSize(getInteger(e,
+                                                "max-inflated-batch-size",
+                                                config.getMaxInflatedBatchSize(),
+                                                Validators.GT_ZERO)); // in bytes
+
       parseAddressSettings(e, config);
 
       parseQueues(e, config);
@@ -865,6 +880,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
          {
             addressSettings.setRedistributionDelay(XMLUtil.parseLong(child));
          }
+         else if (REDISTRIBUTION_RATE_NODE_NAME.equalsIgnoreCase(name))
+         {
+            addressSettings.setRedistributionRate(XMLUtil.parseInt(child));
+         }
          else if (SEND_TO_DLA_ON_NO_ROUTE.equalsIgnoreCase(name))
          {
             addressSettings.setSendToDLAOnNoRoute(XMLUtil.parseBoolean(child));
@@ -899,6 +918,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
          {
             addressSettings.setAutoDeleteJmsQueues(XMLUtil.parseBoolean(child));
          }
+         else if (COMPRESS_PAGE_FILES_NODE_NAME.equalsIgnoreCase(name))
+         {
+            addressSettings.setCompressPageFiles(XMLUtil.parseBoolean(child));
+         }
       }
       return setting;
    }
@@ -1380,6 +1403,16 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
          getBoolean(e, "forward-when-no-consumers",
                     ActiveMQDefaultConfiguration.isDefaultClusterForwardWhenNoConsumers());
 
+      LoadBalancingPolicy loadBalancingPolicy =
+         LoadBalancingPolicy.valueOf(getString(e, "load-balancing-policy", LoadBalancingPolicy.ROUND_ROBIN.toString(),
+                                               Validators.LOAD_BALANCING_POLICY));
+
+      int bridgeStreams = getInteger(e, "bridge-streams", ActiveMQDefaultConfiguration.getDefaultBridgeStreams(),
+                                     Validators.GT_ZERO);
+
+      boolean bridgeCompressBatches =
+         getBoolean(e, "bridge-compress-batches", ActiveMQDefaultConfiguration.isDefaultBridgeCompressBatches());
+
       int maxHops = getInteger(e, "max-hops",
                                ActiveMQDefaultConfiguration.getDefaultClusterMaxHops(),
                                Validators.GE_ZERO);
@@ -1466,6 +1499,9 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
          .setCallFailoverTimeout(callFailoverTimeout)
          .setDuplicateDetection(duplicateDetection)
          .setForwardWhenNoConsumers(forwardWhenNoConsumers)
+         .setLoadBalancingPolicy(loadBalancingPolicy)
+         .setBridgeStreams(bridgeStreams)
+         .setBridgeCompressBatches(bridgeCompressBatches)
          .setMaxHops(maxHops)
          .setConfirmationWindowSize(confirmationWindowSize)
          .setAllowDirectConnectionsOnly(allowDirectConnectionsOnly)
@@ -1519,6 +1555,12 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
          getInteger(brNode, "confirmation-window-size", ActiveMQDefaultConfiguration.getDefaultBridgeConfirmationWindowSize(),
                     Validators.GT_ZERO);
 
+      int streams = getInteger(brNode, "streams", ActiveMQDefaultConfiguration.getDefaultBridgeStreams(),
+                               Validators.GT_ZERO);
+
+      boolean compressBatches =
+         getBoolean(brNode, "compress-batches", ActiveMQDefaultConfiguration.isDefaultBridgeCompressBatches());
+
       long retryInterval = getLong(brNode, "retry-interval", ActiveMQClient.DEFAULT_RETRY_INTERVAL, Validators.GT_ZERO);
 
       long clientFailureCheckPeriod =
@@ -1628,6 +1670,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil
          .setReconnectAttemptsOnSameNode(reconnectAttemptsSameNode)
          .setUseDuplicateDetection(useDuplicateDetection)
          .setConfirmationWindowSize(confirmationWindowSize)
+         .setStreams(streams)
+         .setCompressBatches(compressBatches)
          .setHA(ha)
          .setUser(user)
          .setPassword(password);
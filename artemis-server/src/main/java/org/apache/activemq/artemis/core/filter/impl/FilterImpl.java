@@ -16,13 +16,13 @@
  */
 package org.apache.activemq.artemis.core.filter.impl;
 
+import java.util.Set;
+
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.selector.filter.BooleanExpression;
-import org.apache.activemq.artemis.selector.filter.FilterException;
-import org.apache.activemq.artemis.selector.filter.Filterable;
+import org.apache.activemq.artemis.selector.impl.LRUCache;
 import org.apache.activemq.artemis.selector.impl.SelectorParser;
-import org.apache.activemq.artemis.api.core.FilterConstants;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.filter.Filter;
 import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
@@ -45,18 +45,27 @@ import org.apache.activemq.artemis.core.server.ServerMessage;
 *
 * String values must be set as <code>SimpleString</code>, not <code>java.lang.String</code> (see JBMESSAGING-1307).
 * Derived from JBoss MQ version by
+*
+* The parsed selector is compiled by {@link SelectorCompiler}, filters are immutable and shared by every queue and
+* consumer using the same filter string.
 */
 public class FilterImpl implements Filter
 {
 
    // Constants -----------------------------------------------------
 
+   private static final int CACHE_SIZE = 1000;
+
    private final SimpleString sfilterString;
 
-   private final BooleanExpression booleanExpression;
+   private final SelectorCompiler.Evaluator evaluator;
+
+   private final SelectorCompiler.IndexTerm indexTerm;
 
    // Static ---------------------------------------------------------
 
+   private static final LRUCache<SimpleString, FilterImpl> cache = new LRUCache<SimpleString, FilterImpl>(CACHE_SIZE);
+
    /**
     * @return null if <code>filterStr</code> is null or an empty String and a valid filter else
     * @throws ActiveMQException if the string does not correspond to a valid filter
@@ -77,25 +86,41 @@ public class FilterImpl implements Filter
          return null;
       }
 
-      BooleanExpression booleanExpression;
-      try
-      {
-         booleanExpression =  SelectorParser.parse(filterStr.toString());
-      }
-      catch (Throwable e)
+      synchronized (cache)
       {
-         ActiveMQServerLogger.LOGGER.invalidFilter(e, filterStr);
-         throw ActiveMQMessageBundle.BUNDLE.invalidFilter(e, filterStr);
+         FilterImpl filter = cache.get(filterStr);
+
+         if (filter != null)
+         {
+            return filter;
+         }
+
+         BooleanExpression booleanExpression;
+         try
+         {
+            booleanExpression =  SelectorParser.parse(filterStr.toString());
+         }
+         catch (Throwable e)
+         {
+            ActiveMQServerLogger.LOGGER.invalidFilter(e, filterStr);
+            throw ActiveMQMessageBundle.BUNDLE.invalidFilter(e, filterStr);
+         }
+
+         filter = new FilterImpl(filterStr, SelectorCompiler.compile(filterStr.toString(), booleanExpression));
+
+         cache.put(filterStr, filter);
+
+         return filter;
       }
-      return new FilterImpl(filterStr, booleanExpression);
    }
 
    // Constructors ---------------------------------------------------
 
-   private FilterImpl(final SimpleString str, final BooleanExpression expression)
+   private FilterImpl(final SimpleString str, final SelectorCompiler.Evaluator evaluator)
    {
       sfilterString = str;
-      this.booleanExpression = expression;
+      this.evaluator = evaluator;
+      this.indexTerm = SelectorCompiler.indexTerm(evaluator);
    }
 
    // Filter implementation ---------------------------------------------------------------------
@@ -105,12 +130,27 @@ public class FilterImpl implements Filter
       return sfilterString;
    }
 
-   public synchronized boolean match(final ServerMessage message)
+   /**
+    * @return a property this filter only matches when it is one of {@link #getIndexValues()}, null if there is none
+    */
+   public SimpleString getIndexProperty()
+   {
+      return indexTerm == null ? null : indexTerm.property;
+   }
+
+   /**
+    * @return the values of {@link #getIndexProperty()} this filter may match, null if there is no index property
+    */
+   public Set<SimpleString> getIndexValues()
+   {
+      return indexTerm == null ? null : indexTerm.values;
+   }
+
+   public boolean match(final ServerMessage message)
    {
       try
       {
-         boolean result = booleanExpression.matches(new FilterableServerMessage(message));
-         return result;
+         return evaluator.evaluate(message) == SelectorCompiler.TRUE;
       }
       catch (Exception e)
       {
@@ -153,85 +193,4 @@ public class FilterImpl implements Filter
    {
       return "FilterImpl [sfilterString=" + sfilterString + "]";
    }
-
-   // Private --------------------------------------------------------------------------
-
-   private static Object getHeaderFieldValue(final ServerMessage msg, final SimpleString fieldName)
-   {
-      if (FilterConstants.ACTIVEMQ_USERID.equals(fieldName))
-      {
-         // It's the stringified (hex) representation of a user id that can be used in a selector expression
-         return new SimpleString("ID:" + msg.getUserID());
-      }
-      else if (FilterConstants.ACTIVEMQ_PRIORITY.equals(fieldName))
-      {
-         return Integer.valueOf(msg.getPriority());
-      }
-      else if (FilterConstants.ACTIVEMQ_TIMESTAMP.equals(fieldName))
-      {
-         return msg.getTimestamp();
-      }
-      else if (FilterConstants.ACTIVEMQ_DURABLE.equals(fieldName))
-      {
-         return msg.isDurable() ? FilterConstants.DURABLE : FilterConstants.NON_DURABLE;
-      }
-      else if (FilterConstants.ACTIVEMQ_EXPIRATION.equals(fieldName))
-      {
-         return msg.getExpiration();
-      }
-      else if (FilterConstants.ACTIVEMQ_SIZE.equals(fieldName))
-      {
-         return msg.getEncodeSize();
-      }
-      else
-      {
-         return null;
-      }
-   }
-
-   private static class FilterableServerMessage implements Filterable
-   {
-      private final ServerMessage message;
-
-      public FilterableServerMessage(ServerMessage message)
-      {
-         this.message = message;
-      }
-
-      @Override
-      public Object getProperty(String id)
-      {
-         Object result = null;
-         if (id.startsWith(FilterConstants.ACTIVEMQ_PREFIX.toString()))
-         {
-            result = getHeaderFieldValue(message, new SimpleString(id));
-         }
-         if (result == null)
-         {
-            result = message.getObjectProperty(new SimpleString(id));
-         }
-         if (result != null)
-         {
-            if (result.getClass() == SimpleString.class)
-            {
-               result = result.toString();
-            }
-         }
-         return result;
-      }
-
-      @Override
-      public <T> T getBodyAs(Class<T> type) throws FilterException
-      {
-         // TODO: implement to support content based selection
-         return null;
-      }
-
-      @Override
-      public Object getLocalConnectionId()
-      {
-         // Only needed if the NoLocal
-         return null;
-      }
-   }
 }
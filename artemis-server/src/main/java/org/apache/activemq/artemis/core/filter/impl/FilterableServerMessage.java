@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.filter.impl;
+
+import org.apache.activemq.artemis.api.core.FilterConstants;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.selector.filter.FilterException;
+import org.apache.activemq.artemis.selector.filter.Filterable;
+
+/**
+ * Exposes a {@link ServerMessage} to the interpreted selector expressions.
+ */
+public class FilterableServerMessage implements Filterable
+{
+   private final ServerMessage message;
+
+   public FilterableServerMessage(ServerMessage message)
+   {
+      this.message = message;
+   }
+
+   @Override
+   public Object getProperty(String id)
+   {
+      Object result = null;
+      if (id.startsWith(FilterConstants.ACTIVEMQ_PREFIX.toString()))
+      {
+         result = getHeaderFieldValue(message, new SimpleString(id));
+      }
+      if (result == null)
+      {
+         result = message.getObjectProperty(new SimpleString(id));
+      }
+      if (result != null)
+      {
+         if (result.getClass() == SimpleString.class)
+         {
+            result = result.toString();
+         }
+      }
+      return result;
+   }
+
+   @Override
+   public <T> T getBodyAs(Class<T> type) throws FilterException
+   {
+      // TODO: implement to support content based selection
+      return null;
+   }
+
+   @Override
+   public Object getLocalConnectionId()
+   {
+      // Only needed if the NoLocal
+      return null;
+   }
+
+   static Object getHeaderFieldValue(final ServerMessage msg, final SimpleString fieldName)
+   {
+      if (FilterConstants.ACTIVEMQ_USERID.equals(fieldName))
+      {
+         // It's the stringified (hex) representation of a user id that can be used in a selector expression
+         return new SimpleString("ID:" + msg.getUserID());
+      }
+      else if (FilterConstants.ACTIVEMQ_PRIORITY.equals(fieldName))
+      {
+         return Integer.valueOf(msg.getPriority());
+      }
+      else if (FilterConstants.ACTIVEMQ_TIMESTAMP.equals(fieldName))
+      {
+         return msg.getTimestamp();
+      }
+      else if (FilterConstants.ACTIVEMQ_DURABLE.equals(fieldName))
+      {
+         return msg.isDurable() ? FilterConstants.DURABLE : FilterConstants.NON_DURABLE;
+      }
+      else if (FilterConstants.ACTIVEMQ_EXPIRATION.equals(fieldName))
+      {
+         return msg.getExpiration();
+      }
+      else if (FilterConstants.ACTIVEMQ_SIZE.equals(fieldName))
+      {
+         return msg.getEncodeSize();
+      }
+      else
+      {
+         return null;
+      }
+   }
+}
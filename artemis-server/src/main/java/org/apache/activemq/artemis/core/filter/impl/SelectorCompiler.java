@@ -0,0 +1,1160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.filter.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.activemq.artemis.api.core.FilterConstants;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.selector.filter.BooleanExpression;
+import org.apache.activemq.artemis.selector.filter.ComparisonExpression;
+import org.apache.activemq.artemis.selector.filter.ConstantExpression;
+import org.apache.activemq.artemis.selector.filter.Expression;
+import org.apache.activemq.artemis.selector.filter.FilterException;
+import org.apache.activemq.artemis.selector.filter.LogicExpression;
+import org.apache.activemq.artemis.selector.filter.PropertyExpression;
+import org.apache.activemq.artemis.selector.filter.UnaryExpression;
+
+/**
+ * Compiles the expression tree of a parsed selector into evaluators specialised for each node, reading a
+ * {@link ServerMessage} directly.
+ * <p>
+ * Identifiers are resolved once: a header is read through its typed getter and a property is looked up with a
+ * prebuilt key, instead of creating a {@link FilterableServerMessage} and two SimpleStrings per identifier on every
+ * match. Comparisons with a numeric literal are done on primitives following the widening rules of
+ * {@link ComparisonExpression}, string literals are compared with the SimpleString values without converting them
+ * to String, and the three valued result is an int, so nothing is boxed. Where only a true result matters, the
+ * operands of AND and OR are flattened and the cheapest are evaluated first.
+ * <p>
+ * Anything else (arithmetic, comparing two identifiers, selectors converting string expressions) is left to the
+ * interpreted expression, for that node only. The evaluators are immutable and safe to share between threads.
+ */
+final class SelectorCompiler
+{
+   static final int FALSE = 0;
+
+   static final int TRUE = 1;
+
+   static final int UNKNOWN = 2;
+
+   private static final String CONVERT_STRING_EXPRESSIONS_PREFIX = "convert_string_expressions:";
+
+   private static final String NO_CONVERT_STRING_EXPRESSIONS_PREFIX = "no_convert_string_expressions:";
+
+   private static final String HYPHENATED_PROPS_PREFIX = "hyphenated_props:";
+
+   private static final String NO_HYPHENATED_PROPS_PREFIX = "no_hyphenated_props:";
+
+   private static final int EQ = 0;
+
+   private static final int GT = 1;
+
+   private static final int GE = 2;
+
+   private static final int LT = 3;
+
+   private static final int LE = 4;
+
+   private SelectorCompiler()
+   {
+   }
+
+   static Evaluator compile(final String selector, final BooleanExpression expression)
+   {
+      if (convertsStringExpressions(selector))
+      {
+         // the widening rules change with string conversions, keep them in one place
+         return new Interpreted(expression);
+      }
+
+      return compileBoolean(expression, true);
+   }
+
+   /**
+    * A term the selector can't match without: a property having one of a few string values. Routing uses it to
+    * look filters up by property value instead of evaluating every one of them.
+    *
+    * @return null if the selector has no such term
+    */
+   static IndexTerm indexTerm(final Evaluator evaluator)
+   {
+      if (evaluator instanceof AllOf)
+      {
+         // the operands are sorted by cost, an equality comes before an IN
+         for (Evaluator operand : ((AllOf) evaluator).operands)
+         {
+            IndexTerm term = indexTerm(operand);
+
+            if (term != null)
+            {
+               return term;
+            }
+         }
+
+         return null;
+      }
+
+      if (evaluator instanceof EqualsString && ((EqualsString) evaluator).operand instanceof Property)
+      {
+         EqualsString equals = (EqualsString) evaluator;
+
+         return new IndexTerm(((Property) equals.operand).name, Collections.singleton(equals.literal));
+      }
+
+      if (evaluator instanceof In && !((In) evaluator).not && ((In) evaluator).operand instanceof Property)
+      {
+         In in = (In) evaluator;
+
+         return new IndexTerm(((Property) in.operand).name, Collections.unmodifiableSet(in.values));
+      }
+
+      return null;
+   }
+
+   static final class IndexTerm
+   {
+      final SimpleString property;
+
+      final Set<SimpleString> values;
+
+      IndexTerm(final SimpleString property, final Set<SimpleString> values)
+      {
+         this.property = property;
+         this.values = values;
+      }
+   }
+
+   /**
+    * The evaluator of a boolean node.
+    *
+    * @param positive true if the caller only cares whether the node is {@link #TRUE}, and not whether it is
+    *                 {@link #FALSE} or {@link #UNKNOWN}: anywhere but under a NOT
+    */
+   private static Evaluator compileBoolean(final Expression expression, final boolean positive)
+   {
+      if (expression instanceof LogicExpression)
+      {
+         LogicExpression logic = (LogicExpression) expression;
+
+         boolean and = "AND".equals(logic.getExpressionSymbol());
+
+         if (positive)
+         {
+            List<Evaluator> operands = new ArrayList<Evaluator>();
+
+            flatten(logic, logic.getExpressionSymbol(), operands);
+
+            Collections.sort(operands, BY_COST);
+
+            Evaluator[] evaluators = operands.toArray(new Evaluator[operands.size()]);
+
+            return and ? new AllOf(evaluators) : new AnyOf(evaluators);
+         }
+
+         Evaluator left = compileBoolean(logic.getLeft(), false);
+         Evaluator right = compileBoolean(logic.getRight(), false);
+
+         return and ? new And(left, right) : new Or(left, right);
+      }
+
+      if (expression instanceof ComparisonExpression.LikeExpression)
+      {
+         ComparisonExpression.LikeExpression like = (ComparisonExpression.LikeExpression) expression;
+
+         if (like.getRight() instanceof PropertyExpression)
+         {
+            return new Like(operand((PropertyExpression) like.getRight()), like.getLikePattern());
+         }
+
+         return new Interpreted((BooleanExpression) expression);
+      }
+
+      if (expression instanceof UnaryExpression.InExpression)
+      {
+         UnaryExpression.InExpression in = (UnaryExpression.InExpression) expression;
+
+         return new In(operand((PropertyExpression) in.getRight()), in.getInList(), in.isNot());
+      }
+
+      if (expression instanceof ComparisonExpression)
+      {
+         return compileComparison((ComparisonExpression) expression);
+      }
+
+      if (expression instanceof UnaryExpression)
+      {
+         UnaryExpression unary = (UnaryExpression) expression;
+
+         if ("NOT".equals(unary.getExpressionSymbol()))
+         {
+            return new Not(compileBoolean(unary.getRight(), false));
+         }
+
+         // a boolean identifier on its own
+         if ("".equals(unary.getExpressionSymbol()) && unary.getRight() instanceof PropertyExpression)
+         {
+            return new BooleanOperand(operand((PropertyExpression) unary.getRight()));
+         }
+      }
+
+      if (expression instanceof ConstantExpression && expression instanceof BooleanExpression)
+      {
+         Object value = ((ConstantExpression) expression).getValue();
+
+         if (value == null)
+         {
+            return new Constant(UNKNOWN);
+         }
+
+         if (value instanceof Boolean)
+         {
+            return new Constant((Boolean) value ? TRUE : FALSE);
+         }
+      }
+
+      return new Interpreted((BooleanExpression) expression);
+   }
+
+   private static void flatten(final Expression expression, final String symbol, final List<Evaluator> operands)
+   {
+      if (expression instanceof LogicExpression && symbol.equals(((LogicExpression) expression).getExpressionSymbol()))
+      {
+         LogicExpression logic = (LogicExpression) expression;
+
+         flatten(logic.getLeft(), symbol, operands);
+         flatten(logic.getRight(), symbol, operands);
+      }
+      else
+      {
+         operands.add(compileBoolean(expression, true));
+      }
+   }
+
+   private static Evaluator compileComparison(final ComparisonExpression comparison)
+   {
+      int operator;
+
+      String symbol = comparison.getExpressionSymbol();
+
+      if ("=".equals(symbol))
+      {
+         operator = EQ;
+      }
+      else if (">".equals(symbol))
+      {
+         operator = GT;
+      }
+      else if (">=".equals(symbol))
+      {
+         operator = GE;
+      }
+      else if ("<".equals(symbol))
+      {
+         operator = LT;
+      }
+      else if ("<=".equals(symbol))
+      {
+         operator = LE;
+      }
+      else
+      {
+         return new Interpreted(comparison);
+      }
+
+      // the widening rules aren't symmetric, only identifier <op> literal is compiled
+      if (!(comparison.getLeft() instanceof PropertyExpression))
+      {
+         return new Interpreted(comparison);
+      }
+
+      Operand operand = operand((PropertyExpression) comparison.getLeft());
+
+      Expression right = comparison.getRight();
+
+      Object literal;
+
+      if (right instanceof ConstantExpression)
+      {
+         literal = ((ConstantExpression) right).getValue();
+      }
+      else if (right instanceof UnaryExpression && "-".equals(((UnaryExpression) right).getExpressionSymbol()) &&
+         ((UnaryExpression) right).getRight() instanceof ConstantExpression)
+      {
+         literal = negate(((ConstantExpression) ((UnaryExpression) right).getRight()).getValue());
+
+         if (literal == null)
+         {
+            return new Interpreted(comparison);
+         }
+      }
+      else
+      {
+         return new Interpreted(comparison);
+      }
+
+      if (operator == EQ)
+      {
+         if (literal == null)
+         {
+            return new IsNull(operand);
+         }
+
+         if (literal instanceof String)
+         {
+            return new EqualsString(operand, new SimpleString((String) literal));
+         }
+
+         if (literal instanceof Boolean)
+         {
+            return new EqualsBoolean(operand, (Boolean) literal);
+         }
+      }
+
+      if (literal instanceof Integer || literal instanceof Long)
+      {
+         long value = ((Number) literal).longValue();
+
+         if (operand instanceof NumericHeader)
+         {
+            return new CompareNumericHeader((NumericHeader) operand, operator, true, value, value);
+         }
+
+         return new CompareNumber(operand, operator, true, value, value);
+      }
+
+      if (literal instanceof Double)
+      {
+         double value = (Double) literal;
+
+         if (operand instanceof NumericHeader)
+         {
+            return new CompareNumericHeader((NumericHeader) operand, operator, false, 0, value);
+         }
+
+         return new CompareNumber(operand, operator, false, 0, value);
+      }
+
+      return new Interpreted(comparison);
+   }
+
+   /**
+    * @return the negated literal with the type {@code UnaryExpression} would give it, null if it isn't a simple number
+    */
+   private static Object negate(final Object value)
+   {
+      if (value instanceof Integer)
+      {
+         return Integer.valueOf(-((Integer) value).intValue());
+      }
+
+      if (value instanceof Long)
+      {
+         return Long.valueOf(-((Long) value).longValue());
+      }
+
+      if (value instanceof Double)
+      {
+         return Double.valueOf(-((Double) value).doubleValue());
+      }
+
+      return null;
+   }
+
+   private static Operand operand(final PropertyExpression property)
+   {
+      SimpleString name = new SimpleString(property.getName());
+
+      if (FilterConstants.ACTIVEMQ_PRIORITY.equals(name))
+      {
+         return new NumericHeader(NumericHeader.PRIORITY);
+      }
+      else if (FilterConstants.ACTIVEMQ_TIMESTAMP.equals(name))
+      {
+         return new NumericHeader(NumericHeader.TIMESTAMP);
+      }
+      else if (FilterConstants.ACTIVEMQ_EXPIRATION.equals(name))
+      {
+         return new NumericHeader(NumericHeader.EXPIRATION);
+      }
+      else if (FilterConstants.ACTIVEMQ_SIZE.equals(name))
+      {
+         return new NumericHeader(NumericHeader.SIZE);
+      }
+      else if (FilterConstants.ACTIVEMQ_DURABLE.equals(name) || FilterConstants.ACTIVEMQ_USERID.equals(name))
+      {
+         return new Header(name);
+      }
+
+      return new Property(name);
+   }
+
+   private static boolean convertsStringExpressions(final String selector)
+   {
+      // same option prefixes as SelectorParser
+      boolean convert = false;
+
+      String actual = selector;
+
+      while (true)
+      {
+         if (actual.startsWith(CONVERT_STRING_EXPRESSIONS_PREFIX))
+         {
+            convert = true;
+            actual = actual.substring(CONVERT_STRING_EXPRESSIONS_PREFIX.length());
+         }
+         else if (actual.startsWith(NO_CONVERT_STRING_EXPRESSIONS_PREFIX))
+         {
+            convert = false;
+            actual = actual.substring(NO_CONVERT_STRING_EXPRESSIONS_PREFIX.length());
+         }
+         else if (actual.startsWith(HYPHENATED_PROPS_PREFIX))
+         {
+            actual = actual.substring(HYPHENATED_PROPS_PREFIX.length());
+         }
+         else if (actual.startsWith(NO_HYPHENATED_PROPS_PREFIX))
+         {
+            actual = actual.substring(NO_HYPHENATED_PROPS_PREFIX.length());
+         }
+         else
+         {
+            return convert;
+         }
+      }
+   }
+
+   private static int result(final boolean value)
+   {
+      return value ? TRUE : FALSE;
+   }
+
+   private static final Comparator<Evaluator> BY_COST = new Comparator<Evaluator>()
+   {
+      public int compare(final Evaluator e1, final Evaluator e2)
+      {
+         return e1.cost() - e2.cost();
+      }
+   };
+
+   // Evaluators -------------------------------------------------------------------------------------
+
+   abstract static class Evaluator
+   {
+      /**
+       * @return {@link #TRUE}, {@link #FALSE} or {@link #UNKNOWN}, with the same semantic as the interpreted
+       * expression: a null result there is {@link #UNKNOWN} here
+       */
+      abstract int evaluate(ServerMessage message) throws FilterException;
+
+      /**
+       * A relative estimate of the evaluation cost, the cheapest operands of AND and OR are evaluated first.
+       */
+      abstract int cost();
+   }
+
+   private static final class Constant extends Evaluator
+   {
+      private final int value;
+
+      Constant(final int value)
+      {
+         this.value = value;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message)
+      {
+         return value;
+      }
+
+      @Override
+      int cost()
+      {
+         return 0;
+      }
+   }
+
+   /**
+    * AND where only a true result matters.
+    */
+   private static final class AllOf extends Evaluator
+   {
+      private final Evaluator[] operands;
+
+      AllOf(final Evaluator[] operands)
+      {
+         this.operands = operands;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message) throws FilterException
+      {
+         for (Evaluator operand : operands)
+         {
+            if (operand.evaluate(message) != TRUE)
+            {
+               return FALSE;
+            }
+         }
+
+         return TRUE;
+      }
+
+      @Override
+      int cost()
+      {
+         int cost = 0;
+
+         for (Evaluator operand : operands)
+         {
+            cost += operand.cost();
+         }
+
+         return cost;
+      }
+   }
+
+   /**
+    * OR where only a true result matters.
+    */
+   private static final class AnyOf extends Evaluator
+   {
+      private final Evaluator[] operands;
+
+      AnyOf(final Evaluator[] operands)
+      {
+         this.operands = operands;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message) throws FilterException
+      {
+         for (Evaluator operand : operands)
+         {
+            if (operand.evaluate(message) == TRUE)
+            {
+               return TRUE;
+            }
+         }
+
+         return FALSE;
+      }
+
+      @Override
+      int cost()
+      {
+         int cost = 0;
+
+         for (Evaluator operand : operands)
+         {
+            cost += operand.cost();
+         }
+
+         return cost;
+      }
+   }
+
+   /**
+    * Same as LogicExpression.createAND.
+    */
+   private static final class And extends Evaluator
+   {
+      private final Evaluator left;
+
+      private final Evaluator right;
+
+      And(final Evaluator left, final Evaluator right)
+      {
+         this.left = left;
+         this.right = right;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message) throws FilterException
+      {
+         int lv = left.evaluate(message);
+
+         if (lv != TRUE)
+         {
+            return lv;
+         }
+
+         return right.evaluate(message);
+      }
+
+      @Override
+      int cost()
+      {
+         return left.cost() + right.cost();
+      }
+   }
+
+   /**
+    * Same as LogicExpression.createOR.
+    */
+   private static final class Or extends Evaluator
+   {
+      private final Evaluator left;
+
+      private final Evaluator right;
+
+      Or(final Evaluator left, final Evaluator right)
+      {
+         this.left = left;
+         this.right = right;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message) throws FilterException
+      {
+         if (left.evaluate(message) == TRUE)
+         {
+            return TRUE;
+         }
+
+         return right.evaluate(message);
+      }
+
+      @Override
+      int cost()
+      {
+         return left.cost() + right.cost();
+      }
+   }
+
+   private static final class Not extends Evaluator
+   {
+      private final Evaluator operand;
+
+      Not(final Evaluator operand)
+      {
+         this.operand = operand;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message) throws FilterException
+      {
+         int value = operand.evaluate(message);
+
+         return value == UNKNOWN ? UNKNOWN : value == TRUE ? FALSE : TRUE;
+      }
+
+      @Override
+      int cost()
+      {
+         return operand.cost();
+      }
+   }
+
+   private static final class IsNull extends Evaluator
+   {
+      private final Operand operand;
+
+      IsNull(final Operand operand)
+      {
+         this.operand = operand;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message)
+      {
+         return result(operand.value(message) == null);
+      }
+
+      @Override
+      int cost()
+      {
+         return operand.cost();
+      }
+   }
+
+   private static final class EqualsString extends Evaluator
+   {
+      private final Operand operand;
+
+      private final SimpleString literal;
+
+      EqualsString(final Operand operand, final SimpleString literal)
+      {
+         this.operand = operand;
+         this.literal = literal;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message)
+      {
+         Object value = operand.value(message);
+
+         if (value instanceof SimpleString)
+         {
+            return result(literal.equals(value));
+         }
+
+         if (value instanceof String)
+         {
+            return result(literal.toString().equals(value));
+         }
+
+         // null, or a type a string is never equal to
+         return FALSE;
+      }
+
+      @Override
+      int cost()
+      {
+         return operand.cost() + 1;
+      }
+   }
+
+   private static final class EqualsBoolean extends Evaluator
+   {
+      private final Operand operand;
+
+      private final boolean literal;
+
+      EqualsBoolean(final Operand operand, final boolean literal)
+      {
+         this.operand = operand;
+         this.literal = literal;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message)
+      {
+         Object value = operand.value(message);
+
+         return result(value instanceof Boolean && (Boolean) value == literal);
+      }
+
+      @Override
+      int cost()
+      {
+         return operand.cost();
+      }
+   }
+
+   private static final class BooleanOperand extends Evaluator
+   {
+      private final Operand operand;
+
+      BooleanOperand(final Operand operand)
+      {
+         this.operand = operand;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message)
+      {
+         Object value = operand.value(message);
+
+         if (value == null)
+         {
+            return UNKNOWN;
+         }
+
+         return result(value instanceof Boolean && (Boolean) value);
+      }
+
+      @Override
+      int cost()
+      {
+         return operand.cost();
+      }
+   }
+
+   /**
+    * An identifier compared with a numeric literal, widened the way ComparisonExpression.compare does it.
+    */
+   private static final class CompareNumber extends Evaluator
+   {
+      private final Operand operand;
+
+      private final int operator;
+
+      private final boolean integral;
+
+      private final long longLiteral;
+
+      private final double doubleLiteral;
+
+      CompareNumber(final Operand operand,
+                    final int operator,
+                    final boolean integral,
+                    final long longLiteral,
+                    final double doubleLiteral)
+      {
+         this.operand = operand;
+         this.operator = operator;
+         this.integral = integral;
+         this.longLiteral = longLiteral;
+         this.doubleLiteral = doubleLiteral;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message)
+      {
+         Object value = operand.value(message);
+
+         if (value == null)
+         {
+            // = is false for a missing value, the other comparisons are unknown
+            return operator == EQ ? FALSE : UNKNOWN;
+         }
+
+         int comparison;
+
+         if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+         {
+            long l = ((Number) value).longValue();
+
+            comparison = integral ? compare(l, longLiteral) : Double.compare(l, doubleLiteral);
+         }
+         else if (value instanceof Double)
+         {
+            comparison = Double.compare((Double) value, doubleLiteral);
+         }
+         else if (value instanceof Float)
+         {
+            float f = (Float) value;
+
+            comparison = integral ? Float.compare(f, longLiteral) : Double.compare(f, doubleLiteral);
+         }
+         else
+         {
+            // strings, booleans, chars... are never equal to or comparable with a number
+            return FALSE;
+         }
+
+         return result(matches(operator, comparison));
+      }
+
+      @Override
+      int cost()
+      {
+         return operand.cost() + 1;
+      }
+   }
+
+   /**
+    * A numeric header compared with a numeric literal, without boxing.
+    */
+   private static final class CompareNumericHeader extends Evaluator
+   {
+      private final NumericHeader header;
+
+      private final int operator;
+
+      private final boolean integral;
+
+      private final long longLiteral;
+
+      private final double doubleLiteral;
+
+      CompareNumericHeader(final NumericHeader header,
+                           final int operator,
+                           final boolean integral,
+                           final long longLiteral,
+                           final double doubleLiteral)
+      {
+         this.header = header;
+         this.operator = operator;
+         this.integral = integral;
+         this.longLiteral = longLiteral;
+         this.doubleLiteral = doubleLiteral;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message)
+      {
+         long value = header.longValue(message);
+
+         int comparison = integral ? compare(value, longLiteral) : Double.compare(value, doubleLiteral);
+
+         return result(matches(operator, comparison));
+      }
+
+      @Override
+      int cost()
+      {
+         return 1;
+      }
+   }
+
+   private static final class In extends Evaluator
+   {
+      private final Operand operand;
+
+      private final Set<SimpleString> values = new HashSet<SimpleString>();
+
+      private final boolean not;
+
+      In(final Operand operand, final Iterable<Object> inList, final boolean not)
+      {
+         this.operand = operand;
+         this.not = not;
+
+         if (inList != null)
+         {
+            for (Object value : inList)
+            {
+               // only strings are ever matched
+               if (value instanceof String)
+               {
+                  values.add(new SimpleString((String) value));
+               }
+            }
+         }
+      }
+
+      @Override
+      int evaluate(final ServerMessage message)
+      {
+         Object value = operand.value(message);
+
+         boolean contained;
+
+         if (value instanceof SimpleString)
+         {
+            contained = values.contains(value);
+         }
+         else if (value instanceof String)
+         {
+            contained = values.contains(new SimpleString((String) value));
+         }
+         else
+         {
+            // null or not a string
+            return UNKNOWN;
+         }
+
+         return result(contained ^ not);
+      }
+
+      @Override
+      int cost()
+      {
+         return operand.cost() + 2;
+      }
+   }
+
+   private static final class Like extends Evaluator
+   {
+      private final Operand operand;
+
+      private final Pattern pattern;
+
+      Like(final Operand operand, final Pattern pattern)
+      {
+         this.operand = operand;
+         this.pattern = pattern;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message)
+      {
+         Object value = operand.value(message);
+
+         if (value == null)
+         {
+            return UNKNOWN;
+         }
+
+         if (!(value instanceof SimpleString) && !(value instanceof String))
+         {
+            return FALSE;
+         }
+
+         return result(pattern.matcher(value.toString()).matches());
+      }
+
+      @Override
+      int cost()
+      {
+         return operand.cost() + 8;
+      }
+   }
+
+   /**
+    * A node the compiler doesn't specialise, evaluated by its interpreted expression.
+    */
+   private static final class Interpreted extends Evaluator
+   {
+      private final BooleanExpression expression;
+
+      Interpreted(final BooleanExpression expression)
+      {
+         this.expression = expression;
+      }
+
+      @Override
+      int evaluate(final ServerMessage message) throws FilterException
+      {
+         Object value = expression.evaluate(new FilterableServerMessage(message));
+
+         if (value == null)
+         {
+            return UNKNOWN;
+         }
+
+         return result((Boolean) value);
+      }
+
+      @Override
+      int cost()
+      {
+         return 16;
+      }
+   }
+
+   private static int compare(final long l1, final long l2)
+   {
+      return l1 < l2 ? -1 : l1 == l2 ? 0 : 1;
+   }
+
+   private static boolean matches(final int operator, final int comparison)
+   {
+      switch (operator)
+      {
+         case EQ:
+            return comparison == 0;
+         case GT:
+            return comparison > 0;
+         case GE:
+            return comparison >= 0;
+         case LT:
+            return comparison < 0;
+         default:
+            return comparison <= 0;
+      }
+   }
+
+   // Operands ---------------------------------------------------------------------------------------
+
+   private abstract static class Operand
+   {
+      /**
+       * @return the value of the identifier, with strings as SimpleStrings, or null if the message doesn't have it
+       */
+      abstract Object value(ServerMessage message);
+
+      abstract int cost();
+   }
+
+   private static final class Property extends Operand
+   {
+      private final SimpleString name;
+
+      Property(final SimpleString name)
+      {
+         this.name = name;
+      }
+
+      @Override
+      Object value(final ServerMessage message)
+      {
+         return message.getObjectProperty(name);
+      }
+
+      @Override
+      int cost()
+      {
+         return 2;
+      }
+   }
+
+   private static final class Header extends Operand
+   {
+      private final SimpleString name;
+
+      Header(final SimpleString name)
+      {
+         this.name = name;
+      }
+
+      @Override
+      Object value(final ServerMessage message)
+      {
+         return FilterableServerMessage.getHeaderFieldValue(message, name);
+      }
+
+      @Override
+      int cost()
+      {
+         return 1;
+      }
+   }
+
+   private static final class NumericHeader extends Operand
+   {
+      static final int PRIORITY = 0;
+
+      static final int TIMESTAMP = 1;
+
+      static final int EXPIRATION = 2;
+
+      static final int SIZE = 3;
+
+      private final int field;
+
+      NumericHeader(final int field)
+      {
+         this.field = field;
+      }
+
+      long longValue(final ServerMessage message)
+      {
+         switch (field)
+         {
+            case PRIORITY:
+               return message.getPriority();
+            case TIMESTAMP:
+               return message.getTimestamp();
+            case EXPIRATION:
+               return message.getExpiration();
+            default:
+               return message.getEncodeSize();
+         }
+      }
+
+      @Override
+      Object value(final ServerMessage message)
+      {
+         // the same types as the interpreted headers
+         switch (field)
+         {
+            case PRIORITY:
+               return Integer.valueOf(message.getPriority());
+            case SIZE:
+               return Integer.valueOf(message.getEncodeSize());
+            default:
+               return Long.valueOf(longValue(message));
+         }
+      }
+
+      @Override
+      int cost()
+      {
+         return 0;
+      }
+   }
+}
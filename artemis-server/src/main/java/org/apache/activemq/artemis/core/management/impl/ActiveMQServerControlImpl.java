@@ -53,6 +53,8 @@ import org.apache.activemq.artemis.core.config.Configuration;
 import org.apache.activemq.artemis.core.config.DivertConfiguration;
 import org.apache.activemq.artemis.core.messagecounter.MessageCounterManager;
 import org.apache.activemq.artemis.core.messagecounter.impl.MessageCounterManagerImpl;
+import org.apache.activemq.artemis.core.paging.PagingManager;
+import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.persistence.StorageManager;
 import org.apache.activemq.artemis.core.persistence.config.PersistedAddressSetting;
 import org.apache.activemq.artemis.core.persistence.config.PersistedRoles;
@@ -900,6 +902,36 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
       }
    }
 
+   public long getGlobalMaxSize()
+   {
+      checkStarted();
+
+      clearIO();
+      try
+      {
+         return configuration.getGlobalMaxSize();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public long getAddressMemoryUsage()
+   {
+      checkStarted();
+
+      clearIO();
+      try
+      {
+         return server.getPagingManager().getGlobalSize();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
    public int getMessageCounterMaxDayCount()
    {
       checkStarted();
@@ -1428,6 +1460,53 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
       return producers.toString();
    }
 
+   public String listAddressMemoryUsageAsJSON() throws Exception
+   {
+      checkStarted();
+
+      clearIO();
+      try
+      {
+         PagingManager pagingManager = server.getPagingManager();
+
+         List<PagingStore> stores = new ArrayList<PagingStore>();
+         for (SimpleString storeName : pagingManager.getStoreNames())
+         {
+            stores.add(pagingManager.getPageStore(storeName));
+         }
+
+         Collections.sort(stores, new Comparator<PagingStore>()
+         {
+            public int compare(final PagingStore store1, final PagingStore store2)
+            {
+               long size1 = store1.getAddressSize();
+               long size2 = store2.getAddressSize();
+               return size1 < size2 ? 1 : size1 == size2 ? 0 : -1;
+            }
+         });
+
+         long globalSize = pagingManager.getGlobalSize();
+
+         JSONArray array = new JSONArray();
+         for (PagingStore store : stores)
+         {
+            long addressSize = store.getAddressSize();
+            JSONObject obj = new JSONObject();
+            obj.put("address", store.getAddress().toString());
+            obj.put("size", addressSize);
+            obj.put("share", globalSize > 0 ? addressSize * 100.0 / globalSize : 0);
+            obj.put("paging", store.isPaging());
+            obj.put("globalFull", store.isGlobalFull());
+            array.put(obj);
+         }
+         return array.toString();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
 
    public Object[] getConnectors() throws Exception
    {
@@ -190,6 +190,19 @@ public class AddressControlImpl extends AbstractControl implements AddressContro
       }
    }
 
+   public long getProducerStallTime() throws Exception
+   {
+      clearIO();
+      try
+      {
+         return pagingManager.getPageStore(address).getProducerStallTime();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
    public long getAddressSize() throws Exception
    {
       clearIO();
@@ -218,6 +218,110 @@ public class BridgeControlImpl extends AbstractControl implements BridgeControl
       }
    }
 
+   public int getStreams()
+   {
+      clearIO();
+      try
+      {
+         return bridge.getStreams();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public long getMessagesForwarded()
+   {
+      clearIO();
+      try
+      {
+         return bridge.getMessagesForwarded();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public long getMessagesAcknowledged()
+   {
+      clearIO();
+      try
+      {
+         return bridge.getMessagesAcknowledged();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public float getForwardRate()
+   {
+      clearIO();
+      try
+      {
+         return bridge.getForwardRate();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public boolean isCompressBatches()
+   {
+      clearIO();
+      try
+      {
+         return bridge.isCompressBatches();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public long getBytesForwarded()
+   {
+      clearIO();
+      try
+      {
+         return bridge.getBytesForwarded();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public float getCompressionRatio()
+   {
+      clearIO();
+      try
+      {
+         return bridge.getCompressionRatio();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public float getForwardByteRate()
+   {
+      clearIO();
+      try
+      {
+         return bridge.getForwardByteRate();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
    public void start() throws Exception
    {
       clearIO();
@@ -271,6 +271,51 @@ public class QueueControlImpl extends AbstractControl implements QueueControl
       }
    }
 
+   public long getMessagesRedistributed()
+   {
+      checkStarted();
+
+      clearIO();
+      try
+      {
+         return queue.getMessagesRedistributed();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public float getRedistributionRate()
+   {
+      checkStarted();
+
+      clearIO();
+      try
+      {
+         return queue.getRedistributionRate();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
+   public long getRedistributionBacklog()
+   {
+      checkStarted();
+
+      clearIO();
+      try
+      {
+         return queue.getRedistributionBacklog();
+      }
+      finally
+      {
+         blockOnIO();
+      }
+   }
+
    public long getID()
    {
       checkStarted();
@@ -969,6 +1014,7 @@ public class QueueControlImpl extends AbstractControl implements QueueControl
                obj.put("sessionID", serverConsumer.getSessionID());
                obj.put("browseOnly", serverConsumer.isBrowseOnly());
                obj.put("creationTime", serverConsumer.getCreationTime());
+               obj.put("creditsAvailable", serverConsumer.getCreditsAvailable());
 
                jsonArray.put(obj);
             }
@@ -75,6 +75,26 @@ public interface PagingManager extends ActiveMQComponent, HierarchicalRepository
 
    void resumeCleanup();
 
+   /**
+    * Accounts the memory used by messages on any address, as reported by {@link PagingStore#addSize(int)}.
+    */
+   void addGlobalSize(int size);
+
+   /**
+    * Returns the memory used by messages of all the addresses together.
+    */
+   long getGlobalSize();
+
+   /**
+    * Returns the global-max-size configured, or -1 if there's no global limit.
+    */
+   long getGlobalMaxSize();
+
+   /**
+    * Returns true while the global-max-size was crossed and it hasn't gone back below its low watermark yet.
+    */
+   boolean isGlobalFull();
+
    /**
     * Lock the manager. This method should not be called during normal PagingManager usage.
     */
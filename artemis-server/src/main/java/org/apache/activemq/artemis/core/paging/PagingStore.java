@@ -61,10 +61,28 @@ public interface PagingStore extends ActiveMQComponent
 
    long getPageSizeBytes();
 
+   /**
+    * Returns the accumulated time (in milliseconds) producers spent waiting to write into the page files.
+    */
+   long getProducerStallTime();
+
+   /**
+    * Set by the {@link PagingManager} when this address was selected to relieve the global-max-size.
+    * While set the address is considered full, whatever its own max-size-bytes.
+    */
+   void setGlobalFull(boolean globalFull);
+
+   boolean isGlobalFull();
+
    long getAddressSize();
 
    long getMaxSize();
 
+   /**
+    * Returns the global-max-size, the limit of an address without a max-size-bytes of its own.
+    */
+   long getGlobalMaxSize();
+
    void applySetting(AddressSettings addressSettings);
 
    boolean isPaging();
@@ -95,6 +95,11 @@ public interface PageSubscription
 
    void reloadPageInfo(long pageNr);
 
+   /**
+    * @return the acknowledgements loaded for the page that were stored after the given record
+    */
+   int countAcks(long pageNr, long afterRecordID);
+
    /**
     * To be called when the cursor decided to ignore a position.
     *
@@ -108,7 +113,7 @@ public interface PageSubscription
     * To be used to avoid a redelivery of a prepared ACK after load
     * @param position
     */
-   void reloadPreparedACK(Transaction tx, PagePosition position);
+   void reloadPreparedACK(Transaction tx, PagePosition position) throws Exception;
 
    void processReload() throws Exception;
 
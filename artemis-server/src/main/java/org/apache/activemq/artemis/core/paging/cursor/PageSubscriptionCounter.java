@@ -53,4 +53,16 @@ public interface PageSubscriptionCounter
 
    void cleanupNonTXCounters(final long pageID) throws Exception;
 
+   /**
+    * Decrements the counter for an acknowledgement on the page, without a record for each acknowledgement.
+    * The acknowledgements are recounted on reload until they are stored as a single increment.
+    */
+   void pendingAck(Transaction tx, long pageID) throws Exception;
+
+   // the page can't be completed while acknowledgements on it are being committed
+   boolean isPendingAckInFlight(long pageID);
+
+   // used when the page is completed, storing the pending acknowledgements as part of the TX
+   void cleanupPendingAcks(Transaction tx, long pageID) throws Exception;
+
 }
\ No newline at end of file
@@ -18,6 +18,8 @@ package org.apache.activemq.artemis.core.paging.cursor.impl;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.concurrent.Executor;
@@ -71,6 +73,17 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter
    // A Map per pageID, each page will have a set of IDs, with the increment on each one
    private final Map<Long, Pair<Long, AtomicInteger>> pendingCounters = new HashMap<Long, Pair<Long, AtomicInteger>>();
 
+   // Acknowledgements not stored on the counter yet, per pageID
+   // Each page has a marker record, and the acknowledgements stored with a bigger ID are recounted on reload
+   // They are stored as a single increment per page once FLUSH_COUNTER of them are pending on the counter,
+   // or when the page is complete
+   private final Map<Long, PendingAcks> pendingAcks = new HashMap<Long, PendingAcks>();
+
+   // committed acknowledgements on all the pages of pendingAcks
+   private int pendingAcksCount;
+
+   private boolean pendingAcksFlushScheduled;
+
    private LinkedList<Pair<Long, Integer>> loadList;
 
    private final Runnable cleanupCheck = new Runnable()
@@ -81,6 +94,14 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter
       }
    };
 
+   private final Runnable flushPendingAcksCheck = new Runnable()
+   {
+      public void run()
+      {
+         flushPendingAcks();
+      }
+   };
+
    public PageSubscriptionCounterImpl(final StorageManager storage,
                                       final PageSubscription subscription,
                                       final Executor executor,
@@ -188,19 +209,209 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter
       }
       else
       {
-         if (persistent)
+         // the increment is only aggregated here,
+         // a single record per counter is stored before the TX is prepared or committed
+         getCounterOperations(tx).addPending(tx, this, add);
+      }
+   }
+
+   @Override
+   public void pendingAck(final Transaction tx, final long pageID) throws Exception
+   {
+      if (!persistent)
+      {
+         increment(tx, -1);
+         return;
+      }
+
+      PendingAcks pending;
+
+      synchronized (this)
+      {
+         pending = pendingAcks.get(pageID);
+         if (pending == null)
          {
-            tx.setContainsPersistent();
-            long id = storage.storePageCounterInc(tx.getID(), this.subscriptionID, add);
-            applyIncrementOnTX(tx, id, add);
+            // the ID is taken before the acknowledgement gets its record, so it's recounted on reload.
+            // The marker itself is only stored when the TX is prepared or committed
+            pending = new PendingAcks(storage.generateID(), pageID);
+            pendingAcks.put(pageID, pending);
          }
-         else
+         pending.inFlight++;
+      }
+
+      getCounterOperations(tx).addPendingAck(this, pending);
+   }
+
+   /**
+    * Appends the marker of the pending acknowledgements if no TX did it yet.
+    * This is called before the TX is prepared or committed, so the marker is always in the journal before the
+    * acknowledgements it stands for, and it doesn't need to be synced.
+    */
+   private void storePendingAckMarker(final PendingAcks pending) throws Exception
+   {
+      if (pending.stored)
+      {
+         return;
+      }
+
+      // the counter itself is not locked while appending, so other acknowledgements are never held by the journal
+      synchronized (pending)
+      {
+         if (!pending.stored)
+         {
+            storage.storePendingAckCounter(pending.recordID, this.subscriptionID, pending.pageID);
+            pending.stored = true;
+         }
+      }
+   }
+
+   @Override
+   public synchronized boolean isPendingAckInFlight(final long pageID)
+   {
+      PendingAcks pending = pendingAcks.get(pageID);
+      return pending != null && pending.inFlight > 0;
+   }
+
+   @Override
+   public void cleanupPendingAcks(final Transaction tx, final long pageID) throws Exception
+   {
+      PendingAcks pending;
+      synchronized (this)
+      {
+         pending = pendingAcks.remove(pageID);
+         if (pending != null)
+         {
+            pendingAcksCount += pending.value;
+         }
+      }
+
+      if (pending != null)
+      {
+         storePendingAcks(tx, pending);
+      }
+   }
+
+   private void pendingAcksCommitted(final PendingAcks pending, final int acks)
+   {
+      boolean flush = false;
+
+      synchronized (this)
+      {
+         pending.value -= acks;
+         pending.inFlight -= acks;
+         pendingValue.addAndGet(-acks);
+
+         // the acknowledgements of a page removed meanwhile were already stored
+         if (pendingAcks.get(pending.pageID) == pending)
+         {
+            pendingAcksCount += acks;
+         }
+
+         if (pendingAcksCount >= FLUSH_COUNTER && !pendingAcksFlushScheduled)
+         {
+            pendingAcksFlushScheduled = true;
+            flush = true;
+         }
+      }
+
+      if (flush)
+      {
+         executor.execute(flushPendingAcksCheck);
+      }
+   }
+
+   private synchronized void pendingAcksRolledBack(final PendingAcks pending, final int acks)
+   {
+      pending.inFlight -= acks;
+   }
+
+   /**
+    * Replaces the marker of the pending acknowledgements by an increment, as part of the transaction
+    */
+   private void storePendingAcks(final Transaction tx, final PendingAcks pending) throws Exception
+   {
+      final int valueStored = pending.value;
+
+      // no TX acknowledging on the page was prepared or committed if the marker was never stored
+      if (pending.stored)
+      {
+         storage.deletePendingPageCounter(tx.getID(), pending.recordID);
+         tx.setContainsPersistent();
+      }
+
+      increment(tx, valueStored);
+
+      tx.addOperation(new TransactionOperationAbstract()
+      {
+         @Override
+         public void afterCommit(Transaction tx)
+         {
+            pendingValue.addAndGet(-valueStored);
+         }
+      });
+   }
+
+   /** This method should always be called from a single threaded executor */
+   protected void flushPendingAcks()
+   {
+      ArrayList<PendingAcks> flushList = new ArrayList<PendingAcks>();
+
+      synchronized (this)
+      {
+         pendingAcksFlushScheduled = false;
+
+         Iterator<PendingAcks> iterator = pendingAcks.values().iterator();
+         while (iterator.hasNext())
+         {
+            PendingAcks pending = iterator.next();
+
+            // the page has to wait for the next flush while acknowledgements are being committed on it,
+            // as the acknowledgements stored after the marker are recounted until it's removed
+            if (pending.inFlight == 0)
+            {
+               iterator.remove();
+               pendingAcksCount += pending.value;
+               flushList.add(pending);
+            }
+         }
+      }
+
+      for (PendingAcks pending : flushList)
+      {
+         try
+         {
+            Transaction tx = new TransactionImpl(storage);
+            storePendingAcks(tx, pending);
+            tx.commit();
+         }
+         catch (Exception e)
          {
-            applyIncrementOnTX(tx, -1, add);
+            // the marker is still there, so the acknowledgements are recounted on reload
+            ActiveMQServerLogger.LOGGER.problemCleaningPagesubscriptionCounter(e);
          }
       }
    }
 
+   /**
+    * Stores the journal record for an aggregated increment, as part of the transaction
+    * @param tx
+    * @param add
+    * @return the recordID, or -1 if the counter is not persistent
+    * @throws Exception
+    */
+   private long storeIncrement(final Transaction tx, final int add) throws Exception
+   {
+      if (persistent)
+      {
+         tx.setContainsPersistent();
+         return storage.storePageCounterInc(tx.getID(), this.subscriptionID, add);
+      }
+      else
+      {
+         return -1;
+      }
+   }
+
    /**
     * This method will install the TXs
     * @param tx
@@ -208,6 +419,11 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter
     * @param add
     */
    public void applyIncrementOnTX(Transaction tx, long recordID1, int add)
+   {
+      getCounterOperations(tx).operations.add(new ItemOper(this, recordID1, add));
+   }
+
+   private static CounterOperations getCounterOperations(final Transaction tx)
    {
       CounterOperations oper = (CounterOperations)tx.getProperty(TransactionPropertyIndexes.PAGE_COUNT_INC);
 
@@ -218,7 +434,7 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter
          tx.addOperation(oper);
       }
 
-      oper.operations.add(new ItemOper(this, recordID1, add));
+      return oper;
    }
 
    public synchronized void loadValue(final long recordID1, final long value1)
@@ -271,9 +487,21 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter
                tx.setContainsPersistent();
             }
 
+            for (PendingAcks pending : pendingAcks.values())
+            {
+               if (pending.stored)
+               {
+                  storage.deletePendingPageCounter(tx.getID(), pending.recordID);
+                  tx.setContainsPersistent();
+               }
+               pendingValue.addAndGet(-pending.value);
+            }
+
             recordID = -1;
             value.set(0);
             incrementRecords.clear();
+            pendingAcks.clear();
+            pendingAcksCount = 0;
          }
       }
       finally
@@ -390,6 +618,32 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter
       }
    }
 
+   /**
+    * The acknowledgements on a page since its marker was stored
+    */
+   private static final class PendingAcks
+   {
+      // the marker record
+      final long recordID;
+
+      final long pageID;
+
+      // the acknowledgements committed, as a negative increment
+      int value;
+
+      // the acknowledgements on transactions not completed yet
+      int inFlight;
+
+      // set once the marker is in the journal
+      volatile boolean stored;
+
+      PendingAcks(final long recordID, final long pageID)
+      {
+         this.recordID = recordID;
+         this.pageID = pageID;
+      }
+   }
+
    private static class ItemOper
    {
 
@@ -411,6 +665,108 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter
    {
       LinkedList<ItemOper> operations = new LinkedList<ItemOper>();
 
+      // increments not stored yet, aggregated per counter so we only write one record per counter on each TX
+      // (identity semantics, as counters don't override equals)
+      Map<PageSubscriptionCounterImpl, ItemOper> pendingOperations;
+
+      // acknowledgements applied to the pending acks of their page once the TX is committed
+      Map<PendingAcks, ItemOper> pendingAckOperations;
+
+      // set once the TX is being prepared or committed, increments coming after that are stored right away
+      boolean stored;
+
+      void addPending(final Transaction tx, final PageSubscriptionCounterImpl counter, final int add) throws Exception
+      {
+         if (stored)
+         {
+            if (add != 0)
+            {
+               operations.add(new ItemOper(counter, counter.storeIncrement(tx, add), add));
+            }
+            return;
+         }
+
+         if (pendingOperations == null)
+         {
+            pendingOperations = new LinkedHashMap<PageSubscriptionCounterImpl, ItemOper>();
+         }
+
+         ItemOper oper = pendingOperations.get(counter);
+         if (oper == null)
+         {
+            pendingOperations.put(counter, new ItemOper(counter, -1, add));
+         }
+         else
+         {
+            oper.ammount += add;
+         }
+      }
+
+      void addPendingAck(final PageSubscriptionCounterImpl counter, final PendingAcks pending) throws Exception
+      {
+         if (stored)
+         {
+            counter.storePendingAckMarker(pending);
+         }
+
+         if (pendingAckOperations == null)
+         {
+            pendingAckOperations = new LinkedHashMap<PendingAcks, ItemOper>();
+         }
+
+         ItemOper oper = pendingAckOperations.get(pending);
+         if (oper == null)
+         {
+            pendingAckOperations.put(pending, new ItemOper(counter, pending.recordID, 1));
+         }
+         else
+         {
+            oper.ammount++;
+         }
+      }
+
+      private void storePending(final Transaction tx) throws Exception
+      {
+         stored = true;
+
+         if (pendingAckOperations != null)
+         {
+            for (Map.Entry<PendingAcks, ItemOper> entry : pendingAckOperations.entrySet())
+            {
+               entry.getValue().counter.storePendingAckMarker(entry.getKey());
+            }
+         }
+
+         if (pendingOperations == null)
+         {
+            return;
+         }
+
+         for (ItemOper oper : pendingOperations.values())
+         {
+            // increments cancelling each other (e.g. paged and acked on the same TX) don't need any record
+            if (oper.ammount != 0)
+            {
+               oper.id = oper.counter.storeIncrement(tx, oper.ammount);
+               operations.add(oper);
+            }
+         }
+
+         pendingOperations = null;
+      }
+
+      @Override
+      public void beforePrepare(Transaction tx) throws Exception
+      {
+         storePending(tx);
+      }
+
+      @Override
+      public void beforeCommit(Transaction tx) throws Exception
+      {
+         storePending(tx);
+      }
+
       @Override
       public void afterCommit(Transaction tx)
       {
@@ -418,6 +774,26 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter
          {
             oper.counter.incrementProcessed(oper.id, oper.ammount);
          }
+
+         if (pendingAckOperations != null)
+         {
+            for (Map.Entry<PendingAcks, ItemOper> entry : pendingAckOperations.entrySet())
+            {
+               entry.getValue().counter.pendingAcksCommitted(entry.getKey(), entry.getValue().ammount);
+            }
+         }
+      }
+
+      @Override
+      public void afterRollback(Transaction tx)
+      {
+         if (pendingAckOperations != null)
+         {
+            for (Map.Entry<PendingAcks, ItemOper> entry : pendingAckOperations.entrySet())
+            {
+               entry.getValue().counter.pendingAcksRolledBack(entry.getKey(), entry.getValue().ammount);
+            }
+         }
       }
    }
 }
@@ -284,6 +284,11 @@ final class PageSubscriptionImpl implements PageSubscription
                   ActiveMQServerLogger.LOGGER.trace("We can't clear page " + entry.getKey() +
                                                       " now since it's the current page");
                }
+               else if (counter.isPendingAckInFlight(entry.getKey()))
+               {
+                  ActiveMQServerLogger.LOGGER.trace("We can't clear page " + entry.getKey() +
+                                                      " now since acknowledgements on it are being committed");
+               }
                else
                {
                   info.setPendingDelete();
@@ -330,6 +335,9 @@ final class PageSubscriptionImpl implements PageSubscription
             }
          }
 
+         // the pending acknowledgements of the page won't be recounted once its ack records are gone
+         counter.cleanupPendingAcks(tx, infoPG.getPageId());
+
          infoPG.acks.clear();
          infoPG.removedReferences.clear();
       }
@@ -469,9 +477,10 @@ final class PageSubscriptionImpl implements PageSubscription
 
    public void ackTx(final Transaction tx, final PagedReference reference) throws Exception
    {
-      confirmPosition(tx, reference.getPosition());
+      // the counter goes first, so the acknowledgement is stored after the pending record of its page
+      counter.pendingAck(tx, reference.getPosition().getPageNr());
 
-      counter.increment(tx, -1);
+      confirmPosition(tx, reference.getPosition());
 
       PageTransactionInfo txInfo = getPageTransaction(reference);
       if (txInfo != null)
@@ -620,10 +629,13 @@ final class PageSubscriptionImpl implements PageSubscription
    }
 
    @Override
-   public void reloadPreparedACK(final Transaction tx, final PagePosition position)
+   public void reloadPreparedACK(final Transaction tx, final PagePosition position) throws Exception
    {
       deliveredCount.incrementAndGet();
       installTXCallback(tx, position);
+      // the pending acknowledgements of the page didn't survive the restart,
+      // so the acknowledgement is stored on the counter when the TX is committed
+      counter.increment(tx, -1);
    }
 
    @Override
@@ -847,6 +859,30 @@ final class PageSubscriptionImpl implements PageSubscription
       getPageInfo(pageNr, true);
    }
 
+   @Override
+   public int countAcks(final long pageNr, final long afterRecordID)
+   {
+      PageCursorInfo info = getPageInfo(pageNr, false);
+
+      int acks = 0;
+
+      if (info != null)
+      {
+         synchronized (info.acks)
+         {
+            for (PagePosition pos : info.acks)
+            {
+               if (pos.getRecordID() > afterRecordID)
+               {
+                  acks++;
+               }
+            }
+         }
+      }
+
+      return acks;
+   }
+
    private PageCursorInfo getPageInfo(final PagePosition pos)
    {
       return getPageInfo(pos.getPageNr(), true);
@@ -21,6 +21,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
@@ -47,8 +50,19 @@ public final class Page implements Comparable<Page>
 
    private static final byte START_BYTE = (byte) '{';
 
+   /**
+    * Start of a record holding a compressed message:
+    * COMPRESSED_START_BYTE, int (size), int (uncompressed size), compressed bytes, END_BYTE
+    */
+   private static final byte COMPRESSED_START_BYTE = (byte) '[';
+
    private static final byte END_BYTE = (byte) '}';
 
+   /**
+    * The most DEFLATE can compress, bounding the uncompressed size a compressed record may announce
+    */
+   private static final int MAX_INFLATE_RATIO = 1032;
+
    // Attributes ----------------------------------------------------
 
    private final int pageId;
@@ -72,6 +86,11 @@ public final class Page implements Comparable<Page>
 
    private final SimpleString storeName;
 
+   private volatile boolean compress;
+
+   // Only used within write, which is synchronized
+   private Deflater deflater;
+
    /**
     * A list of subscriptions containing pending counters (with non tx adds) on this page
     */
@@ -100,6 +119,15 @@ public final class Page implements Comparable<Page>
       this.pageCache = pageCache;
    }
 
+   /**
+    * Messages written after this call will be compressed.
+    * Reading always supports both formats, so this can be changed at any time.
+    */
+   public void setCompress(final boolean compress)
+   {
+      this.compress = compress;
+   }
+
    public synchronized List<PagedMessage> read(StorageManager storage) throws Exception
    {
       if (isDebug)
@@ -118,6 +146,8 @@ public final class Page implements Comparable<Page>
       // Using direct buffer, as described on https://jira.jboss.org/browse/HORNETQ-467
       ByteBuffer directBuffer = storage.allocateDirectBuffer((int) file.size());
       ActiveMQBuffer fileBuffer = null;
+      // only created if the page has compressed records
+      Inflater inflater = null;
       try
       {
 
@@ -135,7 +165,7 @@ public final class Page implements Comparable<Page>
 
             byte byteRead = fileBuffer.readByte();
 
-            if (byteRead == Page.START_BYTE)
+            if (byteRead == Page.START_BYTE || byteRead == Page.COMPRESSED_START_BYTE)
             {
                if (fileBuffer.readerIndex() + DataConstants.SIZE_INT < fileBuffer.capacity())
                {
@@ -145,7 +175,24 @@ public final class Page implements Comparable<Page>
                      fileBuffer.getByte(oldPos + messageSize) == Page.END_BYTE)
                   {
                      PagedMessage msg = new PagedMessageImpl();
-                     msg.decode(fileBuffer);
+                     if (byteRead == Page.COMPRESSED_START_BYTE)
+                     {
+                        if (inflater == null)
+                        {
+                           inflater = new Inflater();
+                        }
+                        ActiveMQBuffer inflated = inflate(inflater, fileBuffer, messageSize);
+                        if (inflated == null)
+                        {
+                           markFileAsSuspect(file.getFileName(), position, messages.size());
+                           break;
+                        }
+                        msg.decode(inflated);
+                     }
+                     else
+                     {
+                        msg.decode(fileBuffer);
+                     }
                      byte b = fileBuffer.readByte();
                      if (b != Page.END_BYTE)
                      {
@@ -181,6 +228,10 @@ public final class Page implements Comparable<Page>
          {
             fileBuffer.byteBuf().unwrap().release();
          }
+         if (inflater != null)
+         {
+            inflater.end();
+         }
          storage.freeDirectBuffer(directBuffer);
       }
 
@@ -197,18 +248,28 @@ public final class Page implements Comparable<Page>
          return;
       }
 
-      ByteBuffer buffer = fileFactory.newBuffer(message.getEncodeSize() + Page.SIZE_RECORD);
+      ByteBuffer buffer = null;
 
-      ActiveMQBuffer wrap = ActiveMQBuffers.wrappedBuffer(buffer);
-      wrap.clear();
+      if (compress)
+      {
+         buffer = encodeCompressed(message);
+      }
 
-      wrap.writeByte(Page.START_BYTE);
-      wrap.writeInt(0);
-      int startIndex = wrap.writerIndex();
-      message.encode(wrap);
-      int endIndex = wrap.writerIndex();
-      wrap.setInt(1, endIndex - startIndex); // The encoded length
-      wrap.writeByte(Page.END_BYTE);
+      if (buffer == null)
+      {
+         buffer = fileFactory.newBuffer(message.getEncodeSize() + Page.SIZE_RECORD);
+
+         ActiveMQBuffer wrap = ActiveMQBuffers.wrappedBuffer(buffer);
+         wrap.clear();
+
+         wrap.writeByte(Page.START_BYTE);
+         wrap.writeInt(0);
+         int startIndex = wrap.writerIndex();
+         message.encode(wrap);
+         int endIndex = wrap.writerIndex();
+         wrap.setInt(1, endIndex - startIndex); // The encoded length
+         wrap.writeByte(Page.END_BYTE);
+      }
 
       buffer.rewind();
 
@@ -225,6 +286,99 @@ public final class Page implements Comparable<Page>
       storageManager.pageWrite(message, pageId);
    }
 
+   /**
+    * @return the record for the compressed message, or null if compressing wouldn't save any space
+    */
+   private ByteBuffer encodeCompressed(final PagedMessage message)
+   {
+      final int encodeSize = message.getEncodeSize();
+
+      byte[] input = new byte[encodeSize];
+      ActiveMQBuffer inputBuffer = ActiveMQBuffers.wrappedBuffer(input);
+      inputBuffer.clear();
+      message.encode(inputBuffer);
+
+      if (deflater == null)
+      {
+         deflater = new Deflater(Deflater.BEST_SPEED);
+      }
+      else
+      {
+         deflater.reset();
+      }
+
+      deflater.setInput(input);
+      deflater.finish();
+
+      // we only keep the compressed version if it is smaller than the original
+      byte[] output = new byte[encodeSize - DataConstants.SIZE_INT];
+      int compressedSize = deflater.deflate(output);
+
+      if (!deflater.finished())
+      {
+         return null;
+      }
+
+      ByteBuffer buffer = fileFactory.newBuffer(compressedSize + DataConstants.SIZE_INT + Page.SIZE_RECORD);
+
+      ActiveMQBuffer wrap = ActiveMQBuffers.wrappedBuffer(buffer);
+      wrap.clear();
+
+      wrap.writeByte(Page.COMPRESSED_START_BYTE);
+      wrap.writeInt(compressedSize + DataConstants.SIZE_INT);
+      wrap.writeInt(encodeSize);
+      wrap.writeBytes(output, 0, compressedSize);
+      wrap.writeByte(Page.END_BYTE);
+
+      return buffer;
+   }
+
+   /**
+    * @return the uncompressed message, or null if the record is corrupt
+    */
+   private static ActiveMQBuffer inflate(final Inflater inflater,
+                                         final ActiveMQBuffer fileBuffer,
+                                         final int recordSize)
+   {
+      final int compressedSize = recordSize - DataConstants.SIZE_INT;
+      if (compressedSize < 0)
+      {
+         return null;
+      }
+
+      int uncompressedSize = fileBuffer.readInt();
+
+      // checked before allocating anything, as a corrupt size would fail the recovery of the whole store
+      if (uncompressedSize < 0 || uncompressedSize > (long) compressedSize * MAX_INFLATE_RATIO)
+      {
+         return null;
+      }
+
+      byte[] compressed = new byte[compressedSize];
+      fileBuffer.readBytes(compressed);
+
+      byte[] output = new byte[uncompressedSize];
+
+      inflater.reset();
+      inflater.setInput(compressed);
+      int size;
+      try
+      {
+         size = inflater.inflate(output);
+      }
+      catch (DataFormatException e)
+      {
+         return null;
+      }
+
+      if (size != uncompressedSize || !inflater.finished())
+      {
+         return null;
+      }
+
+      return ActiveMQBuffers.wrappedBuffer(output);
+   }
+
    public void sync() throws Exception
    {
       file.sync();
@@ -254,6 +408,12 @@ public final class Page implements Comparable<Page>
       }
       file.close();
 
+      if (deflater != null)
+      {
+         deflater.end();
+         deflater = null;
+      }
+
       Set<PageSubscriptionCounter> counters = getPendingCounters();
       if (counters != null)
       {
@@ -16,11 +16,15 @@
  */
 package org.apache.activemq.artemis.core.paging.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
@@ -55,19 +59,64 @@ public final class PagingManagerImpl implements PagingManager
    private final ConcurrentMap</*TransactionID*/Long, PageTransactionInfo> transactions =
       new ConcurrentHashMap<Long, PageTransactionInfo>();
 
+   /**
+    * global-max-size, the high watermark. -1 means no global limit
+    */
+   private final long globalMaxSize;
+
+   /**
+    * Once the global limit is crossed, the selected addresses are released only after the global size goes below this
+    */
+   private final long globalLowWatermark;
+
+   private final AtomicLong globalSizeBytes = new AtomicLong(0);
+
+   private volatile boolean globalFull = false;
+
+   /**
+    * The global size at which the stores are selected again. This is raised after each selection, so we don't sort
+    * the stores on every message while the global size is over the limit
+    */
+   private volatile long nextGlobalCheck;
+
    // Static
    // --------------------------------------------------------------------------------------------------------------------------
 
    private static boolean isTrace = ActiveMQServerLogger.LOGGER.isTraceEnabled();
 
+   /**
+    * The low watermark as a fraction of global-max-size
+    */
+   private static final double GLOBAL_LOW_WATERMARK = 0.9;
+
+   private static final Comparator<PagingStore> BIGGEST_FIRST = new Comparator<PagingStore>()
+   {
+      public int compare(final PagingStore store1, final PagingStore store2)
+      {
+         long size1 = store1.getAddressSize();
+         long size2 = store2.getAddressSize();
+         return size1 < size2 ? 1 : size1 == size2 ? 0 : -1;
+      }
+   };
+
    // Constructors
    // --------------------------------------------------------------------------------------------------------------------
 
    public PagingManagerImpl(final PagingStoreFactory pagingSPI,
                             final HierarchicalRepository<AddressSettings> addressSettingsRepository)
+   {
+      this(pagingSPI, addressSettingsRepository, -1);
+   }
+
+   public PagingManagerImpl(final PagingStoreFactory pagingSPI,
+                            final HierarchicalRepository<AddressSettings> addressSettingsRepository,
+                            final long globalMaxSize)
    {
       pagingStoreFactory = pagingSPI;
       this.addressSettingsRepository = addressSettingsRepository;
+      this.globalMaxSize = globalMaxSize;
+      this.globalLowWatermark = (long) (globalMaxSize * GLOBAL_LOW_WATERMARK);
+      this.nextGlobalCheck = globalMaxSize;
       addressSettingsRepository.registerListener(this);
    }
 
@@ -130,6 +179,109 @@ public final class PagingManagerImpl implements PagingManager
       }
    }
 
+   public void addGlobalSize(final int size)
+   {
+      long newSize = globalSizeBytes.addAndGet(size);
+
+      if (globalMaxSize <= 0)
+      {
+         return;
+      }
+
+      if (size > 0)
+      {
+         if (newSize > nextGlobalCheck)
+         {
+            checkGlobalSize();
+         }
+      }
+      else if (globalFull && newSize <= globalLowWatermark)
+      {
+         releaseGlobalSize();
+      }
+   }
+
+   public long getGlobalSize()
+   {
+      return globalSizeBytes.get();
+   }
+
+   public long getGlobalMaxSize()
+   {
+      return globalMaxSize;
+   }
+
+   public boolean isGlobalFull()
+   {
+      return globalFull;
+   }
+
+   /**
+    * The global-max-size was crossed: the biggest stores are selected until they account for what's over the low
+    * watermark, and each one will page, block, fail or drop according to its own address-full-policy.
+    */
+   private synchronized void checkGlobalSize()
+   {
+      long globalSize = globalSizeBytes.get();
+
+      if (globalSize <= nextGlobalCheck)
+      {
+         // another thread just did it
+         return;
+      }
+
+      List<PagingStore> candidates = new ArrayList<PagingStore>(stores.size());
+      for (PagingStore store : stores.values())
+      {
+         if (!store.isGlobalFull() && store.getAddressSize() > 0)
+         {
+            candidates.add(store);
+         }
+      }
+
+      Collections.sort(candidates, BIGGEST_FIRST);
+
+      long excess = globalSize - globalLowWatermark;
+
+      for (PagingStore store : candidates)
+      {
+         if (excess <= 0)
+         {
+            break;
+         }
+
+         long addressSize = store.getAddressSize();
+
+         ActiveMQServerLogger.LOGGER.globalMaxSizeReached(store.getAddress(), addressSize, globalSize, globalMaxSize);
+
+         store.setGlobalFull(true);
+
+         excess -= addressSize;
+      }
+
+      globalFull = true;
+
+      // if it keeps growing, the next biggest addresses are selected
+      nextGlobalCheck = globalSize + globalMaxSize - globalLowWatermark;
+   }
+
+   private synchronized void releaseGlobalSize()
+   {
+      if (!globalFull || globalSizeBytes.get() > globalLowWatermark)
+      {
+         return;
+      }
+
+      globalFull = false;
+
+      nextGlobalCheck = globalMaxSize;
+
+      for (PagingStore store : stores.values())
+      {
+         store.setGlobalFull(false);
+      }
+   }
+
    public SimpleString[] getStoreNames()
    {
       Set<SimpleString> names = stores.keySet();
@@ -89,6 +89,8 @@ public class PagingStoreImpl implements PagingStore
 
    private long pageSize;
 
+   private volatile boolean compressPageFiles;
+
    private volatile AddressFullMessagePolicy addressFullMessagePolicy;
 
    private boolean printedDropMessagesWarning;
@@ -108,8 +110,27 @@ public class PagingStoreImpl implements PagingStore
 
    private volatile Page currentPage;
 
+   // A page file created ahead of time by the executor while paging,
+   // so rolling over to a new page (openNewPage) doesn't need to create and open a file itself
+   // Only changed while holding lock.writeLock()
+   private volatile Page sparePage;
+
+   private final Runnable prepareSparePage = new Runnable()
+   {
+      public void run()
+      {
+         prepareSparePage();
+      }
+   };
+
    private volatile boolean paging = false;
 
+   // selected by the PagingManager when the global-max-size was reached
+   private volatile boolean globalFull = false;
+
+   // Time producers spent waiting for the locks while paging (nanoseconds)
+   private final AtomicLong producerStallTime = new AtomicLong(0);
+
    private final PageCursorProvider cursorProvider;
 
    private final ReadWriteLock lock = new ReentrantReadWriteLock();
@@ -194,6 +215,14 @@ public class PagingStoreImpl implements PagingStore
 
       addressFullMessagePolicy = addressSettings.getAddressFullMessagePolicy();
 
+      compressPageFiles = addressSettings.isCompressPageFiles();
+
+      Page page = currentPage;
+      if (page != null)
+      {
+         page.setCompress(compressPageFiles);
+      }
+
       if (cursorProvider != null)
       {
          cursorProvider.setCacheMaxSize(addressSettings.getPageCacheMaxSize());
@@ -254,6 +283,11 @@ public class PagingStoreImpl implements PagingStore
       return maxSize;
    }
 
+   public long getGlobalMaxSize()
+   {
+      return pagingManager.getGlobalMaxSize();
+   }
+
    public AddressFullMessagePolicy getAddressFullMessagePolicy()
    {
       return addressFullMessagePolicy;
@@ -279,30 +313,49 @@ public class PagingStoreImpl implements PagingStore
 
    public boolean isPaging()
    {
-      lock.readLock().lock();
+      // paging is volatile and only changes under the writeLock, so there's no need to lock here
+      if (addressFullMessagePolicy == AddressFullMessagePolicy.BLOCK)
+      {
+         return false;
+      }
+      if (addressFullMessagePolicy == AddressFullMessagePolicy.FAIL)
+      {
+         return isFull();
+      }
+      if (addressFullMessagePolicy == AddressFullMessagePolicy.DROP)
+      {
+         return isFull();
+      }
+      return paging;
+   }
 
-      try
+   public long getProducerStallTime()
+   {
+      return TimeUnit.NANOSECONDS.toMillis(producerStallTime.get());
+   }
+
+   public void setGlobalFull(final boolean globalFull)
+   {
+      this.globalFull = globalFull;
+
+      if (globalFull)
       {
-         if (addressFullMessagePolicy == AddressFullMessagePolicy.BLOCK)
-         {
-            return false;
-         }
-         if (addressFullMessagePolicy == AddressFullMessagePolicy.FAIL)
-         {
-            return isFull();
-         }
-         if (addressFullMessagePolicy == AddressFullMessagePolicy.DROP)
+         if (addressFullMessagePolicy == AddressFullMessagePolicy.PAGE && startPaging())
          {
-            return isFull();
+            ActiveMQServerLogger.LOGGER.pageStoreStart(storeName, sizeInBytes.get(), maxSize);
          }
-         return paging;
       }
-      finally
+      else if (addressFullMessagePolicy == AddressFullMessagePolicy.BLOCK && !isBlockFull())
       {
-         lock.readLock().unlock();
+         releaseBlockedProducers();
       }
    }
 
+   public boolean isGlobalFull()
+   {
+      return globalFull;
+   }
+
    public int getNumberOfPages()
    {
       return numberOfPages;
@@ -380,6 +433,17 @@ public class PagingStoreImpl implements PagingStore
             currentPage.close();
             currentPage = null;
          }
+
+         lock.writeLock().lock();
+         try
+         {
+            discardSparePage(sparePage);
+            sparePage = null;
+         }
+         finally
+         {
+            lock.writeLock().unlock();
+         }
       }
    }
 
@@ -430,7 +494,7 @@ public class PagingStoreImpl implements PagingStore
                }
                currentPage = null;
 
-               List<String> files = fileFactory.listFiles("page");
+               List<String> files = deleteEmptyLastPages(fileFactory.listFiles("page"));
 
                numberOfPages = files.size();
 
@@ -497,6 +561,9 @@ public class PagingStoreImpl implements PagingStore
       {
          paging = false;
          this.cursorProvider.onPageModeCleared();
+
+         discardSparePage(sparePage);
+         sparePage = null;
       }
       finally
       {
@@ -511,23 +578,14 @@ public class PagingStoreImpl implements PagingStore
          return false;
       }
 
-      lock.readLock().lock();
-      try
-      {
-         // I'm not calling isPaging() here because
-         // isPaging will perform extra steps.
-         // at this context it doesn't really matter what policy we are using
-         // since this method is only called when paging.
-         // Besides that isPaging() will perform lock.readLock() again which is not needed here
-         // for that reason the attribute is used directly here.
-         if (paging)
-         {
-            return false;
-         }
-      }
-      finally
+      // I'm not calling isPaging() here because
+      // isPaging will perform extra steps.
+      // at this context it doesn't really matter what policy we are using
+      // since this method is only called when paging.
+      // paging is volatile, so this first check doesn't need any lock
+      if (paging)
       {
-         lock.readLock().unlock();
+         return false;
       }
 
       // if the first check failed, we do it again under a global currentPageLock
@@ -592,6 +650,8 @@ public class PagingStoreImpl implements PagingStore
 
       Page page = new Page(storeName, storageManager, fileFactory, file, pageNumber);
 
+      page.setCompress(compressPageFiles);
+
       // To create the file
       file.open();
 
@@ -730,9 +790,9 @@ public class PagingStoreImpl implements PagingStore
 
    public boolean checkMemory(final Runnable runWhenAvailable)
    {
-      if (addressFullMessagePolicy == AddressFullMessagePolicy.BLOCK && maxSize != -1)
+      if (addressFullMessagePolicy == AddressFullMessagePolicy.BLOCK && (maxSize != -1 || globalFull))
       {
-         if (sizeInBytes.get() > maxSize)
+         if (isBlockFull())
          {
             OurRunnable ourRunnable = new OurRunnable(runWhenAvailable);
 
@@ -742,7 +802,7 @@ public class PagingStoreImpl implements PagingStore
             // has been added, but the check to execute was done before the element was added
             // NOTE! We do not fix this race by locking the whole thing, doing this check provides
             // MUCH better performance in a highly concurrent environment
-            if (sizeInBytes.get() <= maxSize)
+            if (!isBlockFull())
             {
                // run it now
                ourRunnable.run();
@@ -756,9 +816,9 @@ public class PagingStoreImpl implements PagingStore
             return true;
          }
       }
-      else if (addressFullMessagePolicy == AddressFullMessagePolicy.FAIL && maxSize != -1)
+      else if (addressFullMessagePolicy == AddressFullMessagePolicy.FAIL && (maxSize != -1 || globalFull))
       {
-         if (sizeInBytes.get() > maxSize)
+         if (isBlockFull())
          {
             return false;
          }
@@ -773,25 +833,13 @@ public class PagingStoreImpl implements PagingStore
    {
       if (addressFullMessagePolicy == AddressFullMessagePolicy.BLOCK)
       {
-         if (maxSize != -1)
-         {
-            long newSize = sizeInBytes.addAndGet(size);
+         // the size is tracked even without max-size-bytes, as it counts for the global-max-size
+         long newSize = sizeInBytes.addAndGet(size);
 
-            if (newSize <= maxSize)
-            {
-               if (!onMemoryFreedRunnables.isEmpty())
-               {
-                  executor.execute(memoryFreedRunnablesExecutor);
-                  if (blocking.get())
-                  {
-                     ActiveMQServerLogger.LOGGER.unblockingMessageProduction(address, sizeInBytes.get(), maxSize);
-                     blocking.set(false);
-                  }
-               }
-            }
+         if ((maxSize == -1 || newSize <= maxSize) && !globalFull)
+         {
+            releaseBlockedProducers();
          }
-
-         return;
       }
       else if (addressFullMessagePolicy == AddressFullMessagePolicy.PAGE)
       {
@@ -799,7 +847,7 @@ public class PagingStoreImpl implements PagingStore
 
          if (size > 0)
          {
-            if (maxSize > 0 && addressSize > maxSize)
+            if (maxSize > 0 && addressSize > maxSize || globalFull)
             {
                if (startPaging())
                {
@@ -807,14 +855,31 @@ public class PagingStoreImpl implements PagingStore
                }
             }
          }
-
-         return;
       }
       else if (addressFullMessagePolicy == AddressFullMessagePolicy.DROP || addressFullMessagePolicy == AddressFullMessagePolicy.FAIL)
       {
          sizeInBytes.addAndGet(size);
       }
 
+      pagingManager.addGlobalSize(size);
+   }
+
+   private boolean isBlockFull()
+   {
+      return globalFull || maxSize != -1 && sizeInBytes.get() > maxSize;
+   }
+
+   private void releaseBlockedProducers()
+   {
+      if (!onMemoryFreedRunnables.isEmpty())
+      {
+         executor.execute(memoryFreedRunnablesExecutor);
+         if (blocking.get())
+         {
+            ActiveMQServerLogger.LOGGER.unblockingMessageProduction(address, sizeInBytes.get(), maxSize);
+            blocking.set(false);
+         }
+      }
    }
 
    @Override
@@ -863,22 +928,14 @@ public class PagingStoreImpl implements PagingStore
          return false;
       }
 
-      // We need to ensure a read lock, as depage could change the paging state
-      lock.readLock().lock();
-
-      try
+      // First check done concurrently, to avoid synchronization and increase throughput
+      // depage could change the paging state, so this is checked again under the writeLock
+      if (!paging)
       {
-         // First check done concurrently, to avoid synchronization and increase throughput
-         if (!paging)
-         {
-            return false;
-         }
-      }
-      finally
-      {
-         lock.readLock().unlock();
+         return false;
       }
 
+      final long stallStart = System.nanoTime();
 
       managerLock.lock();
       try
@@ -887,6 +944,8 @@ public class PagingStoreImpl implements PagingStore
 
          try
          {
+            producerStallTime.addAndGet(System.nanoTime() - stallStart);
+
             if (!paging)
             {
                return false;
@@ -928,6 +987,12 @@ public class PagingStoreImpl implements PagingStore
 
             currentPage.write(pagedMessage);
 
+            if (compressPageFiles)
+            {
+               // bytesToWrite was only an estimate, as the message may have been compressed
+               currentPageSize.set(currentPage.getSize());
+            }
+
             if (tx == null && syncNonTransactional && message.isDurable())
             {
                sync();
@@ -1155,7 +1220,20 @@ public class PagingStoreImpl implements PagingStore
             currentPage.close();
          }
 
-         currentPage = createPage(tmpCurrentPageId);
+         Page spare = sparePage;
+         sparePage = null;
+
+         if (spare != null && spare.getPageId() == tmpCurrentPageId)
+         {
+            // already created and opened by prepareSparePage
+            currentPage = spare;
+         }
+         else
+         {
+            discardSparePage(spare);
+
+            currentPage = createPage(tmpCurrentPageId);
+         }
 
          LivePageCache pageCache = new LivePageCacheImpl(currentPage);
 
@@ -1173,6 +1251,53 @@ public class PagingStoreImpl implements PagingStore
          {
             firstPageId = currentPageId;
          }
+
+         // the next page file is created in background
+         executor.execute(prepareSparePage);
+      }
+      finally
+      {
+         lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Creates the next page file ahead of time. This is always called from the executor.
+    * The file is created and opened without holding the lock, so producers never wait on it.
+    */
+   private void prepareSparePage()
+   {
+      if (!running || !isPaging() || currentPage == null || sparePage != null)
+      {
+         return;
+      }
+
+      final int nextPageId = currentPageId + 1;
+
+      Page page;
+      try
+      {
+         page = createPage(nextPageId);
+         page.open();
+      }
+      catch (Exception e)
+      {
+         // openNewPage will just create the file itself
+         ActiveMQServerLogger.LOGGER.pageStoreStartIOError(e);
+         return;
+      }
+
+      lock.writeLock().lock();
+      try
+      {
+         // the current page may have changed meanwhile, in which case openNewPage has used the file already
+         if (running && isPaging() && sparePage == null && currentPageId + 1 == nextPageId)
+         {
+            sparePage = page;
+            return;
+         }
+
+         discardSparePage(page);
       }
       finally
       {
@@ -1180,6 +1305,72 @@ public class PagingStoreImpl implements PagingStore
       }
    }
 
+   /**
+    * Deletes the empty pages following the last page with messages, such as a spare page left behind by a crash,
+    * so they are not counted as pages. Must be called under the writeLock.
+    *
+    * @return the remaining page files
+    */
+   private List<String> deleteEmptyLastPages(final List<String> files) throws Exception
+   {
+      List<String> pages = new ArrayList<String>(files);
+
+      while (!pages.isEmpty())
+      {
+         String lastPage = pages.get(0);
+
+         for (String fileName : pages)
+         {
+            if (PagingStoreImpl.getPageIdFromFileName(fileName) > PagingStoreImpl.getPageIdFromFileName(lastPage))
+            {
+               lastPage = fileName;
+            }
+         }
+
+         SequentialFile file = fileFactory.createSequentialFile(lastPage, 1);
+
+         if (file.size() > 0)
+         {
+            break;
+         }
+
+         file.delete();
+
+         pages.remove(lastPage);
+      }
+
+      return pages;
+   }
+
+   /**
+    * Gets rid of a spare page that won't be used. Must be called under the writeLock.
+    */
+   private void discardSparePage(final Page spare)
+   {
+      if (spare == null)
+      {
+         return;
+      }
+
+      try
+      {
+         SequentialFile file = spare.getFile();
+         if (spare.getPageId() > currentPageId)
+         {
+            // nothing was ever written to it, so it shouldn't be left behind as an empty page
+            file.delete();
+         }
+         else
+         {
+            file.close();
+         }
+      }
+      catch (Exception e)
+      {
+         ActiveMQServerLogger.LOGGER.pageDeleteError(e);
+      }
+   }
+
    /**
     * @param pageID
     * @return
@@ -1201,7 +1392,7 @@ public class PagingStoreImpl implements PagingStore
    // To be used on isDropMessagesWhenFull
    public boolean isFull()
    {
-      return maxSize > 0 && getAddressSize() > maxSize;
+      return globalFull || maxSize > 0 && getAddressSize() > maxSize;
    }
 
    @Override
@@ -313,6 +313,15 @@ public interface StorageManager extends IDGenerator, ActiveMQComponent
 
    long storePendingCounter(long queueID, long pageID, int inc) throws Exception;
 
+   /**
+    * Stores a marker for the acknowledgements on a page that are not on the counter records yet.
+    * The acknowledgements stored with a bigger record ID are counted again when the journal is reloaded.
+    * The marker is not synced, it only has to be appended before the acknowledgements are committed.
+    *
+    * @param recordID the ID of the marker, to be removed with {@link #deletePendingPageCounter(long, long)}
+    */
+   void storePendingAckCounter(long recordID, long queueID, long pageID) throws Exception;
+
    void deleteIncrementRecord(long txID, long recordID) throws Exception;
 
    void deletePageCounter(long txID, long recordID) throws Exception;
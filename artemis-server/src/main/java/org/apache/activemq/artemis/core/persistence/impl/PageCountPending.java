@@ -22,4 +22,9 @@ public interface PageCountPending
    long getQueueID();
    long getPageID();
 
+   /**
+    * @return true if this stands for acknowledgements on the page, false for messages paged without a transaction
+    */
+   boolean isAck();
+
 }
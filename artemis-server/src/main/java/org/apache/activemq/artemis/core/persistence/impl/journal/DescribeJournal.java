@@ -71,6 +71,7 @@ import static org.apache.activemq.artemis.core.persistence.impl.journal.JournalR
 import static org.apache.activemq.artemis.core.persistence.impl.journal.JournalRecordIds.PAGE_CURSOR_COMPLETE;
 import static org.apache.activemq.artemis.core.persistence.impl.journal.JournalRecordIds.PAGE_CURSOR_COUNTER_INC;
 import static org.apache.activemq.artemis.core.persistence.impl.journal.JournalRecordIds.PAGE_CURSOR_COUNTER_VALUE;
+import static org.apache.activemq.artemis.core.persistence.impl.journal.JournalRecordIds.PAGE_CURSOR_PENDING_ACK_COUNTER;
 import static org.apache.activemq.artemis.core.persistence.impl.journal.JournalRecordIds.PAGE_CURSOR_PENDING_COUNTER;
 import static org.apache.activemq.artemis.core.persistence.impl.journal.JournalRecordIds.PAGE_TRANSACTION;
 import static org.apache.activemq.artemis.core.persistence.impl.journal.JournalRecordIds.QUEUE_BINDING_RECORD;
@@ -638,6 +639,15 @@ public final class DescribeJournal
             return encoding;
          }
 
+         case PAGE_CURSOR_PENDING_ACK_COUNTER:
+         {
+            PageCountPendingImpl encoding = new PageCountPendingImpl();
+            encoding.decode(buffer);
+            encoding.setID(info.id);
+            encoding.setAck(true);
+            return encoding;
+         }
+
          case QUEUE_BINDING_RECORD:
             return JournalStorageManager.newBindingEncoding(id, buffer);
 
@@ -79,4 +79,9 @@ public final class JournalRecordIds
    public static final byte PAGE_CURSOR_COMPLETE = 42;
 
    public static final byte PAGE_CURSOR_PENDING_COUNTER = 43;
+
+   /**
+    * Marks the acknowledgements on a page that are not on the page counter yet.
+    */
+   public static final byte PAGE_CURSOR_PENDING_ACK_COUNTER = 44;
 }
@@ -1886,6 +1886,21 @@ public class JournalStorageManager implements StorageManager
                   break;
                }
 
+               case JournalRecordIds.PAGE_CURSOR_PENDING_ACK_COUNTER:
+               {
+                  PageCountPendingImpl pendingAckEncoding = new PageCountPendingImpl();
+                  pendingAckEncoding.decode(buff);
+                  pendingAckEncoding.setID(record.id);
+                  pendingAckEncoding.setAck(true);
+
+                  // recovered together with the pending counters of non transactional paging
+                  if (pendingNonTXPageCounter != null)
+                  {
+                     pendingNonTXPageCounter.add(pendingAckEncoding);
+                  }
+                  break;
+               }
+
 
                default:
                {
@@ -2125,6 +2140,22 @@ public class JournalStorageManager implements StorageManager
       }
    }
 
+   @Override
+   public void storePendingAckCounter(final long recordID, final long queueID, final long pageID) throws Exception
+   {
+      readLock();
+      try
+      {
+         PageCountPendingImpl pendingAck = new PageCountPendingImpl(queueID, pageID, 0);
+         // No need to sync, the journal writes the marker before the commit records of the acknowledgements it stands for
+         messageJournal.appendAddRecord(recordID, JournalRecordIds.PAGE_CURSOR_PENDING_ACK_COUNTER, pendingAck, false);
+      }
+      finally
+      {
+         readUnLock();
+      }
+   }
+
    public void deleteIncrementRecord(long txID, long recordID) throws Exception
    {
       readLock();
@@ -3617,7 +3648,7 @@ public class JournalStorageManager implements StorageManager
       @Override
       public String toString()
       {
-         return "PageCountPending [queueID=" + queueID + ", pageID=" + pageID + "]";
+         return "PageCountPending [queueID=" + queueID + ", pageID=" + pageID + ", ack=" + ack + "]";
       }
 
       PageCountPendingImpl()
@@ -3637,12 +3668,24 @@ public class JournalStorageManager implements StorageManager
 
       long pageID;
 
+      // not encoded, the record type tells it
+      boolean ack;
 
       public void setID(long id)
       {
          this.id = id;
       }
 
+      public void setAck(boolean ack)
+      {
+         this.ack = ack;
+      }
+
+      public boolean isAck()
+      {
+         return ack;
+      }
+
       public long getID()
       {
          return id;
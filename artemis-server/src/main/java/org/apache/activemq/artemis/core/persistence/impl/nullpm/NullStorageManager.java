@@ -485,6 +485,11 @@ public class NullStorageManager implements StorageManager
       return -1;
    }
 
+   @Override
+   public void storePendingAckCounter(long recordID, long queueID, long pageID) throws Exception
+   {
+   }
+
    @Override
    public void deleteIncrementRecord(final long txID, final long recordID) throws Exception
    {
@@ -21,6 +21,7 @@ import java.util.Collection;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.RoutingContext;
 import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 import org.apache.activemq.artemis.core.server.group.UnproposalListener;
 
 public interface Bindings extends UnproposalListener
@@ -33,6 +34,8 @@ public interface Bindings extends UnproposalListener
 
    void setRouteWhenNoConsumers(boolean takePriorityIntoAccount);
 
+   void setLoadBalancingPolicy(LoadBalancingPolicy loadBalancingPolicy);
+
    boolean redistribute(ServerMessage message, Queue originatingQueue, RoutingContext context) throws Exception;
 
    void route(ServerMessage message, RoutingContext context) throws Exception;
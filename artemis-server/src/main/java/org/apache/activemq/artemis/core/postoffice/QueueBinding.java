@@ -23,4 +23,11 @@ public interface QueueBinding extends Binding
    int consumerCount();
 
    Queue getQueue();
+
+   /**
+    * @return the load of the queue as last measured, lower is less loaded. It is only measured by the cluster
+    * connections balancing messages by load
+    * @see org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy#LEAST_LOADED
+    */
+   float getLoad();
 }
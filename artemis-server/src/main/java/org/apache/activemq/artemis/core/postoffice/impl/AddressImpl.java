@@ -16,11 +16,11 @@
  */
 package org.apache.activemq.artemis.core.postoffice.impl;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.postoffice.Address;
+import org.apache.activemq.artemis.utils.ConcurrentHashSet;
 
 /**
  * splits an address string into its hierarchical parts split by '.'
@@ -33,7 +33,8 @@ public class AddressImpl implements Address
 
    private final boolean containsWildCard;
 
-   private final List<Address> linkedAddresses = new ArrayList<Address>();
+   // a set: a wildcard such as '#' can be linked to every address, linking and unlinking must not scan the others
+   private final Collection<Address> linkedAddresses = new ConcurrentHashSet<Address>();
 
    public AddressImpl(final SimpleString address)
    {
@@ -57,17 +58,14 @@ public class AddressImpl implements Address
       return containsWildCard;
    }
 
-   public List<Address> getLinkedAddresses()
+   public Collection<Address> getLinkedAddresses()
    {
       return linkedAddresses;
    }
 
    public void addLinkedAddress(final Address address)
    {
-      if (!linkedAddresses.contains(address))
-      {
-         linkedAddresses.add(address);
-      }
+      linkedAddresses.add(address);
    }
 
    public void removeLinkedAddress(final Address actualAddress)
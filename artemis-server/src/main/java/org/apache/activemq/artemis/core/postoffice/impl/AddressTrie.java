@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.postoffice.Address;
+
+/**
+ * A trie of addresses keyed by their words (the parts between the '.'), so finding the wildcard addresses matching an
+ * address, or the addresses matching a wildcard address, follows the words of the address instead of testing every
+ * address we know.
+ * <p>
+ * Lookups are lock free and can run concurrently with an update, updates have to be serialised by the caller.
+ */
+final class AddressTrie
+{
+   private final Node root = new Node();
+
+   Address get(final SimpleString[] words)
+   {
+      Node node = root;
+
+      for (SimpleString word : words)
+      {
+         node = node.children.get(word);
+
+         if (node == null)
+         {
+            return null;
+         }
+      }
+
+      return node.address;
+   }
+
+   void put(final Address address)
+   {
+      Node node = root;
+
+      for (SimpleString word : address.getAddressParts())
+      {
+         Node child = node.children.get(word);
+
+         if (child == null)
+         {
+            child = new Node();
+
+            node.children.put(word, child);
+         }
+
+         node = child;
+      }
+
+      node.address = address;
+   }
+
+   void remove(final Address address)
+   {
+      SimpleString[] words = address.getAddressParts();
+
+      List<Node> path = new ArrayList<Node>(words.length + 1);
+
+      Node node = root;
+
+      path.add(node);
+
+      for (SimpleString word : words)
+      {
+         node = node.children.get(word);
+
+         if (node == null)
+         {
+            return;
+         }
+
+         path.add(node);
+      }
+
+      node.address = null;
+
+      // prune the nodes that don't lead to any address anymore
+      for (int i = words.length; i > 0; i--)
+      {
+         Node child = path.get(i);
+
+         if (child.address != null || !child.children.isEmpty())
+         {
+            break;
+         }
+
+         path.get(i - 1).children.remove(words[i - 1]);
+      }
+   }
+
+   boolean isEmpty()
+   {
+      return root.children.isEmpty() && root.address == null;
+   }
+
+   void clear()
+   {
+      root.children.clear();
+      root.address = null;
+   }
+
+   /**
+    * @param words the words of an address without wildcards
+    * @return the wildcard addresses of this trie matching the address
+    */
+   Set<Address> getMatchingWildcards(final SimpleString[] words)
+   {
+      Set<Address> result = new LinkedHashSet<Address>();
+
+      matchWildcards(root, words, 0, result);
+
+      return result;
+   }
+
+   /**
+    * @param words the words of a wildcard address
+    * @return the addresses of this trie matched by the wildcard address
+    */
+   Set<Address> getMatchingAddresses(final SimpleString[] words)
+   {
+      Set<Address> result = new LinkedHashSet<Address>();
+
+      matchAddresses(root, words, 0, result);
+
+      return result;
+   }
+
+   private static void matchWildcards(final Node node, final SimpleString[] words, final int pos, final Set<Address> result)
+   {
+      if (pos == words.length)
+      {
+         Address address = node.address;
+
+         if (address != null)
+         {
+            result.add(address);
+         }
+      }
+      else
+      {
+         Node child = node.children.get(words[pos]);
+
+         if (child != null)
+         {
+            matchWildcards(child, words, pos + 1, result);
+         }
+
+         child = node.children.get(WildcardAddressManager.SINGLE_WORD_SIMPLESTRING);
+
+         if (child != null)
+         {
+            matchWildcards(child, words, pos + 1, result);
+         }
+      }
+
+      Node anyWords = node.children.get(WildcardAddressManager.ANY_WORDS_SIMPLESTRING);
+
+      if (anyWords != null)
+      {
+         // '#' matches zero or more words
+         for (int next = pos; next <= words.length; next++)
+         {
+            matchWildcards(anyWords, words, next, result);
+         }
+      }
+   }
+
+   private static void matchAddresses(final Node node, final SimpleString[] words, final int pos, final Set<Address> result)
+   {
+      if (pos == words.length)
+      {
+         Address address = node.address;
+
+         if (address != null)
+         {
+            result.add(address);
+         }
+
+         return;
+      }
+
+      SimpleString word = words[pos];
+
+      if (word.equals(WildcardAddressManager.ANY_WORDS_SIMPLESTRING))
+      {
+         // '#' matches zero words, or one word and then zero or more words
+         matchAddresses(node, words, pos + 1, result);
+
+         for (Node child : node.children.values())
+         {
+            matchAddresses(child, words, pos, result);
+         }
+      }
+      else if (word.equals(WildcardAddressManager.SINGLE_WORD_SIMPLESTRING))
+      {
+         for (Node child : node.children.values())
+         {
+            matchAddresses(child, words, pos + 1, result);
+         }
+      }
+      else
+      {
+         Node child = node.children.get(word);
+
+         if (child != null)
+         {
+            matchAddresses(child, words, pos + 1, result);
+         }
+      }
+   }
+
+   private static final class Node
+   {
+      final ConcurrentMap<SimpleString, Node> children = new ConcurrentHashMap<SimpleString, Node>();
+
+      volatile Address address;
+   }
+}
@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.postoffice.Binding;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+
+/**
+ * An immutable index of the routing names of an address by the values their filters require, for addresses with
+ * many filtered subscriptions such as <code>region = 'EU' AND type = 'X'</code>.
+ * <p>
+ * A routing name is indexed when it has a single binding whose filter has an equality or IN term on a string
+ * property (see {@link FilterImpl#getIndexProperty()}). Routing looks up the message's value of each indexed
+ * property, and only evaluates the complete filter of the routing names found there. Every other routing name is
+ * evaluated as before.
+ * <p>
+ * The index is rebuilt when the bindings change, it is only valid for the version of the bindings it was built from.
+ */
+final class BindingFilterIndex
+{
+   static final BindingFilterIndex EMPTY = new BindingFilterIndex(-1,
+                                                                   Collections.<SimpleString>emptyList(),
+                                                                   Collections.<SimpleString, Map<SimpleString, List<SimpleString>>>emptyMap());
+
+   private final long version;
+
+   private final List<SimpleString> unindexedRoutingNames;
+
+   // the indexed properties, and at the same position their value -> routing names; arrays so routing a message
+   // doesn't create an iterator
+   private final SimpleString[] indexProperties;
+
+   private final Map<SimpleString, List<SimpleString>>[] indexValues;
+
+   @SuppressWarnings("unchecked")
+   private BindingFilterIndex(final long version,
+                              final List<SimpleString> unindexedRoutingNames,
+                              final Map<SimpleString, Map<SimpleString, List<SimpleString>>> index)
+   {
+      this.version = version;
+      this.unindexedRoutingNames = unindexedRoutingNames;
+      this.indexProperties = new SimpleString[index.size()];
+      this.indexValues = new Map[index.size()];
+
+      int i = 0;
+
+      for (Map.Entry<SimpleString, Map<SimpleString, List<SimpleString>>> entry : index.entrySet())
+      {
+         indexProperties[i] = entry.getKey();
+         indexValues[i] = entry.getValue();
+         i++;
+      }
+   }
+
+   static BindingFilterIndex build(final long version, final Map<SimpleString, List<Binding>> routingNameBindingMap)
+   {
+      List<SimpleString> unindexedRoutingNames = new ArrayList<SimpleString>();
+
+      Map<SimpleString, Map<SimpleString, List<SimpleString>>> index = new HashMap<SimpleString, Map<SimpleString, List<SimpleString>>>();
+
+      for (Map.Entry<SimpleString, List<Binding>> entry : routingNameBindingMap.entrySet())
+      {
+         // a snapshot, the list can change while we're building
+         Object[] bindings = entry.getValue().toArray();
+
+         // several bindings are load balanced, a remote one may not have the same filter
+         Filter filter = bindings.length == 1 ? ((Binding) bindings[0]).getFilter() : null;
+
+         if (!(filter instanceof FilterImpl) || ((FilterImpl) filter).getIndexProperty() == null)
+         {
+            unindexedRoutingNames.add(entry.getKey());
+
+            continue;
+         }
+
+         SimpleString property = ((FilterImpl) filter).getIndexProperty();
+
+         Map<SimpleString, List<SimpleString>> values = index.get(property);
+
+         if (values == null)
+         {
+            values = new HashMap<SimpleString, List<SimpleString>>();
+
+            index.put(property, values);
+         }
+
+         for (SimpleString value : ((FilterImpl) filter).getIndexValues())
+         {
+            List<SimpleString> routingNames = values.get(value);
+
+            if (routingNames == null)
+            {
+               routingNames = new ArrayList<SimpleString>();
+
+               values.put(value, routingNames);
+            }
+
+            routingNames.add(entry.getKey());
+         }
+      }
+
+      return new BindingFilterIndex(version, unindexedRoutingNames, index);
+   }
+
+   long getVersion()
+   {
+      return version;
+   }
+
+   /**
+    * @return the routing names whose filters have to be evaluated for every message
+    */
+   List<SimpleString> getUnindexedRoutingNames()
+   {
+      return unindexedRoutingNames;
+   }
+
+   /**
+    * @return the indexed routing names whose filters may match the message, each at most once: a routing name is
+    * indexed under a single property
+    */
+   List<SimpleString> getCandidates(final ServerMessage message)
+   {
+      List<SimpleString> candidates = null;
+
+      for (int i = 0; i < indexProperties.length; i++)
+      {
+         // string properties are held as SimpleString, the type the index is keyed by: any other value finds nothing
+         Object value = message.getObjectProperty(indexProperties[i]);
+
+         if (value == null)
+         {
+            continue;
+         }
+
+         List<SimpleString> routingNames = indexValues[i].get(value);
+
+         if (routingNames == null)
+         {
+            continue;
+         }
+
+         if (candidates == null)
+         {
+            // the index is never modified, the list can be returned as it is
+            candidates = routingNames;
+         }
+         else
+         {
+            List<SimpleString> merged = new ArrayList<SimpleString>(candidates.size() + routingNames.size());
+            merged.addAll(candidates);
+            merged.addAll(routingNames);
+            candidates = merged;
+         }
+      }
+
+      return candidates == null ? Collections.<SimpleString>emptyList() : candidates;
+   }
+}
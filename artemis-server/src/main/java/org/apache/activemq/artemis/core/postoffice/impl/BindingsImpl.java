@@ -26,6 +26,8 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
@@ -34,10 +36,12 @@ import org.apache.activemq.artemis.core.message.impl.MessageImpl;
 import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.postoffice.Binding;
 import org.apache.activemq.artemis.core.postoffice.Bindings;
+import org.apache.activemq.artemis.core.postoffice.QueueBinding;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.RoutingContext;
 import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 import org.apache.activemq.artemis.core.server.cluster.RemoteQueueBinding;
 import org.apache.activemq.artemis.core.server.group.GroupingHandler;
 import org.apache.activemq.artemis.core.server.group.impl.Proposal;
@@ -58,8 +62,15 @@ public final class BindingsImpl implements Bindings
 
    private final List<Binding> exclusiveBindings = new CopyOnWriteArrayList<Binding>();
 
+   // incremented on every change of routingNameBindingMap, the filter index is rebuilt on the next route
+   private final AtomicLong bindingsVersion = new AtomicLong();
+
+   private volatile BindingFilterIndex filterIndex = BindingFilterIndex.EMPTY;
+
    private volatile boolean routeWhenNoConsumers;
 
+   private volatile LoadBalancingPolicy loadBalancingPolicy = LoadBalancingPolicy.ROUND_ROBIN;
+
    private final GroupingHandler groupingHandler;
 
    private final PagingStore pageStore;
@@ -78,6 +89,11 @@ public final class BindingsImpl implements Bindings
       this.routeWhenNoConsumers = routeWhenNoConsumers;
    }
 
+   public void setLoadBalancingPolicy(final LoadBalancingPolicy loadBalancingPolicy)
+   {
+      this.loadBalancingPolicy = loadBalancingPolicy;
+   }
+
    public Collection<Binding> getBindings()
    {
       return bindingsMap.values();
@@ -120,6 +136,8 @@ public final class BindingsImpl implements Bindings
          }
 
          bindings.add(binding);
+
+         bindingsVersion.incrementAndGet();
       }
 
       bindingsMap.put(binding.getID(), binding);
@@ -152,6 +170,8 @@ public final class BindingsImpl implements Bindings
                routingNameBindingMap.remove(routingName);
             }
          }
+
+         bindingsVersion.incrementAndGet();
       }
 
       bindingsMap.remove(binding.getID());
@@ -325,28 +345,63 @@ public final class BindingsImpl implements Bindings
             {
                ActiveMQServerLogger.LOGGER.trace("Routing message " + message + " on binding=" + this);
             }
-            for (Map.Entry<SimpleString, List<Binding>> entry : routingNameBindingMap.entrySet())
+            BindingFilterIndex index = getFilterIndex();
+
+            for (SimpleString routingName : index.getUnindexedRoutingNames())
             {
-               SimpleString routingName = entry.getKey();
+               routeToRoutingName(message, context, routingName);
+            }
 
-               List<Binding> bindings = entry.getValue();
+            for (SimpleString routingName : index.getCandidates(message))
+            {
+               routeToRoutingName(message, context, routingName);
+            }
+         }
+      }
+   }
 
-               if (bindings == null)
-               {
-                  // The value can become null if it's concurrently removed while we're iterating - this is expected
-                  // ConcurrentHashMap behaviour!
-                  continue;
-               }
+   private void routeToRoutingName(final ServerMessage message,
+                                   final RoutingContext context,
+                                   final SimpleString routingName) throws Exception
+   {
+      List<Binding> bindings = routingNameBindingMap.get(routingName);
 
-               Binding theBinding = getNextBinding(message, routingName, bindings);
+      if (bindings == null)
+      {
+         // The binding can be concurrently removed while we're routing
+         return;
+      }
 
-               if (theBinding != null)
-               {
-                  theBinding.route(message, context);
-               }
+      Binding theBinding = getNextBinding(message, routingName, bindings);
+
+      if (theBinding != null)
+      {
+         theBinding.route(message, context);
+      }
+   }
+
+   private BindingFilterIndex getFilterIndex()
+   {
+      BindingFilterIndex index = filterIndex;
+
+      if (index.getVersion() != bindingsVersion.get())
+      {
+         synchronized (bindingsVersion)
+         {
+            index = filterIndex;
+
+            long version = bindingsVersion.get();
+
+            if (index.getVersion() != version)
+            {
+               index = BindingFilterIndex.build(version, routingNameBindingMap);
+
+               filterIndex = index;
             }
          }
       }
+
+      return index;
    }
 
    @Override
@@ -367,6 +422,18 @@ public final class BindingsImpl implements Bindings
                                   final SimpleString routingName,
                                   final List<Binding> bindings)
    {
+      if (loadBalancingPolicy == LoadBalancingPolicy.LEAST_LOADED && bindings.size() > 1)
+      {
+         Binding leastLoaded = getLeastLoadedBinding(message, bindings);
+
+         if (leastLoaded != null)
+         {
+            return leastLoaded;
+         }
+
+         // none of the two can take the message, the round robin below looks at every binding
+      }
+
       Integer ipos = routingNamePositions.get(routingName);
 
       int pos = ipos != null ? ipos : 0;
@@ -469,6 +536,79 @@ public final class BindingsImpl implements Bindings
       return theBinding;
    }
 
+   /**
+    * Power of two choices: the less loaded of two bindings picked at random, which keeps the queues balanced
+    * without comparing every binding, nor sending everything to the binding that happens to be the least loaded
+    * when the loads were last measured.
+    */
+   private Binding getLeastLoadedBinding(final ServerMessage message, final List<Binding> bindings)
+   {
+      int length = bindings.size();
+
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+
+      int first = random.nextInt(length);
+
+      int second = random.nextInt(length - 1);
+
+      if (second >= first)
+      {
+         second++;
+      }
+
+      Binding firstBinding = getBindingAcceptingMessage(message, bindings, first);
+
+      Binding secondBinding = getBindingAcceptingMessage(message, bindings, second);
+
+      if (firstBinding == null)
+      {
+         return secondBinding;
+      }
+
+      if (secondBinding == null)
+      {
+         return firstBinding;
+      }
+
+      return getLoad(secondBinding) < getLoad(firstBinding) ? secondBinding : firstBinding;
+   }
+
+   /**
+    * @return the binding at the position, if it would be chosen by the round robin
+    */
+   private Binding getBindingAcceptingMessage(final ServerMessage message, final List<Binding> bindings, final int pos)
+   {
+      Binding binding;
+      try
+      {
+         binding = bindings.get(pos);
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         // This can occur if binding is removed while in route
+         return null;
+      }
+
+      Filter filter = binding.getFilter();
+
+      if (filter != null && !filter.match(message))
+      {
+         return null;
+      }
+
+      if (binding.isConnected() && (routeWhenNoConsumers || binding.isHighAcceptPriority(message)))
+      {
+         return binding;
+      }
+
+      return null;
+   }
+
+   private static float getLoad(final Binding binding)
+   {
+      return binding instanceof QueueBinding ? ((QueueBinding) binding).getLoad() : 0;
+   }
+
    private void routeUsingStrictOrdering(final ServerMessage message,
                                          final RoutingContext context,
                                          final GroupingHandler groupingGroupingHandler,
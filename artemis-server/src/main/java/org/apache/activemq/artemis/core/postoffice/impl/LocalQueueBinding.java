@@ -24,6 +24,7 @@ import org.apache.activemq.artemis.core.server.Bindable;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.RoutingContext;
 import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 
 public class LocalQueueBinding implements QueueBinding
 {
@@ -37,6 +38,8 @@ public class LocalQueueBinding implements QueueBinding
 
    private final SimpleString clusterName;
 
+   private volatile float load = LoadBalancingPolicy.load(0, 0);
+
    public LocalQueueBinding(final SimpleString address, final Queue queue, final SimpleString nodeID)
    {
       this.address = address;
@@ -138,6 +141,16 @@ public class LocalQueueBinding implements QueueBinding
       return BindingType.LOCAL_QUEUE;
    }
 
+   public float getLoad()
+   {
+      return load;
+   }
+
+   public void updateLoad(final long messageCount, final float acknowledgeRate)
+   {
+      load = LoadBalancingPolicy.load(messageCount, acknowledgeRate);
+   }
+
    public void close() throws Exception
    {
       queue.close();
@@ -1273,6 +1273,8 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
                                     boolean rejectDuplicates,
                                     AtomicBoolean startedTX) throws Exception
    {
+      Set<Pair<SimpleString, SimpleString>> batchedIDs = getBatchedDuplicateIDs(context);
+
       // Check the DuplicateCache for the Bridge first
 
       Object bridgeDup = message.getObjectProperty(MessageImpl.HDR_BRIDGE_DUPLICATE_ID);
@@ -1281,13 +1283,15 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
          // if the message is being sent from the bridge, we just ignore the duplicate id, and use the internal one
          byte[] bridgeDupBytes = (byte[]) bridgeDup;
 
-         DuplicateIDCache cacheBridge = getDuplicateIDCache(BRIDGE_CACHE_STR.concat(message.getAddress()));
+         SimpleString cacheAddress = BRIDGE_CACHE_STR.concat(message.getAddress());
+
+         DuplicateIDCache cacheBridge = getDuplicateIDCache(cacheAddress);
 
-         if (cacheBridge.contains(bridgeDupBytes))
+         if (cacheBridge.contains(bridgeDupBytes) || isBatchedDuplicate(batchedIDs, cacheAddress, bridgeDupBytes))
          {
             ActiveMQServerLogger.LOGGER.duplicateMessageDetectedThruBridge(message);
 
-            if (context.getTransaction() != null)
+            if (context.getTransaction() != null && batchedIDs == null)
             {
                context.getTransaction().markAsRollbackOnly(new ActiveMQDuplicateIdException());
             }
@@ -1307,6 +1311,8 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
          cacheBridge.addToCache(bridgeDupBytes, context.getTransaction());
 
+         addBatchedDuplicate(batchedIDs, cacheAddress, bridgeDupBytes);
+
          message.removeProperty(MessageImpl.HDR_BRIDGE_DUPLICATE_ID);
 
       }
@@ -1324,7 +1330,7 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
          {
             cache = getDuplicateIDCache(message.getAddress());
 
-            isDuplicate = cache.contains(duplicateIDBytes);
+            isDuplicate = cache.contains(duplicateIDBytes) || isBatchedDuplicate(batchedIDs, message.getAddress(), duplicateIDBytes);
 
             if (rejectDuplicates && isDuplicate)
             {
@@ -1332,7 +1338,7 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
                String warnMessage = "Duplicate message detected - message will not be routed. Message information:" + message.toString();
 
-               if (context.getTransaction() != null)
+               if (context.getTransaction() != null && batchedIDs == null)
                {
                   context.getTransaction().markAsRollbackOnly(new ActiveMQDuplicateIdException(warnMessage));
                }
@@ -1354,12 +1360,45 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
             }
 
             cache.addToCache(duplicateIDBytes, context.getTransaction());
+
+            addBatchedDuplicate(batchedIDs, message.getAddress(), duplicateIDBytes);
          }
       }
 
       return true;
    }
 
+   /**
+    * The duplicate IDs routed so far by a batch of independent sends sharing one transaction, or
+    * null if the transaction isn't such a batch. A duplicate in a batch is dropped on its own, as
+    * if it had been sent alone, instead of rolling back the whole batch.
+    */
+   @SuppressWarnings("unchecked")
+   private static Set<Pair<SimpleString, SimpleString>> getBatchedDuplicateIDs(final RoutingContext context)
+   {
+      Transaction tx = context.getTransaction();
+
+      return tx == null ? null : (Set<Pair<SimpleString, SimpleString>>) tx.getProperty(TransactionPropertyIndexes.BATCHED_DUPLICATE_IDS);
+   }
+
+   // the cache only learns the IDs of a transaction when it commits, earlier messages of the same batch are checked here
+   private static boolean isBatchedDuplicate(final Set<Pair<SimpleString, SimpleString>> batchedIDs,
+                                             final SimpleString cacheAddress,
+                                             final byte[] duplicateID)
+   {
+      return batchedIDs != null && batchedIDs.contains(new Pair<SimpleString, SimpleString>(cacheAddress, new SimpleString(duplicateID)));
+   }
+
+   private static void addBatchedDuplicate(final Set<Pair<SimpleString, SimpleString>> batchedIDs,
+                                           final SimpleString cacheAddress,
+                                           final byte[] duplicateID)
+   {
+      if (batchedIDs != null)
+      {
+         batchedIDs.add(new Pair<SimpleString, SimpleString>(cacheAddress, new SimpleString(duplicateID)));
+      }
+   }
+
    /**
     * @param refs
     */
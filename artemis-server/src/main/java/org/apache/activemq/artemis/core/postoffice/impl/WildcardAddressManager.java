@@ -17,9 +17,7 @@
 package org.apache.activemq.artemis.core.postoffice.impl;
 
 import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.postoffice.Address;
@@ -45,11 +43,11 @@ public class WildcardAddressManager extends SimpleAddressManager
 
    /**
     * These are all the addresses, we use this so we can link back from the actual address to its linked wilcard addresses
-    * or vice versa
+    * or vice versa. They are kept in tries so linking an address only visits the addresses it matches.
     */
-   private final Map<SimpleString, Address> addresses = new ConcurrentHashMap<SimpleString, Address>();
+   private final AddressTrie addresses = new AddressTrie();
 
-   private final Map<SimpleString, Address> wildCardAddresses = new ConcurrentHashMap<SimpleString, Address>();
+   private final AddressTrie wildCardAddresses = new AddressTrie();
 
    public WildcardAddressManager(final BindingsFactory bindingsFactory)
    {
@@ -61,8 +59,10 @@ public class WildcardAddressManager extends SimpleAddressManager
    {
       Bindings bindings = super.getBindingsForRoutingAddress(address);
 
-      // this should only happen if we're routing to an address that has no mappings when we're running checkAllowable
-      if (bindings == null && !wildCardAddresses.isEmpty())
+      // this should only happen if we're routing to an address that has no mappings when we're running checkAllowable.
+      // There is nothing to link if no wildcard matches the address, which we can check without the lock
+      if (bindings == null && !wildCardAddresses.isEmpty() &&
+         !wildCardAddresses.getMatchingWildcards(address.split(DELIM)).isEmpty())
       {
          Address add = addAndUpdateAddressMap(address);
          if (!add.containsWildCard())
@@ -161,11 +161,11 @@ public class WildcardAddressManager extends SimpleAddressManager
       Address actualAddress;
       if (add.containsWildCard())
       {
-         actualAddress = wildCardAddresses.get(address);
+         actualAddress = wildCardAddresses.get(add.getAddressParts());
       }
       else
       {
-         actualAddress = addresses.get(address);
+         actualAddress = addresses.get(add.getAddressParts());
       }
       return actualAddress != null ? actualAddress : add;
    }
@@ -176,52 +176,43 @@ public class WildcardAddressManager extends SimpleAddressManager
       Address actualAddress;
       if (add.containsWildCard())
       {
-         actualAddress = wildCardAddresses.get(address);
+         actualAddress = wildCardAddresses.get(add.getAddressParts());
       }
       else
       {
-         actualAddress = addresses.get(address);
+         actualAddress = addresses.get(add.getAddressParts());
       }
       if (actualAddress == null)
       {
          actualAddress = add;
-         addAddress(address, actualAddress);
+         addAddress(actualAddress);
       }
+      Set<Address> matches;
       if (actualAddress.containsWildCard())
       {
-         for (Address destAdd : addresses.values())
-         {
-            if (destAdd.matches(actualAddress))
-            {
-               destAdd.addLinkedAddress(actualAddress);
-               actualAddress.addLinkedAddress(destAdd);
-            }
-         }
+         matches = addresses.getMatchingAddresses(actualAddress.getAddressParts());
       }
       else
       {
-         for (Address destAdd : wildCardAddresses.values())
-         {
-            if (actualAddress.matches(destAdd))
-            {
-               destAdd.addLinkedAddress(actualAddress);
-               actualAddress.addLinkedAddress(destAdd);
-
-            }
-         }
+         matches = wildCardAddresses.getMatchingWildcards(actualAddress.getAddressParts());
+      }
+      for (Address destAdd : matches)
+      {
+         destAdd.addLinkedAddress(actualAddress);
+         actualAddress.addLinkedAddress(destAdd);
       }
       return actualAddress;
    }
 
-   private void addAddress(final SimpleString address, final Address actualAddress)
+   private void addAddress(final Address actualAddress)
    {
       if (actualAddress.containsWildCard())
       {
-         wildCardAddresses.put(address, actualAddress);
+         wildCardAddresses.put(actualAddress);
       }
       else
       {
-         addresses.put(address, actualAddress);
+         addresses.put(actualAddress);
       }
    }
 
@@ -231,7 +222,7 @@ public class WildcardAddressManager extends SimpleAddressManager
       Bindings bindings = super.getBindingsForRoutingAddress(address.getAddress());
       if (bindings == null || bindings.getBindings().size() == 0)
       {
-         List<Address> addresses = address.getLinkedAddresses();
+         Collection<Address> addresses = address.getLinkedAddresses();
          for (Address address1 : addresses)
          {
             address1.removeLinkedAddress(address);
@@ -249,11 +240,11 @@ public class WildcardAddressManager extends SimpleAddressManager
    {
       if (add.containsWildCard())
       {
-         wildCardAddresses.remove(add.getAddress());
+         wildCardAddresses.remove(add);
       }
       else
       {
-         addresses.remove(add.getAddress());
+         addresses.remove(add);
       }
    }
 }
@@ -36,10 +36,14 @@ import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.REP
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.REPLICATION_PREPARE;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.REPLICATION_RESPONSE;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_SEND;
+import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_SEND_BATCH;
+import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_SEND_COMPRESSED_BATCH;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SESS_SEND_LARGE;
 import static org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl.SCALEDOWN_ANNOUNCEMENT;
 
+import org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.core.message.impl.MessageInternal;
 import org.apache.activemq.artemis.core.protocol.core.Packet;
 import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.BackupRegistrationMessage;
@@ -67,6 +71,8 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.Replicatio
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationStartSyncMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationSyncFileMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ScaleDownAnnounceMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendBatchMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendCompressedBatchMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendLargeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendMessage;
 import org.apache.activemq.artemis.core.server.impl.ServerMessageImpl;
@@ -76,6 +82,21 @@ public class ServerPacketDecoder extends ClientPacketDecoder
    private static final long serialVersionUID = 3348673114388400766L;
    public static final ServerPacketDecoder INSTANCE = new ServerPacketDecoder();
 
+   private final int maxInflatedBatchSize;
+
+   public ServerPacketDecoder()
+   {
+      this(ActiveMQDefaultConfiguration.getDefaultMaxInflatedBatchSize());
+   }
+
+   /**
+    * @param maxInflatedBatchSize the biggest size a compressed batch of messages may inflate to
+    */
+   public ServerPacketDecoder(final int maxInflatedBatchSize)
+   {
+      this.maxInflatedBatchSize = maxInflatedBatchSize;
+   }
+
    @Override
    public Packet decode(final ActiveMQBuffer in)
    {
@@ -91,6 +112,31 @@ public class ServerPacketDecoder extends ClientPacketDecoder
             packet = new SessionSendMessage(new ServerMessageImpl());
             break;
          }
+         case SESS_SEND_BATCH:
+         {
+            packet = new SessionSendBatchMessage()
+            {
+               @Override
+               protected MessageInternal createMessage()
+               {
+                  return new ServerMessageImpl(-1, 50);
+               }
+            };
+            break;
+         }
+         case SESS_SEND_COMPRESSED_BATCH:
+         {
+            packet = new SessionSendCompressedBatchMessage(maxInflatedBatchSize)
+            {
+               @Override
+               protected MessageInternal createMessage()
+               {
+                  // the message is decoded on the buffer it was inflated into
+                  return new ServerMessageImpl();
+               }
+            };
+            break;
+         }
          case SESS_SEND_LARGE:
          {
             packet = new SessionSendLargeMessage(new ServerMessageImpl());
@@ -158,6 +158,9 @@ public class ActiveMQPacketHandler implements ChannelHandler
 
          Channel channel = connection.getChannel(request.getSessionChannelID(), request.getWindowSize());
 
+         // the client correlates its packets on the new channel as soon as the session is created
+         channel.setCorrelating(request.getVersion() >= ChannelImpl.CORRELATED_SESSION_VERSION);
+
          ActiveMQPrincipal activeMQPrincipal = null;
 
          if (request.getUsername() == null)
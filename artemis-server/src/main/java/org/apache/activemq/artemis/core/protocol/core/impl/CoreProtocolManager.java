@@ -71,6 +71,8 @@ class CoreProtocolManager implements ProtocolManager<Interceptor>
 
    private final CoreProtocolManagerFactory protocolManagerFactory;
 
+   private final ServerPacketDecoder packetDecoder;
+
    CoreProtocolManager(final CoreProtocolManagerFactory factory, final ActiveMQServer server, final List<Interceptor> incomingInterceptors, List<Interceptor> outgoingInterceptors)
    {
       this.protocolManagerFactory = factory;
@@ -80,6 +82,8 @@ class CoreProtocolManager implements ProtocolManager<Interceptor>
       this.incomingInterceptors = incomingInterceptors;
 
       this.outgoingInterceptors = outgoingInterceptors;
+
+      this.packetDecoder = new ServerPacketDecoder(server.getConfiguration().getMaxInflatedBatchSize());
    }
 
 
@@ -116,7 +120,7 @@ class CoreProtocolManager implements ProtocolManager<Interceptor>
 
       Executor connectionExecutor = server.getExecutorFactory().getExecutor();
 
-      final CoreRemotingConnection rc = new RemotingConnectionImpl(ServerPacketDecoder.INSTANCE,
+      final CoreRemotingConnection rc = new RemotingConnectionImpl(packetDecoder,
                                                                    connection,
                                                                    incomingInterceptors,
                                                                    outgoingInterceptors,
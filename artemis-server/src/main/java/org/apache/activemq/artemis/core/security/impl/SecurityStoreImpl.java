@@ -16,13 +16,17 @@
  */
 package org.apache.activemq.artemis.core.security.impl;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.management.CoreNotificationType;
 import org.apache.activemq.artemis.api.core.management.ManagementHelper;
+import org.apache.activemq.artemis.core.config.impl.SecurityConfiguration;
 import org.apache.activemq.artemis.core.security.CheckType;
 import org.apache.activemq.artemis.core.security.Role;
 import org.apache.activemq.artemis.core.security.SecurityStore;
@@ -34,7 +38,7 @@ import org.apache.activemq.artemis.core.server.management.NotificationService;
 import org.apache.activemq.artemis.core.settings.HierarchicalRepository;
 import org.apache.activemq.artemis.core.settings.HierarchicalRepositoryChangeListener;
 import org.apache.activemq.artemis.spi.core.security.ActiveMQSecurityManager;
-import org.apache.activemq.artemis.utils.ConcurrentHashSet;
+import org.apache.activemq.artemis.spi.core.security.ActiveMQSecurityManagerImpl;
 import org.apache.activemq.artemis.utils.TypedProperties;
 
 /**
@@ -44,6 +48,17 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
 {
    // Constants -----------------------------------------------------
 
+   private static final int UNKNOWN = 0;
+
+   private static final int GRANTED = 1;
+
+   private static final int DENIED = 2;
+
+   /**
+    * the most addresses whose decisions are cached for a user, temporary queues would otherwise keep adding to them
+    */
+   private static final int MAX_CACHED_ADDRESSES = 1000;
+
    // Static --------------------------------------------------------
 
    // Attributes ----------------------------------------------------
@@ -54,11 +69,29 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
 
    private final ActiveMQSecurityManager securityManager;
 
-   private final ConcurrentMap<String, ConcurrentHashSet<SimpleString>> cache = new ConcurrentHashMap<String, ConcurrentHashSet<SimpleString>>();
+   /**
+    * the cached authorizations of each user, the sessions of a user share them
+    */
+   private final ConcurrentMap<String, Authorizations> cache = new ConcurrentHashMap<String, Authorizations>();
+
+   // the map doesn't take a null key
+   private volatile Authorizations defaultUserAuthorizations;
 
-   private final long invalidationInterval;
+   // when the cache was last swept of the users whose authorizations are stale
+   private volatile long lastEviction = System.currentTimeMillis();
+
+   /**
+    * incremented on every change of the security settings
+    */
+   private final AtomicLong settingsVersion = new AtomicLong();
+
+   /**
+    * the users and roles of the default security manager, whose changes we can see. The roles of any other security
+    * manager are only seen once the cached authorizations are older than the invalidation interval
+    */
+   private final SecurityConfiguration securityConfiguration;
 
-   private volatile long lastCheck;
+   private final long invalidationInterval;
 
    private final boolean securityEnabled;
 
@@ -88,6 +121,8 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
       this.managementClusterUser = managementClusterUser;
       this.managementClusterPassword = managementClusterPassword;
       this.notificationService = notificationService;
+      this.securityConfiguration = securityManager instanceof ActiveMQSecurityManagerImpl ?
+         ((ActiveMQSecurityManagerImpl) securityManager).getConfiguration() : null;
       this.securityRepository.registerListener(this);
    }
 
@@ -158,23 +193,38 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
          }
 
          String user = session.getUsername();
-         if (checkCached(address, user, checkType))
+
+         // bypass permission checks for management cluster user
+         if (managementClusterUser.equals(user) && session.getPassword().equals(managementClusterPassword))
          {
-            // OK
             return;
          }
 
-         String saddress = address.toString();
+         Authorizations authorizations = getAuthorizations(user);
 
-         Set<Role> roles = securityRepository.getMatch(saddress);
+         int decision = authorizations == null ? UNKNOWN : authorizations.get(address, checkType);
 
-         // bypass permission checks for management cluster user
-         if (managementClusterUser.equals(user) && session.getPassword().equals(managementClusterPassword))
+         if (decision == GRANTED)
          {
+            // OK
             return;
          }
 
-         if (!securityManager.validateUserAndRole(user, session.getPassword(), roles, checkType))
+         String saddress = address.toString();
+
+         if (decision == UNKNOWN)
+         {
+            Set<Role> roles = securityRepository.getMatch(saddress);
+
+            decision = securityManager.validateUserAndRole(user, session.getPassword(), roles, checkType) ? GRANTED : DENIED;
+
+            if (authorizations != null)
+            {
+               authorizations.put(address, checkType, decision);
+            }
+         }
+
+         if (decision == DENIED)
          {
             if (notificationService != null)
             {
@@ -191,21 +241,13 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
 
             throw ActiveMQMessageBundle.BUNDLE.userNoPermissions(session.getUsername(), checkType, saddress);
          }
-         // if we get here we're granted, add to the cache
-         ConcurrentHashSet<SimpleString> set = new ConcurrentHashSet<SimpleString>();
-         ConcurrentHashSet<SimpleString> act = cache.putIfAbsent(user + "." + checkType.name(), set);
-         if (act != null)
-         {
-            set = act;
-         }
-         set.add(address);
-
       }
    }
 
    public void onChange()
    {
-      invalidateCache();
+      // the cached authorizations check the version, only the ones computed with the previous settings are dropped
+      settingsVersion.incrementAndGet();
    }
 
    // Public --------------------------------------------------------
@@ -215,35 +257,162 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
    // Package Private -----------------------------------------------
 
    // Private -------------------------------------------------------
-   private void invalidateCache()
+   /**
+    * @return the cached authorizations of the user, or null if authorizations aren't cached
+    */
+   private Authorizations getAuthorizations(final String user)
    {
-      cache.clear();
-   }
+      if (invalidationInterval <= 0)
+      {
+         return null;
+      }
 
-   private boolean checkCached(final SimpleString dest, final String user, final CheckType checkType)
-   {
+      // read before any decision is computed, a change after this makes these authorizations stale
+      long settings = settingsVersion.get();
+      long roles = securityConfiguration == null ? 0 : securityConfiguration.getVersion();
       long now = System.currentTimeMillis();
 
-      boolean granted = false;
+      Authorizations authorizations = user == null ? defaultUserAuthorizations : cache.get(user);
 
-      if (now - lastCheck > invalidationInterval)
+      if (authorizations == null || !authorizations.isValid(settings, roles, now, invalidationInterval))
       {
-         invalidateCache();
+         evictStaleUsers(settings, roles, now);
+
+         authorizations = new Authorizations(settings, roles, now);
+
+         if (user == null)
+         {
+            defaultUserAuthorizations = authorizations;
+         }
+         else
+         {
+            cache.put(user, authorizations);
+         }
+      }
+
+      return authorizations;
+   }
+
+   /**
+    * Removes the users who haven't been checked since their authorizations went stale, at most once per invalidation
+    * interval
+    */
+   private void evictStaleUsers(final long settings, final long roles, final long now)
+   {
+      long last = lastEviction;
 
-         lastCheck = now;
+      if (now - last <= invalidationInterval)
+      {
+         return;
       }
-      else
+
+      // a single thread sweeps, the others carry on
+      synchronized (cache)
       {
-         ConcurrentHashSet<SimpleString> act = cache.get(user + "." + checkType.name());
-         if (act != null)
+         if (lastEviction != last)
          {
-            granted = act.contains(dest);
+            return;
          }
+
+         lastEviction = now;
       }
 
-      return granted;
+      for (Map.Entry<String, Authorizations> entry : cache.entrySet())
+      {
+         if (!entry.getValue().isValid(settings, roles, now, invalidationInterval))
+         {
+            cache.remove(entry.getKey(), entry.getValue());
+         }
+      }
    }
 
    // Inner class ---------------------------------------------------
 
+   /**
+    * The decisions taken for a user on each address, for each {@link CheckType}, while the security settings and roles
+    * don't change.
+    */
+   private static final class Authorizations
+   {
+      // the granted check types in the lower bits, the denied ones in the upper bits
+      private static final int DENIED_SHIFT = 16;
+
+      private final long settingsVersion;
+
+      private final long rolesVersion;
+
+      private final long created;
+
+      private final ConcurrentMap<SimpleString, AtomicInteger> decisions = new ConcurrentHashMap<SimpleString, AtomicInteger>();
+
+      Authorizations(final long settingsVersion, final long rolesVersion, final long created)
+      {
+         this.settingsVersion = settingsVersion;
+         this.rolesVersion = rolesVersion;
+         this.created = created;
+      }
+
+      boolean isValid(final long settings, final long roles, final long now, final long invalidationInterval)
+      {
+         return settingsVersion == settings && rolesVersion == roles && now - created <= invalidationInterval;
+      }
+
+      int get(final SimpleString address, final CheckType checkType)
+      {
+         AtomicInteger addressDecisions = decisions.get(address);
+
+         if (addressDecisions == null)
+         {
+            return UNKNOWN;
+         }
+
+         int bits = addressDecisions.get();
+
+         if ((bits & 1 << checkType.ordinal()) != 0)
+         {
+            return GRANTED;
+         }
+         else if ((bits & 1 << checkType.ordinal() + DENIED_SHIFT) != 0)
+         {
+            return DENIED;
+         }
+         else
+         {
+            return UNKNOWN;
+         }
+      }
+
+      void put(final SimpleString address, final CheckType checkType, final int decision)
+      {
+         AtomicInteger addressDecisions = decisions.get(address);
+
+         if (addressDecisions == null)
+         {
+            if (decisions.size() >= MAX_CACHED_ADDRESSES)
+            {
+               // start over rather than track which addresses are still in use
+               decisions.clear();
+            }
+
+            addressDecisions = new AtomicInteger();
+
+            AtomicInteger previous = decisions.putIfAbsent(address, addressDecisions);
+
+            if (previous != null)
+            {
+               addressDecisions = previous;
+            }
+         }
+
+         int bit = decision == GRANTED ? 1 << checkType.ordinal() : 1 << checkType.ordinal() + DENIED_SHIFT;
+
+         int bits;
+         do
+         {
+            bits = addressDecisions.get();
+         }
+         while (!addressDecisions.compareAndSet(bits, bits | bit));
+      }
+   }
+
 }
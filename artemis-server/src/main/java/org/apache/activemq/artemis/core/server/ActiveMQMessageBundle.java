@@ -353,4 +353,7 @@ public interface ActiveMQMessageBundle
 
    @Message(id = 119109, value = "unsupported HA Policy Configuration {0}", format = Message.Format.MESSAGE_FORMAT)
    ActiveMQIllegalStateException unsupportedHAPolicyConfiguration(Object o);
+
+   @Message(id = 119110, value = "Invalid load balancing policy {0}", format = Message.Format.MESSAGE_FORMAT)
+   IllegalArgumentException invalidLoadBalancingPolicy(String val);
 }
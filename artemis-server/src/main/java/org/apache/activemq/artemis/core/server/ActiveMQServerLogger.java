@@ -1104,6 +1104,10 @@ public interface ActiveMQServerLogger extends BasicLogger
          format = Message.Format.MESSAGE_FORMAT)
    void disallowedProtocol(String protocol);
 
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(id = 222191, value = "global-max-size reached, limiting address ''{0}'' according to its address-full-policy; address size is currently: {1} bytes; global size is currently: {2} bytes; global-max-size: {3}", format = Message.Format.MESSAGE_FORMAT)
+   void globalMaxSizeReached(SimpleString address, long addressSize, long globalSize, long globalMaxSize);
+
    @LogMessage(level = Logger.Level.ERROR)
    @Message(id = 224000, value = "Failure in initialisation", format = Message.Format.MESSAGE_FORMAT)
    void initializationError(@Cause Throwable e);
@@ -120,6 +120,17 @@ public interface Queue extends Bindable
 
    long getMessagesAcknowledged();
 
+   /**
+    * @return the number of messages moved from this queue to other nodes of the cluster since it was created
+    */
+   long getMessagesRedistributed();
+
+   /**
+    * @return the number of messages waiting to be moved to other nodes of the cluster, 0 unless the queue is
+    * redistributing
+    */
+   long getRedistributionBacklog();
+
    MessageReference removeReferenceWithID(long id) throws Exception;
 
    MessageReference getReference(long id);
@@ -235,4 +246,9 @@ public interface Queue extends Bindable
    void postAcknowledge(MessageReference ref);
 
    float getRate();
+
+   /**
+    * @return the number of messages per second moved to other nodes of the cluster since the last call
+    */
+   float getRedistributionRate();
 }
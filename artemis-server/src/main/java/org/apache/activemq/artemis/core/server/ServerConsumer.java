@@ -16,6 +16,7 @@
  */
 package org.apache.activemq.artemis.core.server;
 
+import java.util.BitSet;
 import java.util.List;
 
 import org.apache.activemq.artemis.core.transaction.Transaction;
@@ -66,6 +67,12 @@ public interface ServerConsumer extends Consumer
 
    void individualAcknowledge(Transaction tx, long messageID) throws Exception;
 
+   /**
+    * Acknowledges the delivered messages with ID {@code firstMessageID + n} for every bit {@code n} set,
+    * in a single pass over the delivering references. Either all of them are acknowledged or none is.
+    */
+   void individualAcknowledge(Transaction tx, long firstMessageID, BitSet messageIDs) throws Exception;
+
    void individualCancel(final long messageID, boolean failed) throws Exception;
 
    void forceDelivery(long sequence);
@@ -76,6 +83,12 @@ public interface ServerConsumer extends Consumer
 
    long getCreationTime();
 
+   /**
+    * The credits the client has given that were not used by deliveries yet, -1 when there is no flow control.
+    * This follows the window of the consumer, which changes over time when the client tunes it.
+    */
+   int getCreditsAvailable();
+
    String getSessionID();
 
    void promptDelivery();
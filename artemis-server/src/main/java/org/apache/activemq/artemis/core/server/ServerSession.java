@@ -17,6 +17,7 @@
 package org.apache.activemq.artemis.core.server;
 
 import javax.transaction.xa.Xid;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
 
@@ -47,6 +48,11 @@ public interface ServerSession
 
    void individualAcknowledge(long consumerID, long messageID) throws Exception;
 
+   /**
+    * Individually acknowledges the messages with ID {@code firstMessageID + n} for every bit {@code n} set.
+    */
+   void individualAcknowledge(long consumerID, long firstMessageID, BitSet messageIDs) throws Exception;
+
    void individualCancel(final long consumerID, final long messageID, boolean failed) throws Exception;
 
    void expire(long consumerID, long messageID) throws Exception;
@@ -109,6 +115,12 @@ public interface ServerSession
 
    void send(ServerMessage message, boolean direct) throws Exception;
 
+   /**
+    * Sends a batch of messages. When sends are auto-committed the batch is routed in a single
+    * transaction, so it is stored with one commit and either all or none of the messages are sent.
+    */
+   void send(List<ServerMessage> messages, boolean direct) throws Exception;
+
    void sendLarge(MessageInternal msg) throws Exception;
 
    void forceConsumerDelivery(long consumerID, long sequence) throws Exception;
@@ -51,4 +51,35 @@ public interface Bridge extends Consumer, ActiveMQComponent
    void disconnect();
 
    boolean isConnected();
+
+   /**
+    * @return the number of sessions, each on its own connection, messages are forwarded over
+    */
+   int getStreams();
+
+   long getMessagesForwarded();
+
+   long getMessagesAcknowledged();
+
+   /**
+    * @return the number of messages per second acknowledged by the target since the last call
+    */
+   float getForwardRate();
+
+   boolean isCompressBatches();
+
+   /**
+    * @return the number of bytes regular messages were sent as, after compression
+    */
+   long getBytesForwarded();
+
+   /**
+    * @return the size of the regular messages forwarded divided by the number of bytes they were sent as
+    */
+   float getCompressionRatio();
+
+   /**
+    * @return the number of bytes per second regular messages were sent as since the last call
+    */
+   float getForwardByteRate();
 }
@@ -566,7 +566,10 @@ public final class ClusterManager implements ActiveMQComponent
                                      config.isUseDuplicateDetection(),
                                      config.getUser(),
                                      config.getPassword(),
-                                     server.getStorageManager());
+                                     server.getStorageManager(),
+                                     executorFactory,
+                                     config.getStreams(),
+                                     config.isCompressBatches());
 
       bridges.put(config.getName(), bridge);
 
@@ -734,7 +737,10 @@ public final class ClusterManager implements ActiveMQComponent
                                                        config.getCallFailoverTimeout(),
                                                        config.isDuplicateDetection(),
                                                        config.isForwardWhenNoConsumers(),
+                                                       config.getLoadBalancingPolicy(),
                                                        config.getConfirmationWindowSize(),
+                                                       config.getBridgeStreams(),
+                                                       config.isBridgeCompressBatches(),
                                                        executorFactory,
                                                        server,
                                                        postOffice,
@@ -776,7 +782,10 @@ public final class ClusterManager implements ActiveMQComponent
                                                        config.getCallFailoverTimeout(),
                                                        config.isDuplicateDetection(),
                                                        config.isForwardWhenNoConsumers(),
+                                                       config.getLoadBalancingPolicy(),
                                                        config.getConfirmationWindowSize(),
+                                                       config.getBridgeStreams(),
+                                                       config.isBridgeCompressBatches(),
                                                        executorFactory,
                                                        server,
                                                        postOffice,
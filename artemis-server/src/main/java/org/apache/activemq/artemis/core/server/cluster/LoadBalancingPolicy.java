@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.server.cluster;
+
+/**
+ * How a cluster connection chooses between the queues with the same routing name on the different nodes.
+ */
+public enum LoadBalancingPolicy
+{
+   /**
+    * Every queue in turn.
+    */
+   ROUND_ROBIN,
+
+   /**
+    * The least loaded of two queues picked at random (power of two choices). The load of a queue is the time its
+    * consumers need to get through its messages, from the message count and acknowledge rate each node reports
+    * periodically, plus for a remote queue the messages still waiting to be forwarded by the bridge to its node.
+    */
+   LEAST_LOADED;
+
+   /**
+    * @return the load of a queue with this many messages, acknowledged at this rate (messages per second)
+    */
+   public static float load(final long messageCount, final float acknowledgeRate)
+   {
+      return (messageCount + 1) / (acknowledgeRate + 1);
+   }
+}
@@ -32,4 +32,14 @@ public interface RemoteQueueBinding extends QueueBinding
    void connect();
 
    long getRemoteQueueID();
+
+   /**
+    * Updates the message count and acknowledge rate the remote node reported for the queue.
+    */
+   void updateLoad(long messageCount, float acknowledgeRate);
+
+   /**
+    * Updates the number of messages waiting to be forwarded to the remote node.
+    */
+   void updateBacklog(long backlog);
 }
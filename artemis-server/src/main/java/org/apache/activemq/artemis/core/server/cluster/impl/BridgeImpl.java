@@ -16,8 +16,10 @@
  */
 package org.apache.activemq.artemis.core.server.cluster.impl;
 
+import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -25,6 +27,8 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
@@ -38,6 +42,7 @@ import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
 import org.apache.activemq.artemis.api.core.client.SessionFailureListener;
 import org.apache.activemq.artemis.api.core.client.TopologyMember;
 import org.apache.activemq.artemis.api.core.management.CoreNotificationType;
+import org.apache.activemq.artemis.core.client.impl.ClientProducerInternal;
 import org.apache.activemq.artemis.core.client.impl.ClientSessionFactoryImpl;
 import org.apache.activemq.artemis.core.client.impl.ClientSessionFactoryInternal;
 import org.apache.activemq.artemis.core.client.impl.ClientSessionInternal;
@@ -57,6 +62,7 @@ import org.apache.activemq.artemis.core.server.impl.QueueImpl;
 import org.apache.activemq.artemis.core.server.management.Notification;
 import org.apache.activemq.artemis.core.server.management.NotificationService;
 import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.utils.ExecutorFactory;
 import org.apache.activemq.artemis.utils.FutureLatch;
 import org.apache.activemq.artemis.utils.ReusableLatch;
 import org.apache.activemq.artemis.utils.TypedProperties;
@@ -72,6 +78,12 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
    private static final boolean isTrace = ActiveMQServerLogger.LOGGER.isTraceEnabled();
 
+   // how many references a parallel stream takes before the bridge stops handling the ones routed to it
+   private static final int MAX_QUEUED_PER_STREAM = 1000;
+
+   // how long a compressed batch of the bridge's own session gathers references before it is sent, in milliseconds
+   private static final long BATCH_FLUSH_DELAY = 10;
+
    // Attributes ----------------------------------------------------
 
    private static final SimpleString JMS_QUEUE_ADDRESS_PREFIX = new SimpleString("jms.queue.");
@@ -118,6 +130,46 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
    private final long maxRetryInterval;
 
+   private final int streams;
+
+   private final Executor[] streamExecutors;
+
+   /**
+    * The sessions forwarding messages besides the bridge's own session, when the bridge has more than one stream
+    */
+   private volatile BridgeStream[] parallelStreams = new BridgeStream[0];
+
+   private final AtomicLong messagesForwarded = new AtomicLong(0);
+
+   private final AtomicLong messagesAcknowledged = new AtomicLong(0);
+
+   private final AtomicLong forwardRateCheckTime = new AtomicLong(System.currentTimeMillis());
+
+   private final AtomicLong messagesAcknowledgedSnapshot = new AtomicLong(0);
+
+   private final boolean compressBatches;
+
+   /**
+    * References waiting to go out in the next compressed batch of the bridge's own session, guarded by this
+    */
+   private final List<MessageReference> batchedRefs = new ArrayList<MessageReference>();
+
+   private int batchedSize;
+
+   private boolean batchFlushScheduled;
+
+   private final Runnable flushBatchRunnable = new FlushBatchRunnable();
+
+   private final Runnable futureFlushBatchRunnable = new FutureFlushBatchRunnable();
+
+   private final AtomicLong bytesForwarded = new AtomicLong(0);
+
+   private final AtomicLong uncompressedBytesForwarded = new AtomicLong(0);
+
+   private final AtomicLong byteRateCheckTime = new AtomicLong(System.currentTimeMillis());
+
+   private final AtomicLong bytesForwardedSnapshot = new AtomicLong(0);
+
    /**
     * Used when there's a scheduled reconnection
     */
@@ -167,7 +219,10 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
                      final boolean useDuplicateDetection,
                      final String user,
                      final String password,
-                     final StorageManager storageManager)
+                     final StorageManager storageManager,
+                     final ExecutorFactory executorFactory,
+                     final int streams,
+                     final boolean compressBatches)
    {
 
       this.reconnectAttempts = reconnectAttempts;
@@ -205,6 +260,17 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
       this.user = user;
 
       this.password = password;
+
+      this.streams = streams;
+
+      this.compressBatches = compressBatches;
+
+      streamExecutors = new Executor[Math.max(0, streams - 1)];
+
+      for (int i = 0; i < streamExecutors.length; i++)
+      {
+         streamExecutors[i] = executorFactory.getExecutor();
+      }
    }
 
    public static final byte[] getDuplicateBytes(final UUID nodeUUID, final long messageID)
@@ -228,7 +294,14 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
    {
       synchronized (this)
       {
-         return new ArrayList<MessageReference>(refs);
+         List<MessageReference> list = new ArrayList<MessageReference>(refs);
+
+         for (BridgeStream stream : parallelStreams)
+         {
+            list.addAll(stream.refs);
+         }
+
+         return list;
       }
    }
 
@@ -272,17 +345,20 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
    private void cancelRefs()
    {
-      MessageReference ref;
+      synchronized (this)
+      {
+         // the batched references are in refs as well
+         batchedRefs.clear();
+         batchedSize = 0;
+      }
 
       LinkedList<MessageReference> list = new LinkedList<MessageReference>();
 
-      while ((ref = refs.poll()) != null)
+      pollRefs(refs, list);
+
+      for (BridgeStream stream : parallelStreams)
       {
-         if (isTrace)
-         {
-            ActiveMQServerLogger.LOGGER.trace("Cancelling reference " + ref + " on bridge " + this);
-         }
-         list.addFirst(ref);
+         pollRefs(stream.refs, list);
       }
 
       if (isTrace && list.isEmpty())
@@ -310,6 +386,20 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
       }
    }
 
+   private void pollRefs(final java.util.Queue<MessageReference> refsToCancel, final LinkedList<MessageReference> list)
+   {
+      MessageReference ref;
+
+      while ((ref = refsToCancel.poll()) != null)
+      {
+         if (isTrace)
+         {
+            ActiveMQServerLogger.LOGGER.trace("Cancelling reference " + ref + " on bridge " + this);
+         }
+         list.addFirst(ref);
+      }
+   }
+
    public void flushExecutor()
    {
       // Wait for any create objects runnable to complete
@@ -343,6 +433,8 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
                }
                session = null;
             }
+
+            closeStreams(true);
          }
       });
    }
@@ -474,6 +566,12 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
       }
    }
 
+   // For testing only
+   public ServerLocatorInternal getServerLocator()
+   {
+      return serverLocator;
+   }
+
 
    // Consumer implementation ---------------------------------------
 
@@ -481,25 +579,88 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
    {
       if (active)
       {
-         try
-         {
-            final MessageReference ref = refs.poll();
+         acknowledge(refs.poll());
+      }
+   }
 
-            if (ref != null)
+   private void acknowledge(final MessageReference ref)
+   {
+      try
+      {
+         if (ref != null)
+         {
+            if (isTrace)
             {
-               if (isTrace)
-               {
-                  ActiveMQServerLogger.LOGGER.trace(this + " Acking " + ref + " on queue " + ref.getQueue());
-               }
-               ref.getQueue().acknowledge(ref);
-               pendingAcks.countDown();
+               ActiveMQServerLogger.LOGGER.trace(this + " Acking " + ref + " on queue " + ref.getQueue());
             }
+            ref.getQueue().acknowledge(ref);
+            pendingAcks.countDown();
+            messagesAcknowledged.incrementAndGet();
          }
-         catch (Exception e)
-         {
-            ActiveMQServerLogger.LOGGER.bridgeFailedToAck(e);
-         }
       }
+      catch (Exception e)
+      {
+         ActiveMQServerLogger.LOGGER.bridgeFailedToAck(e);
+      }
+   }
+
+   public int getStreams()
+   {
+      return streams;
+   }
+
+   public long getMessagesForwarded()
+   {
+      return messagesForwarded.get();
+   }
+
+   public long getMessagesAcknowledged()
+   {
+      return messagesAcknowledged.get();
+   }
+
+   public float getForwardRate()
+   {
+      long acknowledged = messagesAcknowledged.get();
+      float timeSlice = ((System.currentTimeMillis() - forwardRateCheckTime.getAndSet(System.currentTimeMillis())) / 1000.0f);
+      if (timeSlice == 0)
+      {
+         messagesAcknowledgedSnapshot.getAndSet(acknowledged);
+         return 0.0f;
+      }
+      return BigDecimal.valueOf((acknowledged - messagesAcknowledgedSnapshot.getAndSet(acknowledged)) / timeSlice).setScale(2, BigDecimal.ROUND_UP).floatValue();
+   }
+
+   public boolean isCompressBatches()
+   {
+      return compressBatches;
+   }
+
+   public long getBytesForwarded()
+   {
+      return bytesForwarded.get();
+   }
+
+   public float getCompressionRatio()
+   {
+      long bytes = bytesForwarded.get();
+      if (bytes == 0)
+      {
+         return 0.0f;
+      }
+      return BigDecimal.valueOf((double) uncompressedBytesForwarded.get() / bytes).setScale(2, BigDecimal.ROUND_UP).floatValue();
+   }
+
+   public float getForwardByteRate()
+   {
+      long bytes = bytesForwarded.get();
+      float timeSlice = ((System.currentTimeMillis() - byteRateCheckTime.getAndSet(System.currentTimeMillis())) / 1000.0f);
+      if (timeSlice == 0)
+      {
+         bytesForwardedSnapshot.getAndSet(bytes);
+         return 0.0f;
+      }
+      return BigDecimal.valueOf((bytes - bytesForwardedSnapshot.getAndSet(bytes)) / timeSlice).setScale(2, BigDecimal.ROUND_UP).floatValue();
    }
 
    protected boolean isPlainCoreBridge()
@@ -562,6 +723,13 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
             return HandleStatus.BUSY;
          }
 
+         final BridgeStream stream = selectStream(ref.getMessage());
+
+         if (stream != null && !stream.isAvailable())
+         {
+            return HandleStatus.BUSY;
+         }
+
          if (isTrace)
          {
             ActiveMQServerLogger.LOGGER.trace("Bridge " + this + " is handling reference=" + ref);
@@ -569,8 +737,21 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
          ref.handled();
 
+         if (stream != null)
+         {
+            pendingAcks.countUp();
+            stream.forward(ref);
+            return HandleStatus.HANDLED;
+         }
+
          refs.add(ref);
 
+         if (compressBatches && !ref.getMessage().isLargeMessage())
+         {
+            pendingAcks.countUp();
+            return batchStandardMessage(ref);
+         }
+
          final ServerMessage message = beforeForward(ref.getMessage());
 
          final SimpleString dest;
@@ -591,6 +772,11 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
          {
             if (message.isLargeMessage())
             {
+               // what was batched before goes first
+               if (!flushBatch(ref))
+               {
+                  return HandleStatus.BUSY;
+               }
                deliveringLargeMessage = true;
                deliverLargeMessage(dest, ref, (LargeServerMessage) message);
                return HandleStatus.HANDLED;
@@ -610,6 +796,48 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
    }
 
 
+   /**
+    * @return the stream the message goes through, null for the bridge's own session
+    */
+   private BridgeStream selectStream(final ServerMessage message)
+   {
+      BridgeStream[] streamsInUse = parallelStreams;
+
+      if (streamsInUse.length == 0)
+      {
+         return null;
+      }
+
+      int index = (getStreamKey(message) & Integer.MAX_VALUE) % (streamsInUse.length + 1);
+
+      return index == 0 ? null : streamsInUse[index - 1];
+   }
+
+   /**
+    * Messages of the same group, or sent again with the same duplicate ID, always go through the same stream so
+    * they keep their order. Other messages are spread over the streams by their ID.
+    */
+   private static int getStreamKey(final ServerMessage message)
+   {
+      SimpleString groupID = message.getSimpleStringProperty(Message.HDR_GROUP_ID);
+
+      if (groupID != null)
+      {
+         return groupID.hashCode();
+      }
+
+      byte[] duplicateID = message.getDuplicateIDBytes();
+
+      if (duplicateID != null)
+      {
+         return Arrays.hashCode(duplicateID);
+      }
+
+      long messageID = message.getMessageID();
+
+      return (int) (messageID ^ (messageID >>> 32));
+   }
+
    // FailureListener implementation --------------------------------
 
    public void proceedDeliver(MessageReference ref)
@@ -652,6 +880,8 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
       {
       }
 
+      closeStreams(true);
+
       if (scaleDownTargetNodeID != null && !scaleDownTargetNodeID.equals(nodeUUID))
       {
          synchronized (this)
@@ -710,6 +940,8 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
             {
                producer.send(dest, message);
 
+               messagesForwarded.incrementAndGet();
+
                // as soon as we are done sending the large message
                // we unset the delivery flag and we will call the deliveryAsync on the queue
                // so the bridge will be able to resume work
@@ -765,9 +997,115 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
          return HandleStatus.BUSY;
       }
 
+      messageForwarded(message);
+
+      return HandleStatus.HANDLED;
+   }
+
+   private void messageForwarded(final ServerMessage message)
+   {
+      int size = message.getEncodeSize();
+
+      messagesForwarded.incrementAndGet();
+      bytesForwarded.addAndGet(size);
+      uncompressedBytesForwarded.addAndGet(size);
+   }
+
+   /**
+    * Adds the reference to the compressed batch of the bridge's own session, which is sent once it reaches the
+    * size of a large message or {@link #BATCH_FLUSH_DELAY} milliseconds after it was started.
+    */
+   private HandleStatus batchStandardMessage(final MessageReference ref)
+   {
+      batchedRefs.add(ref);
+      batchedSize += ref.getMessage().getEncodeSize();
+
+      if (batchedSize >= serverLocator.getMinLargeMessageSize())
+      {
+         return flushBatch(ref) ? HandleStatus.HANDLED : HandleStatus.BUSY;
+      }
+
+      if (!batchFlushScheduled)
+      {
+         batchFlushScheduled = true;
+         scheduledExecutor.schedule(futureFlushBatchRunnable, BATCH_FLUSH_DELAY, TimeUnit.MILLISECONDS);
+      }
+
       return HandleStatus.HANDLED;
    }
 
+   /**
+    * Sends the batch of the bridge's own session.
+    *
+    * @param current the reference being handled, which stays on the queue if the send fails
+    * @return false if the send failed
+    */
+   private synchronized boolean flushBatch(final MessageReference current)
+   {
+      if (batchedRefs.isEmpty())
+      {
+         return true;
+      }
+
+      List<MessageReference> batch = new ArrayList<MessageReference>(batchedRefs);
+
+      batchedRefs.clear();
+      batchedSize = 0;
+
+      try
+      {
+         sendCompressed(producer, batch);
+         return true;
+      }
+      catch (final ActiveMQException e)
+      {
+         ActiveMQServerLogger.LOGGER.bridgeUnableToSendMessage(e, batch.get(0));
+
+         // the other references of the batch are cancelled with the failure
+         if (current != null)
+         {
+            refs.remove(current);
+         }
+
+         connectionFailed(e, false);
+
+         return false;
+      }
+   }
+
+   /**
+    * Sends the messages of the references in a single packet whose content is compressed
+    */
+   private void sendCompressed(final ClientProducer sender, final List<MessageReference> batch) throws ActiveMQException
+   {
+      List<ServerMessage> messages = new ArrayList<ServerMessage>(batch.size());
+      long size = 0;
+
+      for (MessageReference ref : batch)
+      {
+         ServerMessage message = beforeForward(ref.getMessage());
+
+         if (forwardingAddress != null)
+         {
+            message.setAddress(forwardingAddress);
+         }
+
+         size += message.getEncodeSize();
+         messages.add(message);
+      }
+
+      if (isTrace)
+      {
+         ActiveMQServerLogger.LOGGER.trace("going to send " + messages.size() + " messages compressed from " + queue);
+      }
+
+      int sent = ((ClientProducerInternal) sender).sendCompressed(messages);
+
+      messagesForwarded.addAndGet(messages.size());
+      bytesForwarded.addAndGet(sent);
+      uncompressedBytesForwarded.addAndGet(size);
+   }
+
    /**
     * for use in tests mainly
     *
@@ -903,6 +1241,53 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
       csf = sfi;
    }
 
+   /**
+    * Opens the sessions of the parallel streams, each on its own connection to the node the bridge is connected to
+    */
+   private void connectStreams() throws Exception
+   {
+      closeStreams(true);
+
+      if (streams <= 1)
+      {
+         return;
+      }
+
+      BridgeStream[] newStreams = new BridgeStream[streams - 1];
+
+      TransportConfiguration connector = csf.getConnectorConfiguration();
+
+      try
+      {
+         for (int i = 0; i < newStreams.length; i++)
+         {
+            newStreams[i] = new BridgeStream(streamExecutors[i]);
+            newStreams[i].connect(connector);
+         }
+      }
+      catch (Exception e)
+      {
+         for (BridgeStream stream : newStreams)
+         {
+            if (stream != null)
+            {
+               stream.close(true);
+            }
+         }
+         throw e;
+      }
+
+      parallelStreams = newStreams;
+   }
+
+   private void closeStreams(final boolean failed)
+   {
+      for (BridgeStream stream : parallelStreams)
+      {
+         stream.close(failed);
+      }
+   }
+
    /* This is called only when the bridge is activated */
    protected void connect()
    {
@@ -976,6 +1361,8 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
             session.setSendAcknowledgementHandler(BridgeImpl.this);
 
+            connectStreams();
+
             afterConnect();
 
             active = true;
@@ -1155,6 +1542,8 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
             ActiveMQServerLogger.LOGGER.debug("stopping bridge " + BridgeImpl.this);
             queue.removeConsumer(BridgeImpl.this);
 
+            flushBatch(null);
+
             if (!pendingAcks.await(10, TimeUnit.SECONDS))
             {
                ActiveMQServerLogger.LOGGER.timedOutWaitingCompletions(BridgeImpl.this.toString(),
@@ -1171,6 +1560,7 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
             }
 
+            closeStreams(false);
 
             internalCancelReferences();
 
@@ -1215,6 +1605,33 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
       }
    }
 
+   private class FutureFlushBatchRunnable implements Runnable
+   {
+      public void run()
+      {
+         executor.execute(flushBatchRunnable);
+      }
+   }
+
+   /**
+    * Sends whatever the batch gathered since it was scheduled, unless it was sent already because it got full.
+    */
+   private class FlushBatchRunnable implements Runnable
+   {
+      public void run()
+      {
+         synchronized (BridgeImpl.this)
+         {
+            batchFlushScheduled = false;
+
+            if (active)
+            {
+               flushBatch(null);
+            }
+         }
+      }
+   }
+
    private class PauseRunnable implements Runnable
    {
       public void run()
@@ -1223,6 +1640,8 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
          {
             queue.removeConsumer(BridgeImpl.this);
 
+            flushBatch(null);
+
             if (!pendingAcks.await(60, TimeUnit.SECONDS))
             {
                ActiveMQServerLogger.LOGGER.timedOutWaitingCompletions(BridgeImpl.this.toString(),
@@ -1247,6 +1666,249 @@ public class BridgeImpl implements Bridge, SessionFailureListener, SendAcknowled
 
    }
 
+   /**
+    * A session, on its own connection and with its own confirmation window, forwarding the messages routed to it
+    * from its own executor.
+    */
+   private final class BridgeStream implements SendAcknowledgementHandler
+   {
+      private final Executor streamExecutor;
+
+      private final java.util.Queue<MessageReference> refs = new ConcurrentLinkedQueue<MessageReference>();
+
+      private final AtomicInteger queued = new AtomicInteger(0);
+
+      /**
+       * References not sent yet, when the stream sends compressed batches
+       */
+      private final java.util.Queue<MessageReference> pending = new ConcurrentLinkedQueue<MessageReference>();
+
+      private final Runnable sendPendingRunnable = new Runnable()
+      {
+         public void run()
+         {
+            sendPending();
+         }
+      };
+
+      private volatile boolean blocked;
+
+      private volatile boolean closed;
+
+      private ClientSessionFactoryInternal streamSessionFactory;
+
+      private ClientSessionInternal streamSession;
+
+      private ClientProducer streamProducer;
+
+      BridgeStream(final Executor streamExecutor)
+      {
+         this.streamExecutor = streamExecutor;
+      }
+
+      void connect(final TransportConfiguration connector) throws Exception
+      {
+         streamSessionFactory = (ClientSessionFactoryInternal) serverLocator.createSessionFactory(connector);
+         streamSessionFactory.setReconnectAttempts(0);
+
+         // Session is pre-acknowledge
+         streamSession = (ClientSessionInternal) streamSessionFactory.createSession(user, password, false, true, true, true, 1);
+         streamProducer = streamSession.createProducer();
+         streamSession.addFailureListener(BridgeImpl.this);
+         streamSession.setSendAcknowledgementHandler(this);
+      }
+
+      /**
+       * Must be called before each {@link #forward(MessageReference)}.
+       * When it returns false the stream will resume the delivery of the queue once it caught up.
+       */
+      boolean isAvailable()
+      {
+         if (closed)
+         {
+            return false;
+         }
+
+         if (queued.get() < MAX_QUEUED_PER_STREAM)
+         {
+            return true;
+         }
+
+         blocked = true;
+
+         // the stream may have caught up before seeing the flag
+         return queued.get() < MAX_QUEUED_PER_STREAM;
+      }
+
+      void forward(final MessageReference ref)
+      {
+         refs.add(ref);
+
+         queued.incrementAndGet();
+
+         if (compressBatches)
+         {
+            pending.add(ref);
+
+            // a run finding nothing pending is cheap, the one before sent the reference with its batch
+            streamExecutor.execute(sendPendingRunnable);
+            return;
+         }
+
+         streamExecutor.execute(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  // when closed the reference is cancelled back to the queue
+                  if (!closed)
+                  {
+                     send(ref);
+                  }
+               }
+               catch (final ActiveMQException e)
+               {
+                  ActiveMQServerLogger.LOGGER.bridgeUnableToSendMessage(e, ref);
+
+                  connectionFailed(e, false);
+               }
+               finally
+               {
+                  release(1);
+               }
+            }
+         });
+      }
+
+      private void send(final MessageReference ref) throws ActiveMQException
+      {
+         final ServerMessage message = beforeForward(ref.getMessage());
+
+         final SimpleString dest = forwardingAddress != null ? forwardingAddress : message.getAddress();
+
+         if (isTrace)
+         {
+            ActiveMQServerLogger.LOGGER.trace("going to send message: " + message + " from " + queue + " on stream " + this);
+         }
+
+         streamProducer.send(dest, message);
+
+         if (message.isLargeMessage())
+         {
+            messagesForwarded.incrementAndGet();
+         }
+         else
+         {
+            messageForwarded(message);
+         }
+      }
+
+      /**
+       * Sends everything pending in compressed batches of about the size of a large message.
+       * Large messages are sent on their own, in order with the batches.
+       */
+      private void sendPending()
+      {
+         List<MessageReference> batch = new ArrayList<MessageReference>();
+         int batchSize = 0;
+         int polled = 0;
+         MessageReference ref = null;
+
+         try
+         {
+            // when closed the references are cancelled back to the queue
+            while (!closed && (ref = pending.poll()) != null)
+            {
+               polled++;
+
+               if (ref.getMessage().isLargeMessage())
+               {
+                  sendBatch(batch);
+                  batchSize = 0;
+
+                  send(ref);
+                  continue;
+               }
+
+               batch.add(ref);
+               batchSize += ref.getMessage().getEncodeSize();
+
+               if (batchSize >= serverLocator.getMinLargeMessageSize())
+               {
+                  sendBatch(batch);
+                  batchSize = 0;
+               }
+            }
+
+            sendBatch(batch);
+         }
+         catch (final ActiveMQException e)
+         {
+            ActiveMQServerLogger.LOGGER.bridgeUnableToSendMessage(e, batch.isEmpty() ? ref : batch.get(0));
+
+            connectionFailed(e, false);
+         }
+         finally
+         {
+            release(polled);
+         }
+      }
+
+      private void sendBatch(final List<MessageReference> batch) throws ActiveMQException
+      {
+         if (!batch.isEmpty())
+         {
+            sendCompressed(streamProducer, batch);
+            batch.clear();
+         }
+      }
+
+      private void release(final int sent)
+      {
+         if (queued.addAndGet(-sent) < MAX_QUEUED_PER_STREAM && blocked)
+         {
+            blocked = false;
+            queue.deliverAsync();
+         }
+      }
+
+      public void sendAcknowledged(final Message message)
+      {
+         if (active && !closed)
+         {
+            acknowledge(refs.poll());
+         }
+      }
+
+      void close(final boolean failed)
+      {
+         closed = true;
+
+         if (streamSession != null)
+         {
+            streamSession.removeFailureListener(BridgeImpl.this);
+            try
+            {
+               if (failed)
+               {
+                  streamSession.cleanUp(false);
+               }
+               else
+               {
+                  streamSession.close();
+               }
+            }
+            catch (Exception dontcare)
+            {
+               ActiveMQServerLogger.LOGGER.debug(dontcare.getMessage(), dontcare);
+            }
+         }
+
+         cleanUpSessionFactory(streamSessionFactory);
+      }
+   }
+
    private class TopologyListener implements ClusterTopologyListener
    {
 
@@ -47,6 +47,7 @@ import org.apache.activemq.artemis.core.server.cluster.ClusterManager;
 import org.apache.activemq.artemis.core.server.cluster.ActiveMQServerSideProtocolManagerFactory;
 import org.apache.activemq.artemis.core.server.cluster.MessageFlowRecord;
 import org.apache.activemq.artemis.core.server.cluster.Transformer;
+import org.apache.activemq.artemis.utils.ExecutorFactory;
 import org.apache.activemq.artemis.utils.UUID;
 import org.apache.activemq.artemis.utils.UUIDGenerator;
 
@@ -100,7 +101,10 @@ public class ClusterConnectionBridge extends BridgeImpl
                                   final SimpleString managementAddress,
                                   final SimpleString managementNotificationAddress,
                                   final MessageFlowRecord flowRecord,
-                                  final TransportConfiguration connector)
+                                  final TransportConfiguration connector,
+                                  final ExecutorFactory executorFactory,
+                                  final int streams,
+                                  final boolean compressBatches)
    {
       super(targetLocator,
             initialConnectAttempts,
@@ -120,7 +124,10 @@ public class ClusterConnectionBridge extends BridgeImpl
             useDuplicateDetection,
             user,
             password,
-            storageManager);
+            storageManager,
+            executorFactory,
+            streams,
+            compressBatches);
 
       this.discoveryLocator = discoveryLocator;
 
@@ -265,6 +272,8 @@ public class ClusterConnectionBridge extends BridgeImpl
                                                    CoreNotificationType.PROPOSAL_RESPONSE +
                                                    "','" +
                                                    CoreNotificationType.UNPROPOSAL +
+                                                   "','" +
+                                                   CoreNotificationType.QUEUE_LOAD +
                                                    "') AND " +
                                                    ManagementHelper.HDR_DISTANCE +
                                                    "<" +
@@ -27,6 +27,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
@@ -48,6 +49,7 @@ import org.apache.activemq.artemis.core.client.impl.TopologyMemberImpl;
 import org.apache.activemq.artemis.core.postoffice.Binding;
 import org.apache.activemq.artemis.core.postoffice.Bindings;
 import org.apache.activemq.artemis.core.postoffice.PostOffice;
+import org.apache.activemq.artemis.core.postoffice.impl.LocalQueueBinding;
 import org.apache.activemq.artemis.core.postoffice.impl.PostOfficeImpl;
 import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
@@ -60,6 +62,7 @@ import org.apache.activemq.artemis.core.server.cluster.ClusterControl;
 import org.apache.activemq.artemis.core.server.cluster.ClusterManager;
 import org.apache.activemq.artemis.core.server.cluster.ClusterManager.IncomingInterceptorLookingForExceptionMessage;
 import org.apache.activemq.artemis.core.server.cluster.ActiveMQServerSideProtocolManagerFactory;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 import org.apache.activemq.artemis.core.server.cluster.MessageFlowRecord;
 import org.apache.activemq.artemis.core.server.cluster.RemoteQueueBinding;
 import org.apache.activemq.artemis.core.server.group.impl.Proposal;
@@ -111,8 +114,14 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
    private final boolean routeWhenNoConsumers;
 
+   private final LoadBalancingPolicy loadBalancingPolicy;
+
    private final int confirmationWindowSize;
 
+   private final int bridgeStreams;
+
+   private final boolean bridgeCompressBatches;
+
    /**
     * Guard for the field {@link #records}. Note that the field is {@link ConcurrentHashMap},
     * however we need the guard to synchronize multiple step operations during topology updates.
@@ -157,6 +166,8 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
    private LiveNotifier liveNotifier = null;
 
+   private ScheduledFuture<?> loadReporterFuture;
+
    private final long clusterNotificationInterval;
 
    private final int clusterNotificationAttempts;
@@ -178,7 +189,10 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
                                 final long callFailoverTimeout,
                                 final boolean useDuplicateDetection,
                                 final boolean routeWhenNoConsumers,
+                                final LoadBalancingPolicy loadBalancingPolicy,
                                 final int confirmationWindowSize,
+                                final int bridgeStreams,
+                                final boolean bridgeCompressBatches,
                                 final ExecutorFactory executorFactory,
                                 final ActiveMQServer server,
                                 final PostOffice postOffice,
@@ -218,8 +232,14 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
       this.routeWhenNoConsumers = routeWhenNoConsumers;
 
+      this.loadBalancingPolicy = loadBalancingPolicy;
+
       this.confirmationWindowSize = confirmationWindowSize;
 
+      this.bridgeStreams = bridgeStreams;
+
+      this.bridgeCompressBatches = bridgeCompressBatches;
+
       this.executorFactory = executorFactory;
 
       this.clusterNotificationInterval = clusterNotificationInterval;
@@ -285,7 +305,10 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
                                 final long callFailoverTimeout,
                                 final boolean useDuplicateDetection,
                                 final boolean routeWhenNoConsumers,
+                                final LoadBalancingPolicy loadBalancingPolicy,
                                 final int confirmationWindowSize,
+                                final int bridgeStreams,
+                                final boolean bridgeCompressBatches,
                                 final ExecutorFactory executorFactory,
                                 final ActiveMQServer server,
                                 final PostOffice postOffice,
@@ -331,8 +354,14 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
       this.routeWhenNoConsumers = routeWhenNoConsumers;
 
+      this.loadBalancingPolicy = loadBalancingPolicy;
+
       this.confirmationWindowSize = confirmationWindowSize;
 
+      this.bridgeStreams = bridgeStreams;
+
+      this.bridgeCompressBatches = bridgeCompressBatches;
+
       this.executorFactory = executorFactory;
 
       this.clusterNotificationInterval = clusterNotificationInterval;
@@ -376,6 +405,11 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
          stopping = false;
          started = true;
          activate();
+
+         if (loadBalancingPolicy == LoadBalancingPolicy.LEAST_LOADED)
+         {
+            new LoadReporter().schedule();
+         }
       }
 
    }
@@ -407,6 +441,16 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
          serverLocator.removeClusterTopologyListener(this);
       }
 
+      synchronized (this)
+      {
+         if (loadReporterFuture != null)
+         {
+            loadReporterFuture.cancel(false);
+
+            loadReporterFuture = null;
+         }
+      }
+
       ActiveMQServerLogger.LOGGER.debug("Cluster connection being stopped for node" + nodeManager.getNodeId() +
                                           ", server = " +
                                           this.server +
@@ -887,7 +931,10 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
                                                                    managementService.getManagementAddress(),
                                                                    managementService.getManagementNotificationAddress(),
                                                                    record,
-                                                                   record.getConnector());
+                                                                   record.getConnector(),
+                                                                   executorFactory,
+                                                                   bridgeStreams,
+                                                                   bridgeCompressBatches);
 
       targetLocator.setIdentity("(Cluster-connection-bridge::" + bridge.toString() + "::" + this.toString() + ")");
 
@@ -1172,6 +1219,11 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
                doUnProposalReceived(message);
                break;
             }
+            case QUEUE_LOAD:
+            {
+               doQueueLoad(message);
+               break;
+            }
             default:
             {
                throw ActiveMQMessageBundle.BUNDLE.invalidType(ntype);
@@ -1390,6 +1442,8 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
 
          theBindings.setRouteWhenNoConsumers(routeWhenNoConsumers);
 
+         theBindings.setLoadBalancingPolicy(loadBalancingPolicy);
+
       }
 
       private void doBindingRemoved(final ClientMessage message) throws Exception
@@ -1443,6 +1497,22 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
          binding.disconnect();
       }
 
+      private synchronized void doQueueLoad(final ClientMessage message) throws Exception
+      {
+         SimpleString clusterName = message.getSimpleStringProperty(ManagementHelper.HDR_CLUSTER_NAME);
+
+         RemoteQueueBinding binding = clusterName == null ? null : bindings.get(clusterName);
+
+         if (binding == null)
+         {
+            // not a queue we route to, the load isn't propagated to the next hops
+            return;
+         }
+
+         binding.updateLoad(message.getLongProperty(ManagementHelper.HDR_MESSAGE_COUNT),
+                            message.getFloatProperty(ManagementHelper.HDR_ACKNOWLEDGE_RATE));
+      }
+
       private synchronized void doConsumerCreated(final ClientMessage message) throws Exception
       {
          if (ActiveMQServerLogger.LOGGER.isTraceEnabled())
@@ -1733,4 +1803,177 @@ public final class ClusterConnectionImpl implements ClusterConnection, AfterConn
          }
       }
    }
+
+   /**
+    * Measures the load of the local queues of this cluster connection's address, and reports it to the other nodes
+    * whenever it changes (and every {@link #FULL_REPORT_RUNS} runs for the nodes that joined since). It also updates
+    * the backlog of the remote bindings, the messages waiting in the store and forward queue to their node.
+    */
+   private final class LoadReporter implements Runnable
+   {
+      private static final int FULL_REPORT_RUNS = 10;
+
+      // queue id -> the queue's load at the previous run
+      private Map<Long, QueueSample> samples = new HashMap<Long, QueueSample>();
+
+      private long lastRun = System.currentTimeMillis();
+
+      private int runs;
+
+      @Override
+      public void run()
+      {
+         try
+         {
+            report();
+         }
+         catch (Exception e)
+         {
+            ActiveMQServerLogger.LOGGER.warn(e.getMessage(), e);
+         }
+
+         schedule();
+      }
+
+      public void schedule()
+      {
+         synchronized (ClusterConnectionImpl.this)
+         {
+            if (started && !stopping)
+            {
+               loadReporterFuture = scheduledExecutor.schedule(this, clusterNotificationInterval, TimeUnit.MILLISECONDS);
+            }
+         }
+      }
+
+      private void report() throws Exception
+      {
+         long now = System.currentTimeMillis();
+
+         float seconds = (now - lastRun) / 1000.0f;
+
+         lastRun = now;
+
+         boolean fullReport = runs++ % FULL_REPORT_RUNS == 0;
+
+         Map<Long, QueueSample> newSamples = new HashMap<Long, QueueSample>();
+
+         Map<Long, Long> backlogs = new HashMap<Long, Long>();
+
+         for (Binding binding : postOffice.getAllBindings().values())
+         {
+            if (!matchesAddress(binding.getAddress()))
+            {
+               continue;
+            }
+
+            if (binding instanceof LocalQueueBinding)
+            {
+               Queue queue = ((LocalQueueBinding) binding).getQueue();
+
+               long messageCount = queue.getMessageCount();
+
+               long acknowledged = queue.getMessagesAcknowledged();
+
+               QueueSample previous = samples.get(queue.getID());
+
+               float rate = previous == null || seconds <= 0 ? 0 : Math.max(0, acknowledged - previous.acknowledged) / seconds;
+
+               ((LocalQueueBinding) binding).updateLoad(messageCount, rate);
+
+               newSamples.put(queue.getID(), new QueueSample(acknowledged, messageCount, rate));
+
+               if (fullReport || previous == null || previous.messageCount != messageCount || previous.rate != rate)
+               {
+                  sendLoad(binding, messageCount, rate);
+               }
+            }
+            else if (binding instanceof RemoteQueueBinding)
+            {
+               // several bindings share the store and forward queue of their node
+               Queue storeAndForwardQueue = ((RemoteQueueBinding) binding).getQueue();
+
+               Long backlog = backlogs.get(storeAndForwardQueue.getID());
+
+               if (backlog == null)
+               {
+                  backlog = storeAndForwardQueue.getMessageCount();
+
+                  backlogs.put(storeAndForwardQueue.getID(), backlog);
+               }
+
+               ((RemoteQueueBinding) binding).updateBacklog(backlog);
+            }
+         }
+
+         samples = newSamples;
+      }
+
+      private void sendLoad(final Binding binding, final long messageCount, final float rate) throws Exception
+      {
+         TypedProperties props = new TypedProperties();
+
+         props.putSimpleStringProperty(ManagementHelper.HDR_ADDRESS, binding.getAddress());
+
+         props.putSimpleStringProperty(ManagementHelper.HDR_CLUSTER_NAME, binding.getClusterName());
+
+         props.putSimpleStringProperty(ManagementHelper.HDR_ROUTING_NAME, binding.getRoutingName());
+
+         props.putIntProperty(ManagementHelper.HDR_DISTANCE, binding.getDistance());
+
+         props.putLongProperty(ManagementHelper.HDR_MESSAGE_COUNT, messageCount);
+
+         props.putFloatProperty(ManagementHelper.HDR_ACKNOWLEDGE_RATE, rate);
+
+         managementService.sendNotification(new Notification(null, CoreNotificationType.QUEUE_LOAD, props));
+      }
+
+      /**
+       * The same matching as the selector of the notifications the other nodes receive, see
+       * {@link ClusterConnectionBridge#createSelectorFromAddress(String)}
+       */
+      private boolean matchesAddress(final SimpleString bindingAddress)
+      {
+         String addressString = bindingAddress.toString();
+
+         boolean included = false;
+
+         boolean hasIncludes = false;
+
+         for (String part : address.toString().split(","))
+         {
+            if (part.startsWith("!"))
+            {
+               if (addressString.startsWith(part.substring(1)))
+               {
+                  return false;
+               }
+            }
+            else
+            {
+               hasIncludes = true;
+
+               included |= addressString.startsWith(part);
+            }
+         }
+
+         return included || !hasIncludes;
+      }
+   }
+
+   private static final class QueueSample
+   {
+      final long acknowledged;
+
+      final long messageCount;
+
+      final float rate;
+
+      QueueSample(final long acknowledged, final long messageCount, final float rate)
+      {
+         this.acknowledged = acknowledged;
+         this.messageCount = messageCount;
+         this.rate = rate;
+      }
+   }
 }
@@ -19,6 +19,9 @@ package org.apache.activemq.artemis.core.server.cluster.impl;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.Pair;
@@ -37,8 +40,20 @@ import org.apache.activemq.artemis.core.transaction.Transaction;
 import org.apache.activemq.artemis.core.transaction.impl.TransactionImpl;
 import org.apache.activemq.artemis.utils.ReusableLatch;
 
+/**
+ * Moves the messages of a queue without local consumers to the other nodes of the cluster.
+ * <p>
+ * References are moved in batches: the references of a batch share one transaction, which is committed when the
+ * batch is full, or after the current delivery round when there are no more references to take. The commit of a
+ * batch isn't waited for before moving the next one, up to {@link #MAX_COMMITS_IN_FLIGHT} batches. The number of
+ * references moved per second can be limited with the redistribution-rate address setting.
+ */
 public class Redistributor implements Consumer
 {
+   private static final int MAX_COMMITS_IN_FLIGHT = 2;
+
+   private boolean started;
+
    private boolean active;
 
    private final StorageManager storageManager;
@@ -47,12 +62,33 @@ public class Redistributor implements Consumer
 
    private final Executor executor;
 
+   private final ScheduledExecutorService scheduledExecutor;
+
    private final int batchSize;
 
    private final Queue queue;
 
+   // the transaction of the current batch
+   private Transaction batchTx;
+
    private int count;
 
+   private int commitsInFlight;
+
+   private boolean waitingForCommits;
+
+   private boolean largeMessageInFlight;
+
+   private volatile int rate;
+
+   private long rateWindowStart;
+
+   private int rateWindowCount;
+
+   private ScheduledFuture<?> rateFuture;
+
+   private volatile long messagesRedistributed;
+
    // a Flush executor here is happening inside another executor.
    // what may cause issues under load. Say you are running out of executors for cases where you don't need to wait at all.
    // So, instead of using a future we will use a plain ReusableLatch here
@@ -63,6 +99,21 @@ public class Redistributor implements Consumer
                         final PostOffice postOffice,
                         final Executor executor,
                         final int batchSize)
+   {
+      this(queue, storageManager, postOffice, executor, null, batchSize, -1);
+   }
+
+   /**
+    * @param scheduledExecutor used to resume when the rate is limited, may be null if rate is -1
+    * @param rate the maximum number of references redistributed per second, -1 for no limit
+    */
+   public Redistributor(final Queue queue,
+                        final StorageManager storageManager,
+                        final PostOffice postOffice,
+                        final Executor executor,
+                        final ScheduledExecutorService scheduledExecutor,
+                        final int batchSize,
+                        final int rate)
    {
       this.queue = queue;
 
@@ -72,7 +123,11 @@ public class Redistributor implements Consumer
 
       this.executor = executor;
 
+      this.scheduledExecutor = scheduledExecutor;
+
       this.batchSize = batchSize;
+
+      this.rate = rate;
    }
 
    public Filter getFilter()
@@ -96,15 +151,41 @@ public class Redistributor implements Consumer
       //noop
    }
 
+   public void setRate(final int rate)
+   {
+      this.rate = rate;
+   }
+
+   public int getRate()
+   {
+      return rate;
+   }
+
+   /**
+    * @return the number of references this redistributor has moved to other nodes
+    */
+   public long getMessagesRedistributed()
+   {
+      return messagesRedistributed;
+   }
+
    public synchronized void start()
    {
+      started = true;
+
       active = true;
    }
 
    public synchronized void stop() throws Exception
    {
+      started = false;
+
       active = false;
 
+      cancelRateFuture();
+
+      commitBatch();
+
       boolean ok = flushExecutor();
 
       if (!ok)
@@ -115,6 +196,19 @@ public class Redistributor implements Consumer
 
    public synchronized void close()
    {
+      started = false;
+
+      cancelRateFuture();
+
+      try
+      {
+         commitBatch();
+      }
+      catch (Exception e)
+      {
+         ActiveMQServerLogger.LOGGER.warn(e.getMessage(), e);
+      }
+
       boolean ok = flushExecutor();
 
       if (!ok)
@@ -151,64 +245,126 @@ public class Redistributor implements Consumer
          return HandleStatus.NO_MATCH;
       }
 
-      final Transaction tx = new TransactionImpl(storageManager);
+      if (isRateExceeded())
+      {
+         return HandleStatus.BUSY;
+      }
 
-      final Pair<RoutingContext, ServerMessage> routingInfo = postOffice.redistribute(reference.getMessage(), queue, tx);
+      if (reference.getMessage().isLargeMessage())
+      {
+         // the references of the current batch were taken before this one
+         commitBatch();
+
+         return handleLargeMessage(reference);
+      }
+
+      if (batchTx == null)
+      {
+         final Transaction tx = new TransactionImpl(storageManager);
+
+         batchTx = tx;
+
+         // the delivery round runs on the same executor, so this commits the batch once there are no more references
+         // to take for now
+         executor.execute(new Runnable()
+         {
+            public void run()
+            {
+               flushBatch(tx);
+            }
+         });
+      }
+
+      final Pair<RoutingContext, ServerMessage> routingInfo = postOffice.redistribute(reference.getMessage(), queue, batchTx);
 
       if (routingInfo == null)
       {
          return HandleStatus.BUSY;
       }
 
-      if (!reference.getMessage().isLargeMessage())
+      routingInfo.getB().finishCopy();
+
+      postOffice.processRoute(routingInfo.getB(), routingInfo.getA(), false);
+
+      reference.handled();
+
+      queue.acknowledge(batchTx, reference);
+
+      redistributed();
+
+      if (++count >= batchSize)
       {
-         routingInfo.getB().finishCopy();
+         commitBatch();
 
-         postOffice.processRoute(routingInfo.getB(), routingInfo.getA(), false);
+         // We continue the next batch on a different thread, so as not to keep the delivery thread busy for a very
+         // long time in the case there are many messages in the queue
+         active = false;
 
-         ackRedistribution(reference, tx);
+         executor.execute(new Prompter());
       }
-      else
+
+      return HandleStatus.HANDLED;
+   }
+
+   private HandleStatus handleLargeMessage(final MessageReference reference) throws Exception
+   {
+      final Transaction tx = new TransactionImpl(storageManager);
+
+      final Pair<RoutingContext, ServerMessage> routingInfo = postOffice.redistribute(reference.getMessage(), queue, tx);
+
+      if (routingInfo == null)
       {
-         active = false;
-         executor.execute(new Runnable()
+         return HandleStatus.BUSY;
+      }
+
+      active = false;
+      largeMessageInFlight = true;
+      executor.execute(new Runnable()
+      {
+         public void run()
          {
-            public void run()
+            try
             {
-               try
-               {
-                  routingInfo.getB().finishCopy();
+               routingInfo.getB().finishCopy();
+
+               postOffice.processRoute(routingInfo.getB(), routingInfo.getA(), false);
+
+               reference.handled();
+
+               queue.acknowledge(tx, reference);
 
-                  postOffice.processRoute(routingInfo.getB(), routingInfo.getA(), false);
+               commit(tx);
 
-                  ackRedistribution(reference, tx);
+               synchronized (Redistributor.this)
+               {
+                  redistributed();
 
-                  synchronized (Redistributor.this)
-                  {
-                     active = true;
+                  largeMessageInFlight = false;
 
-                     count++;
+                  resume();
+               }
+            }
+            catch (Exception e)
+            {
+               synchronized (Redistributor.this)
+               {
+                  largeMessageInFlight = false;
+               }
 
-                     queue.deliverAsync();
-                  }
+               try
+               {
+                  tx.rollback();
                }
-               catch (Exception e)
+               catch (Exception e2)
                {
-                  try
-                  {
-                     tx.rollback();
-                  }
-                  catch (Exception e2)
-                  {
-                     // Nothing much we can do now
-
-                     // TODO log
-                     ActiveMQServerLogger.LOGGER.warn(e2.getMessage(), e2);
-                  }
+                  // Nothing much we can do now
+
+                  // TODO log
+                  ActiveMQServerLogger.LOGGER.warn(e2.getMessage(), e2);
                }
             }
-         });
-      }
+         }
+      });
 
       return HandleStatus.HANDLED;
    }
@@ -238,12 +394,125 @@ public class Redistributor implements Consumer
       });
    }
 
+   private void redistributed()
+   {
+      messagesRedistributed++;
+
+      rateWindowCount++;
+   }
 
-   private void ackRedistribution(final MessageReference reference, final Transaction tx) throws Exception
+   /**
+    * When the rate is exceeded the redistributor becomes inactive until the next second.
+    */
+   private boolean isRateExceeded() throws Exception
    {
-      reference.handled();
+      int currentRate = rate;
+
+      if (currentRate <= 0 || scheduledExecutor == null)
+      {
+         return false;
+      }
+
+      long now = System.currentTimeMillis();
+
+      if (now - rateWindowStart >= 1000)
+      {
+         rateWindowStart = now;
+
+         rateWindowCount = 0;
+
+         return false;
+      }
+
+      if (rateWindowCount < currentRate)
+      {
+         return false;
+      }
+
+      commitBatch();
+
+      active = false;
+
+      cancelRateFuture();
+
+      rateFuture = scheduledExecutor.schedule(new Prompter(), rateWindowStart + 1000 - now, TimeUnit.MILLISECONDS);
+
+      return true;
+   }
+
+   private void cancelRateFuture()
+   {
+      if (rateFuture != null)
+      {
+         rateFuture.cancel(false);
+
+         rateFuture = null;
+      }
+   }
+
+   /**
+    * Commits the batch the flush was scheduled for, unless it was committed already.
+    */
+   private void flushBatch(final Transaction tx)
+   {
+      synchronized (this)
+      {
+         if (batchTx != tx)
+         {
+            return;
+         }
 
-      queue.acknowledge(tx, reference);
+         batchTx = null;
+
+         count = 0;
+      }
+
+      // outside the lock: the commit acknowledges the references on the queue
+      try
+      {
+         commit(tx);
+      }
+      catch (Exception e)
+      {
+         ActiveMQServerLogger.LOGGER.warn(e.getMessage(), e);
+
+         try
+         {
+            tx.rollback();
+         }
+         catch (Exception e2)
+         {
+            ActiveMQServerLogger.LOGGER.warn(e2.getMessage(), e2);
+         }
+      }
+   }
+
+   private void commitBatch() throws Exception
+   {
+      if (batchTx == null)
+      {
+         return;
+      }
+
+      Transaction tx = batchTx;
+
+      batchTx = null;
+
+      count = 0;
+
+      commit(tx);
+   }
+
+   /**
+    * Commits a transaction without waiting for it to be stored. When too many commits are in flight the
+    * redistributor becomes inactive until one of them completes.
+    */
+   private void commit(final Transaction tx) throws Exception
+   {
+      synchronized (this)
+      {
+         commitsInFlight++;
+      }
 
       tx.commit();
 
@@ -257,28 +526,42 @@ public class Redistributor implements Consumer
 
          public void done()
          {
-            execPrompter();
+            synchronized (Redistributor.this)
+            {
+               commitsInFlight--;
+
+               if (waitingForCommits && commitsInFlight < MAX_COMMITS_IN_FLIGHT)
+               {
+                  waitingForCommits = false;
+
+                  executor.execute(new Prompter());
+               }
+            }
          }
       });
+
+      synchronized (this)
+      {
+         if (commitsInFlight >= MAX_COMMITS_IN_FLIGHT)
+         {
+            active = false;
+
+            waitingForCommits = true;
+         }
+      }
    }
 
-   private void execPrompter()
+   /**
+    * Becomes active again, unless stopped or still waiting for a commit or a large message.
+    */
+   private void resume()
    {
-      count++;
-
-      // We use >= as the large message redistribution will set count to max_int
-      // so we are use the prompter will get called
-      if (count >= batchSize)
+      if (started && !waitingForCommits && !largeMessageInFlight)
       {
-         // We continue the next batch on a different thread, so as not to keep the delivery thread busy for a very
-         // long time in the case there are many messages in the queue
-         active = false;
-
-         executor.execute(new Prompter());
+         active = true;
 
-         count = 0;
+         queue.deliverAsync();
       }
-
    }
 
    private class Prompter implements Runnable
@@ -287,9 +570,9 @@ public class Redistributor implements Consumer
       {
          synchronized (Redistributor.this)
          {
-            active = true;
+            rateFuture = null;
 
-            queue.deliverAsync();
+            resume();
          }
       }
    }
@@ -33,6 +33,7 @@ import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.RoutingContext;
 import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 import org.apache.activemq.artemis.core.server.cluster.RemoteQueueBinding;
 
 public class RemoteQueueBindingImpl implements RemoteQueueBinding
@@ -63,6 +64,12 @@ public class RemoteQueueBindingImpl implements RemoteQueueBinding
 
    private boolean connected = true;
 
+   private volatile long remoteMessageCount;
+
+   private volatile float remoteAcknowledgeRate;
+
+   private volatile long backlog;
+
    public RemoteQueueBindingImpl(final long id,
                                  final SimpleString address,
                                  final SimpleString uniqueName,
@@ -112,6 +119,23 @@ public class RemoteQueueBindingImpl implements RemoteQueueBinding
       return storeAndForwardQueue;
    }
 
+   public float getLoad()
+   {
+      return LoadBalancingPolicy.load(remoteMessageCount + backlog, remoteAcknowledgeRate);
+   }
+
+   public void updateLoad(final long messageCount, final float acknowledgeRate)
+   {
+      remoteMessageCount = messageCount;
+
+      remoteAcknowledgeRate = acknowledgeRate;
+   }
+
+   public void updateBacklog(final long backlog)
+   {
+      this.backlog = backlog;
+   }
+
    public SimpleString getRoutingName()
    {
       return routingName;
@@ -1511,7 +1511,8 @@ public class ActiveMQServerImpl implements ActiveMQServer
                                                              executorFactory,
                                                              configuration.isJournalSyncNonTransactional(),
                                                              shutdownOnCriticalIO),
-                                   addressSettingsRepository);
+                                   addressSettingsRepository,
+                                   configuration.getGlobalMaxSize());
    }
 
    /**
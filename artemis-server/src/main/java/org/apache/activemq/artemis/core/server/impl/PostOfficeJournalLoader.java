@@ -377,49 +377,66 @@ public class PostOfficeJournalLoader implements JournalLoader
             if (store.checkPageFileExists(pageId.intValue()))
             {
                // on this case we need to recalculate the records
-               Page pg = store.createPage(pageId.intValue());
-               pg.open();
-
-               List<PagedMessage> pgMessages = pg.read(storageManager);
-               Map<Long, AtomicInteger> countsPerQueueOnPage = new HashMap<Long, AtomicInteger>();
-
-               for (PagedMessage pgd : pgMessages)
-               {
-                  if (pgd.getTransactionID() <= 0)
-                  {
-                     for (long q : pgd.getQueueIDs())
-                     {
-                        AtomicInteger countQ = countsPerQueueOnPage.get(q);
-                        if (countQ == null)
-                        {
-                           countQ = new AtomicInteger(0);
-                           countsPerQueueOnPage.put(q, countQ);
-                        }
-                        countQ.incrementAndGet();
-                     }
-                  }
-               }
+               // the page is only read if messages were paged with pending records
+               Map<Long, AtomicInteger> countsPerQueueOnPage = null;
 
                for (Map.Entry<Long, List<PageCountPending>> entry : perQueue.entrySet())
                {
+                  boolean pendingPaged = false;
+
+                  // the acknowledgements are recounted from the first pending ack record on the page
+                  long firstPendingAck = -1;
+
                   for (PageCountPending record : entry.getValue())
                   {
                      ActiveMQServerLogger.LOGGER.debug("Deleting pg tempCount " + record.getID());
                      storageManager.deletePendingPageCounter(txRecoverCounter.getID(), record.getID());
+                     txRecoverCounter.setContainsPersistent();
+
+                     if (!record.isAck())
+                     {
+                        pendingPaged = true;
+                     }
+                     else if (firstPendingAck < 0 || record.getID() < firstPendingAck)
+                     {
+                        firstPendingAck = record.getID();
+                     }
                   }
 
-                  PageSubscriptionCounter counter = store.getCursorProvider().getSubscription(entry.getKey()).getCounter();
+                  PageSubscription subscription = store.getCursorProvider().getSubscription(entry.getKey());
 
-                  AtomicInteger value = countsPerQueueOnPage.get(entry.getKey());
+                  PageSubscriptionCounter counter = subscription.getCounter();
 
-                  if (value == null)
+                  if (pendingPaged)
                   {
-                     ActiveMQServerLogger.LOGGER.debug("Page " + entry.getKey() + " wasn't open, so we will just ignore");
+                     if (countsPerQueueOnPage == null)
+                     {
+                        countsPerQueueOnPage = countNonTXMessages(store, pageId);
+                     }
+
+                     AtomicInteger value = countsPerQueueOnPage.get(entry.getKey());
+
+                     if (value == null)
+                     {
+                        ActiveMQServerLogger.LOGGER.debug("Page " + entry.getKey() + " wasn't open, so we will just ignore");
+                     }
+                     else
+                     {
+                        ActiveMQServerLogger.LOGGER.debug("Replacing counter " + value.get());
+                        counter.increment(txRecoverCounter, value.get());
+                     }
                   }
-                  else
+
+                  if (firstPendingAck >= 0)
                   {
-                     ActiveMQServerLogger.LOGGER.debug("Replacing counter " + value.get());
-                     counter.increment(txRecoverCounter, value.get());
+                     int acks = subscription.countAcks(pageId, firstPendingAck);
+
+                     ActiveMQServerLogger.LOGGER.debug("Replacing " + acks + " pending acks on page " + pageId);
+
+                     if (acks > 0)
+                     {
+                        counter.increment(txRecoverCounter, -acks);
+                     }
                   }
                }
             }
@@ -449,6 +466,37 @@ public class PostOfficeJournalLoader implements JournalLoader
       queues.clear();
    }
 
+   /**
+    * Counts the non transactional messages on the page for each queue
+    */
+   private Map<Long, AtomicInteger> countNonTXMessages(final PagingStore store, final long pageId) throws Exception
+   {
+      Page pg = store.createPage((int) pageId);
+      pg.open();
+
+      List<PagedMessage> pgMessages = pg.read(storageManager);
+      Map<Long, AtomicInteger> countsPerQueueOnPage = new HashMap<Long, AtomicInteger>();
+
+      for (PagedMessage pgd : pgMessages)
+      {
+         if (pgd.getTransactionID() <= 0)
+         {
+            for (long q : pgd.getQueueIDs())
+            {
+               AtomicInteger countQ = countsPerQueueOnPage.get(q);
+               if (countQ == null)
+               {
+                  countQ = new AtomicInteger(0);
+                  countsPerQueueOnPage.put(q, countQ);
+               }
+               countQ.incrementAndGet();
+            }
+         }
+      }
+
+      return countsPerQueueOnPage;
+   }
+
    /**
     * This generates a map for use on the recalculation and recovery of pending maps after reloading it
     *
@@ -46,8 +46,10 @@ import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.management.CoreNotificationType;
 import org.apache.activemq.artemis.api.core.management.ManagementHelper;
 import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
 import org.apache.activemq.artemis.core.journal.IOAsyncTask;
 import org.apache.activemq.artemis.core.message.impl.MessageImpl;
+import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.paging.cursor.PageSubscription;
 import org.apache.activemq.artemis.core.paging.cursor.PagedReference;
 import org.apache.activemq.artemis.core.persistence.StorageManager;
@@ -97,7 +99,7 @@ public class QueueImpl implements Queue
 {
    private static final boolean isTrace = ActiveMQServerLogger.LOGGER.isTraceEnabled();
 
-   public static final int REDISTRIBUTOR_BATCH_SIZE = 100;
+   public static final int REDISTRIBUTOR_BATCH_SIZE = 500;
 
    public static final int NUM_PRIORITIES = 10;
 
@@ -221,6 +223,13 @@ public class QueueImpl implements Queue
 
    private AtomicLong messagesAddedSnapshot = new AtomicLong(0);
 
+   private AtomicLong redistributionRateCheckTime = new AtomicLong(System.currentTimeMillis());
+
+   private AtomicLong messagesRedistributedSnapshot = new AtomicLong(0);
+
+   // the messages redistributed by the previous redistributors of this queue
+   private long previousMessagesRedistributed;
+
    private ScheduledFuture slowConsumerReaperFuture;
 
    private SlowConsumerReaperRunnable slowConsumerReaperRunnable;
@@ -875,6 +884,7 @@ public class QueueImpl implements Queue
       if (redistributor != null)
       {
          redistributor.stop();
+         previousMessagesRedistributed += redistributor.getMessagesRedistributed();
          Redistributor redistributorToRemove = redistributor;
          redistributor = null;
 
@@ -1257,6 +1267,16 @@ public class QueueImpl implements Queue
       return messagesAcknowledged;
    }
 
+   public synchronized long getMessagesRedistributed()
+   {
+      return previousMessagesRedistributed + (redistributor == null ? 0 : redistributor.getMessagesRedistributed());
+   }
+
+   public synchronized long getRedistributionBacklog()
+   {
+      return redistributor == null ? 0 : getMessageCount();
+   }
+
    public int deleteAllReferences() throws Exception
    {
       return deleteAllReferences(DEFAULT_FLUSH_LIMIT);
@@ -2010,6 +2030,8 @@ public class QueueImpl implements Queue
 
       int handled = 0;
 
+      IndexLookup indexLookup = new IndexLookup();
+
       long timeout = System.currentTimeMillis() + DELIVERY_TIMEOUT;
 
       while (true)
@@ -2129,7 +2151,17 @@ public class QueueImpl implements Queue
                   }
                }
 
-               HandleStatus status = handle(ref, consumer);
+               HandleStatus status;
+
+               if (groupConsumer == null && !holder.mayMatch(ref, indexLookup))
+               {
+                  // the consumer's selector can't match, no need to take the consumer's lock and evaluate it
+                  status = HandleStatus.NO_MATCH;
+               }
+               else
+               {
+                  status = handle(ref, consumer);
+               }
 
                if (status == HandleStatus.HANDLED)
                {
@@ -2226,7 +2258,17 @@ public class QueueImpl implements Queue
     */
    private boolean needsDepage()
    {
-      return queueMemorySize.get() < pageSubscription.getPagingStore().getMaxSize();
+      PagingStore store = pageSubscription.getPagingStore();
+
+      long maxSize = store.getMaxSize();
+
+      if (maxSize <= 0)
+      {
+         // this address may still be paging because of the global-max-size
+         maxSize = store.getGlobalMaxSize();
+      }
+
+      return queueMemorySize.get() < maxSize;
    }
 
 
@@ -2357,7 +2399,9 @@ public class QueueImpl implements Queue
                                            storageManager,
                                            postOffice,
                                            executor,
-                                           QueueImpl.REDISTRIBUTOR_BATCH_SIZE);
+                                           scheduledExecutor,
+                                           QueueImpl.REDISTRIBUTOR_BATCH_SIZE,
+                                           getRedistributionRateLimit());
 
          consumerList.add(new ConsumerHolder(redistributor));
 
@@ -2701,6 +2745,8 @@ public class QueueImpl implements Queue
 
          int size = consumerList.size();
 
+         IndexLookup indexLookup = new IndexLookup();
+
          while (true)
          {
             ConsumerHolder holder = consumerList.get(pos);
@@ -2734,7 +2780,16 @@ public class QueueImpl implements Queue
                pos = 0;
             }
 
-            HandleStatus status = handle(ref, consumer);
+            HandleStatus status;
+
+            if (groupConsumer == null && !holder.mayMatch(ref, indexLookup))
+            {
+               status = HandleStatus.NO_MATCH;
+            }
+            else
+            {
+               status = handle(ref, consumer);
+            }
 
             if (status == HandleStatus.HANDLED)
             {
@@ -2961,6 +3016,28 @@ public class QueueImpl implements Queue
       return BigDecimal.valueOf((messagesAdded - messagesAddedSnapshot.getAndSet(messagesAdded)) / timeSlice).setScale(2, BigDecimal.ROUND_UP).floatValue();
    }
 
+   public float getRedistributionRate()
+   {
+      long redistributed = getMessagesRedistributed();
+      float timeSlice = ((System.currentTimeMillis() - redistributionRateCheckTime.getAndSet(System.currentTimeMillis())) / 1000.0f);
+      if (timeSlice == 0)
+      {
+         messagesRedistributedSnapshot.getAndSet(redistributed);
+         return 0.0f;
+      }
+      return BigDecimal.valueOf((redistributed - messagesRedistributedSnapshot.getAndSet(redistributed)) / timeSlice).setScale(2, BigDecimal.ROUND_UP).floatValue();
+   }
+
+   private int getRedistributionRateLimit()
+   {
+      if (addressSettingsRepository == null)
+      {
+         return AddressSettings.DEFAULT_REDISTRIBUTION_RATE;
+      }
+
+      return addressSettingsRepository.getMatch(address.toString()).getRedistributionRate();
+   }
+
    // Inner classes
    // --------------------------------------------------------------------------
 
@@ -2969,12 +3046,64 @@ public class QueueImpl implements Queue
       ConsumerHolder(final Consumer consumer)
       {
          this.consumer = consumer;
+
+         Filter filter = consumer.getFilter();
+
+         if (filter instanceof FilterImpl)
+         {
+            indexProperty = ((FilterImpl) filter).getIndexProperty();
+            indexValues = ((FilterImpl) filter).getIndexValues();
+         }
+         else
+         {
+            indexProperty = null;
+            indexValues = null;
+         }
       }
 
       final Consumer consumer;
 
+      // the values the consumer's selector requires for a property, when it has such a term
+      // (e.g. "region = 'EU' AND price > 10")
+      final SimpleString indexProperty;
+
+      final Set<SimpleString> indexValues;
+
       LinkedListIterator<MessageReference> iter;
 
+      /**
+       * @return false if the consumer's selector can't match the reference, true if its filter has to be evaluated
+       */
+      boolean mayMatch(final MessageReference ref, final IndexLookup lookup)
+      {
+         return indexProperty == null || indexValues.contains(lookup.getValue(ref, indexProperty));
+      }
+   }
+
+   /**
+    * Remembers the last property read for {@link ConsumerHolder#mayMatch(MessageReference, IndexLookup)}, so a
+    * reference offered to consumers whose selectors test the same property is only looked up once.
+    */
+   private static final class IndexLookup
+   {
+      private MessageReference ref;
+
+      private SimpleString property;
+
+      private Object value;
+
+      Object getValue(final MessageReference ref, final SimpleString property)
+      {
+         if (ref != this.ref || !property.equals(this.property))
+         {
+            this.ref = ref;
+            this.property = property;
+            // string properties are held as SimpleString, the same type as the index values
+            this.value = ref.getMessage().getObjectProperty(property);
+         }
+
+         return value;
+      }
    }
 
    private class DelayedAddRedistributor implements Runnable
@@ -3270,6 +3399,14 @@ public class QueueImpl implements Queue
          AddressSettings settings = addressSettingsRepository.getMatch(address.toString());
          configureExpiry(settings);
          configureSlowConsumerReaper(settings);
+
+         synchronized (QueueImpl.this)
+         {
+            if (redistributor != null)
+            {
+               redistributor.setRate(settings.getRedistributionRate());
+            }
+         }
       }
    }
 
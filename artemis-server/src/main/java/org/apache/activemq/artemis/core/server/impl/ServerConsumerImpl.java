@@ -17,6 +17,7 @@
 package org.apache.activemq.artemis.core.server.impl;
 
 import java.math.BigDecimal;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -257,6 +258,13 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener
       return creationTime;
    }
 
+   public int getCreditsAvailable()
+   {
+      AtomicInteger credits = availableCredits;
+
+      return credits == null ? -1 : credits.get();
+   }
+
    public String getConnectionID()
    {
       return this.session.getConnectionID().toString();
@@ -833,6 +841,85 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener
       acks++;
    }
 
+   public void individualAcknowledge(Transaction tx, final long firstMessageID, final BitSet messageIDs) throws Exception
+   {
+      if (browseOnly)
+      {
+         return;
+      }
+
+      // Like acknowledge, a failure to find one of the references rolls back the whole range
+
+      boolean startedTransaction = false;
+
+      if (tx == null)
+      {
+         startedTransaction = true;
+         tx = new TransactionImpl(storageManager);
+      }
+
+      try
+      {
+         // the bits still set are the messages not found yet
+         BitSet pending = (BitSet) messageIDs.clone();
+
+         Iterator<MessageReference> iter = deliveringRefs.iterator();
+
+         while (iter.hasNext() && !pending.isEmpty())
+         {
+            MessageReference ref = iter.next();
+
+            long offset = ref.getMessage().getMessageID() - firstMessageID;
+
+            if (offset >= 0 && offset < pending.length() && pending.get((int) offset))
+            {
+               iter.remove();
+
+               pending.clear((int) offset);
+
+               ref.getQueue().acknowledge(tx, ref);
+               acks++;
+            }
+         }
+
+         if (!pending.isEmpty())
+         {
+            throw ActiveMQMessageBundle.BUNDLE.consumerNoReference(id, firstMessageID + pending.nextSetBit(0), messageQueue.getName());
+         }
+
+         if (startedTransaction)
+         {
+            tx.commit();
+         }
+      }
+      catch (ActiveMQException e)
+      {
+         if (startedTransaction)
+         {
+            tx.rollback();
+         }
+         else
+         {
+            tx.markAsRollbackOnly(e);
+         }
+         throw e;
+      }
+      catch (Throwable e)
+      {
+         ActiveMQServerLogger.LOGGER.errorAckingMessage((Exception) e);
+         ActiveMQException activeMQIllegalStateException = new ActiveMQIllegalStateException(e.getMessage());
+         if (startedTransaction)
+         {
+            tx.rollback();
+         }
+         else
+         {
+            tx.markAsRollbackOnly(activeMQIllegalStateException);
+         }
+         throw activeMQIllegalStateException;
+      }
+   }
+
    public void individualCancel(final long messageID, boolean failed) throws Exception
    {
       if (browseOnly)
@@ -20,6 +20,7 @@ import javax.transaction.xa.XAException;
 import javax.transaction.xa.Xid;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -824,6 +825,28 @@ public class ServerSessionImpl implements ServerSession, FailureListener
 
    }
 
+   public void individualAcknowledge(final long consumerID, final long firstMessageID, final BitSet messageIDs) throws Exception
+   {
+      ServerConsumer consumer = consumers.get(consumerID);
+
+      if (consumer == null)
+      {
+         throw ActiveMQMessageBundle.BUNDLE.consumerDoesntExist(consumerID);
+      }
+
+      if (tx != null && tx.getState() == State.ROLLEDBACK)
+      {
+         // JBPAPP-8845 - see acknowledge
+         Transaction newTX = newTransaction();
+         consumer.individualAcknowledge(newTX, firstMessageID, messageIDs);
+         newTX.rollback();
+      }
+      else
+      {
+         consumer.individualAcknowledge(autoCommitAcks ? null : tx, firstMessageID, messageIDs);
+      }
+   }
+
    public void individualCancel(final long consumerID, final long messageID, boolean failed) throws Exception
    {
       ServerConsumer consumer = consumers.get(consumerID);
@@ -1466,6 +1489,44 @@ public class ServerSessionImpl implements ServerSession, FailureListener
    }
 
    public void send(final ServerMessage message, final boolean direct) throws Exception
+   {
+      send(message, direct, autoCommitSends ? null : tx);
+   }
+
+   public void send(final List<ServerMessage> messages, final boolean direct) throws Exception
+   {
+      if (!autoCommitSends || messages.size() == 1)
+      {
+         for (ServerMessage message : messages)
+         {
+            send(message, direct);
+         }
+         return;
+      }
+
+      // A single transaction for the whole batch means a single commit record and sync on the journal
+      Transaction batchTx = newTransaction();
+
+      // the sends stay independent, a duplicate is dropped alone instead of rolling back the batch
+      batchTx.putProperty(TransactionPropertyIndexes.BATCHED_DUPLICATE_IDS, new HashSet<Pair<SimpleString, SimpleString>>());
+
+      try
+      {
+         for (ServerMessage message : messages)
+         {
+            send(message, direct, batchTx);
+         }
+      }
+      catch (Exception e)
+      {
+         batchTx.rollback();
+         throw e;
+      }
+
+      batchTx.commit();
+   }
+
+   private void send(final ServerMessage message, final boolean direct, final Transaction sendTx) throws Exception
    {
       //large message may come from StompSession directly, in which
       //case the id header already generated.
@@ -1518,7 +1579,7 @@ public class ServerSessionImpl implements ServerSession, FailureListener
       }
       else
       {
-         doSend(message, direct);
+         doSend(message, direct, sendTx);
       }
    }
 
@@ -1843,6 +1904,11 @@ public class ServerSessionImpl implements ServerSession, FailureListener
    }
 
    protected void doSend(final ServerMessage msg, final boolean direct) throws Exception
+   {
+      doSend(msg, direct, autoCommitSends ? null : tx);
+   }
+
+   private void doSend(final ServerMessage msg, final boolean direct, final Transaction sendTx) throws Exception
    {
       // check the user has write access to this address.
       try
@@ -1851,19 +1917,16 @@ public class ServerSessionImpl implements ServerSession, FailureListener
       }
       catch (ActiveMQException e)
       {
-         if (!autoCommitSends && tx != null)
+         if (sendTx != null)
          {
-            tx.markAsRollbackOnly(e);
+            sendTx.markAsRollbackOnly(e);
          }
          throw e;
       }
 
-      if (tx == null || autoCommitSends)
-      {
-      }
-      else
+      if (sendTx != null)
       {
-         routingContext.setTransaction(tx);
+         routingContext.setTransaction(sendTx);
       }
 
       try
@@ -69,6 +69,10 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    public static final SlowConsumerPolicy DEFAULT_SLOW_CONSUMER_POLICY = SlowConsumerPolicy.NOTIFY;
 
+   public static final boolean DEFAULT_COMPRESS_PAGE_FILES = false;
+
+   public static final int DEFAULT_REDISTRIBUTION_RATE = -1;
+
    private AddressFullMessagePolicy addressFullMessagePolicy = null;
 
    private Long maxSizeBytes = null;
@@ -111,6 +115,10 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    private Boolean autoDeleteJmsQueues = null;
 
+   private Boolean compressPageFiles = null;
+
+   private Integer redistributionRate = null;
+
    public AddressSettings(AddressSettings other)
    {
       this.addressFullMessagePolicy = other.addressFullMessagePolicy;
@@ -134,6 +142,8 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       this.slowConsumerPolicy = other.slowConsumerPolicy;
       this.autoCreateJmsQueues = other.autoCreateJmsQueues;
       this.autoDeleteJmsQueues = other.autoDeleteJmsQueues;
+      this.compressPageFiles = other.compressPageFiles;
+      this.redistributionRate = other.redistributionRate;
    }
 
    public AddressSettings()
@@ -192,6 +202,16 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       pageSizeBytes = pageSize;
    }
 
+   public boolean isCompressPageFiles()
+   {
+      return compressPageFiles != null ? compressPageFiles : AddressSettings.DEFAULT_COMPRESS_PAGE_FILES;
+   }
+
+   public void setCompressPageFiles(final boolean compressPageFiles)
+   {
+      this.compressPageFiles = compressPageFiles;
+   }
+
    public int getPageCacheMaxSize()
    {
       return pageMaxCache != null ? pageMaxCache : AddressSettings.DEFAULT_PAGE_MAX_CACHE;
@@ -315,6 +335,16 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       this.redistributionDelay = redistributionDelay;
    }
 
+   public int getRedistributionRate()
+   {
+      return redistributionRate != null ? redistributionRate : AddressSettings.DEFAULT_REDISTRIBUTION_RATE;
+   }
+
+   public void setRedistributionRate(final int redistributionRate)
+   {
+      this.redistributionRate = redistributionRate;
+   }
+
    public long getSlowConsumerThreshold()
    {
       return slowConsumerThreshold != null ? slowConsumerThreshold : AddressSettings.DEFAULT_SLOW_CONSUMER_THRESHOLD;
@@ -433,6 +463,14 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       {
          autoDeleteJmsQueues = merged.autoDeleteJmsQueues;
       }
+      if (compressPageFiles == null)
+      {
+         compressPageFiles = merged.compressPageFiles;
+      }
+      if (redistributionRate == null)
+      {
+         redistributionRate = merged.redistributionRate;
+      }
    }
 
    @Override
@@ -497,6 +535,17 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       autoCreateJmsQueues = BufferHelper.readNullableBoolean(buffer);
 
       autoDeleteJmsQueues = BufferHelper.readNullableBoolean(buffer);
+
+      // settings persisted by older versions won't have the following attributes
+      if (buffer.readable())
+      {
+         compressPageFiles = BufferHelper.readNullableBoolean(buffer);
+      }
+
+      if (buffer.readable())
+      {
+         redistributionRate = BufferHelper.readNullableInteger(buffer);
+      }
    }
 
    @Override
@@ -523,7 +572,9 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
          BufferHelper.sizeOfNullableLong(slowConsumerThreshold) +
          BufferHelper.sizeOfNullableSimpleString(slowConsumerPolicy != null ? slowConsumerPolicy.toString() : null) +
          BufferHelper.sizeOfNullableBoolean(autoCreateJmsQueues) +
-         BufferHelper.sizeOfNullableBoolean(autoDeleteJmsQueues);
+         BufferHelper.sizeOfNullableBoolean(autoDeleteJmsQueues) +
+         BufferHelper.sizeOfNullableBoolean(compressPageFiles) +
+         BufferHelper.sizeOfNullableInteger(redistributionRate);
    }
 
    @Override
@@ -571,6 +622,10 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       BufferHelper.writeNullableBoolean(buffer, autoCreateJmsQueues);
 
       BufferHelper.writeNullableBoolean(buffer, autoDeleteJmsQueues);
+
+      BufferHelper.writeNullableBoolean(buffer, compressPageFiles);
+
+      BufferHelper.writeNullableInteger(buffer, redistributionRate);
    }
 
    /* (non-Javadoc)
@@ -603,6 +658,8 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       result = prime * result + ((slowConsumerPolicy == null) ? 0 : slowConsumerPolicy.hashCode());
       result = prime * result + ((autoCreateJmsQueues == null) ? 0 : autoCreateJmsQueues.hashCode());
       result = prime * result + ((autoDeleteJmsQueues == null) ? 0 : autoDeleteJmsQueues.hashCode());
+      result = prime * result + ((compressPageFiles == null) ? 0 : compressPageFiles.hashCode());
+      result = prime * result + ((redistributionRate == null) ? 0 : redistributionRate.hashCode());
       return result;
    }
 
@@ -766,6 +823,20 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       }
       else if (!autoDeleteJmsQueues.equals(other.autoDeleteJmsQueues))
          return false;
+      if (compressPageFiles == null)
+      {
+         if (other.compressPageFiles != null)
+            return false;
+      }
+      else if (!compressPageFiles.equals(other.compressPageFiles))
+         return false;
+      if (redistributionRate == null)
+      {
+         if (other.redistributionRate != null)
+            return false;
+      }
+      else if (!redistributionRate.equals(other.redistributionRate))
+         return false;
       return true;
    }
 
@@ -816,6 +887,10 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
          autoCreateJmsQueues +
          ", autoDeleteJmsQueues=" +
          autoDeleteJmsQueues +
+         ", compressPageFiles=" +
+         compressPageFiles +
+         ", redistributionRate=" +
+         redistributionRate +
          "]";
    }
 }
@@ -23,9 +23,9 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -40,6 +40,10 @@ import org.apache.activemq.artemis.core.settings.Mergeable;
  */
 public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T>
 {
+   /**
+    * the characters, other than the wildcards, a match could use as a regular expression
+    */
+   private static final String REGEX_CHARS = "\\^$|?+()[]{}";
 
    private boolean listenersEnabled = true;
    /**
@@ -52,6 +56,11 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
     */
    private final Map<String, Match<T>> matches = new HashMap<String, Match<T>>();
 
+   /**
+    * the same matches, indexed by the literal words they start with so a lookup only tests the matches that can apply
+    */
+   private final MatchNode<T> matchTree = new MatchNode<T>();
+
    /**
     * Certain values cannot be removed after installed.
     * This is because we read a few records from the main config.
@@ -159,8 +168,6 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
       lock.writeLock().lock();
       try
       {
-         clearCache();
-
          if (immutableMatch)
          {
             immutables.add(match);
@@ -168,7 +175,13 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
          Match.verify(match);
          Match<T> match1 = new Match<T>(match);
          match1.setValue(value);
-         matches.put(match, match1);
+         Match<T> previous = matches.put(match, match1);
+         if (previous != null)
+         {
+            unindex(previous);
+         }
+         index(match1);
+         invalidateCache(match1);
       }
       finally
       {
@@ -279,11 +292,14 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
          else
          {
             /**
-             * clear the cache before removing the match. This will force any thread at
-             * {@link #getMatch(String)} to get the lock to recompute.
+             * any thread at {@link #getMatch(String)} has to get the lock to recompute the entries we invalidate here.
              */
-            clearCache();
-            matches.remove(match);
+            Match<T> removed = matches.remove(match);
+            if (removed != null)
+            {
+               unindex(removed);
+               invalidateCache(removed);
+            }
             onChange();
          }
       }
@@ -342,6 +358,8 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
          clearCache();
          listeners.clear();
          matches.clear();
+         matchTree.children.clear();
+         matchTree.matches.clear();
       }
       finally
       {
@@ -394,17 +412,147 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
    {
       HashMap<String, Match<T>> possibleMatches = new HashMap<String, Match<T>>();
 
-      for (Entry<String, Match<T>> entry : matches.entrySet())
+      // only the matches indexed along the words of the address can apply
+      MatchNode<T> node = matchTree;
+      int start = 0;
+      while (node != null)
       {
-         Match<T> entryMatch = entry.getValue();
-         if (entryMatch.getPattern().matcher(match).matches())
+         for (Match<T> entryMatch : node.matches)
          {
-            possibleMatches.put(entry.getKey(), entryMatch);
+            if (entryMatch.getPattern().matcher(match).matches())
+            {
+               possibleMatches.put(entryMatch.getMatch(), entryMatch);
+            }
          }
+
+         int end = match.indexOf('.', start);
+         if (end < 0 || node.children.isEmpty())
+         {
+            break;
+         }
+         node = node.children.get(match.substring(start, end));
+         start = end + 1;
       }
       return possibleMatches;
    }
 
+   private void index(final Match<T> match)
+   {
+      MatchNode<T> node = matchTree;
+      for (String word : getLiteralWords(match.getMatch()))
+      {
+         MatchNode<T> child = node.children.get(word);
+         if (child == null)
+         {
+            child = new MatchNode<T>();
+            node.children.put(word, child);
+         }
+         node = child;
+      }
+      node.matches.add(match);
+   }
+
+   private void unindex(final Match<T> match)
+   {
+      List<String> words = getLiteralWords(match.getMatch());
+      List<MatchNode<T>> path = new ArrayList<MatchNode<T>>(words.size() + 1);
+      MatchNode<T> node = matchTree;
+      path.add(node);
+      for (String word : words)
+      {
+         node = node.children.get(word);
+         if (node == null)
+         {
+            return;
+         }
+         path.add(node);
+      }
+      node.matches.remove(match);
+
+      // prune the nodes left without matches
+      for (int i = words.size(); i > 0; i--)
+      {
+         MatchNode<T> child = path.get(i);
+         if (!child.matches.isEmpty() || !child.children.isEmpty())
+         {
+            break;
+         }
+         path.get(i - 1).children.remove(words.get(i - 1));
+      }
+   }
+
+   /**
+    * Removes the cached values of the addresses the match applies to, the others resolve to the same value as before.
+    */
+   private void invalidateCache(final Match<T> match)
+   {
+      String prefix = getLiteralPrefix(match.getMatch());
+      for (Iterator<String> iterator = cache.keySet().iterator(); iterator.hasNext(); )
+      {
+         String address = iterator.next();
+         if (address.startsWith(prefix) && match.getPattern().matcher(address).matches())
+         {
+            iterator.remove();
+         }
+      }
+   }
+
+   /**
+    * @return the words any address the match applies to starts with, each followed by a '.'
+    */
+   private static List<String> getLiteralWords(final String match)
+   {
+      List<String> words = new ArrayList<String>();
+
+      // any other regular expression (e.g. an alternation) could match anything
+      for (int i = 0; i < match.length(); i++)
+      {
+         if (REGEX_CHARS.indexOf(match.charAt(i)) >= 0)
+         {
+            return words;
+         }
+      }
+
+      int start = 0;
+      int end;
+      while ((end = match.indexOf('.', start)) >= 0)
+      {
+         String word = match.substring(start, end);
+         if (word.contains(Match.WORD_WILDCARD) || word.contains(Match.WILDCARD))
+         {
+            break;
+         }
+         // 'a.#' and 'a.#.c' also match 'ab' and 'ab.c', the word before a '.#' isn't literal
+         if (match.startsWith(Match.DOT_WILDCARD, end))
+         {
+            break;
+         }
+         words.add(word);
+         start = end + 1;
+      }
+      return words;
+   }
+
+   private static String getLiteralPrefix(final String match)
+   {
+      StringBuilder prefix = new StringBuilder();
+      for (String word : getLiteralWords(match))
+      {
+         prefix.append(word).append('.');
+      }
+      return prefix.toString();
+   }
+
+   /**
+    * A node of the tree of matches, keyed by the literal words the matches start with.
+    */
+   private static final class MatchNode<T>
+   {
+      final Map<String, MatchNode<T>> children = new HashMap<String, MatchNode<T>>();
+
+      final List<Match<T>> matches = new ArrayList<Match<T>>();
+   }
+
    /**
     * Compares to matches to see which one is more specific.
     */
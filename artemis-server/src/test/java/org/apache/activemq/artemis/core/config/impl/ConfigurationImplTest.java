@@ -98,6 +98,8 @@ public class ConfigurationImplTest extends UnitTestCase
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultServerDumpInterval(), conf.getServerDumpInterval());
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultMemoryWarningThreshold(), conf.getMemoryWarningThreshold());
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultMemoryMeasureInterval(), conf.getMemoryMeasureInterval());
+      Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultGlobalMaxSize(), conf.getGlobalMaxSize());
+      Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultMaxInflatedBatchSize(), conf.getMaxInflatedBatchSize());
    }
 
    @Test
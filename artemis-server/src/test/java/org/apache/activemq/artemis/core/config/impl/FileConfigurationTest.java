@@ -38,6 +38,7 @@ import org.apache.activemq.artemis.core.config.HAPolicyConfiguration;
 import org.apache.activemq.artemis.core.config.ha.LiveOnlyPolicyConfiguration;
 import org.apache.activemq.artemis.core.security.Role;
 import org.apache.activemq.artemis.core.server.JournalType;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 import org.apache.activemq.artemis.core.settings.impl.SlowConsumerPolicy;
 import org.junit.Assert;
 import org.junit.Test;
@@ -100,6 +101,8 @@ public class FileConfigurationTest extends ConfigurationImplTest
 
       Assert.assertEquals("largemessagesdir", conf.getLargeMessagesDirectory());
       Assert.assertEquals(95, conf.getMemoryWarningThreshold());
+      Assert.assertEquals(1234567, conf.getGlobalMaxSize());
+      Assert.assertEquals(7654321, conf.getMaxInflatedBatchSize());
 
       Assert.assertEquals(2, conf.getIncomingInterceptorClassNames().size());
       Assert.assertTrue(conf.getIncomingInterceptorClassNames()
@@ -221,6 +224,8 @@ public class FileConfigurationTest extends ConfigurationImplTest
             assertEquals("max retry interval", 10002, bc.getMaxRetryInterval());
             Assert.assertEquals(2, bc.getReconnectAttempts());
             Assert.assertEquals(true, bc.isUseDuplicateDetection());
+            Assert.assertEquals(4, bc.getStreams());
+            Assert.assertEquals(true, bc.isCompressBatches());
             Assert.assertEquals("connector1", bc.getStaticConnectors().get(0));
             Assert.assertEquals(null, bc.getDiscoveryGroupName());
          }
@@ -233,6 +238,8 @@ public class FileConfigurationTest extends ConfigurationImplTest
             Assert.assertEquals(null, bc.getTransformerClassName());
             Assert.assertEquals(null, bc.getStaticConnectors());
             Assert.assertEquals("dg1", bc.getDiscoveryGroupName());
+            Assert.assertEquals(1, bc.getStreams());
+            Assert.assertEquals(false, bc.isCompressBatches());
          }
       }
 
@@ -258,6 +265,9 @@ public class FileConfigurationTest extends ConfigurationImplTest
             Assert.assertEquals(3, ccc.getRetryInterval());
             Assert.assertEquals(true, ccc.isDuplicateDetection());
             Assert.assertEquals(false, ccc.isForwardWhenNoConsumers());
+            Assert.assertEquals(LoadBalancingPolicy.ROUND_ROBIN, ccc.getLoadBalancingPolicy());
+            Assert.assertEquals(1, ccc.getBridgeStreams());
+            Assert.assertEquals(false, ccc.isBridgeCompressBatches());
             Assert.assertEquals(1, ccc.getMaxHops());
             Assert.assertEquals(123, ccc.getCallTimeout());
             Assert.assertEquals(123, ccc.getCallFailoverTimeout());
@@ -277,6 +287,9 @@ public class FileConfigurationTest extends ConfigurationImplTest
             Assert.assertEquals(456, ccc.getCallFailoverTimeout());
             Assert.assertEquals(false, ccc.isDuplicateDetection());
             Assert.assertEquals(true, ccc.isForwardWhenNoConsumers());
+            Assert.assertEquals(LoadBalancingPolicy.LEAST_LOADED, ccc.getLoadBalancingPolicy());
+            Assert.assertEquals(8, ccc.getBridgeStreams());
+            Assert.assertEquals(true, ccc.isBridgeCompressBatches());
             Assert.assertEquals(2, ccc.getMaxHops());
             Assert.assertEquals(Collections.emptyList(), ccc.getStaticConnectors());
             Assert.assertEquals("dg1", ccc.getDiscoveryGroupName());
@@ -301,6 +314,8 @@ public class FileConfigurationTest extends ConfigurationImplTest
       assertEquals(SlowConsumerPolicy.NOTIFY, conf.getAddressesSettings().get("a1").getSlowConsumerPolicy());
       assertEquals(true, conf.getAddressesSettings().get("a1").isAutoCreateJmsQueues());
       assertEquals(true, conf.getAddressesSettings().get("a1").isAutoDeleteJmsQueues());
+      assertEquals(true, conf.getAddressesSettings().get("a1").isCompressPageFiles());
+      assertEquals(500, conf.getAddressesSettings().get("a1").getRedistributionRate());
 
       assertEquals("a2.1", conf.getAddressesSettings().get("a2").getDeadLetterAddress().toString());
       assertEquals("a2.2", conf.getAddressesSettings().get("a2").getExpiryAddress().toString());
@@ -314,6 +329,8 @@ public class FileConfigurationTest extends ConfigurationImplTest
       assertEquals(SlowConsumerPolicy.KILL, conf.getAddressesSettings().get("a2").getSlowConsumerPolicy());
       assertEquals(false, conf.getAddressesSettings().get("a2").isAutoCreateJmsQueues());
       assertEquals(false, conf.getAddressesSettings().get("a2").isAutoDeleteJmsQueues());
+      assertEquals(false, conf.getAddressesSettings().get("a2").isCompressPageFiles());
+      assertEquals(-1, conf.getAddressesSettings().get("a2").getRedistributionRate());
 
 
       assertEquals(2, conf.getQueueConfigurations().size());
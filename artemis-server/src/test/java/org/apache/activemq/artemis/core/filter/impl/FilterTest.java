@@ -22,6 +22,8 @@ import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.filter.Filter;
 import org.apache.activemq.artemis.core.server.ServerMessage;
 import org.apache.activemq.artemis.core.server.impl.ServerMessageImpl;
+import org.apache.activemq.artemis.selector.filter.BooleanExpression;
+import org.apache.activemq.artemis.selector.impl.SelectorParser;
 import org.apache.activemq.artemis.tests.util.RandomUtil;
 import org.apache.activemq.artemis.tests.util.SilentTestCase;
 import org.junit.Assert;
@@ -695,6 +697,83 @@ public class FilterTest extends SilentTestCase
       Assert.assertTrue(filter.match(message));
    }
 
+   @Test
+   public void testFilterIsShared() throws Exception
+   {
+      Filter filter1 = FilterImpl.createFilter(new SimpleString("color = 'RED' AND weight > 10"));
+      Filter filter2 = FilterImpl.createFilter("color = 'RED' AND weight > 10");
+
+      Assert.assertSame(filter1, filter2);
+   }
+
+   @Test
+   public void testNumericWidening() throws Exception
+   {
+      message.putByteProperty(new SimpleString("b"), (byte) 3);
+      message.putFloatProperty(new SimpleString("f"), 2.5f);
+      message.putLongProperty(new SimpleString("l"), 10000000000L);
+
+      Assert.assertTrue(FilterImpl.createFilter("b = 3").match(message));
+      Assert.assertTrue(FilterImpl.createFilter("b < 3.5").match(message));
+      Assert.assertTrue(FilterImpl.createFilter("f > 2").match(message));
+      Assert.assertTrue(FilterImpl.createFilter("f = 2.5").match(message));
+      Assert.assertTrue(FilterImpl.createFilter("l > 9999999999").match(message));
+      Assert.assertTrue(FilterImpl.createFilter("l > -1").match(message));
+      Assert.assertFalse(FilterImpl.createFilter("l = 10").match(message));
+   }
+
+   @Test
+   public void testCompiledMatchesInterpreted() throws Exception
+   {
+      String[] selectors = new String[]{"i = 5", "i > 4", "i >= 5.0", "i < -1", "i <> 5", "NOT (i > 4)",
+         "l = 5", "l > 4.5", "s = 5", "b <= 5", "f > 5", "f = 5.5", "d = 5", "d > 4.9",
+         "str = 'red'", "str <> 'red'", "str IN ('red', 'green')", "str NOT IN ('red', 'green')",
+         "str LIKE 're%'", "str NOT LIKE 're%'", "flag", "NOT flag", "flag = true", "flag = false",
+         "missing IS NULL", "str IS NOT NULL", "missing > 3", "NOT (missing > 3)",
+         "NOT (missing > 3 AND i = 5)", "NOT (i = 5 AND missing > 3)", "NOT (missing > 3 OR i = 5)",
+         "NOT (i = 6 OR missing > 3)", "i BETWEEN 4 AND 6", "i NOT BETWEEN 4 AND 6", "AMQPriority > 5",
+         "AMQPriority = 4 AND str = 'red'", "AMQDurable = 'DURABLE'", "i + 1 = 6", "i = l",
+         "(str = 'red' OR str = 'blue') AND (i > 1 OR missing = 3)", "TRUE", "FALSE",
+         "i = 5 OR NOT (missing = 1)", "NOT (NOT (missing = 1) AND str LIKE 'bl_e')"};
+
+      ServerMessage[] messages = new ServerMessage[3];
+
+      messages[0] = new ServerMessageImpl(1, 1000);
+
+      messages[1] = new ServerMessageImpl(2, 1000);
+      messages[1].putIntProperty(new SimpleString("i"), 5);
+      messages[1].putLongProperty(new SimpleString("l"), 5L);
+      messages[1].putShortProperty(new SimpleString("s"), (short) 5);
+      messages[1].putByteProperty(new SimpleString("b"), (byte) 5);
+      messages[1].putFloatProperty(new SimpleString("f"), 5.5f);
+      messages[1].putDoubleProperty(new SimpleString("d"), 5.0);
+      messages[1].putStringProperty(new SimpleString("str"), new SimpleString("red"));
+      messages[1].putBooleanProperty(new SimpleString("flag"), true);
+      messages[1].setPriority((byte) 4);
+
+      messages[2] = new ServerMessageImpl(3, 1000);
+      messages[2].putStringProperty(new SimpleString("i"), new SimpleString("5"));
+      messages[2].putLongProperty(new SimpleString("l"), -10000000000L);
+      messages[2].putDoubleProperty(new SimpleString("d"), Double.NaN);
+      messages[2].putStringProperty(new SimpleString("str"), new SimpleString("blue"));
+      messages[2].putIntProperty(new SimpleString("flag"), 1);
+      messages[2].setPriority((byte) 9);
+      messages[2].setDurable(true);
+
+      for (String selector : selectors)
+      {
+         Filter compiled = FilterImpl.createFilter(selector);
+         BooleanExpression interpreted = SelectorParser.parse(selector);
+
+         for (int i = 0; i < messages.length; i++)
+         {
+            Assert.assertEquals(selector + " on message " + i,
+                                interpreted.matches(new FilterableServerMessage(messages[i])),
+                                compiled.match(messages[i]));
+         }
+      }
+   }
+
 // TODO: re-implement this.
 //
 //   @Test
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.list;
+
+import org.apache.activemq.artemis.utils.SpscPriorityBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class SpscPriorityBufferTest extends Assert
+{
+   @Test
+   public void testSinglePriorityOrder()
+   {
+      SpscPriorityBuffer<Integer> buffer = new SpscPriorityBuffer<Integer>(10);
+
+      assertNull(buffer.poll());
+      assertTrue(buffer.isEmpty());
+
+      // enough to go over a few segments
+      for (int i = 0; i < 5000; i++)
+      {
+         buffer.addTail(i, 4);
+      }
+
+      assertEquals(5000, buffer.size());
+
+      for (int i = 0; i < 5000; i++)
+      {
+         assertEquals(Integer.valueOf(i), buffer.poll());
+      }
+
+      assertNull(buffer.poll());
+      assertEquals(0, buffer.size());
+   }
+
+   @Test
+   public void testHighestPriorityFirst()
+   {
+      SpscPriorityBuffer<String> buffer = new SpscPriorityBuffer<String>(10);
+
+      buffer.addTail("a", 4);
+      buffer.addTail("b", 4);
+      buffer.addTail("c", 9);
+      buffer.addTail("d", 0);
+      buffer.addTail("e", 9);
+
+      assertEquals(5, buffer.size());
+      assertEquals("c", buffer.poll());
+      assertEquals("e", buffer.poll());
+      assertEquals("a", buffer.poll());
+      assertEquals("b", buffer.poll());
+      assertEquals("d", buffer.poll());
+      assertNull(buffer.poll());
+   }
+
+   @Test
+   public void testClear()
+   {
+      SpscPriorityBuffer<Integer> buffer = new SpscPriorityBuffer<Integer>(10);
+
+      for (int i = 0; i < 3000; i++)
+      {
+         buffer.addTail(i, i % 10);
+      }
+
+      buffer.clear();
+
+      assertTrue(buffer.isEmpty());
+      assertNull(buffer.poll());
+
+      buffer.addTail(1, 3);
+      assertEquals(Integer.valueOf(1), buffer.poll());
+   }
+
+   @Test
+   public void testConcurrentProducerConsumer() throws Exception
+   {
+      final SpscPriorityBuffer<Integer> buffer = new SpscPriorityBuffer<Integer>(10);
+      final int numberOfElements = 1000000;
+
+      Thread producer = new Thread()
+      {
+         @Override
+         public void run()
+         {
+            for (int i = 0; i < numberOfElements; i++)
+            {
+               buffer.addTail(i, 4);
+            }
+         }
+      };
+
+      producer.start();
+
+      int expected = 0;
+      long timeout = System.currentTimeMillis() + 30000;
+      while (expected < numberOfElements && System.currentTimeMillis() < timeout)
+      {
+         Integer value = buffer.poll();
+         if (value != null)
+         {
+            assertEquals(expected++, value.intValue());
+         }
+      }
+
+      producer.join();
+
+      assertEquals(numberOfElements, expected);
+      assertNull(buffer.poll());
+   }
+}
@@ -1237,6 +1237,18 @@ public class ScheduledDeliveryHandlerTest extends Assert
          return 0;
       }
 
+      @Override
+      public long getMessagesRedistributed()
+      {
+         return 0;
+      }
+
+      @Override
+      public long getRedistributionBacklog()
+      {
+         return 0;
+      }
+
       @Override
       public MessageReference removeReferenceWithID(long id) throws Exception
       {
@@ -1512,5 +1524,11 @@ public class ScheduledDeliveryHandlerTest extends Assert
       {
          return 0.0f;
       }
+
+      @Override
+      public float getRedistributionRate()
+      {
+         return 0.0f;
+      }
    }
 }
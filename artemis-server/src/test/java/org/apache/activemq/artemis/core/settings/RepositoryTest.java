@@ -179,6 +179,55 @@ public class RepositoryTest extends UnitTestCase
    }
 
 
+   @Test
+   public void testChangeOnlyInvalidatesMatchingAddresses()
+   {
+      HierarchicalRepository<String> repository = new HierarchicalObjectRepository<String>();
+      repository.addMatch("#", "root");
+      repository.addMatch("a.#", "a");
+      repository.addMatch("b.#", "b");
+
+      Assert.assertEquals("a", repository.getMatch("a.x"));
+      Assert.assertEquals("a", repository.getMatch("a.y"));
+      Assert.assertEquals("b", repository.getMatch("b.x"));
+      Assert.assertEquals(3, repository.getCacheSize());
+
+      repository.addMatch("a.x", "ax");
+      Assert.assertEquals(2, repository.getCacheSize());
+      Assert.assertEquals("ax", repository.getMatch("a.x"));
+      Assert.assertEquals("a", repository.getMatch("a.y"));
+
+      repository.addMatch("*.y", "y");
+      Assert.assertEquals(2, repository.getCacheSize());
+      Assert.assertEquals("y", repository.getMatch("a.y"));
+
+      repository.removeMatch("a.x");
+      Assert.assertEquals("a", repository.getMatch("a.x"));
+      Assert.assertEquals("b", repository.getMatch("b.x"));
+
+      repository.removeMatch("#");
+      Assert.assertEquals(0, repository.getCacheSize());
+      Assert.assertNull(repository.getMatch("c"));
+   }
+
+   @Test
+   public void testMatchesNotStartingWithTheirWords()
+   {
+      HierarchicalRepository<String> repository = new HierarchicalObjectRepository<String>();
+      repository.addMatch("a.b.#", "ab");
+      repository.addMatch("c.#.d", "cd");
+      repository.addMatch("x.y|z.w", "alternation");
+
+      // the '.#' collapses into the '#', the match also applies to the addresses the last word is a prefix of
+      Assert.assertEquals("ab", repository.getMatch("a.bc"));
+      Assert.assertEquals("ab", repository.getMatch("a.b.c"));
+      Assert.assertNull(repository.getMatch("a.c"));
+      // even when the '.#' isn't at the end
+      Assert.assertEquals("cd", repository.getMatch("cb.d"));
+      Assert.assertEquals("cd", repository.getMatch("c.b.d"));
+      Assert.assertEquals("alternation", repository.getMatch("z.w"));
+   }
+
    @Test
    public void testAddListener()
    {
@@ -27,6 +27,7 @@ import org.apache.activemq.artemis.api.core.ActiveMQPropertyConversionException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
 import org.apache.activemq.artemis.api.core.client.ClientMessage;
 import org.apache.activemq.artemis.api.core.client.ClientProducer;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
@@ -359,6 +360,12 @@ public class AcknowledgeTest extends ServiceTestBase
          return null;
       }
 
+      @Override
+      public ClientFuture<ClientMessage> receiveAsync() throws ActiveMQException
+      {
+         return null;
+      }
+
       @Override
       public MessageHandler getMessageHandler() throws ActiveMQException
       {
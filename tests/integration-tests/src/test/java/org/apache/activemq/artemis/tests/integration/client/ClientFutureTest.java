@@ -0,0 +1,403 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.activemq.artemis.api.core.ActiveMQConnectionTimedOutException;
+import org.apache.activemq.artemis.api.core.ActiveMQDuplicateIdException;
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.ActiveMQNonExistentQueueException;
+import org.apache.activemq.artemis.api.core.ActiveMQNotConnectedException;
+import org.apache.activemq.artemis.api.core.Interceptor;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
+import org.apache.activemq.artemis.api.core.client.ClientFutureListener;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.client.impl.ClientSessionInternal;
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.server.ServerSession;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.tests.util.ServiceTestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClientFutureTest extends ServiceTestBase
+{
+   private final SimpleString address = new SimpleString("address");
+
+   private final SimpleString queueName = new SimpleString("queue");
+
+   private ActiveMQServer server;
+
+   private ClientSessionFactory sf;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      server = createServer(true);
+      server.start();
+
+      ServerLocator locator = createInVMNonHALocator();
+      locator.setConfirmationWindowSize(1024 * 1024);
+      sf = createSessionFactory(locator);
+   }
+
+   @Test
+   public void testSendAsync() throws Exception
+   {
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(address, queueName, true);
+
+      ClientProducer producer = session.createProducer(address);
+
+      final int numMessages = 1000;
+      final CountDownLatch latch = new CountDownLatch(numMessages);
+      List<ClientFuture<Message>> futures = new ArrayList<ClientFuture<Message>>();
+
+      for (int i = 0; i < numMessages; i++)
+      {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty("i", i);
+         ClientFuture<Message> future = producer.sendAsync(message);
+         future.addListener(new ClientFutureListener<Message>()
+         {
+            public void onSuccess(Message result)
+            {
+               latch.countDown();
+            }
+
+            public void onFailure(Throwable cause)
+            {
+            }
+         });
+         futures.add(future);
+      }
+
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+      for (int i = 0; i < numMessages; i++)
+      {
+         assertEquals(i, futures.get(i).get().getIntProperty("i").intValue());
+      }
+
+      assertEquals(numMessages, getMessageCount(server.locateQueue(queueName)));
+   }
+
+   @Test
+   public void testCommitAsync() throws Exception
+   {
+      ClientSession session = addClientSession(sf.createSession(false, false, false));
+      session.createQueue(address, queueName, true);
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < 10; i++)
+      {
+         producer.send(session.createMessage(true));
+      }
+
+      ClientFuture<Void> commit = session.commitAsync();
+
+      // a blocking call right after must not take the commit's response
+      session.createQueue(address, new SimpleString("other"), true);
+
+      assertNull(commit.get(5, TimeUnit.SECONDS));
+      assertTrue(commit.isDone());
+      assertEquals(10, getMessageCount(server.locateQueue(queueName)));
+   }
+
+   @Test
+   public void testCommitAsyncFailure() throws Exception
+   {
+      ClientSession session = addClientSession(sf.createSession(false, false, false));
+      session.createQueue(address, queueName, true);
+
+      ClientProducer producer = session.createProducer(address);
+      ClientMessage message = session.createMessage(true);
+      message.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("dup"));
+      producer.send(message);
+      session.commitAsync().get(5, TimeUnit.SECONDS);
+
+      message = session.createMessage(true);
+      message.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("dup"));
+      producer.send(message);
+
+      try
+      {
+         session.commitAsync().get(5, TimeUnit.SECONDS);
+         fail("commit should fail on the duplicate");
+      }
+      catch (ExecutionException e)
+      {
+         assertTrue(e.getCause() instanceof ActiveMQDuplicateIdException);
+      }
+
+      assertEquals(1, getMessageCount(server.locateQueue(queueName)));
+   }
+
+   @Test
+   public void testReceiveAsync() throws Exception
+   {
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(address, queueName, true);
+
+      ClientConsumer consumer = session.createConsumer(queueName);
+      session.start();
+
+      ClientFuture<ClientMessage> first = consumer.receiveAsync();
+      ClientFuture<ClientMessage> second = consumer.receiveAsync();
+      assertFalse(first.isDone());
+
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < 3; i++)
+      {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty("i", i);
+         producer.send(message);
+      }
+
+      assertEquals(0, first.get(5, TimeUnit.SECONDS).getIntProperty("i").intValue());
+      assertEquals(1, second.get(5, TimeUnit.SECONDS).getIntProperty("i").intValue());
+
+      // already buffered
+      ClientMessage third = consumer.receiveAsync().get(5, TimeUnit.SECONDS);
+      assertEquals(2, third.getIntProperty("i").intValue());
+
+      third.acknowledgeAsync().get(5, TimeUnit.SECONDS);
+
+      Queue queue = server.locateQueue(queueName);
+      assertEquals(0, getMessageCount(queue));
+      assertEquals(0, queue.getDeliveringCount());
+
+      ClientFuture<ClientMessage> pending = consumer.receiveAsync();
+      consumer.close();
+
+      try
+      {
+         pending.get(5, TimeUnit.SECONDS);
+         fail("closing the consumer should fail the pending receive");
+      }
+      catch (ExecutionException e)
+      {
+         assertTrue(e.getCause() instanceof ActiveMQException);
+      }
+   }
+
+   @Test
+   public void testCreateConsumerAsync() throws Exception
+   {
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+
+      final int numQueues = 50;
+      List<ClientFuture<ClientConsumer>> futures = new ArrayList<ClientFuture<ClientConsumer>>();
+      for (int i = 0; i < numQueues; i++)
+      {
+         session.createQueue(address, queueName.concat("." + i), false);
+         futures.add(session.createConsumerAsync(queueName.concat("." + i), null, false));
+      }
+
+      ClientProducer producer = session.createProducer(address);
+      producer.send(session.createMessage(false));
+      session.start();
+
+      for (ClientFuture<ClientConsumer> future : futures)
+      {
+         ClientMessage message = future.get(5, TimeUnit.SECONDS).receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+
+      for (int i = 0; i < numQueues; i++)
+      {
+         assertEquals(1, server.locateQueue(queueName.concat("." + i)).getConsumerCount());
+      }
+   }
+
+   @Test
+   public void testMetadataAppliedBeforeNextBlockingCall() throws Exception
+   {
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+
+      for (int i = 0; i < 100; i++)
+      {
+         session.addMetaData("key" + i, "value" + i);
+      }
+
+      // nothing waits on the metadata, but the server answers the blocking call after applying it
+      session.createQueue(address, queueName, false);
+
+      ServerSession serverSession = server.getSessionByID(((ClientSessionInternal) session).getName());
+      assertNotNull(serverSession);
+
+      for (int i = 0; i < 100; i++)
+      {
+         assertEquals("value" + i, serverSession.getMetaData("key" + i));
+      }
+   }
+
+   @Test
+   public void testCreateConsumerAsyncFailure() throws Exception
+   {
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+
+      try
+      {
+         session.createConsumerAsync(new SimpleString("doesNotExist"), null, false).get(5, TimeUnit.SECONDS);
+         fail("the queue doesn't exist");
+      }
+      catch (ExecutionException e)
+      {
+         assertTrue(e.getCause() instanceof ActiveMQNonExistentQueueException);
+      }
+
+      // the session is still usable
+      session.createQueue(address, queueName, false);
+      assertNotNull(session.createConsumerAsync(queueName, null, false).get(5, TimeUnit.SECONDS));
+   }
+
+   @Test
+   public void testListenerMayBlock() throws Exception
+   {
+      final ClientSession session = addClientSession(sf.createSession(false, false, false));
+      session.createQueue(address, queueName, true);
+
+      final CountDownLatch latch = new CountDownLatch(1);
+      final AtomicReference<ClientSession.QueueQuery> query = new AtomicReference<ClientSession.QueueQuery>();
+
+      session.commitAsync().addListener(new ClientFutureListener<Void>()
+      {
+         public void onSuccess(Void result)
+         {
+            try
+            {
+               // needs the thread reading the connection to get its answer
+               query.set(session.queueQuery(queueName));
+            }
+            catch (ActiveMQException e)
+            {
+               e.printStackTrace();
+            }
+            latch.countDown();
+         }
+
+         public void onFailure(Throwable cause)
+         {
+            latch.countDown();
+         }
+      });
+
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+      assertNotNull(query.get());
+      assertTrue(query.get().isExists());
+   }
+
+   @Test
+   public void testResponseAfterUnansweredBlockingCall() throws Exception
+   {
+      final AtomicBoolean drop = new AtomicBoolean(true);
+      server.getRemotingService().addIncomingInterceptor(new Interceptor()
+      {
+         public boolean intercept(Packet packet, RemotingConnection connection) throws ActiveMQException
+         {
+            // the server never answers the first binding query
+            return packet.getType() != PacketImpl.SESS_BINDINGQUERY || !drop.compareAndSet(true, false);
+         }
+      });
+
+      ServerLocator locator = createInVMNonHALocator();
+      locator.setCallTimeout(500);
+      ClientSessionFactory factory = createSessionFactory(locator);
+      ClientSession session = addClientSession(factory.createSession(false, false, false));
+      session.createQueue(address, queueName, true);
+
+      try
+      {
+         session.addressQuery(address);
+         fail("the query was never answered");
+      }
+      catch (ActiveMQConnectionTimedOutException expected)
+      {
+      }
+
+      ClientProducer producer = session.createProducer(address);
+      producer.send(session.createMessage(true));
+
+      // must not be taken for the answer of the query
+      assertNull(session.commitAsync().get(5, TimeUnit.SECONDS));
+      assertEquals(1, getMessageCount(server.locateQueue(queueName)));
+      assertTrue(session.addressQuery(address).isExists());
+   }
+
+   @Test
+   public void testCommitAsyncSurvivesReattach() throws Exception
+   {
+      final AtomicBoolean drop = new AtomicBoolean(false);
+      final CountDownLatch dropped = new CountDownLatch(1);
+
+      ServerLocator locator = createInVMNonHALocator();
+      locator.setConfirmationWindowSize(1024 * 1024);
+      locator.setReconnectAttempts(-1);
+      locator.setRetryInterval(10);
+      locator.addIncomingInterceptor(new Interceptor()
+      {
+         public boolean intercept(Packet packet, RemotingConnection connection) throws ActiveMQException
+         {
+            if (packet.getType() == PacketImpl.NULL_RESPONSE && drop.compareAndSet(true, false))
+            {
+               // lost with the connection, the server resends it once the session reattaches
+               dropped.countDown();
+               return false;
+            }
+            return true;
+         }
+      });
+      ClientSessionFactory factory = createSessionFactory(locator);
+      ClientSession session = addClientSession(factory.createSession(false, false, false));
+      session.createQueue(address, queueName, true);
+
+      ClientProducer producer = session.createProducer(address);
+      producer.send(session.createMessage(true));
+
+      drop.set(true);
+      ClientFuture<Void> commit = session.commitAsync();
+      assertTrue(dropped.await(5, TimeUnit.SECONDS));
+      assertFalse(commit.isDone());
+
+      ((ClientSessionInternal) session).getConnection().fail(new ActiveMQNotConnectedException());
+
+      assertNull(commit.get(5, TimeUnit.SECONDS));
+      assertEquals(1, getMessageCount(server.locateQueue(queueName)));
+   }
+}
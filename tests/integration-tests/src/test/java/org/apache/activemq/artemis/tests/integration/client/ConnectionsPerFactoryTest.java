@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.ActiveMQNotConnectedException;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.client.impl.ClientSessionFactoryGroup;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.tests.util.ServiceTestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConnectionsPerFactoryTest extends ServiceTestBase
+{
+   private final SimpleString queueName = new SimpleString("queue");
+
+   private ActiveMQServer server;
+
+   private ServerLocator locator;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      server = createServer(false, true);
+      server.start();
+
+      locator = createNettyNonHALocator();
+      locator.setConnectionsPerFactory(4);
+   }
+
+   @Test
+   public void testSessionsSpreadOverConnections() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+
+      assertTrue(sf instanceof ClientSessionFactoryGroup);
+      assertEquals(4, server.getRemotingService().getConnections().size());
+
+      Map<ClientSessionFactory, Integer> sessionsPerConnection = new HashMap<ClientSessionFactory, Integer>();
+      for (int i = 0; i < 8; i++)
+      {
+         ClientSession session = addClientSession(sf.createSession(false, true, true));
+         Integer sessions = sessionsPerConnection.get(session.getSessionFactory());
+         sessionsPerConnection.put(session.getSessionFactory(), sessions == null ? 1 : sessions + 1);
+      }
+
+      assertEquals(4, sessionsPerConnection.size());
+      for (Integer sessions : sessionsPerConnection.values())
+      {
+         assertEquals(2, sessions.intValue());
+      }
+   }
+
+   @Test
+   public void testSendAcrossConnections() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+
+      ClientSession consumerSession = addClientSession(sf.createSession(false, true, true));
+      consumerSession.createQueue(queueName, queueName, false);
+
+      final int numSessions = 4;
+      final int numMessages = 100;
+      for (int i = 0; i < numSessions; i++)
+      {
+         ClientSession session = addClientSession(sf.createSession(false, true, true));
+         ClientProducer producer = session.createProducer(queueName);
+         for (int j = 0; j < numMessages; j++)
+         {
+            producer.send(session.createMessage(false));
+         }
+      }
+
+      consumerSession.start();
+      ClientConsumer consumer = consumerSession.createConsumer(queueName);
+      for (int i = 0; i < numSessions * numMessages; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+   }
+
+   @Test
+   public void testFailedConnectionDoesNotStandForTheGroup() throws Exception
+   {
+      ClientSessionFactoryGroup sf = (ClientSessionFactoryGroup) createSessionFactory(locator);
+
+      RemotingConnection failed = sf.getMembers()[0].getConnection();
+      failed.fail(new ActiveMQNotConnectedException());
+
+      RemotingConnection connection = sf.getConnection();
+      assertNotNull(connection);
+      assertNotSame(failed, connection);
+      assertFalse(connection.isDestroyed());
+   }
+
+   @Test
+   public void testCloseClosesAllConnections() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+      sf.createSession(false, true, true);
+
+      assertEquals(4, server.getRemotingService().getConnections().size());
+
+      sf.close();
+
+      assertTrue(sf.isClosed());
+
+      long timeout = System.currentTimeMillis() + 5000;
+      while (server.getRemotingService().getConnections().size() > 0 && System.currentTimeMillis() < timeout)
+      {
+         Thread.sleep(10);
+      }
+
+      assertEquals(0, server.getRemotingService().getConnections().size());
+   }
+}
@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.tests.util.ServiceTestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndividualAckRangeTest extends ServiceTestBase
+{
+   private final SimpleString address = new SimpleString("address");
+
+   private final SimpleString queueName = new SimpleString("queue");
+
+   private ActiveMQServer server;
+
+   private ServerLocator locator;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      server = createServer(false);
+      server.start();
+
+      locator = createInVMNonHALocator();
+      locator.setBlockOnAcknowledge(true);
+   }
+
+   @Test
+   public void testRangeCommitted() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, false));
+      session.createQueue(address, queueName, false);
+
+      sendMessages(session, 100);
+
+      ClientConsumer consumer = session.createConsumer(queueName);
+      session.start();
+
+      for (int i = 0; i < 100; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         if (i % 2 == 0)
+         {
+            message.individualAcknowledge();
+         }
+      }
+
+      session.commit();
+      consumer.close();
+
+      Queue queue = server.locateQueue(queueName);
+      assertEquals(50, getMessageCount(queue));
+
+      consumer = session.createConsumer(queueName);
+      for (int i = 1; i < 100; i += 2)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty("i").intValue());
+         message.individualAcknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+      session.commit();
+
+      assertEquals(0, getMessageCount(queue));
+   }
+
+   @Test
+   public void testRangeSentOnAckBatchSize() throws Exception
+   {
+      locator.setAckBatchSize(1024);
+      locator.setBlockOnAcknowledge(false);
+
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(address, queueName, false);
+
+      sendMessages(session, 100);
+
+      ClientConsumer consumer = session.createConsumer(queueName);
+      session.start();
+
+      for (int i = 0; i < 100; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.individualAcknowledge();
+      }
+
+      // a blocking call, so the ranges sent before it were processed
+      session.queueQuery(queueName);
+
+      // only the acks under ackBatchSize are still pending
+      Queue queue = server.locateQueue(queueName);
+      long pending = getMessageCount(queue);
+      assertTrue("pending=" + pending, pending > 0 && pending < 10);
+
+      consumer.close();
+
+      assertEquals(0, getMessageCount(queue));
+   }
+
+   @Test
+   public void testBlockOnAcknowledgeNotBatched() throws Exception
+   {
+      locator.setAckBatchSize(1024);
+
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(address, queueName, false);
+
+      sendMessages(session, 10);
+
+      ClientConsumer consumer = session.createConsumer(queueName);
+      session.start();
+
+      Queue queue = server.locateQueue(queueName);
+
+      for (int i = 0; i < 10; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.individualAcknowledge();
+         assertEquals(9 - i, getMessageCount(queue));
+      }
+   }
+
+   @Test
+   public void testCumulativeAckAfterRange() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, false));
+      session.createQueue(address, queueName, false);
+
+      sendMessages(session, 10);
+
+      ClientConsumer consumer = session.createConsumer(queueName);
+      session.start();
+
+      ClientMessage message = null;
+      for (int i = 0; i < 10; i++)
+      {
+         message = consumer.receive(5000);
+         assertNotNull(message);
+         if (i == 5)
+         {
+            message.individualAcknowledge();
+         }
+      }
+
+      // covers the individual ack not sent yet as well
+      message.acknowledge();
+      session.commit();
+
+      assertEquals(0, getMessageCount(server.locateQueue(queueName)));
+   }
+
+   private void sendMessages(final ClientSession session, final int numMessages) throws Exception
+   {
+      ClientProducer producer = session.createProducer(address);
+      for (int i = 0; i < numMessages; i++)
+      {
+         ClientMessage message = session.createMessage(false);
+         message.putIntProperty("i", i);
+         message.getBodyBuffer().writeBytes(new byte[100]);
+         producer.send(message);
+      }
+      producer.close();
+   }
+}
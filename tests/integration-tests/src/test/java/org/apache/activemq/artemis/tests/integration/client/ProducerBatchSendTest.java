@@ -0,0 +1,273 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ServiceTestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProducerBatchSendTest extends ServiceTestBase
+{
+   private final SimpleString address = new SimpleString("address");
+
+   private final SimpleString queueName = new SimpleString("queue");
+
+   private ActiveMQServer server;
+
+   private ServerLocator locator;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      server = createServer(true);
+      server.start();
+
+      locator = createInVMNonHALocator();
+      locator.setBlockOnDurableSend(true);
+      locator.setMinLargeMessageSize(10 * 1024);
+   }
+
+   @Test
+   public void testSendBatch() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(address, queueName, true);
+
+      ClientProducer producer = session.createProducer(address);
+
+      final int numMessages = 1000;
+      List<ClientMessage> batch = new ArrayList<ClientMessage>();
+      for (int i = 0; i < numMessages; i++)
+      {
+         ClientMessage message = session.createMessage(i % 2 == 0);
+         message.putIntProperty("i", i);
+         message.getBodyBuffer().writeBytes(new byte[100]);
+         batch.add(message);
+      }
+
+      producer.send(batch);
+
+      assertEquals(numMessages, getMessageCount(server.locateQueue(queueName)));
+
+      receiveInOrder(session, numMessages, 100);
+   }
+
+   @Test
+   public void testSendBatchAnonymous() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(address, queueName, true);
+
+      ClientProducer producer = session.createProducer();
+
+      List<ClientMessage> batch = new ArrayList<ClientMessage>();
+      for (int i = 0; i < 100; i++)
+      {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty("i", i);
+         message.setAddress(address);
+         batch.add(message);
+      }
+
+      producer.send(batch);
+
+      assertEquals(100, getMessageCount(server.locateQueue(queueName)));
+
+      receiveInOrder(session, 100, 0);
+   }
+
+   @Test
+   public void testSendBatchWithLargeMessage() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(address, queueName, true);
+
+      ClientProducer producer = session.createProducer(address);
+
+      List<ClientMessage> batch = new ArrayList<ClientMessage>();
+      for (int i = 0; i < 10; i++)
+      {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty("i", i);
+         message.getBodyBuffer().writeBytes(new byte[i == 5 ? 50 * 1024 : 10]);
+         batch.add(message);
+      }
+
+      producer.send(batch);
+
+      ClientConsumer consumer = session.createConsumer(queueName);
+      session.start();
+
+      for (int i = 0; i < 10; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty("i").intValue());
+         assertEquals(i == 5 ? 50 * 1024 : 10, message.getBodySize());
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+   }
+
+   @Test
+   public void testBatchDropsOnlyDuplicates() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(address, queueName, true);
+
+      ClientProducer producer = session.createProducer(address);
+
+      ClientMessage message = session.createMessage(true);
+      message.putIntProperty("i", -1);
+      message.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("dup"));
+      producer.send(message);
+
+      List<ClientMessage> batch = new ArrayList<ClientMessage>();
+      for (int i = 0; i < 10; i++)
+      {
+         message = session.createMessage(true);
+         message.putIntProperty("i", i);
+         if (i == 5)
+         {
+            // already sent before the batch
+            message.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("dup"));
+         }
+         else if (i == 2 || i == 7)
+         {
+            // sent twice in the batch
+            message.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("inBatch"));
+         }
+         batch.add(message);
+      }
+
+      producer.send(batch);
+
+      assertEquals(9, getMessageCount(server.locateQueue(queueName)));
+
+      ClientConsumer consumer = session.createConsumer(queueName);
+      session.start();
+
+      for (int i : new int[]{-1, 0, 1, 2, 3, 4, 6, 8, 9})
+      {
+         message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty("i").intValue());
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+   }
+
+   @Test
+   public void testSendBatchConfirmations() throws Exception
+   {
+      locator.setBlockOnDurableSend(false);
+      locator.setConfirmationWindowSize(1024 * 1024);
+
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+      session.createQueue(address, queueName, true);
+
+      final int numMessages = 500;
+      final CountDownLatch latch = new CountDownLatch(numMessages);
+      session.setSendAcknowledgementHandler(new SendAcknowledgementHandler()
+      {
+         public void sendAcknowledged(Message message)
+         {
+            latch.countDown();
+         }
+      });
+
+      ClientProducer producer = session.createProducer(address);
+
+      List<ClientMessage> batch = new ArrayList<ClientMessage>();
+      for (int i = 0; i < numMessages; i++)
+      {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty("i", i);
+         batch.add(message);
+      }
+
+      producer.send(batch);
+
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+      receiveInOrder(session, numMessages, 0);
+   }
+
+   @Test
+   public void testSendBatchTransacted() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(false, false, false));
+      session.createQueue(address, queueName, true);
+
+      ClientProducer producer = session.createProducer(address);
+
+      List<ClientMessage> batch = new ArrayList<ClientMessage>();
+      for (int i = 0; i < 100; i++)
+      {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty("i", i);
+         batch.add(message);
+      }
+
+      producer.send(batch);
+      assertEquals(0, getMessageCount(server.locateQueue(queueName)));
+
+      session.commit();
+      assertEquals(100, getMessageCount(server.locateQueue(queueName)));
+   }
+
+   private void receiveInOrder(final ClientSession session, final int numMessages, final int bodySize) throws Exception
+   {
+      ClientConsumer consumer = session.createConsumer(queueName);
+      session.start();
+
+      for (int i = 0; i < numMessages; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals(i, message.getIntProperty("i").intValue());
+         assertEquals(bodySize, message.getBodySize());
+         message.acknowledge();
+      }
+      assertNull(consumer.receiveImmediate());
+      consumer.close();
+   }
+}
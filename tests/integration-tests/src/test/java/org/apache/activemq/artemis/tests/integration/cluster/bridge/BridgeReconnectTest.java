@@ -20,10 +20,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
 import org.apache.activemq.artemis.api.core.ActiveMQNotConnectedException;
+import org.apache.activemq.artemis.api.core.Interceptor;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.TransportConfiguration;
 import org.apache.activemq.artemis.api.core.client.ClientConsumer;
@@ -37,6 +39,8 @@ import org.apache.activemq.artemis.api.core.management.QueueControl;
 import org.apache.activemq.artemis.api.core.management.ResourceNames;
 import org.apache.activemq.artemis.core.config.BridgeConfiguration;
 import org.apache.activemq.artemis.core.config.CoreQueueConfiguration;
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
 import org.apache.activemq.artemis.core.remoting.impl.invm.InVMConnector;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
 import org.apache.activemq.artemis.core.server.NodeManager;
@@ -787,6 +791,130 @@ public class BridgeReconnectTest extends BridgeTestBase
       assertNoMoreConnections();
    }
 
+   /**
+    * A compressed batch that the target routed but never confirmed is resent after the bridge
+    * reconnects, mixed with messages that never reached the target. The target must drop only the
+    * duplicates and the bridge must ack every reference.
+    */
+   @Test
+   public void testCompressedBatchPartiallyDeliveredBeforeFailure() throws Exception
+   {
+      server0 = createActiveMQServer(0, isNetty(), server0Params);
+
+      TransportConfiguration server0tc = new TransportConfiguration(getConnector(), server0Params, "server0tc");
+
+      server0.getConfiguration().setConnectorConfigurations(connectors);
+
+      BridgeConfiguration bridgeConfiguration = createBridgeConfig()
+         .setReconnectAttempts(-1)
+         .setCompressBatches(true);
+
+      List<BridgeConfiguration> bridgeConfigs = new ArrayList<BridgeConfiguration>();
+      bridgeConfigs.add(bridgeConfiguration);
+      server0.getConfiguration().setBridgeConfigurations(bridgeConfigs);
+
+      CoreQueueConfiguration queueConfig0 = new CoreQueueConfiguration()
+         .setAddress(testAddress)
+         .setName(queueName);
+      List<CoreQueueConfiguration> queueConfigs0 = new ArrayList<CoreQueueConfiguration>();
+      queueConfigs0.add(queueConfig0);
+      server0.getConfiguration().setQueueConfigurations(queueConfigs0);
+
+      CoreQueueConfiguration queueConfig1 = new CoreQueueConfiguration()
+         .setAddress(forwardAddress)
+         .setName(queueName);
+      List<CoreQueueConfiguration> queueConfigs1 = new ArrayList<CoreQueueConfiguration>();
+      queueConfigs1.add(queueConfig1);
+      server1.getConfiguration().setQueueConfigurations(queueConfigs1);
+
+      startServers();
+
+      locator = addServerLocator(ActiveMQClient.createServerLocatorWithHA(server0tc, server1tc));
+      ClientSessionFactory csf0 = locator.createSessionFactory(server0tc);
+      session0 = csf0.createSession(false, true, true);
+
+      ClientSessionFactory csf1 = locator.createSessionFactory(server1tc);
+      session1 = csf1.createSession(false, true, true);
+
+      ClientProducer prod0 = session0.createProducer(testAddress);
+
+      Bridge bridge = server0.getClusterManager().getBridges().get(bridgeName);
+      RemotingConnection forwardingConnection = getForwardingConnection(bridge);
+
+      // The target routes what the bridge sends, but the bridge never hears about it
+      final AtomicBoolean dropConfirmations = new AtomicBoolean(true);
+      ((BridgeImpl) bridge).getServerLocator().addIncomingInterceptor(new Interceptor()
+      {
+         @Override
+         public boolean intercept(final Packet packet, final RemotingConnection connection) throws ActiveMQException
+         {
+            return packet.getType() != PacketImpl.PACKETS_CONFIRMED || !dropConfirmations.get();
+         }
+      });
+
+      final int numMessages = NUM_MESSAGES;
+
+      SimpleString propKey = new SimpleString("propkey");
+
+      Queue queue0 = (Queue) server0.getPostOffice().getBinding(new SimpleString(queueName)).getBindable();
+      Queue queue1 = (Queue) server1.getPostOffice().getBinding(new SimpleString(queueName)).getBindable();
+
+      for (int i = 0; i < numMessages / 2; i++)
+      {
+         ClientMessage message = session0.createMessage(false);
+         message.putIntProperty(propKey, i);
+
+         prod0.send(message);
+      }
+
+      long timeout = System.currentTimeMillis() + 5000;
+      while (getMessageCount(queue1) < numMessages / 2 && System.currentTimeMillis() < timeout)
+      {
+         Thread.sleep(10);
+      }
+      assertEquals(numMessages / 2, getMessageCount(queue1));
+      assertEquals(numMessages / 2, getMessageCount(queue0));
+
+      // Keep the bridge away until the rest is queued, so both halves go out in the same batches
+      InVMConnector.failOnCreateConnection = true;
+      forwardingConnection.fail(new ActiveMQNotConnectedException());
+
+      for (int i = numMessages / 2; i < numMessages; i++)
+      {
+         ClientMessage message = session0.createMessage(false);
+         message.putIntProperty(propKey, i);
+
+         prod0.send(message);
+      }
+
+      dropConfirmations.set(false);
+      InVMConnector.resetFailures();
+
+      ClientConsumer cons1 = session1.createConsumer(queueName);
+
+      session1.start();
+
+      for (int i = 0; i < numMessages; i++)
+      {
+         ClientMessage r1 = cons1.receive(5000);
+         assertNotNull("Didn't receive message " + i, r1);
+         assertEquals(i, r1.getIntProperty(propKey).intValue());
+      }
+
+      assertNull(cons1.receiveImmediate());
+
+      timeout = System.currentTimeMillis() + 5000;
+      while (getMessageCount(queue0) > 0 && System.currentTimeMillis() < timeout)
+      {
+         Thread.sleep(10);
+      }
+      assertEquals(0, getMessageCount(queue0));
+
+      closeServers();
+
+      assertNoMoreConnections();
+   }
+
    private void startServers() throws Exception
    {
       if (server2 != null)
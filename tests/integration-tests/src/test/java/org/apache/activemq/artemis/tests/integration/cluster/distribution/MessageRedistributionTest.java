@@ -1030,6 +1030,56 @@ public class MessageRedistributionTest extends ClusterTestBase
       verifyReceiveAll(QueueImpl.REDISTRIBUTOR_BATCH_SIZE * 2, 1);
    }
 
+   @Test
+   public void testRedistributionRate() throws Exception
+   {
+      final int rate = 100;
+
+      AddressSettings as = new AddressSettings();
+      as.setRedistributionDelay(0);
+      as.setRedistributionRate(rate);
+      getServer(0).getAddressSettingsRepository().addMatch("queues.*", as);
+
+      setupCluster(false);
+
+      startServers(0, 1, 2);
+
+      setupSessionFactory(0, isNetty());
+      setupSessionFactory(1, isNetty());
+      setupSessionFactory(2, isNetty());
+
+      createQueue(0, "queues.testaddress", "queue0", null, false);
+      createQueue(1, "queues.testaddress", "queue0", null, false);
+      createQueue(2, "queues.testaddress", "queue0", null, false);
+
+      addConsumer(0, 0, "queue0", null);
+
+      waitForBindings(0, "queues.testaddress", 1, 1, true);
+      waitForBindings(1, "queues.testaddress", 1, 0, true);
+      waitForBindings(2, "queues.testaddress", 1, 0, true);
+
+      waitForBindings(0, "queues.testaddress", 2, 0, false);
+      waitForBindings(1, "queues.testaddress", 2, 1, false);
+      waitForBindings(2, "queues.testaddress", 2, 1, false);
+
+      send(0, "queues.testaddress", rate * 3, false, null);
+
+      long start = System.currentTimeMillis();
+
+      removeConsumer(0);
+      addConsumer(1, 1, "queue0", null);
+
+      verifyReceiveAll(rate * 3, 1);
+
+      // the first second's worth goes immediately, the other two have to wait
+      Assert.assertTrue(System.currentTimeMillis() - start >= 1900);
+
+      QueueImpl queue = (QueueImpl) servers[0].getPostOffice().getBinding(new SimpleString("queue0")).getBindable();
+
+      Assert.assertEquals(rate * 3, queue.getMessagesRedistributed());
+      Assert.assertEquals(0, queue.getRedistributionBacklog());
+   }
+
    /*
     * Start one node with no consumers and send some messages
     * Start another node add a consumer and verify all messages are redistribute
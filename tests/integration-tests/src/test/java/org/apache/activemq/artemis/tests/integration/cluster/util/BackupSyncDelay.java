@@ -25,6 +25,7 @@ import org.apache.activemq.artemis.core.protocol.core.ChannelHandler;
 import org.apache.activemq.artemis.core.protocol.core.CommandConfirmationHandler;
 import org.apache.activemq.artemis.core.protocol.core.CoreRemotingConnection;
 import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.ResponseHandler;
 import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationStartSyncMessage;
@@ -258,6 +259,24 @@ public class BackupSyncDelay implements Interceptor
          throw new UnsupportedOperationException();
       }
 
+      @Override
+      public void sendAsync(Packet packet, ResponseHandler handler) throws ActiveMQException
+      {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void setCorrelating(boolean correlating)
+      {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public boolean isCorrelating()
+      {
+         return channel.isCorrelating();
+      }
+
       @Override
       public void setHandler(ChannelHandler handler)
       {
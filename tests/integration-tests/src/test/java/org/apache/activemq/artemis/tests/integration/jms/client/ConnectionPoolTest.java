@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.jms.client;
+
+import javax.jms.Connection;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.jms.ActiveMQJMSClient;
+import org.apache.activemq.artemis.api.jms.JMSFactoryType;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.apache.activemq.artemis.tests.util.JMSTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConnectionPoolTest extends JMSTestBase
+{
+   private ActiveMQConnectionFactory pooledCF;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      pooledCF = ActiveMQJMSClient.createConnectionFactoryWithoutHA(JMSFactoryType.CF,
+                                                                    new TransportConfiguration(INVM_CONNECTOR_FACTORY));
+      pooledCF.setConnectionPoolSize(2);
+   }
+
+   @Override
+   @After
+   public void tearDown() throws Exception
+   {
+      pooledCF.close();
+
+      super.tearDown();
+   }
+
+   @Test
+   public void testClosedConnectionIsReused() throws Exception
+   {
+      Queue queue = createQueue("pooledQueue");
+
+      for (int i = 0; i < 10; i++)
+      {
+         Connection connection = pooledCF.createConnection();
+         Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+         MessageProducer producer = session.createProducer(queue);
+         producer.send(session.createTextMessage("message " + i));
+         connection.close();
+
+         assertEquals(1, server.getRemotingService().getConnections().size());
+      }
+
+      Connection connection = pooledCF.createConnection();
+      connection.start();
+      Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+      MessageConsumer consumer = session.createConsumer(queue);
+      for (int i = 0; i < 10; i++)
+      {
+         TextMessage message = (TextMessage) consumer.receive(5000);
+         assertNotNull(message);
+         assertEquals("message " + i, message.getText());
+      }
+      connection.close();
+   }
+
+   @Test
+   public void testPoolSizeIsBounded() throws Exception
+   {
+      Connection[] connections = new Connection[4];
+
+      for (int i = 0; i < connections.length; i++)
+      {
+         connections[i] = pooledCF.createConnection();
+      }
+
+      assertEquals(4, server.getRemotingService().getConnections().size());
+
+      for (Connection connection : connections)
+      {
+         connection.close();
+      }
+
+      waitForConnections(2);
+   }
+
+   @Test
+   public void testConnectionWithClientIDIsNotReused() throws Exception
+   {
+      Connection connection = pooledCF.createConnection();
+      connection.setClientID("pooledClient");
+      connection.close();
+
+      waitForConnections(0);
+
+      // the client ID was released with the connection
+      connection = pooledCF.createConnection();
+      connection.setClientID("pooledClient");
+      connection.close();
+   }
+
+   @Test
+   public void testIdleConnectionsAreEvicted() throws Exception
+   {
+      pooledCF.close();
+
+      pooledCF = ActiveMQJMSClient.createConnectionFactoryWithoutHA(JMSFactoryType.CF,
+                                                                    new TransportConfiguration(INVM_CONNECTOR_FACTORY));
+      pooledCF.setConnectionPoolSize(2);
+      pooledCF.setConnectionPoolIdleTimeout(100);
+
+      pooledCF.createConnection().close();
+
+      assertEquals(1, server.getRemotingService().getConnections().size());
+
+      waitForConnections(0);
+   }
+
+   @Test
+   public void testPooledConnectionsClosedWithFactory() throws Exception
+   {
+      pooledCF.createConnection().close();
+
+      assertEquals(1, server.getRemotingService().getConnections().size());
+
+      pooledCF.close();
+
+      waitForConnections(0);
+   }
+
+   private void waitForConnections(final int expected) throws Exception
+   {
+      long timeout = System.currentTimeMillis() + 5000;
+      while (server.getRemotingService().getConnections().size() != expected && System.currentTimeMillis() < timeout)
+      {
+         Thread.sleep(10);
+      }
+
+      assertEquals(expected, server.getRemotingService().getConnections().size());
+   }
+}
@@ -661,6 +661,51 @@ public class ActiveMQServerControlTest extends ManagementTestBase
 
    }
 
+   @Test
+   public void testListAddressMemoryUsageAsJSON() throws Exception
+   {
+      String address = RandomUtil.randomString();
+      String queue = RandomUtil.randomString();
+
+      ActiveMQServerControl serverControl = createManagementControl();
+
+      assertEquals(-1, serverControl.getGlobalMaxSize());
+
+      ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(new TransportConfiguration(UnitTestCase.INVM_CONNECTOR_FACTORY));
+      locator.setBlockOnNonDurableSend(true);
+
+      ClientSessionFactory csf = createSessionFactory(locator);
+      ClientSession session = csf.createSession();
+      session.createQueue(address, queue);
+
+      ClientProducer producer = session.createProducer(address);
+      ClientMessage message = session.createMessage(false);
+      message.getBodyBuffer().writeBytes(new byte[1024]);
+      producer.send(message);
+
+      assertTrue(serverControl.getAddressMemoryUsage() > 0);
+
+      JSONArray array = new JSONArray(serverControl.listAddressMemoryUsageAsJSON());
+      JSONObject data = null;
+      for (int i = 0; i < array.length(); i++)
+      {
+         if (address.equals(array.getJSONObject(i).getString("address")))
+         {
+            data = array.getJSONObject(i);
+         }
+      }
+      assertNotNull(data);
+      assertTrue(data.getLong("size") > 0);
+      assertTrue(data.getDouble("share") > 0);
+      assertFalse(data.getBoolean("paging"));
+      assertFalse(data.getBoolean("globalFull"));
+
+      session.deleteQueue(queue);
+      session.close();
+
+      locator.close();
+   }
+
    @Test
    public void testCreateAndDestroyDivert() throws Exception
    {
@@ -290,6 +290,16 @@ public class ActiveMQServerControlUsingCoreTest extends ActiveMQServerControlTes
             return (Integer) proxy.retrieveAttributeValue("messageCounterMaxDayCount");
          }
 
+         public long getGlobalMaxSize()
+         {
+            return (Long) proxy.retrieveAttributeValue("globalMaxSize", Long.class);
+         }
+
+         public long getAddressMemoryUsage()
+         {
+            return (Long) proxy.retrieveAttributeValue("addressMemoryUsage", Long.class);
+         }
+
          public long getMessageCounterSamplePeriod()
          {
             return (Long) proxy.retrieveAttributeValue("messageCounterSamplePeriod", Long.class);
@@ -706,6 +716,11 @@ public class ActiveMQServerControlUsingCoreTest extends ActiveMQServerControlTes
          {
             return (String) proxy.invokeOperation("listProducersInfoAsJSON");
          }
+
+         public String listAddressMemoryUsageAsJSON() throws Exception
+         {
+            return (String) proxy.invokeOperation("listAddressMemoryUsageAsJSON");
+         }
       };
    }
    // Package protected ---------------------------------------------
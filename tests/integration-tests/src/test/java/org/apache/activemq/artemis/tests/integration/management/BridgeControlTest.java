@@ -67,6 +67,12 @@ public class BridgeControlTest extends ManagementTestBase
                           0.000001);
       Assert.assertEquals(bridgeConfig.getReconnectAttempts(), bridgeControl.getReconnectAttempts());
       Assert.assertEquals(bridgeConfig.isUseDuplicateDetection(), bridgeControl.isUseDuplicateDetection());
+      Assert.assertEquals(bridgeConfig.getStreams(), bridgeControl.getStreams());
+      Assert.assertEquals(0, bridgeControl.getMessagesForwarded());
+      Assert.assertEquals(0, bridgeControl.getMessagesAcknowledged());
+      Assert.assertEquals(bridgeConfig.isCompressBatches(), bridgeControl.isCompressBatches());
+      Assert.assertEquals(0, bridgeControl.getBytesForwarded());
+      Assert.assertEquals(0.0f, bridgeControl.getCompressionRatio(), 0.0f);
 
       String[] connectorPairData = bridgeControl.getStaticConnectors();
       Assert.assertEquals(bridgeConfig.getStaticConnectors().get(0), connectorPairData[0]);
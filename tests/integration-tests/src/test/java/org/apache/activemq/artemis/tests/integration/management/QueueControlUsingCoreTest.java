@@ -123,6 +123,21 @@ public class QueueControlUsingCoreTest extends QueueControlTest
             return (Integer) proxy.retrieveAttributeValue("messagesAcknowledged");
          }
 
+         public long getMessagesRedistributed()
+         {
+            return ((Number) proxy.retrieveAttributeValue("messagesRedistributed")).longValue();
+         }
+
+         public float getRedistributionRate()
+         {
+            return ((Number) proxy.retrieveAttributeValue("redistributionRate")).floatValue();
+         }
+
+         public long getRedistributionBacklog()
+         {
+            return ((Number) proxy.retrieveAttributeValue("redistributionBacklog")).longValue();
+         }
+
          public void resetMessagesAdded() throws Exception
          {
             proxy.invokeOperation("resetMessagesAdded");
@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.paging;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.paging.PagingManager;
+import org.apache.activemq.artemis.core.paging.PagingStore;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.tests.util.ServiceTestBase;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GlobalMaxSizeTest extends ServiceTestBase
+{
+   private static final SimpleString BIG_ADDRESS = new SimpleString("big");
+
+   private static final SimpleString SMALL_ADDRESS = new SimpleString("small");
+
+   private static final int GLOBAL_MAX_SIZE = 100 * 1024;
+
+   private ServerLocator locator;
+
+   private ActiveMQServer server;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      Configuration config = createDefaultConfig();
+      config.setGlobalMaxSize(GLOBAL_MAX_SIZE);
+
+      server = createServer(true, config);
+
+      // no limit per address, only the global one
+      AddressSettings defaultSetting = new AddressSettings();
+      defaultSetting.setPageSizeBytes(10 * 1024);
+      defaultSetting.setMaxSizeBytes(-1);
+      server.getAddressSettingsRepository().addMatch("#", defaultSetting);
+
+      server.start();
+      waitForServer(server);
+
+      locator = createInVMNonHALocator();
+      locator.setBlockOnDurableSend(true);
+      locator.setBlockOnNonDurableSend(true);
+      locator.setBlockOnAcknowledge(true);
+   }
+
+   @Test
+   public void testBiggestAddressPagesFirst() throws Exception
+   {
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = addClientSession(sf.createSession(null, null, false, true, true, false, 0));
+
+      session.createQueue(BIG_ADDRESS, BIG_ADDRESS, null, true);
+      session.createQueue(SMALL_ADDRESS, SMALL_ADDRESS, null, true);
+
+      ClientProducer smallProducer = session.createProducer(SMALL_ADDRESS);
+      for (int i = 0; i < 10; i++)
+      {
+         smallProducer.send(createMessage(session));
+      }
+
+      ClientProducer bigProducer = session.createProducer(BIG_ADDRESS);
+      for (int i = 0; i < 200; i++)
+      {
+         bigProducer.send(createMessage(session));
+      }
+
+      PagingManager pagingManager = server.getPagingManager();
+      PagingStore bigStore = pagingManager.getPageStore(BIG_ADDRESS);
+      PagingStore smallStore = pagingManager.getPageStore(SMALL_ADDRESS);
+
+      // the configured limit of the address is still reported as it is
+      Assert.assertEquals(-1, bigStore.getMaxSize());
+      Assert.assertEquals(GLOBAL_MAX_SIZE, bigStore.getGlobalMaxSize());
+
+      Assert.assertTrue(pagingManager.isGlobalFull());
+      Assert.assertTrue(bigStore.isGlobalFull());
+      Assert.assertTrue(bigStore.isPaging());
+      Assert.assertFalse(smallStore.isGlobalFull());
+      Assert.assertFalse(smallStore.isPaging());
+
+      // the small address still goes to memory while the big one is paged
+      long smallSize = smallStore.getAddressSize();
+      smallProducer.send(createMessage(session));
+      Assert.assertTrue(smallStore.getAddressSize() > smallSize);
+      Assert.assertFalse(smallStore.isPaging());
+
+      ClientConsumer consumer = session.createConsumer(BIG_ADDRESS);
+      session.start();
+      for (int i = 0; i < 200; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         message.acknowledge();
+      }
+      Assert.assertNull(consumer.receiveImmediate());
+
+      Assert.assertFalse(pagingManager.isGlobalFull());
+      Assert.assertFalse(bigStore.isGlobalFull());
+   }
+
+   private ClientMessage createMessage(final ClientSession session)
+   {
+      ClientMessage message = session.createMessage(true);
+      message.getBodyBuffer().writeBytes(new byte[1024]);
+      return message;
+   }
+}
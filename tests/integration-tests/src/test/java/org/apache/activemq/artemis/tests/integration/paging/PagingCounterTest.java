@@ -17,8 +17,13 @@
 package org.apache.activemq.artemis.tests.integration.paging;
 
 import javax.transaction.xa.Xid;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
 import org.apache.activemq.artemis.api.core.client.ServerLocator;
@@ -27,9 +32,11 @@ import org.apache.activemq.artemis.core.paging.cursor.PageSubscription;
 import org.apache.activemq.artemis.core.paging.cursor.PageSubscriptionCounter;
 import org.apache.activemq.artemis.core.paging.cursor.impl.PageSubscriptionCounterImpl;
 import org.apache.activemq.artemis.core.persistence.StorageManager;
+import org.apache.activemq.artemis.core.persistence.impl.journal.JournalRecordIds;
 import org.apache.activemq.artemis.core.persistence.impl.journal.OperationContextImpl;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
 import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.server.impl.ActiveMQServerImpl;
 import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
 import org.apache.activemq.artemis.core.transaction.Transaction;
 import org.apache.activemq.artemis.core.transaction.impl.TransactionImpl;
@@ -86,6 +93,60 @@ public class PagingCounterTest extends ServiceTestBase
       }
    }
 
+   @Test
+   public void testCounterCancelledOnTX() throws Exception
+   {
+      Queue queue = server.createQueue(new SimpleString("A1"), new SimpleString("A1"), null, true, false);
+
+      PageSubscriptionCounter counter = locateCounter(queue);
+
+      StorageManager storage = server.getStorageManager();
+
+      Transaction tx = new TransactionImpl(server.getStorageManager());
+
+      for (int i = 0; i < 100; i++)
+      {
+         counter.increment(tx, 1);
+         counter.increment(tx, -1);
+      }
+
+      counter.increment(tx, 5);
+
+      tx.commit();
+
+      storage.waitOnOperations();
+
+      assertEquals(5, counter.getValue());
+
+      // increments that cancel each other shouldn't require any record
+      tx = new TransactionImpl(server.getStorageManager());
+
+      counter.increment(tx, 3);
+      counter.increment(tx, -3);
+
+      tx.commit();
+
+      storage.waitOnOperations();
+
+      assertEquals(5, counter.getValue());
+
+      sl.close();
+
+      server.stop();
+
+      server = newActiveMQServer();
+
+      server.start();
+
+      queue = server.locateQueue(new SimpleString("A1"));
+
+      assertNotNull(queue);
+
+      counter = locateCounter(queue);
+
+      assertEquals(5, counter.getValue());
+   }
+
    @Test
    public void testCleanupCounter() throws Exception
    {
@@ -250,6 +311,162 @@ public class PagingCounterTest extends ServiceTestBase
 
    }
 
+   @Test
+   public void testPendingAcksAfterKill() throws Exception
+   {
+      final int numberOfMessages = 500;
+
+      final int numberOfAcks = 200;
+
+      sl.setBlockOnDurableSend(true);
+      sl.setBlockOnAcknowledge(true);
+
+      ClientSessionFactory sf = createSessionFactory(sl);
+      ClientSession session = sf.createSession(true, true, 0);
+
+      Queue queue = server.createQueue(new SimpleString("A1"), new SimpleString("A1"), null, true, false);
+
+      queue.getPageSubscription().getPagingStore().startPaging();
+
+      ClientProducer producer = session.createProducer("A1");
+
+      for (int i = 0; i < numberOfMessages; i++)
+      {
+         ClientMessage message = session.createMessage(true);
+         message.getBodyBuffer().writeBytes(new byte[1024]);
+         producer.send(message);
+      }
+
+      ClientConsumer consumer = session.createConsumer("A1");
+
+      session.start();
+
+      for (int i = 0; i < numberOfAcks; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+
+      server.getStorageManager().waitOnOperations();
+
+      assertEquals(numberOfMessages - numberOfAcks, getMessageCount(queue));
+
+      // not enough acknowledgements for a flush, the pages still holding them are recounted on reload
+      ((ActiveMQServerImpl) server).stopTheServer(true);
+
+      waitForServerToStop(server);
+
+      sf.close();
+
+      server = newActiveMQServer();
+
+      server.start();
+
+      queue = server.locateQueue(new SimpleString("A1"));
+
+      assertNotNull(queue);
+
+      assertEquals(numberOfMessages - numberOfAcks, getMessageCount(queue));
+   }
+
+   @Test
+   public void testPendingAcksAfterRestart() throws Exception
+   {
+      final int numberOfMessages = 500;
+
+      final int numberOfAcks = 200;
+
+      sl.setBlockOnDurableSend(true);
+      sl.setBlockOnAcknowledge(true);
+
+      ClientSessionFactory sf = createSessionFactory(sl);
+      ClientSession session = sf.createSession(true, true, 0);
+
+      Queue queue = server.createQueue(new SimpleString("A1"), new SimpleString("A1"), null, true, false);
+
+      queue.getPageSubscription().getPagingStore().startPaging();
+
+      ClientProducer producer = session.createProducer("A1");
+
+      for (int i = 0; i < numberOfMessages; i++)
+      {
+         ClientMessage message = session.createMessage(true);
+         message.getBodyBuffer().writeBytes(new byte[1024]);
+         producer.send(message);
+      }
+
+      ClientConsumer consumer = session.createConsumer("A1");
+
+      session.start();
+
+      for (int i = 0; i < numberOfAcks; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+
+      server.getStorageManager().waitOnOperations();
+
+      sf.close();
+
+      server.stop();
+
+      // the page being consumed is not complete, so its acknowledgements are still pending
+      HashMap<Integer, AtomicInteger> counts = countJournalLivingRecords(server.getConfiguration());
+
+      AtomicInteger pendingAcks = counts.get((int) JournalRecordIds.PAGE_CURSOR_PENDING_ACK_COUNTER);
+
+      assertNotNull(pendingAcks);
+
+      assertTrue(pendingAcks.get() > 0);
+
+      server = newActiveMQServer();
+
+      server.start();
+
+      queue = server.locateQueue(new SimpleString("A1"));
+
+      assertNotNull(queue);
+
+      assertEquals(numberOfMessages - numberOfAcks, getMessageCount(queue));
+
+      sf = createSessionFactory(sl);
+      session = sf.createSession(true, true, 0);
+      consumer = session.createConsumer("A1");
+
+      session.start();
+
+      for (int i = numberOfAcks; i < numberOfMessages; i++)
+      {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+
+      assertNull(consumer.receiveImmediate());
+
+      server.getStorageManager().waitOnOperations();
+
+      assertEquals(0, getMessageCount(queue));
+
+      sf.close();
+
+      server.stop();
+
+      server = newActiveMQServer();
+
+      server.start();
+
+      queue = server.locateQueue(new SimpleString("A1"));
+
+      assertNotNull(queue);
+
+      // the recounted acknowledgements are not applied twice
+      assertEquals(0, getMessageCount(queue));
+   }
+
    /**
     * @param queue
     * @return
@@ -608,20 +608,65 @@ public class SecurityTest extends ServiceTestBase
          fail("Invalid Exception type:" + e.getType());
       }
 
+      // the denial was cached, adding the Role invalidates it
       securityManager.getConfiguration().addRole("auser", "receiver");
 
       session.createConsumer(SecurityTest.queueA);
 
-      // Removing the Role... the check should be cached, so the next createConsumer shouldn't fail
+      // Removing the Role invalidates the cached checks too, so the next createConsumer should fail
       securityManager.getConfiguration().removeRole("auser", "receiver");
 
-      session.createConsumer(SecurityTest.queueA);
+      try
+      {
+         session.createConsumer(SecurityTest.queueA);
+         Assert.fail("Expected exception");
+      }
+      catch (ActiveMQSecurityException se)
+      {
+         //ok
+      }
 
       session.close();
 
       senSession.close();
    }
 
+   @Test
+   public void testCachedDenialInvalidatedBySettings() throws Exception
+   {
+      Configuration configuration = createDefaultConfig(false)
+         .setSecurityEnabled(true)
+         .setSecurityInvalidationInterval(10000);
+      ActiveMQServer server = createServer(false, configuration);
+      server.start();
+      HierarchicalRepository<Set<Role>> securityRepository = server.getSecurityRepository();
+      ActiveMQSecurityManagerImpl securityManager = (ActiveMQSecurityManagerImpl) server.getSecurityManager();
+      securityManager.getConfiguration().addUser("auser", "pass");
+      securityManager.getConfiguration().addRole("auser", "arole");
+      Set<Role> roles = new HashSet<Role>();
+      roles.add(new Role("arole", false, false, false, false, false, false, false));
+      securityRepository.addMatch(SecurityTest.addressA, roles);
+      ClientSessionFactory cf = createSessionFactory(locator);
+      ClientSession session = cf.createSession("auser", "pass", false, true, true, false, -1);
+      try
+      {
+         session.createQueue(SecurityTest.addressA, SecurityTest.queueA, true);
+         Assert.fail("Expected exception");
+      }
+      catch (ActiveMQSecurityException se)
+      {
+         //ok
+      }
+
+      // the denial was cached, changing the security settings invalidates it
+      roles = new HashSet<Role>();
+      roles.add(new Role("arole", false, false, true, false, false, false, false));
+      securityRepository.addMatch(SecurityTest.addressA, roles);
+
+      session.createQueue(SecurityTest.addressA, SecurityTest.queueA, true);
+      session.close();
+   }
+
    @Test
    public void testSendMessageUpdateRoleCached2() throws Exception
    {
@@ -41,6 +41,7 @@ import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
 import org.apache.activemq.artemis.api.core.client.ClientMessage;
 import org.apache.activemq.artemis.api.core.client.ClientProducer;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
@@ -1242,6 +1243,18 @@ public class MessageHeaderTest extends MessageHeaderTestBase
       {
       }
 
+      public ClientFuture<Void> commitAsync() throws ActiveMQException
+      {
+         return null;
+      }
+
+      public ClientFuture<ClientConsumer> createConsumerAsync(final SimpleString queueName,
+                                                              final SimpleString filterString,
+                                                              final boolean browseOnly) throws ActiveMQException
+      {
+         return null;
+      }
+
       public boolean isRollbackOnly()
       {
 
@@ -0,0 +1,218 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.consumer;
+
+import java.util.Arrays;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ServiceTestBase;
+import org.junit.Test;
+
+/**
+ * Measures ClientConsumer.receive(): throughput draining a full queue, acking cumulatively or individually, and the
+ * latency between a send and the matching receive() returning while producer and consumer run concurrently.
+ */
+public class MeasureReceivePerfTest extends ServiceTestBase
+{
+   private static final int NUMBER_OF_MESSAGES = 200000;
+
+   private static final int LATENCY_MESSAGES = 50000;
+
+   private static final SimpleString ADDRESS = new SimpleString("test-receive");
+
+   private static final SimpleString SEND_TIME = new SimpleString("sendTime");
+
+   private ActiveMQServer server;
+
+   private ServerLocator locator;
+
+   @Test
+   public void testReceiveThroughput() throws Exception
+   {
+      startServer(false);
+      try
+      {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(ADDRESS, ADDRESS, null, false);
+
+         ClientProducer producer = session.createProducer(ADDRESS);
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+         {
+            ClientMessage msg = session.createMessage(false);
+            msg.getBodyBuffer().writeInt(i);
+            producer.send(msg);
+         }
+
+         ClientConsumer consumer = session.createConsumer(ADDRESS);
+         session.start();
+
+         long start = System.currentTimeMillis();
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+         {
+            ClientMessage msg = consumer.receive(5000);
+            assertNotNull(msg);
+            msg.acknowledge();
+         }
+         long elapsed = System.currentTimeMillis() - start;
+
+         System.out.println("receive(): " + NUMBER_OF_MESSAGES + " messages in " + elapsed + " ms (" +
+                               NUMBER_OF_MESSAGES * 1000L / Math.max(1, elapsed) + " msg/s)");
+
+         session.close();
+      }
+      finally
+      {
+         stopServer();
+      }
+   }
+
+   @Test
+   public void testIndividualAckThroughput() throws Exception
+   {
+      startServer(false);
+      try
+      {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(ADDRESS, ADDRESS, null, false);
+
+         ClientProducer producer = session.createProducer(ADDRESS);
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+         {
+            ClientMessage msg = session.createMessage(false);
+            msg.getBodyBuffer().writeInt(i);
+            producer.send(msg);
+         }
+
+         ClientConsumer consumer = session.createConsumer(ADDRESS);
+         session.start();
+
+         long start = System.currentTimeMillis();
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+         {
+            ClientMessage msg = consumer.receive(5000);
+            assertNotNull(msg);
+            msg.individualAcknowledge();
+         }
+         consumer.close();
+         long elapsed = System.currentTimeMillis() - start;
+
+         System.out.println("individualAcknowledge(): " + NUMBER_OF_MESSAGES + " messages in " + elapsed + " ms (" +
+                               NUMBER_OF_MESSAGES * 1000L / Math.max(1, elapsed) + " msg/s)");
+
+         session.close();
+      }
+      finally
+      {
+         stopServer();
+      }
+   }
+
+   @Test
+   public void testReceiveLatency() throws Exception
+   {
+      // blocking sends, so we measure delivery and not the backlog of a producer running ahead
+      startServer(true);
+      try
+      {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         final ClientSession producerSession = factory.createSession(false, true, true);
+         producerSession.createQueue(ADDRESS, ADDRESS, null, false);
+
+         ClientSession session = factory.createSession(false, true, true);
+         ClientConsumer consumer = session.createConsumer(ADDRESS);
+         session.start();
+
+         final ClientProducer producer = producerSession.createProducer(ADDRESS);
+
+         Thread producerThread = new Thread()
+         {
+            @Override
+            public void run()
+            {
+               try
+               {
+                  for (int i = 0; i < LATENCY_MESSAGES; i++)
+                  {
+                     ClientMessage msg = producerSession.createMessage(false);
+                     msg.putLongProperty(SEND_TIME, System.nanoTime());
+                     producer.send(msg);
+                  }
+               }
+               catch (Exception e)
+               {
+                  e.printStackTrace();
+               }
+            }
+         };
+
+         long[] latencies = new long[LATENCY_MESSAGES];
+
+         producerThread.start();
+         for (int i = 0; i < LATENCY_MESSAGES; i++)
+         {
+            ClientMessage msg = consumer.receive(5000);
+            assertNotNull(msg);
+            latencies[i] = System.nanoTime() - msg.getLongProperty(SEND_TIME);
+            msg.acknowledge();
+         }
+         producerThread.join();
+
+         Arrays.sort(latencies);
+         long total = 0;
+         for (long latency : latencies)
+         {
+            total += latency;
+         }
+
+         System.out.println("receive() latency: avg=" + total / LATENCY_MESSAGES / 1000 + " us" +
+                               ", p50=" + latencies[LATENCY_MESSAGES / 2] / 1000 + " us" +
+                               ", p99=" + latencies[LATENCY_MESSAGES * 99 / 100] / 1000 + " us" +
+                               ", max=" + latencies[LATENCY_MESSAGES - 1] / 1000 + " us");
+
+         session.close();
+         producerSession.close();
+      }
+      finally
+      {
+         stopServer();
+      }
+   }
+
+   private void startServer(final boolean blockOnSend) throws Exception
+   {
+      server = createServer(false, createDefaultConfig());
+      server.start();
+
+      locator = createInVMNonHALocator();
+      locator.setBlockOnNonDurableSend(blockOnSend);
+   }
+
+   private void stopServer() throws Exception
+   {
+      locator.close();
+      server.stop();
+   }
+}
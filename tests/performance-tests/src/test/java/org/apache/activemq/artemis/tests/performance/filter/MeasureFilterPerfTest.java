@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.filter;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.filter.impl.FilterableServerMessage;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.impl.ServerMessageImpl;
+import org.apache.activemq.artemis.selector.filter.BooleanExpression;
+import org.apache.activemq.artemis.selector.impl.SelectorParser;
+import org.apache.activemq.artemis.tests.util.UnitTestCase;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the compiled filters with the interpreted selector expressions they are compiled from, matching
+ * messages from one thread and from several threads sharing the filter.
+ */
+public class MeasureFilterPerfTest extends UnitTestCase
+{
+   private static final int ITERATIONS = 1000000;
+
+   private static final int THREADS = 4;
+
+   private static final String[] SELECTORS = new String[]{"color = 'red'",
+      "color IN ('red', 'green', 'blue') AND weight > 10 AND AMQPriority >= 4",
+      "(region = 'EU' OR region = 'US') AND price BETWEEN 10.5 AND 100 AND NOT (discontinued = true)",
+      "sku LIKE 'A%' AND quantity > 0"};
+
+   private ServerMessage[] messages;
+
+   private volatile int matched;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      messages = new ServerMessage[16];
+
+      for (int i = 0; i < messages.length; i++)
+      {
+         ServerMessage message = new ServerMessageImpl(i, 1000);
+         message.putStringProperty(new SimpleString("color"), new SimpleString(i % 2 == 0 ? "red" : "green"));
+         message.putIntProperty(new SimpleString("weight"), i * 2);
+         message.putStringProperty(new SimpleString("region"), new SimpleString(i % 3 == 0 ? "EU" : "APAC"));
+         message.putDoubleProperty(new SimpleString("price"), i * 10.0);
+         message.putBooleanProperty(new SimpleString("discontinued"), i % 5 == 0);
+         message.putStringProperty(new SimpleString("sku"), new SimpleString((i % 2 == 0 ? "A" : "B") + i));
+         message.putLongProperty(new SimpleString("quantity"), i);
+         message.setPriority((byte) (i % 10));
+         messages[i] = message;
+      }
+   }
+
+   @Test
+   public void testCompiledAndInterpreted() throws Exception
+   {
+      for (String selector : SELECTORS)
+      {
+         final Filter compiled = FilterImpl.createFilter(selector);
+         final BooleanExpression interpreted = SelectorParser.parse(selector);
+
+         Matcher compiledMatcher = new Matcher()
+         {
+            public boolean match(final ServerMessage message) throws Exception
+            {
+               return compiled.match(message);
+            }
+         };
+
+         Matcher interpretedMatcher = new Matcher()
+         {
+            public boolean match(final ServerMessage message) throws Exception
+            {
+               // what FilterImpl.match() used to do, with its monitor
+               synchronized (interpreted)
+               {
+                  return interpreted.matches(new FilterableServerMessage(message));
+               }
+            }
+         };
+
+         // warm up
+         run(interpretedMatcher, 1);
+         run(compiledMatcher, 1);
+
+         long interpretedTime = run(interpretedMatcher, 1);
+         long compiledTime = run(compiledMatcher, 1);
+         long interpretedThreadsTime = run(interpretedMatcher, THREADS);
+         long compiledThreadsTime = run(compiledMatcher, THREADS);
+
+         System.out.println(selector + "\n" +
+                               "   1 thread:  interpreted " + interpretedTime + " ms, compiled " + compiledTime + " ms\n" +
+                               "   " + THREADS + " threads: interpreted " + interpretedThreadsTime + " ms, compiled " +
+                               compiledThreadsTime + " ms");
+      }
+   }
+
+   /**
+    * @return the time for every thread to match {@link #ITERATIONS} messages
+    */
+   private long run(final Matcher matcher, final int threads) throws Exception
+   {
+      final CountDownLatch start = new CountDownLatch(1);
+      final CountDownLatch done = new CountDownLatch(threads);
+      final Exception[] failure = new Exception[1];
+
+      for (int t = 0; t < threads; t++)
+      {
+         Thread thread = new Thread()
+         {
+            @Override
+            public void run()
+            {
+               try
+               {
+                  start.await();
+
+                  int matches = 0;
+                  for (int i = 0; i < ITERATIONS; i++)
+                  {
+                     if (matcher.match(messages[i & (messages.length - 1)]))
+                     {
+                        matches++;
+                     }
+                  }
+
+                  // keeps the JIT from dropping the loop
+                  matched += matches;
+               }
+               catch (Exception e)
+               {
+                  failure[0] = e;
+               }
+               finally
+               {
+                  done.countDown();
+               }
+            }
+         };
+         thread.start();
+      }
+
+      long begin = System.currentTimeMillis();
+      start.countDown();
+      done.await();
+      long elapsed = System.currentTimeMillis() - begin;
+
+      if (failure[0] != null)
+      {
+         throw failure[0];
+      }
+
+      return elapsed;
+   }
+
+   private interface Matcher
+   {
+      boolean match(ServerMessage message) throws Exception;
+   }
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.paging;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.tests.util.ServiceTestBase;
+import org.junit.Test;
+
+/**
+ * Compares disk usage and throughput of paging with and without compress-page-files,
+ * using repetitive JSON payloads.
+ */
+public class MeasurePagingCompressionTest extends ServiceTestBase
+{
+   private static final int NUMBER_OF_MESSAGES = 50000;
+
+   private static final SimpleString ADDRESS = new SimpleString("test-adr");
+
+   @Test
+   public void testPagingUncompressed() throws Exception
+   {
+      measure(false);
+   }
+
+   @Test
+   public void testPagingCompressed() throws Exception
+   {
+      measure(true);
+   }
+
+   private void measure(final boolean compress) throws Exception
+   {
+      HashMap<String, AddressSettings> settings = new HashMap<String, AddressSettings>();
+      AddressSettings addressSettings = new AddressSettings();
+      addressSettings.setCompressPageFiles(compress);
+      settings.put(ADDRESS.toString(), addressSettings);
+
+      ActiveMQServer server = createServer(true, createDefaultConfig(), 100 * 1024, 200 * 1024, settings);
+      server.start();
+
+      ServerLocator locator = createInVMNonHALocator();
+      // we want to measure paging, not the round trip of every durable send
+      locator.setBlockOnDurableSend(false);
+      try
+      {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(ADDRESS, ADDRESS, null, true);
+
+         ClientProducer producer = session.createProducer(ADDRESS);
+
+         long start = System.currentTimeMillis();
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+         {
+            ClientMessage msg = session.createMessage(true);
+            msg.getBodyBuffer().writeString(createPayload(i));
+            producer.send(msg);
+         }
+         long sendTime = System.currentTimeMillis() - start;
+
+         long pageBytes = folderSize(new File(getPageDir()));
+
+         ClientConsumer consumer = session.createConsumer(ADDRESS);
+         session.start();
+
+         start = System.currentTimeMillis();
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+         {
+            ClientMessage msg = consumer.receive(5000);
+            assertNotNull(msg);
+            msg.acknowledge();
+         }
+         long receiveTime = System.currentTimeMillis() - start;
+
+         System.out.println("compress-page-files=" + compress +
+                               ", page bytes on disk=" + pageBytes +
+                               ", send=" + sendTime + " ms (" + NUMBER_OF_MESSAGES * 1000L / Math.max(1, sendTime) + " msg/s)" +
+                               ", receive=" + receiveTime + " ms (" + NUMBER_OF_MESSAGES * 1000L / Math.max(1, receiveTime) + " msg/s)");
+
+         session.close();
+      }
+      finally
+      {
+         locator.close();
+         server.stop();
+      }
+   }
+
+   private static String createPayload(final int i)
+   {
+      StringBuilder builder = new StringBuilder();
+      builder.append("{\"id\":").append(i).append(",\"items\":[");
+      for (int j = 0; j < 10; j++)
+      {
+         if (j > 0)
+         {
+            builder.append(',');
+         }
+         builder.append("{\"sku\":\"SKU-").append(j).append("\",\"description\":\"a very repetitive description\",\"quantity\":1,\"price\":10.0}");
+      }
+      builder.append("]}");
+      return builder.toString();
+   }
+
+   private static long folderSize(final File folder)
+   {
+      long size = 0;
+      File[] files = folder.listFiles();
+      if (files != null)
+      {
+         for (File file : files)
+         {
+            size += file.isDirectory() ? folderSize(file) : file.length();
+         }
+      }
+      return size;
+   }
+}
@@ -0,0 +1,230 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.postoffice;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.postoffice.Binding;
+import org.apache.activemq.artemis.core.postoffice.BindingType;
+import org.apache.activemq.artemis.core.postoffice.Bindings;
+import org.apache.activemq.artemis.core.postoffice.BindingsFactory;
+import org.apache.activemq.artemis.core.postoffice.impl.BindingsImpl;
+import org.apache.activemq.artemis.core.postoffice.impl.WildcardAddressManager;
+import org.apache.activemq.artemis.core.server.Bindable;
+import org.apache.activemq.artemis.core.server.RoutingContext;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.tests.util.UnitTestCase;
+import org.junit.Test;
+
+/**
+ * Measures binding churn and routing lookups on a large MQTT style hierarchy of addresses
+ * (<code>sensors.region.building.device</code>) with wildcard subscriptions.
+ */
+public class MeasureWildcardAddressManagerPerfTest extends UnitTestCase
+{
+   private static final int REGIONS = 10;
+
+   private static final int BUILDINGS = 100;
+
+   private static final int DEVICES = 100;
+
+   private static final int LOOKUPS = 1000000;
+
+   @Test
+   public void testChurnAndRouting() throws Exception
+   {
+      WildcardAddressManager manager = new WildcardAddressManager(new BindingsFactory()
+      {
+         public Bindings createBindings(final SimpleString address) throws Exception
+         {
+            return new BindingsImpl(address, null, null);
+         }
+      });
+
+      // wildcard subscriptions, a few of them matching every address
+      manager.addBinding(new FakeBinding("sensors.#", "all"));
+      for (int r = 0; r < REGIONS; r++)
+      {
+         manager.addBinding(new FakeBinding("sensors.region" + r + ".#", "region" + r));
+      }
+      for (int d = 0; d < DEVICES; d++)
+      {
+         manager.addBinding(new FakeBinding("sensors.*.*.device" + d, "device" + d));
+      }
+
+      long start = System.currentTimeMillis();
+
+      for (int r = 0; r < REGIONS; r++)
+      {
+         for (int b = 0; b < BUILDINGS; b++)
+         {
+            for (int d = 0; d < DEVICES; d++)
+            {
+               String address = address(r, b, d);
+               manager.addBinding(new FakeBinding(address, address));
+            }
+         }
+      }
+
+      long added = System.currentTimeMillis();
+
+      int found = 0;
+
+      for (int i = 0; i < LOOKUPS; i++)
+      {
+         SimpleString address = SimpleString.toSimpleString(address(i % REGIONS, i / REGIONS % BUILDINGS, i % DEVICES));
+         Bindings bindings = manager.getBindingsForRoutingAddress(address);
+         found += bindings.getBindings().size();
+      }
+
+      long routed = System.currentTimeMillis();
+
+      // churn a wildcard subscription over the whole hierarchy
+      for (int i = 0; i < 10; i++)
+      {
+         manager.addBinding(new FakeBinding("sensors.*.building0.#", "churn"));
+         manager.removeBinding(SimpleString.toSimpleString("churn"), null);
+      }
+
+      long churned = System.currentTimeMillis();
+
+      for (int r = 0; r < REGIONS; r++)
+      {
+         for (int b = 0; b < BUILDINGS; b++)
+         {
+            for (int d = 0; d < DEVICES; d++)
+            {
+               manager.removeBinding(SimpleString.toSimpleString(address(r, b, d)), null);
+            }
+         }
+      }
+
+      long removed = System.currentTimeMillis();
+
+      int addresses = REGIONS * BUILDINGS * DEVICES;
+
+      System.out.println(addresses + " addresses added in " + (added - start) + " ms, " +
+                            LOOKUPS + " routing lookups (" + found + " bindings) in " + (routed - added) + " ms, " +
+                            "10 wildcard add/remove in " + (churned - routed) + " ms, " +
+                            "addresses removed in " + (removed - churned) + " ms");
+   }
+
+   private static String address(final int region, final int building, final int device)
+   {
+      return "sensors.region" + region + ".building" + building + ".device" + device;
+   }
+
+   private static final class FakeBinding implements Binding
+   {
+      private static final AtomicLong SEQUENCE = new AtomicLong();
+
+      private final long id = SEQUENCE.incrementAndGet();
+
+      private final SimpleString address;
+
+      private final SimpleString name;
+
+      FakeBinding(final String address, final String name)
+      {
+         this.address = SimpleString.toSimpleString(address);
+         this.name = SimpleString.toSimpleString(name);
+      }
+
+      public void unproposed(final SimpleString groupID)
+      {
+      }
+
+      public SimpleString getAddress()
+      {
+         return address;
+      }
+
+      public Bindable getBindable()
+      {
+         return null;
+      }
+
+      public BindingType getType()
+      {
+         return BindingType.LOCAL_QUEUE;
+      }
+
+      public SimpleString getUniqueName()
+      {
+         return name;
+      }
+
+      public SimpleString getRoutingName()
+      {
+         return name;
+      }
+
+      public SimpleString getClusterName()
+      {
+         return name;
+      }
+
+      public Filter getFilter()
+      {
+         return null;
+      }
+
+      public boolean isHighAcceptPriority(final ServerMessage message)
+      {
+         return false;
+      }
+
+      public boolean isExclusive()
+      {
+         return false;
+      }
+
+      public long getID()
+      {
+         return id;
+      }
+
+      public int getDistance()
+      {
+         return 0;
+      }
+
+      public void route(final ServerMessage message, final RoutingContext context) throws Exception
+      {
+      }
+
+      public void routeWithAck(final ServerMessage message, final RoutingContext context) throws Exception
+      {
+      }
+
+      public void close() throws Exception
+      {
+      }
+
+      public String toManagementString()
+      {
+         return "FakeBinding " + name;
+      }
+
+      public boolean isConnected()
+      {
+         return true;
+      }
+   }
+}
@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.sends;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientFutureListener;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ServiceTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares durable sends blocking on each message with ClientProducer.sendAsync() waiting only for
+ * the last confirmation, with sendAsync() pipelining a response per message when there is no
+ * confirmation window, and with batches sent through ClientProducer.send(Collection).
+ */
+public class MeasureAsyncSendPerfTest extends ServiceTestBase
+{
+   private static final int NUMBER_OF_MESSAGES = 5000;
+
+   private static final int BATCH_SIZE = 100;
+
+   private static final SimpleString ADDRESS = new SimpleString("test-async-send");
+
+   private ActiveMQServer server;
+
+   private ServerLocator locator;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      server = createServer(true, createDefaultConfig());
+      server.start();
+
+      locator = createInVMNonHALocator();
+      locator.setConfirmationWindowSize(1024 * 1024);
+   }
+
+   @Override
+   @After
+   public void tearDown() throws Exception
+   {
+      locator.close();
+      server.stop();
+      super.tearDown();
+   }
+
+   @Test
+   public void testBlockingSend() throws Exception
+   {
+      ClientSessionFactory factory = createSessionFactory(locator);
+      ClientSession session = factory.createSession(false, true, true);
+      session.createQueue(ADDRESS, ADDRESS, null, true);
+      ClientProducer producer = session.createProducer(ADDRESS);
+
+      long start = System.currentTimeMillis();
+      for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+      {
+         producer.send(createMessage(session, i));
+      }
+      long elapsed = System.currentTimeMillis() - start;
+
+      System.out.println("send(): " + NUMBER_OF_MESSAGES + " durable messages in " + elapsed + " ms (" +
+                            NUMBER_OF_MESSAGES * 1000L / Math.max(1, elapsed) + " msg/s)");
+
+      session.close();
+   }
+
+   @Test
+   public void testAsyncSend() throws Exception
+   {
+      ClientSessionFactory factory = createSessionFactory(locator);
+      ClientSession session = factory.createSession(false, true, true);
+      session.createQueue(ADDRESS, ADDRESS, null, true);
+      ClientProducer producer = session.createProducer(ADDRESS);
+
+      final CountDownLatch latch = new CountDownLatch(NUMBER_OF_MESSAGES);
+      ClientFutureListener<Message> listener = new ClientFutureListener<Message>()
+      {
+         public void onSuccess(Message result)
+         {
+            latch.countDown();
+         }
+
+         public void onFailure(Throwable cause)
+         {
+            cause.printStackTrace();
+         }
+      };
+
+      long start = System.currentTimeMillis();
+      for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+      {
+         producer.sendAsync(createMessage(session, i)).addListener(listener);
+      }
+      assertTrue(latch.await(60, TimeUnit.SECONDS));
+      long elapsed = System.currentTimeMillis() - start;
+
+      System.out.println("sendAsync(): " + NUMBER_OF_MESSAGES + " durable messages in " + elapsed + " ms (" +
+                            NUMBER_OF_MESSAGES * 1000L / Math.max(1, elapsed) + " msg/s)");
+
+      session.close();
+   }
+
+   @Test
+   public void testAsyncSendWithoutConfirmationWindow() throws Exception
+   {
+      locator.close();
+      locator = createInVMNonHALocator();
+
+      ClientSessionFactory factory = createSessionFactory(locator);
+      ClientSession session = factory.createSession(false, true, true);
+      session.createQueue(ADDRESS, ADDRESS, null, true);
+      ClientProducer producer = session.createProducer(ADDRESS);
+
+      final CountDownLatch latch = new CountDownLatch(NUMBER_OF_MESSAGES);
+      ClientFutureListener<Message> listener = new ClientFutureListener<Message>()
+      {
+         public void onSuccess(Message result)
+         {
+            latch.countDown();
+         }
+
+         public void onFailure(Throwable cause)
+         {
+            cause.printStackTrace();
+         }
+      };
+
+      long start = System.currentTimeMillis();
+      for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+      {
+         producer.sendAsync(createMessage(session, i)).addListener(listener);
+      }
+      assertTrue(latch.await(60, TimeUnit.SECONDS));
+      long elapsed = System.currentTimeMillis() - start;
+
+      System.out.println("sendAsync() without confirmation window: " + NUMBER_OF_MESSAGES + " durable messages in " +
+                            elapsed + " ms (" + NUMBER_OF_MESSAGES * 1000L / Math.max(1, elapsed) + " msg/s)");
+
+      session.close();
+   }
+
+   @Test
+   public void testBatchSend() throws Exception
+   {
+      ClientSessionFactory factory = createSessionFactory(locator);
+      ClientSession session = factory.createSession(false, true, true);
+      session.createQueue(ADDRESS, ADDRESS, null, true);
+      ClientProducer producer = session.createProducer(ADDRESS);
+
+      long start = System.currentTimeMillis();
+      List<ClientMessage> batch = new ArrayList<ClientMessage>(BATCH_SIZE);
+      for (int i = 0; i < NUMBER_OF_MESSAGES; i++)
+      {
+         batch.add(createMessage(session, i));
+         if (batch.size() == BATCH_SIZE)
+         {
+            producer.send(batch);
+            batch.clear();
+         }
+      }
+      producer.send(batch);
+      long elapsed = System.currentTimeMillis() - start;
+
+      System.out.println("send(Collection) in batches of " + BATCH_SIZE + ": " + NUMBER_OF_MESSAGES +
+                            " durable messages in " + elapsed + " ms (" +
+                            NUMBER_OF_MESSAGES * 1000L / Math.max(1, elapsed) + " msg/s)");
+
+      session.close();
+   }
+
+   private ClientMessage createMessage(final ClientSession session, final int i)
+   {
+      ClientMessage msg = session.createMessage(true);
+      msg.getBodyBuffer().writeInt(i);
+      return msg;
+   }
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.sends;
+
+import javax.jms.Connection;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.jms.ActiveMQJMSClient;
+import org.apache.activemq.artemis.api.jms.JMSFactoryType;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.apache.activemq.artemis.tests.util.ServiceTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Measures create connection / send / close cycles per second over TCP, the way short lived JMS clients use a
+ * connection factory, with and without the connection pool.
+ */
+public class MeasureConnectionPoolPerfTest extends ServiceTestBase
+{
+   private static final int CYCLES = 2000;
+
+   private static final String QUEUE = "test-connection-pool";
+
+   private ActiveMQServer server;
+
+   private ActiveMQConnectionFactory cf;
+
+   @Override
+   @Before
+   public void setUp() throws Exception
+   {
+      super.setUp();
+
+      server = createServer(false, true);
+      server.start();
+      SimpleString address = new SimpleString("jms.queue." + QUEUE);
+      server.createQueue(address, address, null, false, false);
+
+      cf = ActiveMQJMSClient.createConnectionFactoryWithoutHA(JMSFactoryType.CF,
+                                                              new TransportConfiguration(NETTY_CONNECTOR_FACTORY));
+   }
+
+   @Override
+   @After
+   public void tearDown() throws Exception
+   {
+      cf.close();
+      server.stop();
+      super.tearDown();
+   }
+
+   @Test
+   public void testWithoutPool() throws Exception
+   {
+      run("without pool");
+   }
+
+   @Test
+   public void testWithPool() throws Exception
+   {
+      cf.setConnectionPoolSize(10);
+
+      run("with pool");
+   }
+
+   private void run(final String description) throws Exception
+   {
+      Queue queue = ActiveMQJMSClient.createQueue(QUEUE);
+
+      long start = System.currentTimeMillis();
+      for (int i = 0; i < CYCLES; i++)
+      {
+         Connection connection = cf.createConnection();
+         Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+         MessageProducer producer = session.createProducer(queue);
+         producer.send(session.createTextMessage("message " + i));
+         connection.close();
+      }
+      long elapsed = System.currentTimeMillis() - start;
+
+      System.out.println(description + ": " + CYCLES + " create/send/close cycles in " + elapsed + " ms (" +
+                            CYCLES * 1000L / Math.max(1, elapsed) + " cycles/s)");
+   }
+}
@@ -0,0 +1,244 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.client.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.api.core.ActiveMQAddressFullException;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.client.impl.ClientProducerCreditsImpl;
+import org.apache.activemq.artemis.core.client.impl.ClientSessionInternal;
+import org.apache.activemq.artemis.tests.util.UnitTestCase;
+import org.junit.Test;
+
+public class ClientProducerCreditsImplTest extends UnitTestCase
+{
+   private static final int WINDOW_SIZE = 1000;
+
+   private final SimpleString address = new SimpleString("address");
+
+   private final AtomicInteger requested = new AtomicInteger(0);
+
+   private ClientProducerCreditsImpl credits;
+
+   @Test
+   public void testCreditsRequestedAheadOfNeed() throws Exception
+   {
+      credits = new ClientProducerCreditsImpl(createSession(Grant.NOW), address, WINDOW_SIZE);
+
+      int acquired = 0;
+
+      for (int i = 0; i < 100; i++)
+      {
+         credits.acquireCredits(100);
+         acquired += 100;
+
+         // the window is refilled before it runs out, and never beyond its size
+         assertTrue("balance=" + credits.getBalance(), credits.getBalance() >= WINDOW_SIZE / 2 - 100);
+         assertTrue("balance=" + credits.getBalance(), credits.getBalance() <= WINDOW_SIZE);
+         assertEquals(requested.get() - acquired, credits.getBalance());
+      }
+
+      assertFalse(credits.isBlocked());
+   }
+
+   @Test
+   public void testConcurrentProducers() throws Exception
+   {
+      final ExecutorService server = Executors.newSingleThreadExecutor();
+      try
+      {
+         credits = new ClientProducerCreditsImpl(createSession(server), address, WINDOW_SIZE);
+
+         final int numThreads = 10;
+         final int numAcquires = 5000;
+         final AtomicInteger errors = new AtomicInteger(0);
+
+         List<Thread> threads = new ArrayList<Thread>();
+         for (int i = 0; i < numThreads; i++)
+         {
+            Thread thread = new Thread()
+            {
+               @Override
+               public void run()
+               {
+                  try
+                  {
+                     for (int j = 0; j < numAcquires; j++)
+                     {
+                        credits.acquireCredits(10);
+                     }
+                  }
+                  catch (Exception e)
+                  {
+                     e.printStackTrace();
+                     errors.incrementAndGet();
+                  }
+               }
+            };
+            threads.add(thread);
+            thread.start();
+         }
+
+         for (Thread thread : threads)
+         {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(thread.isAlive());
+         }
+
+         server.shutdown();
+         assertTrue(server.awaitTermination(10, TimeUnit.SECONDS));
+
+         assertEquals(0, errors.get());
+         assertEquals(requested.get() - numThreads * numAcquires * 10, credits.getBalance());
+         assertTrue("balance=" + credits.getBalance(), credits.getBalance() <= WINDOW_SIZE);
+      }
+      finally
+      {
+         server.shutdownNow();
+      }
+   }
+
+   @Test
+   public void testCloseUnblocksProducer() throws Exception
+   {
+      credits = new ClientProducerCreditsImpl(createSession(Grant.NEVER), address, WINDOW_SIZE);
+
+      final AtomicInteger acquired = new AtomicInteger(0);
+
+      Thread producer = new Thread()
+      {
+         @Override
+         public void run()
+         {
+            try
+            {
+               credits.acquireCredits(100);
+               acquired.incrementAndGet();
+            }
+            catch (Exception e)
+            {
+               e.printStackTrace();
+            }
+         }
+      };
+      producer.start();
+
+      long timeout = System.currentTimeMillis() + 5000;
+      while (!credits.isBlocked() && System.currentTimeMillis() < timeout)
+      {
+         Thread.sleep(10);
+      }
+      assertTrue(credits.isBlocked());
+      assertEquals(WINDOW_SIZE, requested.get());
+
+      credits.close();
+
+      producer.join(5000);
+      assertFalse(producer.isAlive());
+      assertEquals(1, acquired.get());
+   }
+
+   @Test
+   public void testFailCredits() throws Exception
+   {
+      credits = new ClientProducerCreditsImpl(createSession(Grant.FAIL), address, WINDOW_SIZE);
+
+      try
+      {
+         credits.acquireCredits(100);
+         fail("the server responded with FAIL");
+      }
+      catch (ActiveMQAddressFullException expected)
+      {
+      }
+
+      // the credits are dropped and requested again on the next send
+      assertEquals(0, credits.getBalance());
+   }
+
+   private enum Grant
+   {
+      NOW, NEVER, FAIL
+   }
+
+   private ClientSessionInternal createSession(final Grant grant)
+   {
+      return createSession(grant, null);
+   }
+
+   private ClientSessionInternal createSession(final ExecutorService server)
+   {
+      return createSession(Grant.NOW, server);
+   }
+
+   /**
+    * Only sendProducerCreditsMessage is implemented, answering the request like the server would.
+    */
+   private ClientSessionInternal createSession(final Grant grant, final ExecutorService server)
+   {
+      InvocationHandler handler = new InvocationHandler()
+      {
+         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+         {
+            if (!method.getName().equals("sendProducerCreditsMessage"))
+            {
+               throw new UnsupportedOperationException(method.getName());
+            }
+
+            final int amount = (Integer) args[0];
+
+            requested.addAndGet(amount);
+
+            if (grant == Grant.FAIL)
+            {
+               credits.receiveFailCredits(amount);
+            }
+            else if (grant == Grant.NOW)
+            {
+               if (server == null)
+               {
+                  credits.receiveCredits(amount);
+               }
+               else
+               {
+                  server.execute(new Runnable()
+                  {
+                     public void run()
+                     {
+                        credits.receiveCredits(amount);
+                     }
+                  });
+               }
+            }
+            return null;
+         }
+      };
+
+      return (ClientSessionInternal) Proxy.newProxyInstance(ClientSessionInternal.class.getClassLoader(),
+                                                            new Class[]{ClientSessionInternal.class},
+                                                            handler);
+   }
+}
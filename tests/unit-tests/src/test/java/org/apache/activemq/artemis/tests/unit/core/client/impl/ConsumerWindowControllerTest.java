@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.client.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.core.client.impl.ConsumerWindowController;
+import org.apache.activemq.artemis.tests.util.UnitTestCase;
+import org.junit.Test;
+
+public class ConsumerWindowControllerTest extends UnitTestCase
+{
+   private static final int WINDOW_SIZE = 1024 * 1024;
+
+   private static final int MESSAGE_SIZE = 1024;
+
+   private long now = TimeUnit.SECONDS.toNanos(1);
+
+   @Test
+   public void testFirstUpdateKeepsWindow() throws Exception
+   {
+      ConsumerWindowController controller = new ConsumerWindowController(WINDOW_SIZE);
+
+      controller.consumerStarved();
+
+      assertEquals(WINDOW_SIZE, update(controller, WINDOW_SIZE / 2, 0, TimeUnit.MILLISECONDS.toNanos(1)));
+   }
+
+   @Test
+   public void testFastConsumerGrowsWindow() throws Exception
+   {
+      ConsumerWindowController controller = new ConsumerWindowController(WINDOW_SIZE);
+
+      int window = controller.getWindowSize();
+
+      for (int i = 0; i < 100; i++)
+      {
+         // half the window consumed every millisecond, and the buffer ran empty each time
+         controller.consumerStarved();
+
+         int next = update(controller, window / 2, 0, TimeUnit.MILLISECONDS.toNanos(1));
+
+         assertTrue(next >= window);
+
+         window = next;
+      }
+
+      assertEquals(WINDOW_SIZE * 8, window);
+   }
+
+   @Test
+   public void testSlowConsumerShrinksWindow() throws Exception
+   {
+      ConsumerWindowController controller = new ConsumerWindowController(WINDOW_SIZE);
+
+      int window = controller.getWindowSize();
+
+      for (int i = 0; i < 100; i++)
+      {
+         // half the window consumed every 10 seconds, with the other half still buffered
+         int next = update(controller, window / 2, window / 2 / MESSAGE_SIZE, TimeUnit.SECONDS.toNanos(10));
+
+         assertTrue(next <= window);
+
+         window = next;
+      }
+
+      assertEquals(WINDOW_SIZE / 8, window);
+   }
+
+   @Test
+   public void testProducerBoundConsumerKeepsWindow() throws Exception
+   {
+      ConsumerWindowController controller = new ConsumerWindowController(WINDOW_SIZE);
+
+      // messages arrive slowly and are consumed as soon as they arrive, nothing to gain from a larger window
+      for (int i = 0; i < 100; i++)
+      {
+         controller.consumerStarved();
+
+         update(controller, WINDOW_SIZE / 2, 0, TimeUnit.SECONDS.toNanos(10));
+      }
+
+      assertEquals(WINDOW_SIZE, controller.getWindowSize());
+   }
+
+   @Test
+   public void testReset() throws Exception
+   {
+      ConsumerWindowController controller = new ConsumerWindowController(WINDOW_SIZE);
+
+      for (int i = 0; i < 2; i++)
+      {
+         controller.consumerStarved();
+
+         update(controller, WINDOW_SIZE / 2, 0, TimeUnit.MILLISECONDS.toNanos(1));
+      }
+
+      assertTrue(controller.getWindowSize() > WINDOW_SIZE);
+
+      controller.reset(WINDOW_SIZE / 2);
+
+      assertEquals(WINDOW_SIZE / 2, controller.getWindowSize());
+   }
+
+   private int update(final ConsumerWindowController controller,
+                      final int consumedBytes,
+                      final int bufferedMessages,
+                      final long elapsed)
+   {
+      now += elapsed;
+
+      return controller.update(consumedBytes, consumedBytes / MESSAGE_SIZE, bufferedMessages, now);
+   }
+}
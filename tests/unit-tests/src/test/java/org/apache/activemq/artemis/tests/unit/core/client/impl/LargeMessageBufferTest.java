@@ -33,6 +33,7 @@ import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientFuture;
 import org.apache.activemq.artemis.api.core.client.ClientMessage;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.api.core.client.MessageHandler;
@@ -811,6 +812,11 @@ public class LargeMessageBufferTest extends UnitTestCase
          return null;
       }
 
+      public ClientFuture<ClientMessage> receiveAsync() throws ActiveMQException
+      {
+         return null;
+      }
+
       public FakeConsumerInternal setMessageHandler(final MessageHandler handler) throws ActiveMQException
       {
          return this;
@@ -820,6 +826,11 @@ public class LargeMessageBufferTest extends UnitTestCase
       {
       }
 
+      public ClientFuture<Void> acknowledgeAsync(final ClientMessage message) throws ActiveMQException
+      {
+         return null;
+      }
+
       @Override
       public void individualAcknowledge(ClientMessage message) throws ActiveMQException
       {
@@ -857,6 +868,11 @@ public class LargeMessageBufferTest extends UnitTestCase
          return 0;
       }
 
+      public int getEffectiveWindowSize()
+      {
+         return 0;
+      }
+
       public SimpleString getFilterString()
       {
 
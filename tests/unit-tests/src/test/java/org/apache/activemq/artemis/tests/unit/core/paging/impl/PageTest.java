@@ -33,6 +33,7 @@ import org.apache.activemq.artemis.core.paging.impl.PagedMessageImpl;
 import org.apache.activemq.artemis.core.persistence.impl.nullpm.NullStorageManager;
 import org.apache.activemq.artemis.core.server.ServerMessage;
 import org.apache.activemq.artemis.core.server.impl.ServerMessageImpl;
+import org.apache.activemq.artemis.utils.DataConstants;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -77,6 +78,144 @@ public class PageTest extends UnitTestCase
       testDamagedPage(new FakeSequentialFileFactory(1, false), 100);
    }
 
+   @Test
+   public void testCompressedPageWithNIO() throws Exception
+   {
+      recreateDirectory(getTestDir());
+      testCompressedPage(new NIOSequentialFileFactory(getTestDir()), 1000);
+   }
+
+   @Test
+   public void testCompressedPageFake() throws Exception
+   {
+      testCompressedPage(new FakeSequentialFileFactory(1, false), 100);
+   }
+
+   /**
+    * Validate compressed and regular records can live on the same page
+    */
+   protected void testCompressedPage(final SequentialFileFactory factory, final int numberOfElements) throws Exception
+   {
+      SequentialFile file = factory.createSequentialFile("00010.page", 1);
+
+      Page impl = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+
+      impl.open();
+
+      SimpleString simpleDestination = new SimpleString("Test");
+
+      ArrayList<ActiveMQBuffer> buffers = addPageElements(simpleDestination, impl, numberOfElements, 1024);
+
+      long uncompressedSize = file.position();
+
+      impl.setCompress(true);
+
+      buffers.addAll(addPageElements(simpleDestination, impl, numberOfElements, 1024));
+
+      long compressedSize = file.position() - uncompressedSize;
+
+      Assert.assertTrue("compressed records should be smaller, compressed=" + compressedSize + ", uncompressed=" + uncompressedSize,
+                        compressedSize < uncompressedSize);
+
+      impl.setCompress(false);
+
+      buffers.addAll(addPageElements(simpleDestination, impl, 1, 1024));
+
+      impl.sync();
+      impl.close();
+
+      file = factory.createSequentialFile("00010.page", 1);
+      file.open();
+      impl = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+
+      List<PagedMessage> msgs = impl.read(new NullStorageManager());
+
+      Assert.assertEquals(numberOfElements * 2 + 1, msgs.size());
+
+      for (int i = 0; i < msgs.size(); i++)
+      {
+         Assert.assertEquals(simpleDestination, msgs.get(i).getMessage().getAddress());
+
+         UnitTestCase.assertEqualsByteArrays(buffers.get(i).toByteBuffer().array(), msgs.get(i)
+            .getMessage()
+            .getBodyBuffer()
+            .toByteBuffer()
+            .array());
+      }
+
+      impl.delete(null);
+   }
+
+   @Test
+   public void testCompressedPageCorruptSizeWithNIO() throws Exception
+   {
+      recreateDirectory(getTestDir());
+      testCompressedPageCorruptSize(new NIOSequentialFileFactory(getTestDir()), Integer.MAX_VALUE);
+   }
+
+   @Test
+   public void testCompressedPageNegativeSizeFake() throws Exception
+   {
+      testCompressedPageCorruptSize(new FakeSequentialFileFactory(1, false), -1);
+   }
+
+   /**
+    * A compressed record announcing an impossible uncompressed size is treated as a damaged record
+    */
+   protected void testCompressedPageCorruptSize(final SequentialFileFactory factory, final int uncompressedSize) throws Exception
+   {
+      SequentialFile file = factory.createSequentialFile("00010.page", 1);
+
+      Page impl = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+
+      impl.open();
+
+      impl.setCompress(true);
+
+      SimpleString simpleDestination = new SimpleString("Test");
+
+      ArrayList<ActiveMQBuffer> buffers = addPageElements(simpleDestination, impl, 10, 1024);
+
+      impl.sync();
+
+      long position = file.position();
+
+      // the damaged record, and the ones after it are ignored
+      addPageElements(simpleDestination, impl, 10, 1024);
+
+      // skip the start byte and the record size
+      file.position(position + DataConstants.SIZE_BYTE + DataConstants.SIZE_INT);
+
+      ByteBuffer buffer = ByteBuffer.allocate(DataConstants.SIZE_INT);
+      buffer.putInt(uncompressedSize);
+      buffer.rewind();
+
+      file.writeDirect(buffer, true);
+
+      impl.close();
+
+      file = factory.createSequentialFile("00010.page", 1);
+      file.open();
+      impl = new Page(new SimpleString("something"), new NullStorageManager(), factory, file, 10);
+
+      List<PagedMessage> msgs = impl.read(new NullStorageManager());
+
+      Assert.assertEquals(10, msgs.size());
+
+      for (int i = 0; i < msgs.size(); i++)
+      {
+         UnitTestCase.assertEqualsByteArrays(buffers.get(i).toByteBuffer().array(), msgs.get(i)
+            .getMessage()
+            .getBodyBuffer()
+            .toByteBuffer()
+            .array());
+      }
+
+      impl.delete(null);
+
+      Assert.assertEquals(1, factory.listFiles("invalidPage").size());
+   }
+
    /**
     * Validate if everything we add is recovered
     */
@@ -211,6 +350,14 @@ public class PageTest extends UnitTestCase
    protected ArrayList<ActiveMQBuffer> addPageElements(final SimpleString simpleDestination,
                                                       final Page page,
                                                       final int numberOfElements) throws Exception
+   {
+      return addPageElements(simpleDestination, page, numberOfElements, 10);
+   }
+
+   protected ArrayList<ActiveMQBuffer> addPageElements(final SimpleString simpleDestination,
+                                                      final Page page,
+                                                      final int numberOfElements,
+                                                      final int bodySize) throws Exception
    {
       ArrayList<ActiveMQBuffer> buffers = new ArrayList<ActiveMQBuffer>();
 
@@ -220,7 +367,7 @@ public class PageTest extends UnitTestCase
       {
          ServerMessage msg = new ServerMessageImpl(i, 100);
 
-         for (int j = 0; j < 10; j++)
+         for (int j = 0; j < bodySize; j++)
          {
             msg.getBodyBuffer().writeByte((byte) 'b');
          }
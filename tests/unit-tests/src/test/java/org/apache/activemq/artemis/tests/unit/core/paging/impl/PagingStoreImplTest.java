@@ -127,6 +127,124 @@ public class PagingStoreImplTest extends UnitTestCase
 
    }
 
+   @Test
+   public void testSparePage() throws Exception
+   {
+      SequentialFileFactory factory = new FakeSequentialFileFactory();
+
+      AddressSettings addressSettings = new AddressSettings();
+      addressSettings.setAddressFullMessagePolicy(AddressFullMessagePolicy.PAGE);
+
+      PagingStoreImpl storeImpl =
+         new PagingStoreImpl(PagingStoreImplTest.destinationTestName, null, 100, createMockManager(),
+                             createStorageManagerMock(), factory, new FakeStoreFactory(factory),
+                             PagingStoreImplTest.destinationTestName, addressSettings,
+                             getExecutorFactory().getExecutor(), true);
+
+      storeImpl.start();
+
+      storeImpl.startPaging();
+      storeImpl.flushExecutors();
+
+      // the current page and the spare page
+      Assert.assertEquals(2, factory.listFiles("page").size());
+      Assert.assertEquals(1, storeImpl.getNumberOfPages());
+
+      storeImpl.forceAnotherPage();
+      storeImpl.flushExecutors();
+
+      Assert.assertEquals(2, storeImpl.getCurrentWritingPage());
+      Assert.assertEquals(3, factory.listFiles("page").size());
+      Assert.assertEquals(2, storeImpl.getNumberOfPages());
+
+      ServerMessage msg = createMessage(1, storeImpl, PagingStoreImplTest.destinationTestName, createRandomBuffer(1, 10));
+      final RoutingContextImpl ctx = new RoutingContextImpl(null);
+      Assert.assertTrue(storeImpl.page(msg, ctx.getTransaction(), ctx.getContextListing(storeImpl.getStoreName()), lock));
+      Assert.assertTrue(storeImpl.getProducerStallTime() >= 0);
+
+      storeImpl.stop();
+
+      // the unused spare page is removed
+      Assert.assertEquals(2, factory.listFiles("page").size());
+   }
+
+   @Test
+   public void testSparePageLeftBehindIsDeletedOnStart() throws Exception
+   {
+      SequentialFileFactory factory = new FakeSequentialFileFactory();
+
+      AddressSettings addressSettings = new AddressSettings();
+      addressSettings.setAddressFullMessagePolicy(AddressFullMessagePolicy.PAGE);
+
+      PagingStoreImpl storeImpl =
+         new PagingStoreImpl(PagingStoreImplTest.destinationTestName, null, 100, createMockManager(),
+                             createStorageManagerMock(), factory, new FakeStoreFactory(factory),
+                             PagingStoreImplTest.destinationTestName, addressSettings,
+                             getExecutorFactory().getExecutor(), true);
+
+      storeImpl.start();
+
+      storeImpl.startPaging();
+
+      ServerMessage msg = createMessage(1, storeImpl, PagingStoreImplTest.destinationTestName, createRandomBuffer(1, 10));
+      final RoutingContextImpl ctx = new RoutingContextImpl(null);
+      Assert.assertTrue(storeImpl.page(msg, ctx.getTransaction(), ctx.getContextListing(storeImpl.getStoreName()), lock));
+
+      storeImpl.flushExecutors();
+
+      // the store is not stopped, as if the server crashed with the spare page created
+      Assert.assertEquals(2, factory.listFiles("page").size());
+
+      PagingStoreImpl restartedStore =
+         new PagingStoreImpl(PagingStoreImplTest.destinationTestName, null, 100, createMockManager(),
+                             createStorageManagerMock(), factory, new FakeStoreFactory(factory),
+                             PagingStoreImplTest.destinationTestName, addressSettings,
+                             getExecutorFactory().getExecutor(), true);
+
+      restartedStore.start();
+
+      Assert.assertEquals(1, factory.listFiles("page").size());
+      Assert.assertEquals(1, restartedStore.getNumberOfPages());
+      Assert.assertEquals(1, restartedStore.getCurrentWritingPage());
+      Assert.assertTrue(restartedStore.isPaging());
+
+      restartedStore.stop();
+   }
+
+   @Test
+   public void testSparePageOnlyWhilePaging() throws Exception
+   {
+      SequentialFileFactory factory = new FakeSequentialFileFactory();
+
+      AddressSettings addressSettings = new AddressSettings();
+      addressSettings.setAddressFullMessagePolicy(AddressFullMessagePolicy.PAGE);
+
+      PagingStoreImpl storeImpl =
+         new PagingStoreImpl(PagingStoreImplTest.destinationTestName, null, 100, createMockManager(),
+                             createStorageManagerMock(), factory, new FakeStoreFactory(factory),
+                             PagingStoreImplTest.destinationTestName, addressSettings,
+                             getExecutorFactory().getExecutor(), true);
+
+      storeImpl.start();
+
+      storeImpl.startPaging();
+      storeImpl.flushExecutors();
+
+      Assert.assertEquals(2, factory.listFiles("page").size());
+
+      storeImpl.stopPaging();
+
+      // the spare page is gone with paging, and a rollover doesn't bring it back
+      Assert.assertEquals(1, factory.listFiles("page").size());
+
+      storeImpl.forceAnotherPage();
+      storeImpl.flushExecutors();
+
+      Assert.assertEquals(2, factory.listFiles("page").size());
+
+      storeImpl.stop();
+   }
+
    @Test
    public void testPageWithNIO() throws Exception
    {
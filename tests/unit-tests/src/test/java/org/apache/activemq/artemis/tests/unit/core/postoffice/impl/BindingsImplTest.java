@@ -21,6 +21,7 @@ import org.apache.activemq.artemis.tests.util.UnitTestCase;
 import org.apache.activemq.artemis.core.server.impl.RefsOperation;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -29,14 +30,17 @@ import javax.transaction.xa.Xid;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
 import org.apache.activemq.artemis.core.postoffice.Binding;
 import org.apache.activemq.artemis.core.postoffice.BindingType;
 import org.apache.activemq.artemis.core.postoffice.Bindings;
 import org.apache.activemq.artemis.core.postoffice.impl.BindingsImpl;
+import org.apache.activemq.artemis.core.postoffice.impl.LocalQueueBinding;
 import org.apache.activemq.artemis.core.server.Bindable;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.RoutingContext;
 import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 import org.apache.activemq.artemis.core.server.impl.RoutingContextImpl;
 import org.apache.activemq.artemis.core.server.impl.ServerMessageImpl;
 import org.apache.activemq.artemis.core.transaction.Transaction;
@@ -74,6 +78,110 @@ public class BindingsImplTest extends UnitTestCase
       }
    }
 
+   @Test
+   public void testRouteWithIndexedFilters() throws Exception
+   {
+      final Bindings bind = new BindingsImpl(null, null, null);
+
+      String[] regions = new String[]{"EU", "US", "APAC"};
+
+      List<FakeBinding> bindings = new ArrayList<FakeBinding>();
+
+      for (int i = 0; i < 300; i++)
+      {
+         Filter filter = FilterImpl.createFilter("region = '" + regions[i % 3] + "' AND type = '" + (i % 2 == 0 ? "X" : "Y") + "'");
+         bindings.add(new FakeBinding(new SimpleString("sub" + i), filter));
+      }
+
+      bindings.add(new FakeBinding(new SimpleString("in"), FilterImpl.createFilter("region IN ('EU', 'US')")));
+      bindings.add(new FakeBinding(new SimpleString("range"), FilterImpl.createFilter("weight > 10")));
+      bindings.add(new FakeBinding(new SimpleString("all"), null));
+
+      for (FakeBinding binding : bindings)
+      {
+         bind.addBinding(binding);
+      }
+
+      ServerMessage message = new ServerMessageImpl(1, 100);
+      message.putStringProperty(new SimpleString("region"), new SimpleString("EU"));
+      message.putStringProperty(new SimpleString("type"), new SimpleString("X"));
+      message.putIntProperty(new SimpleString("weight"), 20);
+
+      bind.route(message, new RoutingContextImpl(new FakeTransaction()));
+
+      assertRoutedToMatching(bindings, message);
+
+      // the index follows the bindings
+      FakeBinding added = new FakeBinding(new SimpleString("added"), FilterImpl.createFilter("region = 'EU'"));
+      bindings.add(added);
+      bind.addBinding(added);
+      bind.removeBinding(bindings.remove(0));
+
+      for (FakeBinding binding : bindings)
+      {
+         binding.routed = 0;
+      }
+
+      bind.route(message, new RoutingContextImpl(new FakeTransaction()));
+
+      assertRoutedToMatching(bindings, message);
+      assertEquals(1, added.routed);
+   }
+
+   @Test
+   public void testRouteToLeastLoaded() throws Exception
+   {
+      final Bindings bind = new BindingsImpl(null, null, null);
+      bind.setRouteWhenNoConsumers(true);
+
+      CountingQueueBinding[] bindings = new CountingQueueBinding[3];
+
+      for (int i = 0; i < bindings.length; i++)
+      {
+         bindings[i] = new CountingQueueBinding(new FakeQueue(new SimpleString("q"), i));
+         bind.addBinding(bindings[i]);
+      }
+
+      // two slow queues with a backlog and an idle one
+      bindings[0].updateLoad(1000, 1);
+      bindings[1].updateLoad(1000, 1);
+      bindings[2].updateLoad(0, 100);
+
+      for (int i = 0; i < 300; i++)
+      {
+         bind.route(new ServerMessageImpl(i, 100), new RoutingContextImpl(new FakeTransaction()));
+      }
+
+      // round robin ignores the load
+      for (CountingQueueBinding binding : bindings)
+      {
+         assertEquals(100, binding.routed);
+         binding.routed = 0;
+      }
+
+      bind.setLoadBalancingPolicy(LoadBalancingPolicy.LEAST_LOADED);
+
+      for (int i = 0; i < 300; i++)
+      {
+         bind.route(new ServerMessageImpl(i, 100), new RoutingContextImpl(new FakeTransaction()));
+      }
+
+      assertEquals(300, bindings[0].routed + bindings[1].routed + bindings[2].routed);
+
+      // the idle queue is chosen whenever it is one of the two picked, 2 times out of 3
+      assertTrue("routed to idle queue " + bindings[2].routed, bindings[2].routed > 150);
+   }
+
+   private void assertRoutedToMatching(final List<FakeBinding> bindings, final ServerMessage message)
+   {
+      for (FakeBinding binding : bindings)
+      {
+         boolean matches = binding.filter == null || binding.filter.match(message);
+
+         assertEquals(binding.getRoutingName().toString(), matches ? 1 : 0, binding.routed);
+      }
+   }
+
    private void internalTest(final boolean route) throws Exception
    {
       final FakeBinding fake = new FakeBinding(new SimpleString("a"));
@@ -115,6 +223,22 @@ public class BindingsImplTest extends UnitTestCase
       }
    }
 
+   private static final class CountingQueueBinding extends LocalQueueBinding
+   {
+      int routed;
+
+      CountingQueueBinding(final Queue queue)
+      {
+         super(new SimpleString("address"), queue, new SimpleString("node"));
+      }
+
+      @Override
+      public void route(final ServerMessage message, final RoutingContext context) throws Exception
+      {
+         routed++;
+      }
+   }
+
    private final class FakeTransaction implements Transaction
    {
 
@@ -296,9 +420,19 @@ public class BindingsImplTest extends UnitTestCase
 
       final SimpleString name;
 
+      final Filter filter;
+
+      int routed;
+
       FakeBinding(final SimpleString name)
+      {
+         this(name, new FakeFilter());
+      }
+
+      FakeBinding(final SimpleString name, final Filter filter)
       {
          this.name = name;
+         this.filter = filter;
       }
 
       public SimpleString getAddress()
@@ -337,7 +471,7 @@ public class BindingsImplTest extends UnitTestCase
        */
       public Filter getFilter()
       {
-         return new FakeFilter();
+         return filter;
       }
 
       public long getID()
@@ -382,7 +516,7 @@ public class BindingsImplTest extends UnitTestCase
 
       public void route(final ServerMessage message, final RoutingContext context) throws Exception
       {
-
+         routed++;
       }
 
       /* (non-Javadoc)
@@ -335,6 +335,20 @@ public class FakeQueue implements Queue
       return 0;
    }
 
+   @Override
+   public long getMessagesRedistributed()
+   {
+      // no-op
+      return 0;
+   }
+
+   @Override
+   public long getRedistributionBacklog()
+   {
+      // no-op
+      return 0;
+   }
+
    @Override
    public void resetMessagesAdded()
    {
@@ -622,4 +636,10 @@ public class FakeQueue implements Queue
    {
       return 0.0f;
    }
+
+   @Override
+   public float getRedistributionRate()
+   {
+      return 0.0f;
+   }
 }
\ No newline at end of file
@@ -17,7 +17,10 @@
 package org.apache.activemq.artemis.tests.unit.core.postoffice.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.tests.util.UnitTestCase;
@@ -31,6 +34,7 @@ import org.apache.activemq.artemis.core.server.Bindable;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.RoutingContext;
 import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.cluster.LoadBalancingPolicy;
 import org.junit.Test;
 
 
@@ -78,6 +82,48 @@ public class WildcardAddressManagerUnitTest extends UnitTestCase
       assertEquals("Exception happened during the process", 0, errors);
    }
 
+   @Test
+   public void testWildcardLinks() throws Exception
+   {
+      WildcardAddressManager ad = new WildcardAddressManager(new BindingFactoryFake());
+      ad.addBinding(new BindingFake("a.b.c", "abc"));
+      ad.addBinding(new BindingFake("a.b.d", "abd"));
+      ad.addBinding(new BindingFake("x.y", "xy"));
+      ad.addBinding(new BindingFake("a.*.c", "w1"));
+      ad.addBinding(new BindingFake("a.#", "w2"));
+      ad.addBinding(new BindingFake("#", "w3"));
+      ad.addBinding(new BindingFake("*.y", "w4"));
+      ad.addBinding(new BindingFake("a.b.c.#", "w5"));
+
+      assertBindings(ad, "a.b.c", "abc", "w1", "w2", "w3", "w5");
+      assertBindings(ad, "a.b.d", "abd", "w2", "w3");
+      assertBindings(ad, "x.y", "xy", "w3", "w4");
+
+      // an address without bindings of its own
+      assertBindings(ad, "a.q.c", "w1", "w2", "w3");
+
+      ad.removeBinding(SimpleString.toSimpleString("w2"), null);
+
+      assertBindings(ad, "a.b.c", "abc", "w1", "w3", "w5");
+      assertBindings(ad, "a.b.d", "abd", "w3");
+
+      ad.addBinding(new BindingFake("a.z.c", "azc"));
+
+      assertBindings(ad, "a.z.c", "azc", "w1", "w3");
+   }
+
+   private void assertBindings(final WildcardAddressManager ad, final String address, final String... expected) throws Exception
+   {
+      Set<String> names = new HashSet<String>();
+
+      for (Binding binding : ad.getBindingsForRoutingAddress(SimpleString.toSimpleString(address)).getBindings())
+      {
+         names.add(binding.getUniqueName().toString());
+      }
+
+      assertEquals(address, new HashSet<String>(Arrays.asList(expected)), names);
+   }
+
    class BindingFactoryFake implements BindingsFactory
    {
       public Bindings createBindings(SimpleString address) throws Exception
@@ -235,6 +281,12 @@ public class WildcardAddressManagerUnitTest extends UnitTestCase
 
       }
 
+      @Override
+      public void setLoadBalancingPolicy(LoadBalancingPolicy loadBalancingPolicy)
+      {
+
+      }
+
       @Override
       public void unproposed(SimpleString groupID)
       {
@@ -1006,8 +1006,80 @@ public class QueueImplTest extends UnitTestCase
       Assert.assertEquals(20, queue.getDeliveringCount());
    }
 
+   @Test
+   public void testConsumersWithDisjointSelectors() throws Exception
+   {
+      QueueImpl queue = getTemporaryQueue();
+
+      final int numConsumers = 10;
+
+      final int numMessages = 100;
+
+      CountingConsumer[] consumers = new CountingConsumer[numConsumers];
+
+      for (int i = 0; i < numConsumers; i++)
+      {
+         consumers[i] = new CountingConsumer(FilterImpl.createFilter("region = 'R" + i + "' AND price > 0"));
+      }
+
+      for (int i = 0; i < numMessages; i++)
+      {
+         MessageReference ref = generateReference(queue, i);
+         ref.getMessage().putStringProperty("region", "R" + (i % numConsumers));
+         ref.getMessage().putIntProperty(new SimpleString("price"), i % 3);
+         queue.addTail(ref);
+      }
+
+      for (CountingConsumer consumer : consumers)
+      {
+         queue.addConsumer(consumer);
+      }
+
+      queue.deliverNow();
+
+      for (int i = 0; i < numConsumers; i++)
+      {
+         List<MessageReference> received = consumers[i].getReferences();
+
+         long lastID = -1;
+
+         for (MessageReference ref : received)
+         {
+            Assert.assertEquals(new SimpleString("R" + i), ref.getMessage().getSimpleStringProperty(new SimpleString("region")));
+            Assert.assertTrue(ref.getMessage().getIntProperty("price") > 0);
+            Assert.assertTrue("messages received out of order", ref.getMessage().getMessageID() > lastID);
+            lastID = ref.getMessage().getMessageID();
+         }
+
+         // consumers were only asked about the messages of their region
+         Assert.assertEquals(numMessages / numConsumers, consumers[i].handleCalls);
+      }
+
+      // the messages with price = 0 match no consumer and stay on the queue
+      Assert.assertEquals(numMessages, getMessageCount(queue));
+      Assert.assertEquals(numMessages - 34, queue.getDeliveringCount());
+   }
+
    // Private ------------------------------------------------------------------------------
 
+   private static final class CountingConsumer extends FakeConsumer
+   {
+      int handleCalls;
+
+      CountingConsumer(final Filter filter)
+      {
+         super(filter);
+      }
+
+      @Override
+      public synchronized HandleStatus handle(final MessageReference reference)
+      {
+         handleCalls++;
+
+         return super.handle(reference);
+      }
+   }
+
    private void testConsumerWithFilters(final boolean direct) throws Exception
    {
       QueueImpl queue = getTemporaryQueue();
@@ -183,6 +183,23 @@ public final class FakePagingManager implements PagingManager
    {
    }
 
+   @Override
+   public void addGlobalSize(final int size)
+   {
+   }
+
+   @Override
+   public long getGlobalSize()
+   {
+      return 0;
+   }
+
+   @Override
+   public long getGlobalMaxSize()
+   {
+      return -1;
+   }
+
    @Override
    public void lock()
    {